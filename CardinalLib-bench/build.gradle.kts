@@ -0,0 +1,29 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+// JMH benchmarks for CardinalLib-core. Run with:
+//   ./gradlew :CardinalLib-bench:jmh
+// Results are written to CardinalLib-bench/build/results/jmh/results.txt.
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    jmh(project(":CardinalLib-core"))
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // The gc profiler reports allocated bytes per operation (gc.alloc.rate.norm);
+    // anything above 0 on a loop-path benchmark is a regression.
+    profilers.add("gc")
+}
@@ -0,0 +1,56 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.Calibration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Calibration} lookups in both directions for a polynomial and a monotone
+ * spline fit. Both cost one table interpolation whatever the fit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CalibrationBenchmark {
+
+    public double power = 0.63;
+    public double velocity = 5.7;
+
+    private Calibration polynomial;
+    private Calibration spline;
+
+    @Setup
+    public void setup() {
+        double[] powers = {0.0, 0.05, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9, 1.0};
+        double[] velocities = {0.0, 0.0, 0.3, 1.6, 2.8, 4.0, 5.0, 5.9, 6.8, 7.5, 8.2, 8.8};
+        polynomial = Calibration.polynomial(powers, velocities, 3);
+        spline = Calibration.monotoneSpline(powers, velocities);
+    }
+
+    @Benchmark
+    public double polynomialApply() {
+        return polynomial.apply(power);
+    }
+
+    @Benchmark
+    public double polynomialInvert() {
+        return polynomial.invert(velocity);
+    }
+
+    @Benchmark
+    public double splineApply() {
+        return spline.apply(power);
+    }
+
+    @Benchmark
+    public double splineInvert() {
+        return spline.invert(velocity);
+    }
+}
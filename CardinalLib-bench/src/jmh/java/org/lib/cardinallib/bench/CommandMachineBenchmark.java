@@ -0,0 +1,71 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.commands.Command;
+import org.lib.cardinallib.commands.CommandMachine;
+import org.lib.cardinallib.commands.Trigger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one steady-state {@link CommandMachine#update()} tick with N running commands
+ * and N idle triggers. Run with the gc profiler: {@code gc.alloc.rate.norm} should be 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandMachineBenchmark {
+
+    /** Number of active commands and of registered triggers */
+    @Param({"1", "16", "64"})
+    public int size;
+
+    /** Whether the machine records loop-time profiles */
+    @Param({"false", "true"})
+    public boolean profiling;
+
+    private CommandMachine machine;
+
+    @Setup
+    public void setup() {
+        machine = new CommandMachine(size, size);
+        machine.setProfilingEnabled(profiling);
+        for (int i = 0; i < size; i++) {
+            machine.schedule(new CountingCommand());
+            machine.addTrigger(new Trigger(() -> false, new CountingCommand()));
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        machine.update();
+        return machine.getActiveCount();
+    }
+
+    /** A command that never finishes and does a trivial amount of work each tick */
+    static class CountingCommand extends Command {
+        int ticks;
+
+        @Override
+        public void init() {
+            ticks = 0;
+        }
+
+        @Override
+        public void update() {
+            ticks++;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.commands.Command;
+import org.lib.cardinallib.commands.CommandPlan;
+import org.lib.cardinallib.commands.CommandSequence;
+import org.lib.cardinallib.commands.ParallelCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ticking a nested group tree directly with ticking the same tree compiled into
+ * a {@link CommandPlan}. The tree is {@code depth} nested sequences around a parallel
+ * group of 8 leaves that never finish.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandPlanBenchmark {
+
+    /** Number of nested sequences above the parallel group */
+    @Param({"1", "8"})
+    public int depth;
+
+    private Command tree;
+    private CommandPlan plan;
+
+    @Setup
+    public void setup() {
+        tree = build(depth);
+        tree.init();
+        plan = CommandPlan.compile(build(depth));
+        plan.init();
+    }
+
+    @Benchmark
+    public boolean tree() {
+        tree.update(0.01);
+        return tree.isFinished();
+    }
+
+    @Benchmark
+    public boolean plan() {
+        plan.update(0.01);
+        return plan.isFinished();
+    }
+
+    private static Command build(int depth) {
+        ParallelCommand leaves = new ParallelCommand();
+        for (int i = 0; i < 8; i++) {
+            leaves.add(new CommandMachineBenchmark.CountingCommand());
+        }
+        Command node = leaves;
+        for (int i = 0; i < depth; i++) {
+            node = new CommandSequence().add(node);
+        }
+        return node;
+    }
+}
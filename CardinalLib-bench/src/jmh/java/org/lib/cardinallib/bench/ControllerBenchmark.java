@@ -0,0 +1,74 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.control.MotorFeedforward;
+import org.lib.cardinallib.control.PIDFController;
+import org.lib.cardinallib.math.RobotFormulas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one controller step: PIDF with a caller-supplied dt, PIDF timed by the system
+ * clock, and PIDF plus a feedforward from {@link RobotFormulas}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerBenchmark {
+
+    /** Control period in seconds */
+    private static final double DT = 0.005;
+
+    private PIDFController controller;
+    private MotorFeedforward feedforward;
+    private double measurement;
+
+    @Setup
+    public void setup() {
+        RobotFormulas formulas = new RobotFormulas() {
+            @Override public double powerToVelocity(double power) { return power; }
+            @Override public double velocityToPower(double velocity) { return velocity; }
+            @Override public double rpmToVelocity(double rpm) { return rpm; }
+            @Override public double velocityToRpm(double velocity) { return velocity; }
+            @Override public double ticksToDistance(int ticks) { return ticks; }
+            @Override public int distanceToTicks(double distance) { return (int) Math.round(distance); }
+            @Override public double powerToLinearVelocity(double power) { return power * 1.6; }
+            @Override public double linearVelocityToPower(double velocity) { return velocity / 1.6; }
+        };
+        controller = new PIDFController(6, 3, 0.4, 0);
+        controller.setDerivativeFilter(0.02);
+        controller.setSetpoint(1.0);
+        feedforward = MotorFeedforward.linear(formulas, 0.05, 0.02);
+    }
+
+    @Benchmark
+    public double calculate() {
+        return controller.calculate(nextMeasurement(), DT, 0);
+    }
+
+    @Benchmark
+    public double calculateTimed() {
+        return controller.calculate(nextMeasurement());
+    }
+
+    @Benchmark
+    public double calculateWithFeedforward() {
+        return controller.calculate(nextMeasurement(), DT, feedforward.calculate(0.8, 0.5));
+    }
+
+    /**
+     * Moves the measurement back and forth around the setpoint.
+     * 
+     * @return The next measurement
+     */
+    private double nextMeasurement() {
+        measurement = measurement > 1.2 ? 0.8 : measurement + 0.001;
+        return measurement;
+    }
+}
@@ -0,0 +1,84 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.FastMath;
+import org.lib.cardinallib.math.MathFormulas;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.TrigBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FastMath} with {@link Math}, directly and through the {@link MathFormulas}
+ * aiming functions with each {@link TrigBackend}.
+ *
+ * <p>Only speed is measured here; the documented error bounds are checked by
+ * {@code FastMathTest} in CardinalLib-core.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FastMathBenchmark {
+
+    public double angle = 0.7312;
+    public double x = 2.9;
+    public double y = -1.4;
+    public double velocity = 7.5;
+    public double distance = 3.2;
+
+    private Pose2d robot;
+    private Pose2d goal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        robot = new Pose2d(0.4, -1.1, 0.3);
+        goal = new Pose2d(3.1, 2.7, 0);
+    }
+
+    @Benchmark
+    public double javaSin() {
+        return Math.sin(angle);
+    }
+
+    @Benchmark
+    public double fastSin() {
+        return FastMath.sin(angle);
+    }
+
+    @Benchmark
+    public double javaAtan2() {
+        return Math.atan2(y, x);
+    }
+
+    @Benchmark
+    public double fastAtan2() {
+        return FastMath.atan2(y, x);
+    }
+
+    @Benchmark
+    public double angleFormulaJava() {
+        return MathFormulas.AngleFormula(robot, goal, TrigBackend.JAVA);
+    }
+
+    @Benchmark
+    public double angleFormulaFast() {
+        return MathFormulas.AngleFormula(robot, goal, TrigBackend.FAST);
+    }
+
+    @Benchmark
+    public double heightAtDistanceJava() {
+        return MathFormulas.heightAtDistance(velocity, angle, distance, TrigBackend.JAVA);
+    }
+
+    @Benchmark
+    public double heightAtDistanceFast() {
+        return MathFormulas.heightAtDistance(velocity, angle, distance, TrigBackend.FAST);
+    }
+}
@@ -0,0 +1,67 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.localization.KalmanLocalizer;
+import org.lib.cardinallib.math.Pose2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extended Kalman filter: a prediction from an odometry twist, an update from
+ * a pose measured 100 ms in the past, and both together as one loop of a robot that sees
+ * a tag every iteration. The gate is opened so every update takes the full path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KalmanLocalizerBenchmark {
+
+    /** Odometry period in seconds */
+    private static final double DT = 0.005;
+
+    public double latency = 0.1;
+
+    private KalmanLocalizer localizer;
+    private final Pose2d pose = new Pose2d(0, 0, 0);
+    private double time;
+
+    @Setup
+    public void setup() {
+        localizer = new KalmanLocalizer(0, 0, 0, 0.05, Math.toRadians(2), 256);
+        localizer.setGate(Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 256; i++) {
+            step();
+        }
+    }
+
+    @Benchmark
+    public void predict() {
+        step();
+    }
+
+    @Benchmark
+    public boolean update() {
+        return localizer.update(0.3, 0.2, 0.1, time - latency, 0.04, 0.05);
+    }
+
+    @Benchmark
+    public Pose2d predictAndUpdate() {
+        step();
+        localizer.update(0.3, 0.2, 0.1, time - latency, 0.04, 0.05);
+        return localizer.getPose(pose);
+    }
+
+    /**
+     * Predicts the next odometry twist, 1 m/s forward while turning at 1 rad/s.
+     */
+    private void step() {
+        time += DT;
+        localizer.predict(DT, 0, DT, time);
+    }
+}
@@ -0,0 +1,76 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.MathFormulas;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.ShooterTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link MathFormulas} functions used while aiming, and a {@link ShooterTable}
+ * lookup against the closed-form RPM. Inputs are read from fields so the JIT cannot fold
+ * the calls into constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MathFormulasBenchmark {
+
+    public double velocity = 7.5;
+    public double theta = Math.toRadians(40);
+    public double distance = 3.2;
+    public double ballRadius = 0.064;
+
+    private Pose2d robot;
+    private Pose2d goal;
+    private ShooterTable table;
+
+    @Setup
+    public void setup() {
+        robot = new Pose2d(0.4, -1.1, 0.3);
+        goal = new Pose2d(3.1, 2.7, 0);
+        table = new ShooterTable(ballRadius, 0.5, 4.0, 36, Math.toRadians(25), Math.toRadians(60), 36);
+    }
+
+    @Benchmark
+    public double angleFormula() {
+        return MathFormulas.AngleFormula(robot, goal);
+    }
+
+    @Benchmark
+    public double distFormula() {
+        return MathFormulas.DistFormula(robot, goal);
+    }
+
+    @Benchmark
+    public double calculateRange() {
+        return MathFormulas.calculateRange(velocity, theta);
+    }
+
+    @Benchmark
+    public double calculateInitialVelocity() {
+        return MathFormulas.calculateInitialVelocity(distance, theta);
+    }
+
+    @Benchmark
+    public double heightAtDistance() {
+        return MathFormulas.heightAtDistance(velocity, theta, distance);
+    }
+
+    @Benchmark
+    public double findRequiredRPM() {
+        return MathFormulas.findRequiredRPM(ballRadius, distance, theta);
+    }
+
+    @Benchmark
+    public double shooterTable() {
+        return table.getRPM(distance, theta);
+    }
+}
@@ -0,0 +1,71 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.MotionProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sampling a {@link MotionProfile} at a time that moves through every segment,
+ * as a control loop does, and building one from its limits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MotionProfileBenchmark {
+
+    /** Loop period the sample time advances by, in seconds */
+    private static final double DT = 0.005;
+
+    public double distance = 1.5;
+
+    private MotionProfile trapezoid;
+    private MotionProfile sCurve;
+    private double t;
+
+    @Setup
+    public void setup() {
+        trapezoid = MotionProfile.trapezoid(distance, 1.2, 2.0);
+        sCurve = MotionProfile.sCurve(distance, 1.2, 2.0, 10.0);
+    }
+
+    @Benchmark
+    public void sampleTrapezoid(Blackhole bh) {
+        double time = advance(trapezoid);
+        bh.consume(trapezoid.getPosition(time));
+        bh.consume(trapezoid.getVelocity(time));
+        bh.consume(trapezoid.getAcceleration(time));
+    }
+
+    @Benchmark
+    public void sampleSCurve(Blackhole bh) {
+        double time = advance(sCurve);
+        bh.consume(sCurve.getPosition(time));
+        bh.consume(sCurve.getVelocity(time));
+        bh.consume(sCurve.getAcceleration(time));
+    }
+
+    @Benchmark
+    public MotionProfile buildSCurve() {
+        return MotionProfile.sCurve(distance, 1.2, 2.0, 10.0);
+    }
+
+    /**
+     * Steps the sample time one loop forward, wrapping at the end of the profile.
+     * 
+     * @param profile The profile being sampled
+     * @return The new sample time
+     */
+    private double advance(MotionProfile profile) {
+        t += DT;
+        if (t > profile.getDuration()) t = 0;
+        return t;
+    }
+}
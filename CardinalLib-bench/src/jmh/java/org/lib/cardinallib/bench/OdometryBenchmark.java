@@ -0,0 +1,81 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.localization.ThreeWheelOdometry;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.RobotFormulas;
+import org.lib.cardinallib.simulation.SimulatedEncoder;
+import org.lib.cardinallib.simulation.VirtualClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one {@link ThreeWheelOdometry} update on {@link SimulatedEncoder}s while the
+ * robot drives an arc, and the lock-free reads other threads make of the result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OdometryBenchmark {
+
+    /** Encoder ticks per meter: 2000-count encoder on a 48 mm wheel */
+    private static final double TICKS_PER_METER = 2000 / (Math.PI * 0.048);
+
+    private SimulatedEncoder left;
+    private SimulatedEncoder right;
+    private SimulatedEncoder perpendicular;
+    private VirtualClock clock;
+    private ThreeWheelOdometry odometry;
+    private RobotElement robot;
+    private final Pose2d pose = new Pose2d(0, 0, 0);
+
+    @Setup
+    public void setup() {
+        RobotFormulas formulas = new RobotFormulas() {
+            @Override public double powerToVelocity(double power) { return power; }
+            @Override public double velocityToPower(double velocity) { return velocity; }
+            @Override public double rpmToVelocity(double rpm) { return rpm; }
+            @Override public double velocityToRpm(double velocity) { return velocity; }
+            @Override public double ticksToDistance(int ticks) { return ticks / TICKS_PER_METER; }
+            @Override public int distanceToTicks(double distance) { return (int) Math.round(distance * TICKS_PER_METER); }
+            @Override public double powerToLinearVelocity(double power) { return power; }
+            @Override public double linearVelocityToPower(double velocity) { return velocity; }
+        };
+        left = new SimulatedEncoder(TICKS_PER_METER);
+        right = new SimulatedEncoder(TICKS_PER_METER);
+        perpendicular = new SimulatedEncoder(TICKS_PER_METER);
+        clock = new VirtualClock();
+        odometry = new ThreeWheelOdometry(left, right, perpendicular, 0.16, -0.16, -0.08, formulas, 0, 0, 0);
+        odometry.setClock(clock);
+        odometry.update();
+        robot = new RobotElement(0, 0, 0);
+    }
+
+    @Benchmark
+    public void update() {
+        // 2 ms at 1 m/s forward while turning at 1 rad/s
+        left.move(0.002 - 0.16 * 0.002);
+        right.move(0.002 + 0.16 * 0.002);
+        perpendicular.move(-0.08 * 0.002);
+        clock.advance(2_000_000);
+        odometry.update();
+    }
+
+    @Benchmark
+    public Pose2d readPose() {
+        return odometry.getPose(pose);
+    }
+
+    @Benchmark
+    public RobotElement publish() {
+        odometry.publish(robot);
+        return robot;
+    }
+}
@@ -0,0 +1,49 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.commands.CommandMachine;
+import org.lib.cardinallib.commands.CommandSequence;
+import org.lib.cardinallib.commands.WaitCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an update tick while N sequences sit on long waits. The waits are parked in
+ * the machine's timer wheel, so the tick cost should stay flat as N grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParkedCommandBenchmark {
+
+    /** Number of sequences waiting */
+    @Param({"1", "64", "512"})
+    public int waiting;
+
+    private CommandMachine machine;
+
+    @Setup
+    public void setup() {
+        machine = new CommandMachine(waiting, 1);
+        for (int i = 0; i < waiting; i++) {
+            machine.schedule(new CommandSequence()
+                    .add(new WaitCommand(3600))
+                    .add(new WaitCommand(1)));
+        }
+        // First tick parks every sequence
+        machine.update();
+    }
+
+    @Benchmark
+    public int update() {
+        machine.update();
+        return machine.getParkedCount();
+    }
+}
@@ -0,0 +1,88 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures pose updates on the odometry path: allocating a fresh {@link Pose2d} versus
+ * updating one in place, publishing a pose into a {@link RobotElement}, and the SE(2)
+ * operations in their allocating and output-parameter forms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoseBenchmark {
+
+    public double x = 12.5;
+    public double y = -40.25;
+    public double heading = 1.2;
+
+    private Pose2d pose;
+    private Pose2d other;
+    private Pose2d out;
+    private RobotElement robot;
+
+    @Setup
+    public void setup() {
+        pose = new Pose2d(0, 0, 0);
+        other = new Pose2d(6.0, -3.5, 0.4);
+        out = new Pose2d(0, 0, 0);
+        robot = new RobotElement(0, 0, 0);
+    }
+
+    @Benchmark
+    public Pose2d newPose() {
+        return new Pose2d(x, y, heading);
+    }
+
+    @Benchmark
+    public Pose2d setPose() {
+        pose.set(x, y, heading);
+        return pose;
+    }
+
+    @Benchmark
+    public Pose2d robotElementUpdate() {
+        robot.update(x, y, heading);
+        return robot.getPose();
+    }
+
+    @Benchmark
+    public Pose2d composeNew() {
+        pose.set(x, y, heading);
+        return pose.compose(other);
+    }
+
+    @Benchmark
+    public Pose2d composeInto() {
+        pose.set(x, y, heading);
+        return pose.compose(other, out);
+    }
+
+    @Benchmark
+    public Pose2d relativeToInto() {
+        pose.set(x, y, heading);
+        return pose.relativeTo(other, out);
+    }
+
+    @Benchmark
+    public Pose2d expInto() {
+        pose.set(x, y, heading);
+        return pose.exp(0.4, 0.05, 0.02, out);
+    }
+
+    @Benchmark
+    public Pose2d logInto() {
+        pose.set(x, y, heading);
+        return pose.log(other, out);
+    }
+}
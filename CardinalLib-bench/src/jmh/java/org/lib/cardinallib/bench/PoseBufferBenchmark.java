@@ -0,0 +1,83 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.MathFormulas;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.PoseBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scanning a path stored as a {@code List<Pose2d>} with the same path stored in a
+ * {@link PoseBuffer}: distances to a target and a nearest-sample search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PoseBufferBenchmark {
+
+    /** Number of path samples */
+    @Param({"4096"})
+    public int samples;
+
+    private List<Pose2d> list;
+    private PoseBuffer buffer;
+    private Pose2d target;
+    private double[] distances;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(samples);
+        buffer = new PoseBuffer(samples);
+        for (int i = 0; i < samples; i++) {
+            double t = i * 0.01;
+            double x = 48 * Math.cos(t);
+            double y = 48 * Math.sin(2 * t);
+            list.add(new Pose2d(x, y, t));
+            buffer.add(x, y, t, t);
+        }
+        target = new Pose2d(10, 20, 0);
+        distances = new double[samples];
+    }
+
+    @Benchmark
+    public double[] listDistances() {
+        for (int i = 0; i < samples; i++) {
+            distances[i] = MathFormulas.DistFormula(list.get(i), target);
+        }
+        return distances;
+    }
+
+    @Benchmark
+    public double[] bufferDistances() {
+        return buffer.distancesTo(target, distances);
+    }
+
+    @Benchmark
+    public int listNearest() {
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < samples; i++) {
+            double distance = MathFormulas.DistFormula(list.get(i), target);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public int bufferNearest() {
+        return buffer.nearestIndex(target.x, target.y);
+    }
+}
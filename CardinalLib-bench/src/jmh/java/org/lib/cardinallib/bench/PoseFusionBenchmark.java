@@ -0,0 +1,67 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.localization.PoseFusion;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.PoseHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency-compensated fusion: recording an odometry pose into a full
+ * {@link PoseHistory}, looking up a pose 100 ms in the past, and applying a measurement
+ * captured then.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoseFusionBenchmark {
+
+    /** Odometry period in seconds */
+    private static final double DT = 0.005;
+
+    public double latency = 0.1;
+
+    private PoseFusion fusion;
+    private PoseHistory history;
+    private final Pose2d pose = new Pose2d(0, 0, 0);
+    private double time;
+
+    @Setup
+    public void setup() {
+        fusion = new PoseFusion(256);
+        history = fusion.getHistory();
+        for (int i = 0; i < 256; i++) {
+            record();
+        }
+    }
+
+    @Benchmark
+    public void addOdometry() {
+        record();
+    }
+
+    @Benchmark
+    public Pose2d lookupPast() {
+        return history.getPose(time - latency, pose);
+    }
+
+    @Benchmark
+    public boolean addMeasurement() {
+        return fusion.addMeasurement(1.0, 0.5, 0.3, time - latency, 0.3, 0.1);
+    }
+
+    /**
+     * Adds the next odometry pose on a slow arc.
+     */
+    private void record() {
+        time += DT;
+        fusion.addOdometry(Math.cos(time), Math.sin(time), time + Math.PI / 2, time);
+    }
+}
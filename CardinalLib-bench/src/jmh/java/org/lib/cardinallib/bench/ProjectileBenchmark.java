@@ -0,0 +1,57 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.ProjectileSolver;
+import org.lib.cardinallib.math.ProjectileTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares solving a drag shot with {@link ProjectileSolver} on every query with looking
+ * it up in a {@link ProjectileTable} built once, and measures building the table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProjectileBenchmark {
+
+    public double theta = Math.toRadians(50);
+    public double distance = 2.7;
+    public double height = 0.8;
+
+    private ProjectileSolver solver;
+    private ProjectileTable table;
+
+    @Setup
+    public void setup() {
+        solver = ProjectileSolver.forBall(0.075, 0.127, 0.47);
+        table = solver.buildVelocityTable(theta, 1.0, 4.0, 31, 0.6, 1.0, 5);
+    }
+
+    @Benchmark
+    public double heightAtDistance() {
+        return solver.heightAtDistance(6.5, theta, distance);
+    }
+
+    @Benchmark
+    public double solveVelocity() {
+        return solver.solveVelocity(distance, height, theta);
+    }
+
+    @Benchmark
+    public double tableLookup() {
+        return table.getVelocity(distance, height);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProjectileTable buildTable() {
+        return solver.buildVelocityTable(theta, 1.0, 4.0, 31, 0.6, 1.0, 5);
+    }
+}
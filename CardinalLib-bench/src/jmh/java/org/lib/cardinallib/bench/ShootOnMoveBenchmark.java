@@ -0,0 +1,45 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.field.GoalElement;
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.field.ShootOnMoveSolver;
+import org.lib.cardinallib.math.ShooterTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one loop of shooting on the move: a timed {@link RobotElement} update followed
+ * by a {@link ShootOnMoveSolver} solve against a single-angle {@link ShooterTable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShootOnMoveBenchmark {
+
+    private RobotElement robot;
+    private ShootOnMoveSolver solver;
+    private double time;
+
+    @Setup
+    public void setup() {
+        robot = new RobotElement(0, 0, 0);
+        GoalElement goal = new GoalElement(3.0, 2.0);
+        ShooterTable table = new ShooterTable(0.048, 0.5, 6.0, 64, Math.toRadians(45), Math.toRadians(45), 1);
+        solver = new ShootOnMoveSolver(robot, goal, distance -> 0.25 + 0.18 * distance, table::getRPM);
+    }
+
+    @Benchmark
+    public double updateAndSolve() {
+        time += 0.01;
+        robot.update(0.5 * Math.cos(time), 0.5 * Math.sin(time), time, time);
+        solver.solve();
+        return solver.getRPM();
+    }
+}
@@ -0,0 +1,85 @@
+package org.lib.cardinallib.bench;
+
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.PoseBuffer;
+import org.lib.cardinallib.math.SplinePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one path-following step on a {@link SplinePath}: projecting a robot that moves
+ * 1 cm per loop onto the path, incrementally and by a full search, and looking up the
+ * pose a set distance ahead. The robot's positions are sampled into a {@link PoseBuffer}
+ * during setup, with the distance along the path in the time column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SplinePathBenchmark {
+
+    /** Distance the robot moves along the path per loop */
+    private static final double STEP = 0.01;
+
+    public double lookahead = 0.3;
+
+    private SplinePath path;
+    private PoseBuffer robot;
+    private final Pose2d target = new Pose2d(0, 0, 0);
+    private int loop;
+    private double parameter;
+
+    @Setup
+    public void setup() {
+        path = new SplinePath(
+                new Pose2d(0, 0, 0),
+                new Pose2d(1.2, 0.6, Math.toRadians(45)),
+                new Pose2d(2.0, 1.5, Math.toRadians(90)),
+                new Pose2d(1.0, 2.5, Math.PI),
+                new Pose2d(0, 2.0, Math.toRadians(-90)),
+                new Pose2d(0.5, 1.0, 0));
+
+        int loops = (int) (path.getLength() / STEP);
+        robot = new PoseBuffer(loops);
+        Pose2d pose = new Pose2d(0, 0, 0);
+        for (int i = 0; i < loops; i++) {
+            path.getPoseAtDistance(i * STEP, pose);
+            robot.add(pose.x + 0.02, pose.y, pose.heading, i * STEP);
+        }
+    }
+
+    @Benchmark
+    public double closestIncremental() {
+        advance();
+        parameter = path.closestParameter(robot.getX(loop), robot.getY(loop), parameter);
+        return parameter;
+    }
+
+    @Benchmark
+    public double closestFullSearch() {
+        advance();
+        return path.closestParameter(robot.getX(loop), robot.getY(loop));
+    }
+
+    @Benchmark
+    public Pose2d lookaheadPose() {
+        advance();
+        return path.getPoseAtDistance(robot.getTime(loop) + lookahead, target);
+    }
+
+    /**
+     * Moves the simulated robot one step along the path, wrapping at the end.
+     */
+    private void advance() {
+        if (++loop == robot.size()) {
+            loop = 0;
+            parameter = 0;
+        }
+    }
+}
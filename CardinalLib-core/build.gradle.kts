@@ -0,0 +1,39 @@
+plugins {
+    id("java-library")
+    id("maven-publish")
+}
+
+// Hardware-free code (commands, math, field). Builds as a plain JVM library so it can be
+// benchmarked and run on a desktop; the Android library module depends on it.
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("release") {
+            groupId = "org.example"
+            artifactId = "CardinalLib-core"
+            version = "1.0.6"
+
+            from(components["java"])
+        }
+    }
+    repositories {
+        mavenLocal()
+    }
+}
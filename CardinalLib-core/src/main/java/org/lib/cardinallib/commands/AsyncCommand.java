@@ -0,0 +1,211 @@
+package org.lib.cardinallib.commands;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A command that runs a computation on a background thread and hands the result back
+ * on the loop thread.
+ * 
+ * <p>Use this for work that takes longer than a loop should, such as generating a path,
+ * solving a shot or fitting a calibration curve. Each {@link #update()} only checks a
+ * flag, so the control loop keeps running while the computation is in progress. When the
+ * result is ready, the result handler is called from {@code update()} on the loop thread
+ * and the command finishes.</p>
+ * 
+ * <p>Jobs run on an {@link AsyncWorkerPool}, which caps how many computations run at once.
+ * If every slot is busy the command waits and tries to start again on the next update.
+ * If the pool has been shut down, the command finishes with the pool's
+ * {@link IllegalStateException} as its error instead of waiting forever. If the command
+ * is interrupted, the computation is cancelled and its thread interrupted; a result that
+ * arrives afterwards is discarded.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * cmdMachine.schedule(new CommandSequence()
+ *     .add(new AsyncCommand<>(() -> planner.solve(start, goal), path -> follower.setPath(path)))
+ *     .add(new FollowPathCommand(follower)));
+ * }</pre>
+ * 
+ * @param <T> The type of result produced by the computation
+ * @see AsyncWorkerPool
+ */
+public class AsyncCommand<T> extends Command {
+
+    /** The pool the computation runs on, or null for the default pool at the time it starts */
+    private final AsyncWorkerPool pool;
+    /** The background computation */
+    private final Callable<T> computation;
+    /** Receives the result on the loop thread */
+    private final Consumer<T> onResult;
+    /** Receives any exception thrown by the computation, or null to rethrow it */
+    private Consumer<Throwable> onError;
+
+    /** Identifies the current run, so results from cancelled runs are ignored; guarded by this */
+    private int generation;
+    /** The running job, or null if it has not started yet */
+    private Future<?> future;
+
+    /** Set by the worker once the current run has produced a result or failed */
+    private volatile boolean ready;
+    /** The result of the current run */
+    private volatile T result;
+    /** The exception thrown by the current run, if any */
+    private volatile Throwable error;
+    /** Whether the result has been handed to the handler */
+    private boolean delivered;
+
+    /**
+     * Creates a new AsyncCommand that runs on the {@link AsyncWorkerPool#getDefault() default pool}.
+     * The pool is looked up each time the computation starts, so the command keeps working
+     * after the default pool has been shut down and replaced.
+     * 
+     * @param computation The work to run in the background
+     * @param onResult Called on the loop thread with the result, may be null
+     */
+    public AsyncCommand(Callable<T> computation, Consumer<T> onResult) {
+        this(null, computation, onResult);
+    }
+
+    /**
+     * Creates a new AsyncCommand that runs on the given pool.
+     * 
+     * @param pool The pool to run the computation on, or null for the default pool
+     * @param computation The work to run in the background
+     * @param onResult Called on the loop thread with the result, may be null
+     */
+    public AsyncCommand(AsyncWorkerPool pool, Callable<T> computation, Consumer<T> onResult) {
+        this.pool = pool;
+        this.computation = computation;
+        this.onResult = onResult;
+    }
+
+    /**
+     * Sets a handler for exceptions thrown by the computation. Without one, the exception
+     * is rethrown from {@link #update()} on the loop thread.
+     * 
+     * @param onError Called on the loop thread with the exception
+     * @return This command for method chaining
+     */
+    public AsyncCommand<T> onError(Consumer<Throwable> onError) {
+        this.onError = onError;
+        return this;
+    }
+
+    /**
+     * Starts the computation, or queues it to start on a later update if the pool is full.
+     */
+    @Override
+    public void init() {
+        synchronized (this) {
+            generation++;
+            ready = false;
+            result = null;
+            error = null;
+        }
+        delivered = false;
+        future = null;
+        tryStart();
+    }
+
+    /**
+     * Starts the computation if it is still waiting for a slot, and delivers the result
+     * once it is ready.
+     */
+    @Override
+    public void update() {
+        if (future == null && !ready) {
+            tryStart();
+            return;
+        }
+        if (!ready || delivered) return;
+
+        delivered = true;
+        Throwable failure = error;
+        if (failure != null) {
+            if (onError == null) {
+                throw new RuntimeException("Background computation failed.", failure);
+            }
+            onError.accept(failure);
+        } else if (onResult != null) {
+            onResult.accept(result);
+        }
+    }
+
+    /**
+     * Checks if the result has been delivered.
+     * 
+     * @return {@code true} once the result or error has been handed over, {@code false} otherwise
+     */
+    @Override
+    public boolean isFinished() {
+        return delivered;
+    }
+
+    /**
+     * Cancels the computation if the command was interrupted before it finished.
+     * 
+     * @param interrupted {@code true} if the command was cancelled
+     */
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted && !delivered) {
+            synchronized (this) {
+                generation++;
+            }
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Gets the result of the last completed run.
+     * 
+     * @return The result, or {@code null} if no result has been delivered
+     */
+    public T getResult() {
+        return delivered ? result : null;
+    }
+
+    /**
+     * Submits the computation to the pool if a slot is free. If the pool has been shut
+     * down, the run fails with the pool's exception.
+     */
+    private void tryStart() {
+        final int run;
+        synchronized (this) {
+            run = generation;
+        }
+        AsyncWorkerPool target = pool != null ? pool : AsyncWorkerPool.getDefault();
+        try {
+            future = target.trySubmit(() -> {
+                T value = null;
+                Throwable failure = null;
+                try {
+                    value = computation.call();
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                publish(run, value, failure);
+            });
+        } catch (IllegalStateException e) {
+            publish(run, null, e);
+        }
+    }
+
+    /**
+     * Stores the outcome of a run, unless the run has since been cancelled or restarted.
+     * 
+     * @param run The generation the run was started in
+     * @param value The computed result
+     * @param failure The exception thrown, or null
+     */
+    private synchronized void publish(int run, T value, Throwable failure) {
+        if (run != generation) return;
+        result = value;
+        error = failure;
+        ready = true;
+    }
+}
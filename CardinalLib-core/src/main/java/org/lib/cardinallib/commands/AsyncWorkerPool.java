@@ -0,0 +1,171 @@
+package org.lib.cardinallib.commands;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small pool of background threads with a hard cap on concurrent jobs.
+ * 
+ * <p>Used by {@link AsyncCommand} to run heavy computations off the control loop.
+ * {@link #trySubmit(Runnable)} never blocks and never queues: if the cap is reached it
+ * returns {@code null} and the caller tries again on a later loop. Once the pool is
+ * {@link #shutdown() shut down} it throws instead, since no slot will ever free up. Worker
+ * threads are daemon threads with minimum priority, and idle threads exit after 30 seconds.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // At most one path generation at a time
+ * AsyncWorkerPool planner = new AsyncWorkerPool(1);
+ * cmdMachine.schedule(new AsyncCommand<>(planner, () -> generatePath(target), path -> follower.setPath(path)));
+ * }</pre>
+ * 
+ * @see AsyncCommand
+ */
+public class AsyncWorkerPool {
+
+    /** Pool used by AsyncCommands created without an explicit pool */
+    private static AsyncWorkerPool defaultPool;
+
+    /** The maximum number of jobs running at once */
+    private final int maxConcurrentJobs;
+    /** Number of jobs submitted and not yet finished */
+    private final AtomicInteger runningJobs = new AtomicInteger();
+    /** The executor running the jobs */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a pool that runs at most the given number of jobs at once.
+     * 
+     * @param maxConcurrentJobs The cap on concurrent background jobs
+     * @throws IllegalArgumentException if the cap is less than 1
+     */
+    public AsyncWorkerPool(int maxConcurrentJobs) {
+        if (maxConcurrentJobs < 1) {
+            throw new IllegalArgumentException("A worker pool needs at least one job slot.");
+        }
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "cardinallib-async-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the shared pool used by {@link AsyncCommand}s created without a pool.
+     * It allows two concurrent jobs. If the shared pool has been shut down, for example
+     * at the end of an op mode, a new one replaces it.
+     * 
+     * @return The default pool
+     */
+    public static synchronized AsyncWorkerPool getDefault() {
+        if (defaultPool == null || defaultPool.isShutdown()) {
+            defaultPool = new AsyncWorkerPool(2);
+        }
+        return defaultPool;
+    }
+
+    /**
+     * Starts a job if a slot is free.
+     * 
+     * <p>A job keeps its slot until its code returns, even if it was cancelled while
+     * running, so a job stuck in work that ignores interrupts still counts against the
+     * cap. A job cancelled before it starts gives its slot back right away.</p>
+     * 
+     * @param job The work to run in the background
+     * @return A future for cancelling the job, or {@code null} if every slot is busy
+     * @throws IllegalStateException if the pool has been shut down
+     */
+    public Future<?> trySubmit(Runnable job) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Worker pool has been shut down.");
+        }
+        if (runningJobs.incrementAndGet() > maxConcurrentJobs) {
+            runningJobs.decrementAndGet();
+            return null;
+        }
+        FutureTask<Void> task = new FutureTask<Void>(job, null) {
+            /** Set by whichever of run() and done() is responsible for giving the slot back */
+            private final AtomicBoolean claimed = new AtomicBoolean();
+
+            @Override
+            public void run() {
+                if (!claimed.compareAndSet(false, true)) {
+                    // Cancelled before it started; done() already gave the slot back
+                    super.run();
+                    return;
+                }
+                try {
+                    super.run();
+                } finally {
+                    runningJobs.decrementAndGet();
+                }
+            }
+
+            @Override
+            protected void done() {
+                // Only a job cancelled before run() claimed it releases here; otherwise
+                // the slot is held until the job's code has actually returned.
+                if (claimed.compareAndSet(false, true)) {
+                    runningJobs.decrementAndGet();
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shut down between the check above and now
+            runningJobs.decrementAndGet();
+            throw new IllegalStateException("Worker pool has been shut down.", e);
+        }
+        return task;
+    }
+
+    /**
+     * Gets the number of jobs currently running, including cancelled jobs whose code
+     * has not returned yet.
+     * 
+     * @return The number of busy slots
+     */
+    public int getRunningJobs() {
+        return runningJobs.get();
+    }
+
+    /**
+     * Gets the cap on concurrent jobs.
+     * 
+     * @return The maximum number of jobs that can run at once
+     */
+    public int getMaxConcurrentJobs() {
+        return maxConcurrentJobs;
+    }
+
+    /**
+     * Checks whether the pool has been shut down.
+     * 
+     * @return {@code true} once {@link #shutdown()} has been called
+     */
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Interrupts running jobs, cancels jobs that have not started and stops the worker
+     * threads. Later calls to {@link #trySubmit(Runnable)} throw.
+     */
+    public void shutdown() {
+        for (Runnable pending : executor.shutdownNow()) {
+            ((Future<?>) pending).cancel(false);
+        }
+    }
+}
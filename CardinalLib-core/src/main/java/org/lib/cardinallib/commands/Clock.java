@@ -0,0 +1,32 @@
+package org.lib.cardinallib.commands;
+
+/**
+ * A source of time for commands and the {@link CommandMachine}.
+ * 
+ * <p>Everything in this package that measures time reads it from the clock of the machine
+ * it runs on instead of calling {@link System#nanoTime()} directly. Robot code uses
+ * {@link #SYSTEM}; tests and simulations give the machine a clock they advance
+ * themselves, so timed commands such as {@link WaitCommand} run without real waiting.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // A command that needs the current time
+ * long now = getClock().nanoTime();
+ * }</pre>
+ * 
+ * @see CommandMachine#CommandMachine(Clock)
+ * @see Command#getClock()
+ */
+@FunctionalInterface
+public interface Clock {
+
+    /** The real monotonic clock, {@link System#nanoTime()} */
+    Clock SYSTEM = System::nanoTime;
+
+    /**
+     * Gets the current time.
+     * 
+     * @return The current time in nanoseconds; only differences between two readings are meaningful
+     */
+    long nanoTime();
+}
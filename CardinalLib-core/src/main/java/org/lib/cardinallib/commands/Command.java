@@ -0,0 +1,322 @@
+package org.lib.cardinallib.commands;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for all commands in the command-based programming framework.
+ * 
+ * <p>Commands represent discrete actions that the robot can perform. They follow a lifecycle:
+ * <ol>
+ *     <li>{@link #init()} - Called once when the command is scheduled</li>
+ *     <li>{@link #update()} - Called repeatedly until the command finishes. Commands that
+ *         need the time since their last update can override {@link #update(double)} instead</li>
+ *     <li>{@link #isFinished()} - Checked each update cycle to determine completion</li>
+ *     <li>{@link #end(boolean)} - Called once when the command finishes or is interrupted</li>
+ * </ol>
+ * </p>
+ * 
+ * <p>Commands that drive a {@link Subsystem} should declare it with
+ * {@link #requires(Subsystem...)}, usually from their constructor. Scheduling a command
+ * interrupts any other command that requires one of the same subsystems.</p>
+ * 
+ * <p>Commands that spend most of their time waiting can report when they next need to run
+ * through {@link #getWakeTimeNanos()}. The {@link CommandMachine} parks such commands and
+ * skips them entirely until that time arrives.</p>
+ * 
+ * <p>Commands that measure time should read it from {@link #getClock()} rather than
+ * {@link System#nanoTime()}, so they also run on a simulated clock.</p>
+ * 
+ * <p>Commands are typically managed by a {@link CommandMachine} which handles scheduling
+ * and execution.</p>
+ * 
+ * @see CommandMachine
+ */
+public abstract class Command {
+
+    /**
+     * Wake time meaning the command must be updated on every cycle.
+     * 
+     * @see #getWakeTimeNanos()
+     */
+    public static final long AWAKE = Long.MIN_VALUE;
+
+    /** Shared empty requirement list for commands that require nothing */
+    private static final Subsystem[] NO_REQUIREMENTS = new Subsystem[0];
+    /** Source of command IDs */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /** Unique number identifying this command instance */
+    private final int id = NEXT_ID.getAndIncrement();
+
+    /** The subsystems this command needs exclusive use of */
+    private Subsystem[] requirements = NO_REQUIREMENTS;
+    /** Number of machine updates per update of this command */
+    private int rateDivisor = 1;
+
+    /** The machine this command was last scheduled on */
+    CommandMachine machine;
+    /** The machine whose clock and listeners this command uses, set when it or its group is scheduled */
+    CommandMachine context;
+    /** Whether this command is currently scheduled and running */
+    boolean scheduled;
+    /** Whether this command still occupies a slot in its machine's active array */
+    boolean queued;
+    /** Loop-time measurements, attached when scheduled on a profiling machine */
+    CommandProfile profile;
+    /** Whether this command is sleeping in its machine's timer wheel */
+    boolean parked;
+    /** The timer wheel tick this command is parked until */
+    long wheelTick;
+    /** Previous command in the same timer wheel slot */
+    Command wheelPrev;
+    /** Next command in the same timer wheel slot */
+    Command wheelNext;
+    /** Previous command in its machine's list of running commands */
+    Command runningPrev;
+    /** Next command in its machine's list of running commands */
+    Command runningNext;
+    /** The rate divisor the machine balanced this command with when it was scheduled */
+    int runDivisor = 1;
+    /** The machine tick on which this command runs next */
+    long nextRunTick;
+    /** The slot of the machine's load table where this command's first run was counted */
+    int rateSlot;
+    /** Time from machine updates this command skipped, added to its next dt */
+    double skippedDt;
+
+    /**
+     * Initializes the command. This method is called once when the command is scheduled.
+     * Use this to set up any initial state, reset sensors, or prepare hardware.
+     */
+    public abstract void init();
+
+    /**
+     * Updates the command. This method is called repeatedly while the command is active.
+     * Implement your command's logic here, such as setting motor powers, reading sensors,
+     * or updating state.
+     */
+    public abstract void update();
+
+    /**
+     * Updates the command with the measured time since the previous update.
+     * 
+     * <p>{@link CommandMachine} calls this method rather than {@link #update()}. Override it
+     * in commands that integrate over time, such as controllers and profiles, instead of
+     * reading a clock themselves. The default implementation ignores {@code dt} and calls
+     * {@link #update()}.</p>
+     * 
+     * @param dt Seconds since the machine's previous update
+     */
+    public void update(double dt) {
+        update();
+    }
+
+    /**
+     * Checks if the command has finished executing.
+     * 
+     * @return {@code true} if the command is complete and should be removed from the
+     *         active command list, {@code false} otherwise
+     */
+    public abstract boolean isFinished();
+
+    /**
+     * Cleans up after the command. This method is called once when the command stops,
+     * either because {@link #isFinished()} returned {@code true} or because it was
+     * interrupted. Use this to stop motors or release hardware.
+     * 
+     * <p>The default implementation does nothing.</p>
+     * 
+     * @param interrupted {@code true} if the command was cancelled or replaced by another
+     *                    command requiring the same subsystem, {@code false} if it finished
+     *                    normally
+     */
+    public void end(boolean interrupted) { }
+
+    /**
+     * Gets the next time this command needs to be updated.
+     * 
+     * <p>This is checked after each update. If it returns a time in the future, the
+     * {@link CommandMachine} stops calling {@link #update()} and {@link #isFinished()}
+     * until that time, at a cost of O(1) per command instead of a call every cycle.
+     * Commands that sleep must not depend on being updated in the meantime.</p>
+     * 
+     * <p>The default implementation returns {@link #AWAKE}, so the command runs every cycle.</p>
+     * 
+     * @return The {@link #getClock() clock} time at which to update the command next,
+     *         or {@link #AWAKE} to be updated every cycle
+     */
+    public long getWakeTimeNanos() {
+        return AWAKE;
+    }
+
+    /**
+     * Wraps this command so that it is interrupted if it runs longer than the given time.
+     * 
+     * <p>The timeout shares the machine's deadline scheduler: while this command sleeps,
+     * the wrapper sleeps until whichever comes first, the command's wake time or the
+     * timeout. When the timeout expires the command's {@link #end(boolean)} is called
+     * with {@code true}.</p>
+     * 
+     * @param seconds The maximum time the command may run, in seconds
+     * @return A new command that runs this one with a timeout
+     */
+    public Command withTimeout(double seconds) {
+        return new TimeoutCommand(this, seconds);
+    }
+
+    /**
+     * Runs this command on only one of every {@code divisor} machine updates.
+     * 
+     * <p>Use this for work that does not need the full loop rate, such as telemetry or
+     * slow I2C sensor polls. On a 200 Hz loop a divisor of 10 runs the command at 20 Hz.
+     * The {@link CommandMachine} picks the phase of each low-rate command so that they are
+     * spread over different loops instead of all running on the same one, which keeps the
+     * worst-case loop time flat. The {@code dt} passed to {@link #update(double)} covers
+     * every machine update since the command last ran.</p>
+     * 
+     * <p>The divisor takes effect the next time the command is scheduled, and only applies
+     * to commands scheduled directly on a machine; children of a group run whenever the
+     * group does.</p>
+     * 
+     * @param divisor Number of machine updates per update of this command; 1 runs it every update
+     * @return This command for method chaining
+     * @throws IllegalArgumentException if the divisor is less than 1
+     * @see LoopRunner#divisorFor(double)
+     */
+    public Command withRateDivisor(int divisor) {
+        if (divisor < 1) {
+            throw new IllegalArgumentException("Rate divisor must be at least 1.");
+        }
+        rateDivisor = divisor;
+        return this;
+    }
+
+    /**
+     * Gets how many machine updates pass per update of this command.
+     * 
+     * @return The rate divisor, 1 if the command runs every update
+     */
+    public int getRateDivisor() {
+        return rateDivisor;
+    }
+
+    /**
+     * Gets a human-readable name for this command, used in profiling output.
+     * 
+     * <p>The default implementation returns the class name. Override this to tell
+     * apart several instances of the same command class.</p>
+     * 
+     * @return The command's name
+     */
+    public String getName() {
+        String name = getClass().getSimpleName();
+        return name.isEmpty() ? getClass().getName() : name;
+    }
+
+    /**
+     * Gets the clock of the machine this command runs on.
+     * 
+     * <p>The clock is set when the command, or the group it belongs to, is scheduled,
+     * before {@link #init()} is called. Before that it is {@link Clock#SYSTEM}.</p>
+     * 
+     * @return The clock to read the current time from
+     */
+    public final Clock getClock() {
+        CommandMachine context = this.context;
+        return context != null ? context.getClock() : Clock.SYSTEM;
+    }
+
+    /**
+     * Gets a number that identifies this command instance, used by loggers that record
+     * which commands were running without storing their names every loop.
+     * 
+     * @return An ID unique among all commands created in this process
+     */
+    public final int getId() {
+        return id;
+    }
+
+    /**
+     * Declares subsystems that this command needs exclusive use of.
+     * 
+     * <p>Call this before the command is scheduled, typically from the constructor.
+     * Calling it more than once adds to the existing requirements.</p>
+     * 
+     * @param subsystems The subsystems this command drives
+     * @return This command for method chaining
+     */
+    public Command requires(Subsystem... subsystems) {
+        for (Subsystem subsystem : subsystems) {
+            addRequirement(subsystem);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the subsystems this command requires.
+     * 
+     * @return The required subsystems; the returned array must not be modified
+     */
+    public Subsystem[] getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * Attaches this command to the machine it is about to run on. Commands that run other
+     * commands override this to attach their children as well.
+     * 
+     * @param machine The machine whose clock and listeners to use
+     */
+    void bind(CommandMachine machine) {
+        context = machine;
+    }
+
+    /**
+     * Initializes a child command and reports that it started. Used by command groups.
+     * 
+     * @param child The command to start
+     */
+    void startChild(Command child) {
+        if (context != null) context.commandStarted(child);
+        child.init();
+    }
+
+    /**
+     * Ends a child command and reports that it ended. Used by command groups.
+     * 
+     * @param child The command to end
+     * @param interrupted Whether the child was interrupted rather than finishing
+     */
+    void endChild(Command child, boolean interrupted) {
+        child.end(interrupted);
+        if (context != null) context.commandEnded(child, interrupted);
+    }
+
+    /**
+     * Adds every requirement of another command to this one. Used by command groups,
+     * which must own all subsystems their children drive.
+     * 
+     * @param other The command whose requirements to copy
+     */
+    void addRequirements(Command other) {
+        for (Subsystem subsystem : other.requirements) {
+            addRequirement(subsystem);
+        }
+    }
+
+    /**
+     * Adds a single requirement, ignoring duplicates.
+     * 
+     * @param subsystem The subsystem to require
+     */
+    private void addRequirement(Subsystem subsystem) {
+        for (Subsystem existing : requirements) {
+            if (existing == subsystem) return;
+        }
+        Subsystem[] grown = new Subsystem[requirements.length + 1];
+        System.arraycopy(requirements, 0, grown, 0, requirements.length);
+        grown[requirements.length] = subsystem;
+        requirements = grown;
+    }
+
+}
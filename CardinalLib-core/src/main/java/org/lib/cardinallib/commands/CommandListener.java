@@ -0,0 +1,40 @@
+package org.lib.cardinallib.commands;
+
+/**
+ * Receives a {@link CommandMachine}'s command start and end events.
+ * 
+ * <p>Events are reported for commands scheduled on the machine and for the commands they
+ * run as part of a {@link CommandSequence}, {@link ParallelCommand} or {@link CommandPlan}.
+ * Listeners run on the loop thread in the middle of an update, so they should only
+ * record what happened.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * cmdMachine.addListener(new CommandListener() {
+ *     @Override
+ *     public void commandStarted(Command command) {
+ *         log.add("start " + command.getName());
+ *     }
+ * });
+ * }</pre>
+ * 
+ * @see CommandMachine#addListener(CommandListener)
+ */
+public interface CommandListener {
+
+    /**
+     * Called right before a command's {@link Command#init()}, so a group is reported as
+     * starting before the commands it starts.
+     * 
+     * @param command The command that started
+     */
+    default void commandStarted(Command command) { }
+
+    /**
+     * Called right after a command's {@link Command#end(boolean)}.
+     * 
+     * @param command The command that ended
+     * @param interrupted {@code true} if the command was interrupted rather than finishing
+     */
+    default void commandEnded(Command command, boolean interrupted) { }
+}
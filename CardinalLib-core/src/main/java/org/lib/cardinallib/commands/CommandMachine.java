@@ -0,0 +1,729 @@
+package org.lib.cardinallib.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Manages the execution of commands and triggers in a command-based programming framework.
+ * 
+ * <p>The CommandMachine is responsible for:
+ * <ul>
+ *     <li>Scheduling and executing commands</li>
+ *     <li>Managing active commands and removing them when finished</li>
+ *     <li>Checking triggers and scheduling commands when conditions are met</li>
+ * </ul>
+ * </p>
+ * 
+ * <p>Typical usage in an op mode:</p>
+ * <pre>{@code
+ * CommandMachine cmdMachine = new CommandMachine();
+ * cmdMachine.schedule(new MyCommand());
+ * cmdMachine.addTrigger(new MyTrigger());
+ * 
+ * // In loop:
+ * cmdMachine.update();
+ * }</pre>
+ * 
+ * <p><b>Allocation:</b> Active commands and triggers are stored in preallocated arrays.
+ * Finished commands are compacted out in place, so once the arrays are large enough a
+ * call to {@link #update()} allocates nothing. Size the machine up front with
+ * {@link #CommandMachine(int, int)} to avoid growing the arrays mid-match.</p>
+ * 
+ * <p><b>Sleeping commands:</b> After each update the machine asks a command for its
+ * {@link Command#getWakeTimeNanos() wake time}. Commands that are waiting, such as a
+ * {@link WaitCommand} or a {@link CommandSequence} currently on a wait, are moved into a
+ * hashed timer wheel and are not touched again until their wake time arrives.
+ * {@link Command#withTimeout(double)} builds on the same mechanism.</p>
+ * 
+ * <p><b>Multi-rate scheduling:</b> Commands and triggers that do not need the full loop
+ * rate can declare a {@link Command#withRateDivisor(int) rate divisor}. A command with a
+ * divisor of 10 runs on one update in ten. When it is scheduled the machine chooses which
+ * of those ten updates it runs on, picking the phase that currently has the least low-rate
+ * work, so slow tasks land on different loops instead of piling onto the same one.
+ * Balancing is exact for divisors that divide 64 and approximate otherwise.</p>
+ * <pre>{@code
+ * cmdMachine.schedule(new PollColorSensorCommand().withRateDivisor(8));
+ * cmdMachine.addTrigger(new Trigger(distance::isBlocked, stopCommand).withRateDivisor(4));
+ * }</pre>
+ * 
+ * <p><b>Time:</b> The machine and the commands it runs read time from its {@link Clock},
+ * {@link Clock#SYSTEM} unless another is passed to {@link #CommandMachine(Clock)}.
+ * A simulation can pass a clock it advances itself to run timed routines faster than
+ * real time. {@link #addListener(CommandListener) Listeners} are told whenever a command
+ * starts or ends, including commands inside groups.</p>
+ * 
+ * <p><b>Profiling:</b> With {@link #setProfilingEnabled(boolean)} the machine times every
+ * command's {@code update()} and {@code isFinished()} and every trigger's {@code check()}
+ * into {@link LoopTimeHistogram}s. When profiling is off the only cost is one boolean
+ * check per command and trigger.</p>
+ * <pre>{@code
+ * cmdMachine.setProfilingEnabled(true);
+ * 
+ * // In a Mechanism's telemetry(Telemetry) or at the end of the op mode:
+ * cmdMachine.reportProfile(telemetry::addData);
+ * }</pre>
+ * 
+ * @see Command
+ * @see Trigger
+ */
+public class CommandMachine {
+
+    /** Default number of command slots allocated up front */
+    private static final int DEFAULT_COMMAND_CAPACITY = 16;
+    /** Default number of trigger slots allocated up front */
+    private static final int DEFAULT_TRIGGER_CAPACITY = 16;
+    /** Number of consecutive updates over which low-rate work is balanced */
+    private static final int RATE_WINDOW = 64;
+    /** Mask used to map an update tick to its slot in the load table */
+    private static final int RATE_MASK = RATE_WINDOW - 1;
+
+    /** Commands currently being executed; only the first {@code activeCount} slots are used */
+    private Command[] activeCommands;
+    /** Number of commands currently being executed */
+    private int activeCount = 0;
+    /** Triggers that can automatically schedule commands; only the first {@code triggerCount} slots are used */
+    private Trigger[] triggers;
+    /** Number of registered triggers */
+    private int triggerCount = 0;
+    /** Commands that are sleeping until their wake time */
+    private final TimerWheel parkedCommands;
+    /** The source of time for this machine and its commands */
+    private final Clock clock;
+    /** Listeners told about command starts and ends; only the first {@code listenerCount} are used */
+    private CommandListener[] listeners = new CommandListener[0];
+    /** Number of registered listeners */
+    private int listenerCount = 0;
+    /** Clock time of the previous {@link #update()} call, used to measure dt */
+    private long lastUpdateTime;
+    /** Whether {@link #update()} has been called before */
+    private boolean updatedOnce = false;
+    /** Number of updates started so far; the tick of the update in progress */
+    private long tick = 0;
+    /** Number of low-rate commands and triggers running on each tick of the balancing window */
+    private final int[] rateLoad = new int[RATE_WINDOW];
+    /** First of every scheduled command, awake or sleeping, linked through {@code runningNext} */
+    private Command runningHead;
+    /** Whether command and trigger timings are being recorded */
+    private boolean profiling = false;
+    /** Every command that has been given a profile, including ones that have finished */
+    private final List<Command> profiledCommands = new ArrayList<>();
+
+    /**
+     * Creates a CommandMachine with the default command and trigger capacities.
+     */
+    public CommandMachine() {
+        this(DEFAULT_COMMAND_CAPACITY, DEFAULT_TRIGGER_CAPACITY, Clock.SYSTEM);
+    }
+
+    /**
+     * Creates a CommandMachine with the default capacities that reads time from the given clock.
+     * 
+     * @param clock The clock used for dt, sleeping commands and timed commands
+     */
+    public CommandMachine(Clock clock) {
+        this(DEFAULT_COMMAND_CAPACITY, DEFAULT_TRIGGER_CAPACITY, clock);
+    }
+
+    /**
+     * Creates a CommandMachine with room for the given number of commands and triggers.
+     * 
+     * <p>The machine still grows if more commands or triggers are added, but growing
+     * allocates a new array. Choose capacities that cover the worst case of your op mode
+     * to keep the loop allocation-free.</p>
+     * 
+     * @param commandCapacity Number of commands that can be active at once without growing
+     * @param triggerCapacity Number of triggers that can be registered without growing
+     * @throws IllegalArgumentException if either capacity is less than 1
+     */
+    public CommandMachine(int commandCapacity, int triggerCapacity) {
+        this(commandCapacity, triggerCapacity, Clock.SYSTEM);
+    }
+
+    /**
+     * Creates a CommandMachine with the given capacities that reads time from the given clock.
+     * 
+     * @param commandCapacity Number of commands that can be active at once without growing
+     * @param triggerCapacity Number of triggers that can be registered without growing
+     * @param clock The clock used for dt, sleeping commands and timed commands
+     * @throws IllegalArgumentException if either capacity is less than 1
+     */
+    public CommandMachine(int commandCapacity, int triggerCapacity, Clock clock) {
+        if (commandCapacity < 1 || triggerCapacity < 1) {
+            throw new IllegalArgumentException("Capacities must be at least 1.");
+        }
+        activeCommands = new Command[commandCapacity];
+        triggers = new Trigger[triggerCapacity];
+        this.clock = clock;
+        parkedCommands = new TimerWheel(clock.nanoTime());
+    }
+
+    /**
+     * Gets the clock this machine and its commands read time from.
+     * 
+     * @return The machine's clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Adds a listener that is told whenever a command starts or ends.
+     * 
+     * @param listener The listener to add
+     */
+    public void addListener(CommandListener listener) {
+        if (listenerCount == listeners.length) {
+            listeners = Arrays.copyOf(listeners, Math.max(4, listeners.length * 2));
+        }
+        listeners[listenerCount++] = listener;
+    }
+
+    /**
+     * Adds a trigger to be checked during each update cycle.
+     * 
+     * <p>Triggers are checked every time {@link #update()} is called. If a trigger's
+     * condition is met, the associated command will be automatically scheduled.</p>
+     * 
+     * @param trigger The trigger to add
+     */
+    public void addTrigger(Trigger trigger) {
+        if (triggerCount == triggers.length) {
+            triggers = Arrays.copyOf(triggers, triggers.length * 2);
+        }
+        triggers[triggerCount++] = trigger;
+        if (profiling) {
+            attachProfile(trigger);
+        }
+
+        int divisor = trigger.getRateDivisor();
+        if (divisor > 1) {
+            long first = tick + 1 + pickPhase(divisor);
+            addRateLoad((int) (first & RATE_MASK), divisor, 1);
+            trigger.nextCheckTick = first;
+        } else {
+            trigger.nextCheckTick = 0;
+        }
+    }
+
+    /**
+     * Schedules a command for execution.
+     * 
+     * <p>This method initializes the command and adds it to the active commands list.
+     * The command will be updated each cycle until it finishes.</p>
+     * 
+     * <p>Any command that currently requires one of this command's subsystems is
+     * interrupted first. Scheduling a command that is already running does nothing.</p>
+     * 
+     * <p>A command with a {@link Command#withRateDivisor(int) rate divisor} is given the
+     * phase with the least low-rate work, so its first update may come up to
+     * {@code divisor - 1} updates later.</p>
+     * 
+     * @param command The command to schedule
+     */
+    public void schedule(Command command) {
+        if (command.scheduled) return;
+        // A command cancelled on another machine may still sit in that machine's array;
+        // that entry is dropped there, so it needs a slot here regardless
+        boolean queuedHere = command.queued && command.machine == this;
+
+        Subsystem[] requirements = command.getRequirements();
+        for (Subsystem subsystem : requirements) {
+            Command owner = subsystem.owner;
+            if (owner != null) {
+                owner.machine.cancel(owner);
+            }
+        }
+
+        command.bind(this);
+        commandStarted(command);
+        command.init();
+        if (profiling) {
+            attachProfile(command);
+        }
+        for (Subsystem subsystem : requirements) {
+            subsystem.owner = command;
+        }
+        command.machine = this;
+        command.scheduled = true;
+        command.runningPrev = null;
+        command.runningNext = runningHead;
+        if (runningHead != null) runningHead.runningPrev = command;
+        runningHead = command;
+
+        int divisor = command.getRateDivisor();
+        command.runDivisor = divisor;
+        command.skippedDt = 0;
+        if (divisor > 1) {
+            command.nextRunTick = tick + 1 + pickPhase(divisor);
+            command.rateSlot = (int) (command.nextRunTick & RATE_MASK);
+            addRateLoad(command.rateSlot, divisor, 1);
+        } else {
+            command.nextRunTick = 0;
+        }
+
+        if (!queuedHere) {
+            enqueue(command);
+        }
+    }
+
+    /**
+     * Interrupts a running command.
+     * 
+     * <p>The command's {@link Command#end(boolean)} method is called with {@code true}
+     * and its subsystems are released immediately. Cancelling a command that is not
+     * running on this machine does nothing.</p>
+     * 
+     * @param command The command to cancel
+     */
+    public void cancel(Command command) {
+        if (!command.scheduled || command.machine != this) return;
+        stop(command, true);
+    }
+
+    /**
+     * Interrupts every running command, including sleeping ones.
+     */
+    public void cancelAll() {
+        for (int i = 0; i < activeCount; i++) {
+            cancel(activeCommands[i]);
+        }
+        Command parked = parkedCommands.clear();
+        while (parked != null) {
+            Command next = parked.wheelNext;
+            parked.wheelNext = null;
+            stop(parked, true);
+            parked = next;
+        }
+    }
+
+    /**
+     * Checks whether a command is currently running on this machine.
+     * 
+     * @param command The command to check
+     * @return {@code true} if the command is scheduled and has not finished or been cancelled
+     */
+    public boolean isScheduled(Command command) {
+        return command.scheduled && command.machine == this;
+    }
+
+    /**
+     * Updates all active commands and checks all triggers.
+     * 
+     * <p>This method should be called repeatedly in the op mode loop. It:
+     * <ol>
+     *     <li>Updates all active commands</li>
+     *     <li>Removes commands that have finished or were cancelled</li>
+     *     <li>Checks all triggers and schedules commands if conditions are met</li>
+     * </ol>
+     * </p>
+     * 
+     * <p>Commands scheduled from inside a command's {@code update()} are kept and
+     * first updated on the next call. Sleeping commands whose wake time has arrived are
+     * moved back to the active list before any command is updated.</p>
+     * 
+     * <p>The time since the previous call is measured and passed to each command's
+     * {@link Command#update(double)}. Use {@link #update(double)} instead when the loop
+     * period is measured elsewhere, for example by a {@link LoopRunner}.</p>
+     */
+    public void update() {
+        long now = clock.nanoTime();
+        double dt = updatedOnce ? (now - lastUpdateTime) / 1e9 : 0;
+        lastUpdateTime = now;
+        updatedOnce = true;
+        update(dt);
+    }
+
+    /**
+     * Updates all active commands with the given time step and checks all triggers.
+     * 
+     * @param dt Seconds since the previous update, passed to {@link Command#update(double)}
+     * @see #update()
+     */
+    public void update(double dt) {
+        tick++;
+        long now = clock.nanoTime();
+        Command woken = parkedCommands.expire(now);
+        while (woken != null) {
+            Command next = woken.wheelNext;
+            woken.wheelNext = null;
+            if (profiling) {
+                attachProfile(woken);
+            }
+            enqueue(woken);
+            woken = next;
+        }
+
+        int count = activeCount;
+        int write = 0;
+        for (int read = 0; read < count; read++) {
+            Command cmd = activeCommands[read];
+            if (cmd.machine != this) {
+                // Cancelled here and rescheduled on another machine, which runs it now
+                continue;
+            }
+            if (cmd.scheduled && tick < cmd.nextRunTick) {
+                // Not this command's phase; carry the time over to its next update
+                cmd.skippedDt += dt;
+            } else if (cmd.scheduled) {
+                double runDt = dt + cmd.skippedDt;
+                cmd.skippedDt = 0;
+                if (cmd.runDivisor > 1) {
+                    cmd.nextRunTick = nextTick(cmd.nextRunTick, cmd.runDivisor);
+                }
+                if (profiling) {
+                    runProfiled(cmd, runDt);
+                } else {
+                    cmd.update(runDt);
+                    if (cmd.scheduled && cmd.isFinished()) {
+                        stop(cmd, false);
+                    }
+                }
+                if (cmd.scheduled) {
+                    long wake = cmd.getWakeTimeNanos();
+                    if (wake != Command.AWAKE && wake - now > 0) {
+                        parkedCommands.add(cmd, wake);
+                    }
+                }
+            }
+            if (cmd.scheduled && !cmd.parked) {
+                activeCommands[write++] = cmd;
+            } else {
+                cmd.queued = false;
+            }
+        }
+        // Keep anything scheduled while the commands above were updating
+        for (int read = count; read < activeCount; read++) {
+            activeCommands[write++] = activeCommands[read];
+        }
+        for (int i = write; i < activeCount; i++) {
+            activeCommands[i] = null;
+        }
+        activeCount = write;
+
+        for (int i = 0; i < triggerCount; i++) {
+            Trigger trigger = triggers[i];
+            if (tick < trigger.nextCheckTick) continue;
+            if (trigger.getRateDivisor() > 1) {
+                trigger.nextCheckTick = nextTick(trigger.nextCheckTick, trigger.getRateDivisor());
+            }
+            Command triggered;
+            if (profiling) {
+                long start = System.nanoTime();
+                triggered = trigger.check();
+                trigger.profile.record(System.nanoTime() - start);
+            } else {
+                triggered = trigger.check();
+            }
+            if (triggered != null) {
+                schedule(triggered);
+            }
+        }
+    }
+
+    /**
+     * Turns loop-time profiling on or off.
+     * 
+     * <p>Enabling profiling attaches a {@link CommandProfile} to every active command and a
+     * {@link LoopTimeHistogram} to every trigger, and to each command or trigger added later.
+     * These are allocated here and at scheduling time, never during {@link #update()}.
+     * Recorded data is kept when profiling is turned off again. Timings always use
+     * {@link System#nanoTime()}, whatever the machine's clock is.</p>
+     * 
+     * @param enabled {@code true} to record timings, {@code false} to stop recording
+     */
+    public void setProfilingEnabled(boolean enabled) {
+        profiling = enabled;
+        if (!enabled) return;
+        for (int i = 0; i < activeCount; i++) {
+            attachProfile(activeCommands[i]);
+        }
+        for (int i = 0; i < triggerCount; i++) {
+            attachProfile(triggers[i]);
+        }
+    }
+
+    /**
+     * Checks whether loop-time profiling is on.
+     * 
+     * @return {@code true} if timings are being recorded
+     */
+    public boolean isProfilingEnabled() {
+        return profiling;
+    }
+
+    /**
+     * Gets the timings recorded for a command.
+     * 
+     * <p>Only commands scheduled directly on a machine are profiled; commands running
+     * inside a {@link CommandSequence} or {@link ParallelCommand} are counted as part of
+     * their group.</p>
+     * 
+     * @param command The command to look up
+     * @return The command's profile, or {@code null} if it was never run with profiling on
+     */
+    public CommandProfile getProfile(Command command) {
+        return command.profile;
+    }
+
+    /**
+     * Gets the timings recorded for a trigger's condition checks.
+     * 
+     * @param trigger The trigger to look up
+     * @return The trigger's histogram, or {@code null} if it was never checked with profiling on
+     */
+    public LoopTimeHistogram getProfile(Trigger trigger) {
+        return trigger.profile;
+    }
+
+    /**
+     * Writes one line per profiled command and trigger to the given output.
+     * 
+     * <p>The output receives a caption and a value, matching FTC
+     * {@code Telemetry.addData(String, Object)}, so it can be called as
+     * {@code reportProfile(telemetry::addData)} from a {@code Mechanism.telemetry(Telemetry)}
+     * method. Formatting allocates strings, so call it at a low rate or after the match.</p>
+     * 
+     * @param output Receives a caption and a percentile summary for each line
+     */
+    public void reportProfile(BiConsumer<String, Object> output) {
+        for (Command command : profiledCommands) {
+            output.accept(command.getName() + " update", command.profile.getUpdate());
+            output.accept(command.getName() + " isFinished", command.profile.getIsFinished());
+        }
+        for (int i = 0; i < triggerCount; i++) {
+            Trigger trigger = triggers[i];
+            if (trigger.profile != null) {
+                output.accept("Trigger " + i + " (" + trigger.getCommand().getName() + ")", trigger.profile);
+            }
+        }
+    }
+
+    /**
+     * Clears every recorded command and trigger timing.
+     */
+    public void resetProfile() {
+        for (Command command : profiledCommands) {
+            command.profile.reset();
+        }
+        for (int i = 0; i < triggerCount; i++) {
+            if (triggers[i].profile != null) {
+                triggers[i].profile.reset();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of commands currently being executed.
+     * 
+     * <p>Commands cancelled since the last {@link #update()} are still counted until
+     * that update removes them. Sleeping commands are not counted.</p>
+     * 
+     * @return The number of active commands
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Copies every scheduled command, including sleeping ones, into an array, for
+     * loggers that record what was running each loop. Commands are copied most recently
+     * scheduled first.
+     * 
+     * @param out The array to fill; commands that do not fit are left out
+     * @return The number of commands written to {@code out}
+     */
+    public int getActiveCommands(Command[] out) {
+        int count = 0;
+        for (Command command = runningHead; command != null && count < out.length; command = command.runningNext) {
+            out[count++] = command;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether no command is scheduled on this machine, awake or sleeping.
+     * 
+     * @return {@code true} if nothing is running
+     */
+    public boolean isIdle() {
+        return runningHead == null;
+    }
+
+    /**
+     * Gets the number of commands sleeping until their wake time.
+     * 
+     * @return The number of parked commands
+     */
+    public int getParkedCount() {
+        return parkedCommands.size();
+    }
+
+    /**
+     * Stops a running command, releases its subsystems and calls its end hook.
+     * The command is dropped from the active array by the next pass of {@link #update()}.
+     * 
+     * @param command The command to stop
+     * @param interrupted Whether the command was interrupted rather than finishing
+     */
+    private void stop(Command command, boolean interrupted) {
+        command.scheduled = false;
+        if (command.runningPrev != null) {
+            command.runningPrev.runningNext = command.runningNext;
+        } else {
+            runningHead = command.runningNext;
+        }
+        if (command.runningNext != null) command.runningNext.runningPrev = command.runningPrev;
+        command.runningPrev = null;
+        command.runningNext = null;
+        if (command.runDivisor > 1) {
+            addRateLoad(command.rateSlot, command.runDivisor, -1);
+            command.runDivisor = 1;
+        }
+        if (command.parked) {
+            parkedCommands.remove(command);
+        }
+        for (Subsystem subsystem : command.getRequirements()) {
+            if (subsystem.owner == command) {
+                subsystem.owner = null;
+            }
+        }
+        command.end(interrupted);
+        commandEnded(command, interrupted);
+    }
+
+    /**
+     * Tells every listener that a command started.
+     * 
+     * @param command The command that started
+     */
+    void commandStarted(Command command) {
+        for (int i = 0; i < listenerCount; i++) {
+            listeners[i].commandStarted(command);
+        }
+    }
+
+    /**
+     * Tells every listener that a command ended.
+     * 
+     * @param command The command that ended
+     * @param interrupted Whether the command was interrupted rather than finishing
+     */
+    void commandEnded(Command command, boolean interrupted) {
+        for (int i = 0; i < listenerCount; i++) {
+            listeners[i].commandEnded(command, interrupted);
+        }
+    }
+
+    /**
+     * Chooses the phase for new low-rate work: the offset from the next update whose
+     * ticks currently carry the least low-rate work over the balancing window.
+     * 
+     * @param divisor The work's rate divisor, greater than 1
+     * @return The number of updates after the next one at which the work first runs
+     */
+    private int pickPhase(int divisor) {
+        long first = tick + 1;
+        int phases = Math.min(divisor, RATE_WINDOW);
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int phase = 0; phase < phases; phase++) {
+            int load = 0;
+            for (int k = 0; k < RATE_WINDOW; k += divisor) {
+                load += rateLoad[(int) ((first + phase + k) & RATE_MASK)];
+            }
+            if (load < bestLoad) {
+                bestLoad = load;
+                best = phase;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds or removes low-rate work from the load table.
+     * 
+     * @param slot The slot of the work's first run
+     * @param divisor The work's rate divisor
+     * @param delta 1 to add the work, -1 to remove it
+     */
+    private void addRateLoad(int slot, int divisor, int delta) {
+        for (int k = 0; k < RATE_WINDOW; k += divisor) {
+            rateLoad[(slot + k) & RATE_MASK] += delta;
+        }
+    }
+
+    /**
+     * Gets the next tick on which low-rate work runs, keeping its phase even if it
+     * missed some of its ticks, for example while parked.
+     * 
+     * @param due The tick the work was due on, at or before the current tick
+     * @param divisor The work's rate divisor
+     * @return The first tick after the current one that is in the same phase
+     */
+    private long nextTick(long due, int divisor) {
+        long next = due + divisor;
+        if (next <= tick) {
+            next += ((tick - next) / divisor + 1) * divisor;
+        }
+        return next;
+    }
+
+    /**
+     * Updates a command while timing its update and isFinished calls.
+     * 
+     * @param command The scheduled command to run
+     * @param dt Seconds since the previous update
+     */
+    private void runProfiled(Command command, double dt) {
+        CommandProfile profile = command.profile;
+        long start = System.nanoTime();
+        command.update(dt);
+        long updated = System.nanoTime();
+        profile.getUpdate().record(updated - start);
+        if (command.scheduled) {
+            boolean finished = command.isFinished();
+            profile.getIsFinished().record(System.nanoTime() - updated);
+            if (finished) {
+                stop(command, false);
+            }
+        }
+    }
+
+    /**
+     * Gives a command a profile if it does not already have one.
+     * 
+     * @param command The command to profile
+     */
+    private void attachProfile(Command command) {
+        if (command.profile == null) {
+            command.profile = new CommandProfile();
+            profiledCommands.add(command);
+        }
+    }
+
+    /**
+     * Gives a trigger a histogram if it does not already have one.
+     * 
+     * @param trigger The trigger to profile
+     */
+    private void attachProfile(Trigger trigger) {
+        if (trigger.profile == null) {
+            trigger.profile = new LoopTimeHistogram();
+        }
+    }
+
+    /**
+     * Appends a command to the active array, growing it if needed.
+     * 
+     * @param command The command to add
+     */
+    private void enqueue(Command command) {
+        if (activeCount == activeCommands.length) {
+            activeCommands = Arrays.copyOf(activeCommands, activeCommands.length * 2);
+        }
+        activeCommands[activeCount++] = command;
+        command.queued = true;
+    }
+}
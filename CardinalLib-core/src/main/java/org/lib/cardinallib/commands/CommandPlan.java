@@ -0,0 +1,391 @@
+package org.lib.cardinallib.commands;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A command tree flattened into a reusable execution plan.
+ * 
+ * <p>{@link #compile(Command)} walks a tree of {@link CommandSequence}s and
+ * {@link ParallelCommand}s once and stores it as flat arrays: one node per command, the
+ * leaf commands that do the actual work, and per-node progress counters. Running the plan
+ * only touches the leaves that are currently active: when a leaf finishes, the plan
+ * advances its parent sequence or counts down its parent parallel group directly in the
+ * tables, instead of every group in the tree being updated every tick.</p>
+ * 
+ * <p>The plan is an ordinary {@link Command}. Scheduling it again resets the progress
+ * counters without rebuilding anything. Leaves that report a future
+ * {@link Command#getWakeTimeNanos() wake time} are skipped until then, and the plan as a
+ * whole sleeps when all of its active leaves do.</p>
+ * 
+ * <p>Leaves start and end on the same updates as when the tree is run directly, with one
+ * exception: an empty group completes as soon as it starts, where a group run directly
+ * only reports that it has finished on the next update.</p>
+ * 
+ * <p>Only plain {@code CommandSequence} and {@code ParallelCommand} instances are
+ * flattened; subclasses of them and every other command are treated as leaves. Commands
+ * added to the groups after compiling are not part of the plan.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * CommandPlan auto = CommandPlan.compile(new CommandSequence()
+ *     .add(new ParallelCommand()
+ *         .add(new DriveToPoseCommand(scorePose))
+ *         .add(new LiftCommand(HIGH)))
+ *     .add(new WaitCommand(0.3))
+ *     .add(new ReleaseCommand()));
+ * cmdMachine.schedule(auto);
+ * }</pre>
+ * 
+ * @see CommandSequence
+ * @see ParallelCommand
+ */
+public class CommandPlan extends Command {
+
+    /** Node kind for a command that does its own work */
+    private static final byte LEAF = 0;
+    /** Node kind for a sequence, whose children run one after another */
+    private static final byte SEQUENCE = 1;
+    /** Node kind for a parallel group, whose children run together */
+    private static final byte PARALLEL = 2;
+
+    /** The command the plan was compiled from */
+    private final Command root;
+    /** Kind of each node */
+    private final byte[] kind;
+    /** Parent of each node, or -1 for the root */
+    private final int[] parent;
+    /** Offset of each node's first child in {@link #children} */
+    private final int[] childStart;
+    /** Number of children of each node */
+    private final int[] childCount;
+    /** Child node indices, grouped by parent */
+    private final int[] children;
+    /** The command for each leaf node, or null for group nodes */
+    private final Command[] leaves;
+    /** Number of leaf nodes */
+    private final int leafCount;
+
+    /** Per node: index of the running child for sequences, unfinished children for parallel groups */
+    private final int[] progress;
+    /** Wake time reported by each active leaf after its last update */
+    private final long[] wakeTime;
+    /** Node indices of the leaves currently running; only the first {@code activeCount} are used */
+    private final int[] active;
+    /** Number of leaves currently running */
+    private int activeCount;
+    /** Whether the root node has completed */
+    private boolean done;
+
+    /**
+     * Builds the plan tables. Use {@link #compile(Command)}.
+     * 
+     * @param root The command tree
+     * @param nodes Every node in depth-first order, root first
+     */
+    private CommandPlan(Command root, List<Command> nodes) {
+        this.root = root;
+        int n = nodes.size();
+        kind = new byte[n];
+        parent = new int[n];
+        childStart = new int[n];
+        childCount = new int[n];
+        leaves = new Command[n];
+        progress = new int[n];
+        wakeTime = new long[n];
+
+        IdentityHashMap<Command, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            index.put(nodes.get(i), i);
+        }
+
+        int totalChildren = 0;
+        int leafTotal = 0;
+        for (int i = 0; i < n; i++) {
+            List<Command> groupChildren = childrenOf(nodes.get(i));
+            if (groupChildren == null) {
+                kind[i] = LEAF;
+                leaves[i] = nodes.get(i);
+                leafTotal++;
+            } else {
+                kind[i] = nodes.get(i).getClass() == CommandSequence.class ? SEQUENCE : PARALLEL;
+                childCount[i] = groupChildren.size();
+                totalChildren += groupChildren.size();
+            }
+        }
+
+        children = new int[totalChildren];
+        parent[0] = -1;
+        int offset = 0;
+        for (int i = 0; i < n; i++) {
+            childStart[i] = offset;
+            if (kind[i] == LEAF) continue;
+            for (Command child : childrenOf(nodes.get(i))) {
+                int childIndex = index.get(child);
+                children[offset++] = childIndex;
+                parent[childIndex] = i;
+            }
+        }
+
+        leafCount = leafTotal;
+        active = new int[leafTotal];
+        addRequirements(root);
+    }
+
+    /**
+     * Compiles a command tree into a plan.
+     * 
+     * @param root The top of the tree, usually a {@link CommandSequence} or {@link ParallelCommand}
+     * @return A plan that runs the tree
+     * @throws IllegalArgumentException if the same command instance appears more than once in the tree
+     */
+    public static CommandPlan compile(Command root) {
+        List<Command> nodes = new ArrayList<>();
+        IdentityHashMap<Command, Boolean> seen = new IdentityHashMap<>();
+        collect(root, nodes, seen);
+        return new CommandPlan(root, nodes);
+    }
+
+    /**
+     * Resets every progress counter and starts the plan from the beginning.
+     */
+    @Override
+    public void init() {
+        activeCount = 0;
+        done = false;
+        start(0);
+    }
+
+    /**
+     * Updates the plan without a time step.
+     * 
+     * @see #update(double)
+     */
+    @Override
+    public void update() {
+        update(0);
+    }
+
+    /**
+     * Updates every active leaf that is awake. Leaves that finish are ended, and their
+     * parents advance immediately; newly started leaves are first updated on the next call.
+     * 
+     * @param dt Seconds since the machine's previous update
+     */
+    @Override
+    public void update(double dt) {
+        // Only read the clock if some leaf is sleeping
+        long now = 0;
+        boolean haveNow = false;
+        int count = activeCount;
+        int write = 0;
+        for (int read = 0; read < count; read++) {
+            int node = active[read];
+            long wake = wakeTime[node];
+            if (wake != AWAKE) {
+                if (!haveNow) {
+                    now = getClock().nanoTime();
+                    haveNow = true;
+                }
+                if (wake - now > 0) {
+                    active[write++] = node;
+                    continue;
+                }
+            }
+
+            Command leaf = leaves[node];
+            leaf.update(dt);
+            if (leaf.isFinished()) {
+                endChild(leaf, false);
+                complete(node);
+            } else {
+                wakeTime[node] = leaf.getWakeTimeNanos();
+                active[write++] = node;
+            }
+        }
+        // Keep leaves started by parents that advanced above
+        for (int read = count; read < activeCount; read++) {
+            active[write++] = active[read];
+        }
+        activeCount = write;
+    }
+
+    /**
+     * Checks if the whole tree has finished.
+     * 
+     * @return {@code true} once the root has completed, {@code false} otherwise
+     */
+    @Override
+    public boolean isFinished() {
+        return done;
+    }
+
+    /**
+     * Interrupts every leaf that is still running if the plan was interrupted.
+     * 
+     * @param interrupted {@code true} if the plan was cancelled before finishing
+     */
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted) {
+            for (int i = 0; i < activeCount; i++) {
+                endChild(leaves[active[i]], true);
+            }
+        }
+        activeCount = 0;
+    }
+
+    /**
+     * Gets the earliest wake time of the active leaves, so the plan sleeps while all of
+     * them are sleeping.
+     * 
+     * @return The earliest wake time, or {@link #AWAKE} if any active leaf runs every cycle
+     */
+    @Override
+    public long getWakeTimeNanos() {
+        long earliest = AWAKE;
+        for (int i = 0; i < activeCount; i++) {
+            long wake = wakeTime[active[i]];
+            if (wake == AWAKE) return AWAKE;
+            if (earliest == AWAKE || wake - earliest < 0) {
+                earliest = wake;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Attaches the plan and every leaf command to a machine.
+     * 
+     * @param machine The machine whose clock and listeners to use
+     */
+    @Override
+    void bind(CommandMachine machine) {
+        super.bind(machine);
+        for (Command leaf : leaves) {
+            if (leaf != null) leaf.bind(machine);
+        }
+    }
+
+    /**
+     * Gets the name of the compiled command.
+     * 
+     * @return The root command's name with the plan noted
+     */
+    @Override
+    public String getName() {
+        return root.getName() + " (plan)";
+    }
+
+    /**
+     * Gets the number of leaf commands in the plan.
+     * 
+     * @return The leaf count
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Gets the number of leaf commands currently running.
+     * 
+     * @return The active leaf count
+     */
+    public int getActiveLeafCount() {
+        return activeCount;
+    }
+
+    /**
+     * Starts a node: initializes a leaf, or starts the first child of a sequence or
+     * every child of a parallel group. Empty groups complete immediately.
+     * 
+     * @param node The node to start
+     */
+    private void start(int node) {
+        switch (kind[node]) {
+            case LEAF:
+                startChild(leaves[node]);
+                wakeTime[node] = AWAKE;
+                active[activeCount++] = node;
+                break;
+            case SEQUENCE:
+                progress[node] = 0;
+                if (childCount[node] == 0) {
+                    complete(node);
+                } else {
+                    start(children[childStart[node]]);
+                }
+                break;
+            default:
+                progress[node] = childCount[node];
+                if (childCount[node] == 0) {
+                    complete(node);
+                } else {
+                    for (int i = 0; i < childCount[node]; i++) {
+                        start(children[childStart[node] + i]);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Marks a node as finished and advances its parent.
+     * 
+     * @param node The node that finished
+     */
+    private void complete(int node) {
+        int p = parent[node];
+        if (p < 0) {
+            done = true;
+            return;
+        }
+        if (kind[p] == SEQUENCE) {
+            int next = ++progress[p];
+            if (next < childCount[p]) {
+                start(children[childStart[p] + next]);
+            } else {
+                complete(p);
+            }
+        } else if (--progress[p] == 0) {
+            complete(p);
+        }
+    }
+
+    /**
+     * Adds a command and all of its descendants to the node list in depth-first order.
+     * 
+     * @param command The command to add
+     * @param nodes The node list
+     * @param seen Commands already added, to reject repeated instances
+     */
+    private static void collect(Command command, List<Command> nodes, IdentityHashMap<Command, Boolean> seen) {
+        if (seen.put(command, Boolean.TRUE) != null) {
+            throw new IllegalArgumentException("Command " + command.getName() + " appears more than once in the tree.");
+        }
+        nodes.add(command);
+        List<Command> groupChildren = childrenOf(command);
+        if (groupChildren != null) {
+            for (Command child : groupChildren) {
+                collect(child, nodes, seen);
+            }
+        }
+    }
+
+    /**
+     * Gets the children of a group that can be flattened.
+     * 
+     * @param command Any command
+     * @return The group's children, or {@code null} if the command is a leaf
+     */
+    private static List<Command> childrenOf(Command command) {
+        if (command.getClass() == CommandSequence.class) {
+            return ((CommandSequence) command).getCommands();
+        }
+        if (command.getClass() == ParallelCommand.class) {
+            return ((ParallelCommand) command).getCommands();
+        }
+        return null;
+    }
+}
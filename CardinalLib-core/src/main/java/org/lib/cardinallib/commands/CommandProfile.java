@@ -0,0 +1,45 @@
+package org.lib.cardinallib.commands;
+
+/**
+ * Loop-time measurements for a single command.
+ * 
+ * <p>A profile is attached to a command the first time it is scheduled on a
+ * {@link CommandMachine} with profiling enabled. It keeps accumulating across
+ * later runs of the same command until {@link #reset()} is called.</p>
+ * 
+ * @see CommandMachine#setProfilingEnabled(boolean)
+ * @see CommandMachine#getProfile(Command)
+ */
+public class CommandProfile {
+
+    /** Time spent in {@link Command#update()} */
+    private final LoopTimeHistogram update = new LoopTimeHistogram();
+    /** Time spent in {@link Command#isFinished()} */
+    private final LoopTimeHistogram isFinished = new LoopTimeHistogram();
+
+    /**
+     * Gets the durations of the command's {@link Command#update()} calls.
+     * 
+     * @return The update histogram
+     */
+    public LoopTimeHistogram getUpdate() {
+        return update;
+    }
+
+    /**
+     * Gets the durations of the command's {@link Command#isFinished()} calls.
+     * 
+     * @return The isFinished histogram
+     */
+    public LoopTimeHistogram getIsFinished() {
+        return isFinished;
+    }
+
+    /**
+     * Clears both histograms.
+     */
+    public void reset() {
+        update.reset();
+        isFinished.reset();
+    }
+}
@@ -32,13 +32,15 @@ public class CommandSequence extends Command {
     /**
      * Adds a command to the end of the sequence.
      * 
-     * <p>This method supports method chaining for convenient sequence construction.</p>
+     * <p>This method supports method chaining for convenient sequence construction.
+     * The sequence takes on the command's requirements, so declare them before adding it.</p>
      * 
      * @param command The command to add to the sequence
      * @return This CommandSequence instance for method chaining
      */
     public CommandSequence add(Command command) {
         commands.add(command);
+        addRequirements(command);
         return this;
     }
 
@@ -49,25 +51,38 @@ public class CommandSequence extends Command {
     public void init() {
         index = 0;
         if (!commands.isEmpty()) {
-            commands.get(0).init();
+            startChild(commands.get(0));
         }
     }
 
+    /**
+     * Updates the current command in the sequence without a time step.
+     * 
+     * @see #update(double)
+     */
+    @Override
+    public void update() {
+        update(0);
+    }
+
     /**
      * Updates the current command in the sequence. When a command finishes,
      * the next command in the sequence is automatically initialized and started.
+     * 
+     * @param dt Seconds since the machine's previous update
      */
     @Override
-    public void update() {
+    public void update(double dt) {
         if (index >= commands.size()) return;
 
         Command current = commands.get(index);
-        current.update();
+        current.update(dt);
 
         if (current.isFinished()) {
+            endChild(current, false);
             index++;
             if (index < commands.size()) {
-                commands.get(index).init();
+                startChild(commands.get(index));
             }
         }
     }
@@ -81,4 +96,51 @@ public class CommandSequence extends Command {
     public boolean isFinished() {
         return index >= commands.size();
     }
+
+    /**
+     * Ends the sequence. If the sequence was interrupted, the command that was
+     * running is interrupted as well.
+     * 
+     * @param interrupted {@code true} if the sequence was cancelled before finishing
+     */
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted && index < commands.size()) {
+            endChild(commands.get(index), true);
+        }
+    }
+
+    /**
+     * Gets the wake time of the command that is currently running, so the sequence
+     * sleeps for as long as that command does.
+     * 
+     * @return The current command's wake time, or {@link #AWAKE} if the sequence is done
+     */
+    @Override
+    public long getWakeTimeNanos() {
+        if (index >= commands.size()) return AWAKE;
+        return commands.get(index).getWakeTimeNanos();
+    }
+
+    /**
+     * Attaches the sequence and every command in it to a machine.
+     * 
+     * @param machine The machine whose clock and listeners to use
+     */
+    @Override
+    void bind(CommandMachine machine) {
+        super.bind(machine);
+        for (int i = 0; i < commands.size(); i++) {
+            commands.get(i).bind(machine);
+        }
+    }
+
+    /**
+     * Gets the commands in this sequence, for {@link CommandPlan} to flatten.
+     * 
+     * @return The live list of commands
+     */
+    List<Command> getCommands() {
+        return commands;
+    }
 }
@@ -0,0 +1,260 @@
+package org.lib.cardinallib.commands;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs a {@link CommandMachine} and its subsystems at a fixed rate.
+ * 
+ * <p>Each cycle starts on a deadline that advances by exactly one period, so the control
+ * rate does not drift with the amount of work done in the loop. Until the next deadline
+ * the runner sleeps, then busy-waits for the last {@link #setSpinThresholdNanos(long)
+ * spin threshold} to start the cycle as close to the deadline as possible. Every cycle:</p>
+ * <ol>
+ *     <li>calls {@link Subsystem#periodic(double)} on each registered subsystem</li>
+ *     <li>calls {@link CommandMachine#update(double)} with the measured dt</li>
+ * </ol>
+ * 
+ * <p>A cycle that is still running when the next deadline passes counts as an overrun.
+ * Missed deadlines are skipped rather than run back to back, so the loop keeps its phase
+ * instead of bursting to catch up. How late each cycle started is recorded in
+ * {@link #getJitter()}.</p>
+ * 
+ * <p>The runner paces itself with the real {@link System#nanoTime()} clock. To run a
+ * machine faster than real time, give it a simulated {@link Clock} and step it directly
+ * instead, as {@code org.lib.cardinallib.simulation.SimulationHarness} does.</p>
+ * 
+ * <p>Example usage in a LinearOpMode:</p>
+ * <pre>{@code
+ * LoopRunner runner = new LoopRunner(cmdMachine, 100); // 100 Hz
+ * runner.register(lift, intake, drivetrain);
+ * waitForStart();
+ * runner.run(this::opModeIsActive);
+ * }</pre>
+ * 
+ * @see CommandMachine
+ * @see Subsystem#periodic(double)
+ */
+public class LoopRunner {
+
+    /** Default time before a deadline at which the runner stops sleeping and spins (1 ms) */
+    private static final long DEFAULT_SPIN_THRESHOLD_NANOS = 1_000_000L;
+
+    /** The command machine updated each cycle */
+    private final CommandMachine machine;
+    /** The loop period in nanoseconds */
+    private final long periodNanos;
+    /** Subsystems whose periodic method runs each cycle */
+    private Subsystem[] subsystems = new Subsystem[0];
+
+    /** Time before a deadline at which sleeping switches to spinning */
+    private long spinThresholdNanos = DEFAULT_SPIN_THRESHOLD_NANOS;
+    /** Start time the next cycle is aiming for */
+    private long nextDeadline;
+    /** Actual start time of the previous cycle */
+    private long lastStart;
+    /** Whether a cycle has run yet */
+    private boolean started = false;
+    /** Measured dt of the most recent cycle, in seconds */
+    private double lastDt;
+
+    /** How late each cycle started relative to its deadline */
+    private final LoopTimeHistogram jitter = new LoopTimeHistogram();
+    /** Time spent doing work in each cycle */
+    private final LoopTimeHistogram loopTime = new LoopTimeHistogram();
+    /** Number of completed cycles */
+    private long cycleCount;
+    /** Number of cycles that ran past the next deadline */
+    private long overrunCount;
+
+    /**
+     * Creates a runner for the given machine.
+     * 
+     * @param machine The command machine to update each cycle
+     * @param frequencyHz The target loop rate in cycles per second
+     * @throws IllegalArgumentException if the frequency is not positive
+     */
+    public LoopRunner(CommandMachine machine, double frequencyHz) {
+        if (!(frequencyHz > 0)) {
+            throw new IllegalArgumentException("Loop frequency must be positive.");
+        }
+        this.machine = machine;
+        this.periodNanos = Math.round(1e9 / frequencyHz);
+    }
+
+    /**
+     * Registers subsystems whose {@link Subsystem#periodic(double)} runs every cycle,
+     * in registration order, before the command machine is updated.
+     * 
+     * @param toAdd The subsystems to register
+     * @return This runner for method chaining
+     */
+    public LoopRunner register(Subsystem... toAdd) {
+        int start = subsystems.length;
+        subsystems = Arrays.copyOf(subsystems, start + toAdd.length);
+        System.arraycopy(toAdd, 0, subsystems, start, toAdd.length);
+        return this;
+    }
+
+    /**
+     * Sets how long before each deadline the runner stops sleeping and busy-waits.
+     * 
+     * <p>Larger values start cycles more precisely at the cost of CPU time spent
+     * spinning. Set to 0 to only sleep.</p>
+     * 
+     * @param nanos The spin window in nanoseconds
+     */
+    public void setSpinThresholdNanos(long nanos) {
+        spinThresholdNanos = Math.max(0, nanos);
+    }
+
+    /**
+     * Runs cycles until the condition becomes false or the thread is interrupted.
+     * 
+     * @param keepRunning Checked before each cycle, for example {@code this::opModeIsActive}
+     */
+    public void run(BooleanSupplier keepRunning) {
+        while (keepRunning.getAsBoolean() && !Thread.currentThread().isInterrupted()) {
+            step();
+        }
+    }
+
+    /**
+     * Waits for the next deadline and runs a single cycle.
+     * 
+     * <p>Use this instead of {@link #run(BooleanSupplier)} when the op mode loop does
+     * other work between cycles. The first call starts immediately.</p>
+     */
+    public void step() {
+        long now = System.nanoTime();
+        if (!started) {
+            nextDeadline = now;
+            lastStart = now;
+        } else {
+            now = waitUntil(nextDeadline);
+        }
+        jitter.record(now - nextDeadline);
+
+        lastDt = started ? (now - lastStart) / 1e9 : 0;
+        lastStart = now;
+        started = true;
+
+        for (Subsystem subsystem : subsystems) {
+            subsystem.periodic(lastDt);
+        }
+        machine.update(lastDt);
+
+        long end = System.nanoTime();
+        loopTime.record(end - now);
+        cycleCount++;
+
+        nextDeadline += periodNanos;
+        if (end - nextDeadline > 0) {
+            overrunCount++;
+            long missed = (end - nextDeadline) / periodNanos + 1;
+            nextDeadline += missed * periodNanos;
+        }
+    }
+
+    /**
+     * Gets the measured length of the most recent cycle.
+     * 
+     * @return Seconds between the start of the previous cycle and the latest one
+     */
+    public double getDt() {
+        return lastDt;
+    }
+
+    /**
+     * Gets the target loop period.
+     * 
+     * @return The period in seconds
+     */
+    public double getPeriod() {
+        return periodNanos / 1e9;
+    }
+
+    /**
+     * Converts a desired period into a rate divisor for this runner's loop.
+     * 
+     * <p>For example, on a 100 Hz runner {@code command.withRateDivisor(runner.divisorFor(0.1))}
+     * runs the command at 10 Hz.</p>
+     * 
+     * @param periodSeconds The desired time between updates, in seconds
+     * @return The number of cycles closest to that period, at least 1
+     * @see Command#withRateDivisor(int)
+     * @see Trigger#withRateDivisor(int)
+     */
+    public int divisorFor(double periodSeconds) {
+        long cycles = Math.round(periodSeconds * 1e9 / periodNanos);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, cycles));
+    }
+
+    /**
+     * Gets how late each cycle started compared to its deadline.
+     * 
+     * @return A histogram of start delays in nanoseconds
+     */
+    public LoopTimeHistogram getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Gets how long each cycle's work took, excluding the time spent waiting.
+     * 
+     * @return A histogram of cycle durations in nanoseconds
+     */
+    public LoopTimeHistogram getLoopTime() {
+        return loopTime;
+    }
+
+    /**
+     * Gets the number of cycles run so far.
+     * 
+     * @return The cycle count
+     */
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    /**
+     * Gets the number of cycles that were still running when the next one was due.
+     * 
+     * @return The overrun count
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Clears the jitter, loop time and overrun statistics.
+     */
+    public void resetStatistics() {
+        jitter.reset();
+        loopTime.reset();
+        cycleCount = 0;
+        overrunCount = 0;
+    }
+
+    /**
+     * Sleeps, then spins, until the deadline. Returns early if the thread is interrupted.
+     * 
+     * @param deadline The system time to wait for
+     * @return The system time when waiting ended
+     */
+    private long waitUntil(long deadline) {
+        long now = System.nanoTime();
+        while (deadline - now > 0) {
+            long remaining = deadline - now;
+            if (remaining > spinThresholdNanos) {
+                LockSupport.parkNanos(remaining - spinThresholdNanos);
+                if (Thread.currentThread().isInterrupted()) {
+                    return System.nanoTime();
+                }
+            }
+            now = System.nanoTime();
+        }
+        return now;
+    }
+}
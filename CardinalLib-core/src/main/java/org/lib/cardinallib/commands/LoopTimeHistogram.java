@@ -0,0 +1,160 @@
+package org.lib.cardinallib.commands;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of durations measured in nanoseconds.
+ * 
+ * <p>Durations are sorted into log-linear buckets: values below 16 ns get one bucket each,
+ * and every power of two above that is split into 8 equal buckets. Percentiles read from
+ * the histogram are therefore accurate to within 12.5% of the true value, while the maximum,
+ * count and mean are exact.</p>
+ * 
+ * <p>All storage is allocated in the constructor, so {@link #record(long)} never allocates
+ * and is safe to call from the control loop.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * LoopTimeHistogram loopTimes = new LoopTimeHistogram();
+ * 
+ * // In loop:
+ * long start = System.nanoTime();
+ * cmdMachine.update();
+ * loopTimes.record(System.nanoTime() - start);
+ * 
+ * telemetry.addData("Loop p99 (ms)", loopTimes.getPercentile(99) / 1e6);
+ * }</pre>
+ * 
+ * @see CommandMachine#setProfilingEnabled(boolean)
+ */
+public class LoopTimeHistogram {
+
+    /** Number of bits used to split each power of two into sub-buckets */
+    private static final int SUB_BUCKET_BITS = 3;
+    /** Number of sub-buckets per power of two */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Values below this are counted exactly, one bucket per nanosecond */
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    /** Total number of buckets needed to cover every non-negative long */
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    /** Number of samples in each bucket */
+    private final long[] buckets = new long[BUCKET_COUNT];
+    /** Total number of recorded samples */
+    private long count;
+    /** Sum of all recorded samples in nanoseconds */
+    private long total;
+    /** Largest recorded sample in nanoseconds */
+    private long max;
+
+    /**
+     * Records a single duration.
+     * 
+     * @param nanos The duration in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[bucketIndex(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    /**
+     * Gets an upper bound for the given percentile of recorded durations.
+     * 
+     * @param percentile The percentile to read, in the range [0, 100]
+     * @return The upper edge of the bucket holding that percentile in nanoseconds,
+     *         never more than {@link #getMax()}, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     * 
+     * @return The maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean of all recorded durations.
+     * 
+     * @return The mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     * 
+     * @return The sample count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Clears all recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * Formats the main percentiles in milliseconds, suitable for a telemetry line.
+     * 
+     * @return A summary such as {@code "p50 0.012 | p95 0.030 | p99 0.110 | max 0.400 ms (n=900)"}
+     */
+    @Override
+    public String toString() {
+        return String.format("p50 %.3f | p95 %.3f | p99 %.3f | max %.3f ms (n=%d)",
+                getPercentile(50) / 1e6, getPercentile(95) / 1e6,
+                getPercentile(99) / 1e6, max / 1e6, count);
+    }
+
+    /**
+     * Maps a duration to its bucket.
+     * 
+     * @param nanos A non-negative duration
+     * @return The bucket index
+     */
+    private static int bucketIndex(long nanos) {
+        if (nanos < LINEAR_LIMIT) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Gets the largest duration that falls into a bucket.
+     * 
+     * @param index The bucket index
+     * @return The inclusive upper edge of the bucket in nanoseconds
+     */
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + sub * width;
+        return lower + width - 1;
+    }
+}
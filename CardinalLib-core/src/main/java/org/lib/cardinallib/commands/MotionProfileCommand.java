@@ -0,0 +1,159 @@
+package org.lib.cardinallib.commands;
+
+import org.lib.cardinallib.math.MotionProfile;
+import org.lib.cardinallib.math.RobotFormulas;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A command that follows a {@link MotionProfile} and finishes when the profile ends.
+ * 
+ * <p>Each update advances the profile by the measured {@code dt} and sends the velocity
+ * feedforward from {@link RobotFormulas#linearVelocityToPower(double)} to the output.
+ * {@link #withAccelerationGain(double)} adds a term for acceleration, and
+ * {@link #withPositionFeedback(DoubleSupplier, double)} corrects drift from the profiled
+ * position. The output is set to 0 when the command ends.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * MotionProfile profile = MotionProfile.trapezoid(1.2, 1.5, 3.0);
+ * Command lift = new MotionProfileCommand(profile, robotFormulas, slide::setPower)
+ *         .withAccelerationGain(0.05)
+ *         .withPositionFeedback(slide::getPositionMeters, 2.0)
+ *         .requires(slide);
+ * cmdMachine.schedule(lift);
+ * }</pre>
+ * 
+ * @see MotionProfile
+ */
+public class MotionProfileCommand extends Command {
+
+    /** The profile being followed */
+    private final MotionProfile profile;
+    /** The robot's conversion from linear velocity to power */
+    private final RobotFormulas formulas;
+    /** Receives the power each update */
+    private final DoubleConsumer output;
+    /** Power per unit of profiled acceleration */
+    private double accelerationGain;
+    /** Measured position of the mechanism, or {@code null} for feedforward only */
+    private DoubleSupplier position;
+    /** Power per unit of position error */
+    private double positionGain;
+    /** Measured position when the command started */
+    private double startPosition;
+    /** Seconds since the command started */
+    private double elapsed;
+
+    /**
+     * Creates a command that follows a profile with feedforward only.
+     * 
+     * @param profile The profile to follow
+     * @param formulas The robot's conversion from linear velocity to power
+     * @param output Receives the motor power each update
+     */
+    public MotionProfileCommand(MotionProfile profile, RobotFormulas formulas, DoubleConsumer output) {
+        this.profile = profile;
+        this.formulas = formulas;
+        this.output = output;
+    }
+
+    /**
+     * Adds power proportional to the profiled acceleration.
+     * 
+     * @param gain Power per unit of acceleration
+     * @return This command for method chaining
+     */
+    public MotionProfileCommand withAccelerationGain(double gain) {
+        accelerationGain = gain;
+        return this;
+    }
+
+    /**
+     * Adds power proportional to how far the mechanism is behind the profiled position.
+     * 
+     * <p>The profile is relative, so positions are measured from where the mechanism was
+     * when the command started.</p>
+     * 
+     * @param position Measured position of the mechanism, in the profile's units
+     * @param gain Power per unit of position error
+     * @return This command for method chaining
+     */
+    public MotionProfileCommand withPositionFeedback(DoubleSupplier position, double gain) {
+        this.position = position;
+        this.positionGain = gain;
+        return this;
+    }
+
+    /**
+     * Starts the profile from the mechanism's current position.
+     */
+    @Override
+    public void init() {
+        elapsed = 0;
+        startPosition = position != null ? position.getAsDouble() : 0;
+    }
+
+    /**
+     * Does nothing; the profile is advanced by {@link #update(double)}.
+     */
+    @Override
+    public void update() {
+
+    }
+
+    /**
+     * Advances the profile and sends the power for the new time to the output.
+     * 
+     * @param dt Seconds since the machine's previous update
+     */
+    @Override
+    public void update(double dt) {
+        elapsed += dt;
+        double power = profile.getFeedforward(elapsed, formulas, accelerationGain);
+        if (position != null) {
+            double target = startPosition + profile.getPosition(elapsed);
+            power += positionGain * (target - position.getAsDouble());
+        }
+        output.accept(power);
+    }
+
+    /**
+     * Checks if the profile has ended.
+     * 
+     * @return {@code true} once the profile's duration has passed, {@code false} otherwise
+     */
+    @Override
+    public boolean isFinished() {
+        return profile.isFinished(elapsed);
+    }
+
+    /**
+     * Stops the mechanism.
+     * 
+     * @param interrupted Whether the command was interrupted
+     */
+    @Override
+    public void end(boolean interrupted) {
+        output.accept(0);
+    }
+
+    /**
+     * Gets how far into the profile the command is.
+     * 
+     * @return Seconds since the command started
+     */
+    public double getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Gets the profile being followed.
+     * 
+     * @return The profile
+     */
+    public MotionProfile getProfile() {
+        return profile;
+    }
+}
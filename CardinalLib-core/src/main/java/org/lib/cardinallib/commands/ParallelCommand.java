@@ -0,0 +1,162 @@
+package org.lib.cardinallib.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A command that executes multiple commands simultaneously (in parallel).
+ * 
+ * <p>ParallelCommand runs all added commands concurrently, updating them all
+ * each cycle. The parallel command finishes when all of its constituent commands
+ * have finished. This is useful for coordinating multiple mechanisms or actions
+ * that should happen at the same time.</p>
+ * 
+ * <p>The group only records which commands have finished, so it can be scheduled
+ * again after it completes.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ParallelCommand parallel = new ParallelCommand()
+ *     .add(new IntakeCommand())
+ *     .add(new LiftCommand());
+ * cmdMachine.schedule(parallel);
+ * }</pre>
+ * 
+ * @see Command
+ * @see CommandSequence
+ */
+public class ParallelCommand extends Command {
+    /** The list of commands to execute in parallel */
+    private final List<Command> commands = new ArrayList<>();
+    /** Whether each command has finished during the current run */
+    private boolean[] finished = new boolean[0];
+    /** Number of commands that have not finished during the current run */
+    private int remaining;
+
+    /**
+     * Adds a command to be executed in parallel with the others.
+     * 
+     * <p>This method supports method chaining for convenient parallel command construction.
+     * The group takes on the command's requirements, so declare them before adding it.</p>
+     * 
+     * @param cmd The command to add to the parallel execution
+     * @return This ParallelCommand instance for method chaining
+     */
+    public ParallelCommand add(Command cmd) {
+        commands.add(cmd);
+        finished = Arrays.copyOf(finished, commands.size());
+        addRequirements(cmd);
+        return this;
+    }
+
+    /**
+     * Initializes all commands in the parallel group simultaneously.
+     */
+    @Override
+    public void init() {
+        Arrays.fill(finished, false);
+        remaining = commands.size();
+        for(int i = 0; i < commands.size(); i++) {
+            startChild(commands.get(i));
+        }
+    }
+
+    /**
+     * Updates all active commands in the parallel group without a time step.
+     * 
+     * @see #update(double)
+     */
+    @Override
+    public void update() {
+        update(0);
+    }
+
+    /**
+     * Updates all active commands in the parallel group. Finished commands
+     * are ended and skipped for the rest of the run.
+     * 
+     * @param dt Seconds since the machine's previous update
+     */
+    @Override
+    public void update(double dt) {
+        for(int i = 0; i < commands.size(); i++) {
+            if(finished[i]) continue;
+            Command cmd = commands.get(i);
+            cmd.update(dt);
+            if(cmd.isFinished()) {
+                finished[i] = true;
+                remaining--;
+                endChild(cmd, false);
+            }
+        }
+    }
+
+    /**
+     * Checks if all commands in the parallel group have finished.
+     * 
+     * @return {@code true} if all commands have completed, {@code false} otherwise
+     */
+    @Override
+    public boolean isFinished() {
+        return remaining == 0;
+    }
+
+    /**
+     * Ends the parallel group. If the group was interrupted, every command that
+     * has not finished yet is interrupted as well.
+     * 
+     * @param interrupted {@code true} if the group was cancelled before finishing
+     */
+    @Override
+    public void end(boolean interrupted) {
+        if(!interrupted) return;
+        for(int i = 0; i < commands.size(); i++) {
+            if(!finished[i]) {
+                endChild(commands.get(i), true);
+            }
+        }
+    }
+
+    /**
+     * Gets the earliest wake time of the commands still running. The group only
+     * sleeps when every running command is sleeping.
+     * 
+     * @return The earliest wake time, or {@link #AWAKE} if any command needs every cycle
+     */
+    @Override
+    public long getWakeTimeNanos() {
+        long earliest = AWAKE;
+        for(int i = 0; i < commands.size(); i++) {
+            if(finished[i]) continue;
+            long wake = commands.get(i).getWakeTimeNanos();
+            if(wake == AWAKE) return AWAKE;
+            if(earliest == AWAKE || wake - earliest < 0) {
+                earliest = wake;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Attaches the group and every command in it to a machine.
+     * 
+     * @param machine The machine whose clock and listeners to use
+     */
+    @Override
+    void bind(CommandMachine machine) {
+        super.bind(machine);
+        for(int i = 0; i < commands.size(); i++) {
+            commands.get(i).bind(machine);
+        }
+    }
+
+    /**
+     * Gets the commands in this group, for {@link CommandPlan} to flatten.
+     * 
+     * @return The live list of commands
+     */
+    List<Command> getCommands() {
+        return commands;
+    }
+}
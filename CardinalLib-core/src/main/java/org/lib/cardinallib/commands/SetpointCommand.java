@@ -0,0 +1,166 @@
+package org.lib.cardinallib.commands;
+
+import org.lib.cardinallib.control.MotorFeedforward;
+import org.lib.cardinallib.control.PIDFController;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A command that drives a mechanism to a setpoint with a {@link PIDFController}.
+ * 
+ * <p>Each update passes the measurement and the machine's measured {@code dt} to the
+ * controller and sends its output to the mechanism. The command finishes once the
+ * controller has been {@link PIDFController#atSetpoint() at the setpoint} for the settle
+ * time, or never with {@link #withHold()}, so the mechanism keeps holding its position
+ * until interrupted. The output is set to 0 when the command ends.</p>
+ * 
+ * <p>{@link #withFeedforward(MotorFeedforward)} treats the setpoint as a velocity and adds
+ * the feedforward for it, for velocity loops such as a flywheel.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * PIDFController liftController = new PIDFController(4.0, 0.5, 0.2, 0);
+ * liftController.setTolerance(0.01, 0.05);
+ * Command raise = new SetpointCommand(liftController, 0.6, lift::getHeightMeters, lift::setPower)
+ *         .withSettleTime(0.1)
+ *         .requires(lift);
+ * cmdMachine.schedule(raise);
+ * }</pre>
+ * 
+ * @see PIDFController
+ * @see MotionProfileCommand
+ */
+public class SetpointCommand extends Command {
+
+    /** The controller computing the output */
+    private final PIDFController controller;
+    /** The target value */
+    private final double setpoint;
+    /** Measured value of the mechanism */
+    private final DoubleSupplier measurement;
+    /** Receives the output each update */
+    private final DoubleConsumer output;
+    /** Feedforward for the setpoint as a velocity, or {@code null} */
+    private MotorFeedforward feedforward;
+    /** Seconds the controller must stay at the setpoint before finishing */
+    private double settleTime;
+    /** Whether to keep running after reaching the setpoint */
+    private boolean hold;
+    /** Seconds the controller has been at the setpoint */
+    private double settled;
+
+    /**
+     * Creates a command that drives a mechanism to a setpoint.
+     * 
+     * @param controller The controller to use; its setpoint is set when the command starts
+     * @param setpoint The target value, in the measurement's units
+     * @param measurement Measured value of the mechanism
+     * @param output Receives the motor power each update
+     */
+    public SetpointCommand(PIDFController controller, double setpoint,
+                           DoubleSupplier measurement, DoubleConsumer output) {
+        this.controller = controller;
+        this.setpoint = setpoint;
+        this.measurement = measurement;
+        this.output = output;
+    }
+
+    /**
+     * Adds the feedforward for the setpoint, treated as a target velocity.
+     * 
+     * @param feedforward The feedforward
+     * @return This command for method chaining
+     */
+    public SetpointCommand withFeedforward(MotorFeedforward feedforward) {
+        this.feedforward = feedforward;
+        return this;
+    }
+
+    /**
+     * Requires the controller to stay at the setpoint for a while before finishing, so a
+     * mechanism passing through on its way to overshooting does not count.
+     * 
+     * @param seconds Time at the setpoint before finishing
+     * @return This command for method chaining
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public SetpointCommand withSettleTime(double seconds) {
+        if (!(seconds >= 0)) {
+            throw new IllegalArgumentException("Settle time cannot be negative.");
+        }
+        settleTime = seconds;
+        return this;
+    }
+
+    /**
+     * Keeps the command running after it reaches the setpoint, holding the mechanism there
+     * until it is interrupted.
+     * 
+     * @return This command for method chaining
+     */
+    public SetpointCommand withHold() {
+        hold = true;
+        return this;
+    }
+
+    /**
+     * Resets the controller and gives it the setpoint.
+     */
+    @Override
+    public void init() {
+        controller.reset();
+        controller.setSetpoint(setpoint);
+        settled = 0;
+    }
+
+    /**
+     * Does nothing; the controller is run by {@link #update(double)}.
+     */
+    @Override
+    public void update() {
+
+    }
+
+    /**
+     * Runs the controller for the elapsed time and sends its output to the mechanism.
+     * 
+     * @param dt Seconds since the machine's previous update
+     */
+    @Override
+    public void update(double dt) {
+        double extra = feedforward != null ? feedforward.calculate(setpoint) : 0;
+        output.accept(controller.calculate(measurement.getAsDouble(), dt, extra));
+        settled = controller.atSetpoint() ? settled + dt : 0;
+    }
+
+    /**
+     * Checks if the mechanism has settled at the setpoint.
+     * 
+     * @return {@code true} once the controller has been at the setpoint for the settle time,
+     *         unless holding
+     */
+    @Override
+    public boolean isFinished() {
+        return !hold && controller.atSetpoint() && settled >= settleTime;
+    }
+
+    /**
+     * Stops the mechanism.
+     * 
+     * @param interrupted Whether the command was interrupted
+     */
+    @Override
+    public void end(boolean interrupted) {
+        output.accept(0);
+    }
+
+    /**
+     * Gets the controller.
+     * 
+     * @return The controller
+     */
+    public PIDFController getController() {
+        return controller;
+    }
+}
@@ -0,0 +1,42 @@
+package org.lib.cardinallib.commands;
+
+/**
+ * Base class for anything a command can require exclusive use of.
+ * 
+ * <p>A subsystem is a part of the robot, such as a lift or an intake, that only one
+ * command should drive at a time. Commands declare the subsystems they use with
+ * {@link Command#requires(Subsystem...)}. When a {@link CommandMachine} schedules a
+ * command, any command currently holding one of its subsystems is interrupted.</p>
+ * 
+ * <p>Each subsystem records the command that currently owns it, so checking for a
+ * conflict is a single field read per requirement no matter how many commands are
+ * active.</p>
+ * 
+ * @see Command#requires(Subsystem...)
+ * @see CommandMachine#schedule(Command)
+ */
+public abstract class Subsystem {
+
+    /** The command currently holding this subsystem, or null if it is free */
+    Command owner;
+
+    /**
+     * Called once per loop by a {@link LoopRunner} before commands are updated.
+     * 
+     * <p>Override this for work the subsystem does every loop regardless of which
+     * command owns it, such as reading sensors or running a holding controller.
+     * The default implementation does nothing.</p>
+     * 
+     * @param dt Seconds since the previous loop started
+     */
+    public void periodic(double dt) { }
+
+    /**
+     * Gets the command that currently requires this subsystem.
+     * 
+     * @return The owning command, or {@code null} if no scheduled command requires it
+     */
+    public Command getOwner() {
+        return owner;
+    }
+}
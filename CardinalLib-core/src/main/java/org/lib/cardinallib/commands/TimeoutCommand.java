@@ -0,0 +1,123 @@
+package org.lib.cardinallib.commands;
+
+/**
+ * A command that runs another command but interrupts it after a time limit.
+ * 
+ * <p>Usually created with {@link Command#withTimeout(double)}. The wrapper finishes when
+ * the inner command finishes or when the time limit passes, whichever comes first. If the
+ * time limit ends the command, the inner command's {@link Command#end(boolean)} is called
+ * with {@code true}.</p>
+ * 
+ * <p>While the inner command is sleeping, the wrapper reports the earlier of the inner
+ * wake time and its own deadline, so a {@link CommandMachine} parks both and wakes them
+ * only when one of the two times arrives.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // Give up on reaching the target after 3 seconds
+ * cmdMachine.schedule(new DriveToPoseCommand(target).withTimeout(3.0));
+ * }</pre>
+ * 
+ * @see Command#withTimeout(double)
+ */
+public class TimeoutCommand extends Command {
+
+    /** The command being limited */
+    private final Command command;
+    /** The time limit in nanoseconds */
+    private final long timeoutNanos;
+    /** The clock time at which the time limit expires */
+    private long deadline;
+
+    /**
+     * Creates a new TimeoutCommand.
+     * 
+     * @param command The command to run
+     * @param seconds The maximum time the command may run, in seconds
+     */
+    public TimeoutCommand(Command command, double seconds) {
+        this.command = command;
+        this.timeoutNanos = (long)(seconds * 1e9);
+        addRequirements(command);
+    }
+
+    /**
+     * Starts the time limit and initializes the inner command.
+     */
+    @Override
+    public void init() {
+        deadline = getClock().nanoTime() + timeoutNanos;
+        startChild(command);
+    }
+
+    /**
+     * Updates the inner command.
+     */
+    @Override
+    public void update() {
+        command.update();
+    }
+
+    /**
+     * Updates the inner command with the time since the last update.
+     * 
+     * @param dt Seconds since the machine's previous update
+     */
+    @Override
+    public void update(double dt) {
+        command.update(dt);
+    }
+
+    /**
+     * Checks if the inner command has finished or the time limit has passed.
+     * 
+     * @return {@code true} if the command is done or out of time, {@code false} otherwise
+     */
+    @Override
+    public boolean isFinished() {
+        return command.isFinished() || getClock().nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Ends the inner command, marking it interrupted if it ran out of time.
+     * 
+     * @param interrupted {@code true} if this wrapper was cancelled
+     */
+    @Override
+    public void end(boolean interrupted) {
+        endChild(command, interrupted || !command.isFinished());
+    }
+
+    /**
+     * Gets the earlier of the inner command's wake time and the time limit.
+     * 
+     * @return The next time this command needs to be updated, or {@link #AWAKE}
+     */
+    @Override
+    public long getWakeTimeNanos() {
+        long wake = command.getWakeTimeNanos();
+        if (wake == AWAKE) return AWAKE;
+        return wake - deadline < 0 ? wake : deadline;
+    }
+
+    /**
+     * Attaches the wrapper and the inner command to a machine.
+     * 
+     * @param machine The machine whose clock and listeners to use
+     */
+    @Override
+    void bind(CommandMachine machine) {
+        super.bind(machine);
+        command.bind(machine);
+    }
+
+    /**
+     * Gets the name of the inner command with the timeout noted.
+     * 
+     * @return The command's name
+     */
+    @Override
+    public String getName() {
+        return command.getName() + " (timeout)";
+    }
+}
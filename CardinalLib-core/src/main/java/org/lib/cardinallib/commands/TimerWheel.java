@@ -0,0 +1,172 @@
+package org.lib.cardinallib.commands;
+
+/**
+ * Hashed timer wheel that holds sleeping commands until their wake time.
+ * 
+ * <p>Time is divided into ticks of {@link #RESOLUTION_NANOS}. Each parked command is
+ * linked into the slot for its wake tick, so parking, removing and waking a command are
+ * all O(1) and a loop where nothing is due only visits the slots for the ticks that
+ * passed. Commands due more than one rotation ahead stay in their slot and are skipped
+ * until their tick comes around.</p>
+ * 
+ * <p>The list links live in the {@link Command} itself, so the wheel never allocates
+ * after construction.</p>
+ * 
+ * @see CommandMachine
+ */
+class TimerWheel {
+
+    /** Length of one wheel tick in nanoseconds (1 ms) */
+    static final long RESOLUTION_NANOS = 1_000_000L;
+    /** Number of slots; one rotation covers this many ticks */
+    private static final int SLOT_COUNT = 512;
+    /** Mask used to map a tick to its slot */
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+
+    /** Head of the doubly linked list of commands in each slot */
+    private final Command[] slots = new Command[SLOT_COUNT];
+    /** The time that tick 0 corresponds to */
+    private final long origin;
+    /** The last tick whose slot has been processed */
+    private long lastTick;
+    /** Number of commands currently parked */
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     * 
+     * @param now The current time in nanoseconds
+     */
+    TimerWheel(long now) {
+        origin = now;
+        lastTick = 0;
+    }
+
+    /**
+     * Parks a command until the given time.
+     * 
+     * @param command A command that is not already parked
+     * @param wakeTime The time to wake the command, in nanoseconds
+     */
+    void add(Command command, long wakeTime) {
+        long tick = toTick(wakeTime);
+        // A slot for a tick that has already been processed would not be visited again
+        // until the next rotation, so anything due that soon goes in the next slot.
+        if (tick <= lastTick) tick = lastTick + 1;
+
+        int slot = (int) (tick & SLOT_MASK);
+        Command head = slots[slot];
+        command.wheelTick = tick;
+        command.wheelPrev = null;
+        command.wheelNext = head;
+        if (head != null) head.wheelPrev = command;
+        slots[slot] = command;
+        command.parked = true;
+        size++;
+    }
+
+    /**
+     * Removes a parked command without waking it.
+     * 
+     * @param command A command currently parked in this wheel
+     */
+    void remove(Command command) {
+        unlink(command);
+        command.parked = false;
+        size--;
+    }
+
+    /**
+     * Removes every command whose wake tick has passed.
+     * 
+     * @param now The current time in nanoseconds
+     * @return The first due command, linked to the rest through {@code wheelNext},
+     *         or {@code null} if nothing is due. Returned commands are no longer parked.
+     */
+    Command expire(long now) {
+        long currentTick = toTick(now);
+        if (currentTick <= lastTick || size == 0) {
+            if (currentTick > lastTick) lastTick = currentTick;
+            return null;
+        }
+
+        long firstTick = Math.max(lastTick + 1, currentTick - SLOT_MASK);
+        Command due = null;
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Command cmd = slots[(int) (tick & SLOT_MASK)];
+            while (cmd != null) {
+                Command next = cmd.wheelNext;
+                if (cmd.wheelTick <= currentTick) {
+                    unlink(cmd);
+                    cmd.parked = false;
+                    size--;
+                    cmd.wheelNext = due;
+                    due = cmd;
+                }
+                cmd = next;
+            }
+        }
+        lastTick = currentTick;
+        return due;
+    }
+
+    /**
+     * Removes every parked command.
+     * 
+     * @return The first removed command, linked to the rest through {@code wheelNext},
+     *         or {@code null} if the wheel was empty
+     */
+    Command clear() {
+        Command removed = null;
+        for (int slot = 0; slot < SLOT_COUNT && size > 0; slot++) {
+            Command cmd = slots[slot];
+            while (cmd != null) {
+                Command next = cmd.wheelNext;
+                unlink(cmd);
+                cmd.parked = false;
+                size--;
+                cmd.wheelNext = removed;
+                removed = cmd;
+                cmd = next;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Gets the number of parked commands.
+     * 
+     * @return The number of commands waiting in the wheel
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Converts a time to a wheel tick.
+     * 
+     * @param time A time in nanoseconds
+     * @return The tick that time falls in
+     */
+    private long toTick(long time) {
+        return (time - origin) / RESOLUTION_NANOS;
+    }
+
+    /**
+     * Unlinks a command from its slot list.
+     * 
+     * @param command A command currently in the wheel
+     */
+    private void unlink(Command command) {
+        Command prev = command.wheelPrev;
+        Command next = command.wheelNext;
+        if (prev != null) {
+            prev.wheelNext = next;
+        } else {
+            slots[(int) (command.wheelTick & SLOT_MASK)] = next;
+        }
+        if (next != null) next.wheelPrev = prev;
+        command.wheelPrev = null;
+        command.wheelNext = null;
+    }
+}
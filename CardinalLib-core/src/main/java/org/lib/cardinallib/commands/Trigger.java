@@ -30,6 +30,12 @@ public class Trigger {
     private final Command command;
     /** The previous state of the condition (for edge detection) */
     private boolean lastState = false;
+    /** Time spent in {@link #check()}, attached when added to a profiling machine */
+    LoopTimeHistogram profile;
+    /** Number of machine updates per check of the condition */
+    private int rateDivisor = 1;
+    /** The machine tick on which the condition is checked next */
+    long nextCheckTick;
 
     /**
      * Creates a new trigger with the specified condition and command.
@@ -62,4 +68,41 @@ public class Trigger {
         lastState = current;
         return null;
     }
+
+    /**
+     * Checks the condition on only one of every {@code divisor} machine updates.
+     * 
+     * <p>Useful for conditions that read slow sensors. The {@link CommandMachine} spreads
+     * low-rate triggers and commands over different loops. Call this before adding the
+     * trigger to a machine.</p>
+     * 
+     * @param divisor Number of machine updates per check; 1 checks every update
+     * @return This trigger for method chaining
+     * @throws IllegalArgumentException if the divisor is less than 1
+     */
+    public Trigger withRateDivisor(int divisor) {
+        if (divisor < 1) {
+            throw new IllegalArgumentException("Rate divisor must be at least 1.");
+        }
+        rateDivisor = divisor;
+        return this;
+    }
+
+    /**
+     * Gets how many machine updates pass per check of the condition.
+     * 
+     * @return The rate divisor, 1 if the condition is checked every update
+     */
+    public int getRateDivisor() {
+        return rateDivisor;
+    }
+
+    /**
+     * Gets the command this trigger schedules.
+     * 
+     * @return The triggered command
+     */
+    public Command getCommand() {
+        return command;
+    }
 }
@@ -6,6 +6,10 @@ package org.lib.cardinallib.commands;
  * <p>This command is useful for creating delays in command sequences or
  * ensuring a mechanism has time to complete an action before proceeding.</p>
  * 
+ * <p>A wait reports its deadline through {@link #getWakeTimeNanos()}, so a
+ * {@link CommandMachine} parks it, along with any sequence waiting on it, instead of
+ * polling the clock every cycle.</p>
+ * 
  * <p>Example usage:</p>
  * <pre>{@code
  * // Wait for 2.5 seconds
@@ -17,7 +21,7 @@ public class WaitCommand extends Command {
 
     /** The duration to wait in nanoseconds */
     private final long durationNanos;
-    /** The system time when the command was initialized */
+    /** The clock time when the command was initialized */
     private long startTime;
 
     /**
@@ -34,7 +38,7 @@ public class WaitCommand extends Command {
      */
     @Override
     public void init() {
-        startTime = System.nanoTime();
+        startTime = getClock().nanoTime();
     }
 
     /**
@@ -53,6 +57,16 @@ public class WaitCommand extends Command {
      */
     @Override
     public boolean isFinished() {
-        return System.nanoTime() - startTime >= durationNanos;
+        return getClock().nanoTime() - startTime >= durationNanos;
+    }
+
+    /**
+     * Gets the time the wait ends, so the command can sleep until then.
+     * 
+     * @return The time at which the wait duration will have elapsed
+     */
+    @Override
+    public long getWakeTimeNanos() {
+        return startTime + durationNanos;
     }
 }
@@ -0,0 +1,129 @@
+package org.lib.cardinallib.control;
+
+import org.lib.cardinallib.math.RobotFormulas;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A kS/kV/kA feedforward: the power a motor needs to move at a velocity and acceleration,
+ * computed from the model instead of waiting for feedback to find it.
+ * 
+ * <p>The output is {@code kS·sign(v) + power(v) + kA·a}. {@code kS} overcomes static
+ * friction, {@code kA} supplies the extra power to accelerate, and {@code power(v)} is the
+ * velocity term: either a constant {@code kV·v}, or the calibrated curve from the robot's
+ * {@link RobotFormulas}, so a feedforward tuned once in the formulas is shared by every
+ * controller that uses it.</p>
+ * 
+ * <p>Calls allocate nothing. Pass the result to
+ * {@link PIDFController#calculate(double, double, double)} as its feedforward so it is
+ * clamped together with the feedback.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * MotorFeedforward drive = MotorFeedforward.linear(robotFormulas, 0.05, 0.02);
+ * double power = drive.calculate(profile.getVelocity(t), profile.getAcceleration(t));
+ * 
+ * MotorFeedforward flywheel = MotorFeedforward.launcher(robotFormulas, 0.03, 0);
+ * double hold = flywheel.calculate(launchSpeed);
+ * }</pre>
+ * 
+ * @see PIDFController
+ */
+public class MotorFeedforward {
+
+    /** Power to overcome static friction */
+    private final double kS;
+    /** Power per unit of acceleration */
+    private final double kA;
+    /** Power for a velocity */
+    private final DoubleUnaryOperator velocityToPower;
+
+    /**
+     * Creates a feedforward with a constant velocity gain.
+     * 
+     * @param kS Power to overcome static friction
+     * @param kV Power per unit of velocity
+     * @param kA Power per unit of acceleration
+     */
+    public MotorFeedforward(double kS, double kV, double kA) {
+        this(kS, velocity -> kV * velocity, kA);
+    }
+
+    /**
+     * Creates a feedforward with a velocity term given as a function.
+     * 
+     * @param kS Power to overcome static friction
+     * @param velocityToPower Power for a velocity
+     * @param kA Power per unit of acceleration
+     */
+    public MotorFeedforward(double kS, DoubleUnaryOperator velocityToPower, double kA) {
+        this.kS = kS;
+        this.kA = kA;
+        this.velocityToPower = velocityToPower;
+    }
+
+    /**
+     * Creates a feedforward for the drivetrain, with the velocity term from
+     * {@link RobotFormulas#linearVelocityToPower(double)}.
+     * 
+     * @param formulas The robot's calibrated formulas
+     * @param kS Power to overcome static friction, on top of any in the formulas
+     * @param kA Power per unit of acceleration
+     * @return The feedforward
+     */
+    public static MotorFeedforward linear(RobotFormulas formulas, double kS, double kA) {
+        return new MotorFeedforward(kS, formulas::linearVelocityToPower, kA);
+    }
+
+    /**
+     * Creates a feedforward for a launcher, with the velocity term from
+     * {@link RobotFormulas#velocityToPower(double)}.
+     * 
+     * @param formulas The robot's calibrated formulas
+     * @param kS Power to overcome static friction, on top of any in the formulas
+     * @param kA Power per unit of acceleration of the launch velocity
+     * @return The feedforward
+     */
+    public static MotorFeedforward launcher(RobotFormulas formulas, double kS, double kA) {
+        return new MotorFeedforward(kS, formulas::velocityToPower, kA);
+    }
+
+    /**
+     * Computes the power to hold a velocity.
+     * 
+     * @param velocity Target velocity
+     * @return The power
+     */
+    public double calculate(double velocity) {
+        return calculate(velocity, 0);
+    }
+
+    /**
+     * Computes the power to move at a velocity while accelerating.
+     * 
+     * @param velocity Target velocity
+     * @param acceleration Target acceleration
+     * @return The power
+     */
+    public double calculate(double velocity, double acceleration) {
+        return kS * Math.signum(velocity) + velocityToPower.applyAsDouble(velocity) + kA * acceleration;
+    }
+
+    /**
+     * Gets the static friction power.
+     * 
+     * @return kS
+     */
+    public double getStaticGain() {
+        return kS;
+    }
+
+    /**
+     * Gets the acceleration gain.
+     * 
+     * @return kA
+     */
+    public double getAccelerationGain() {
+        return kA;
+    }
+}
@@ -0,0 +1,342 @@
+package org.lib.cardinallib.control;
+
+import org.lib.cardinallib.commands.Clock;
+
+/**
+ * A PIDF feedback controller with the usual practical fixes built in.
+ * 
+ * <p>Each {@link #calculate(double, double, double)} returns
+ * {@code kP·error + kI·∫error + kD·d/dt + kF·setpoint + feedforward}, clamped to the
+ * output limits:</p>
+ * <ul>
+ *     <li><b>No derivative kick:</b> the derivative term uses the rate of the measurement
+ *     rather than of the error, so stepping the setpoint does not spike the output.</li>
+ *     <li><b>Derivative filter:</b> the measured rate passes through a first-order low-pass
+ *     filter set by {@link #setDerivativeFilter(double)}, which keeps encoder quantization
+ *     from turning into output noise.</li>
+ *     <li><b>Anti-windup:</b> while the output is saturated, the integral only accumulates
+ *     in the direction that brings the output back into range, and the integral term on its
+ *     own is kept within the output limits, widened to include zero. With {@code kI} of 0
+ *     no integral is accumulated at all.</li>
+ *     <li><b>Measured dt:</b> {@link #calculate(double)} times each call with the
+ *     controller's {@link Clock}; {@link #calculate(double, double, double)} takes the time step
+ *     from the caller, such as a command's {@code update(dt)}.</li>
+ * </ul>
+ * 
+ * <p>Calls allocate nothing. The first call after construction or {@link #reset()} has no
+ * previous measurement, so it outputs proportional and feedforward terms only. Use one of
+ * the two {@code calculate} styles per controller; mixing them leaves the timed style with a
+ * stale timestamp until the next reset.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * PIDFController lift = new PIDFController(4.0, 0.5, 0.2, 0);
+ * lift.setOutputLimits(-0.8, 1.0);
+ * lift.setDerivativeFilter(0.02);
+ * lift.setTolerance(0.01);
+ * lift.setSetpoint(0.6);
+ * 
+ * // Each loop
+ * motor.setPower(lift.calculate(liftPositionMeters()));
+ * }</pre>
+ * 
+ * @see MotorFeedforward
+ * @see org.lib.cardinallib.commands.SetpointCommand
+ */
+public class PIDFController {
+
+    /** Power per unit of error */
+    private double kP;
+    /** Power per unit of accumulated error-seconds */
+    private double kI;
+    /** Power per unit of error rate */
+    private double kD;
+    /** Power per unit of setpoint */
+    private double kF;
+
+    /** Lowest output */
+    private double minOutput = -1;
+    /** Highest output */
+    private double maxOutput = 1;
+    /** Time constant of the derivative filter in seconds, 0 for no filtering */
+    private double derivativeTimeConstant;
+    /** Largest error counted as at the setpoint */
+    private double errorTolerance;
+    /** Largest measurement rate counted as at the setpoint */
+    private double rateTolerance = Double.POSITIVE_INFINITY;
+
+    /** Clock that timed calls read */
+    private Clock clock = Clock.SYSTEM;
+    /** Target value */
+    private double setpoint;
+    /** Accumulated error-seconds */
+    private double integral;
+    /** Filtered rate of the measurement */
+    private double rate;
+    /** Error at the latest call */
+    private double error;
+    /** Measurement at the latest call */
+    private double lastMeasurement;
+    /** Output of the latest call */
+    private double lastOutput;
+    /** Clock time of the latest timed call in nanoseconds */
+    private long lastNanos;
+    /** Whether a measurement has been seen since the last reset */
+    private boolean started;
+
+    /**
+     * Creates a controller with output limits of -1 to 1.
+     * 
+     * @param kP Power per unit of error
+     * @param kI Power per unit of accumulated error-seconds
+     * @param kD Power per unit of error rate
+     * @param kF Power per unit of setpoint
+     */
+    public PIDFController(double kP, double kI, double kD, double kF) {
+        setGains(kP, kI, kD, kF);
+    }
+
+    /**
+     * Changes the gains. The accumulated integral is kept.
+     * 
+     * @param kP Power per unit of error
+     * @param kI Power per unit of accumulated error-seconds
+     * @param kD Power per unit of error rate
+     * @param kF Power per unit of setpoint
+     */
+    public void setGains(double kP, double kI, double kD, double kF) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+    }
+
+    /**
+     * Sets the range the output is clamped to.
+     * 
+     * @param min Lowest output
+     * @param max Highest output
+     * @throws IllegalArgumentException if {@code min} is greater than {@code max}
+     */
+    public void setOutputLimits(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("Minimum output cannot exceed maximum output.");
+        }
+        minOutput = min;
+        maxOutput = max;
+    }
+
+    /**
+     * Sets the low-pass filter on the measured rate.
+     * 
+     * <p>Rate changes much faster than the time constant are smoothed out; slower ones pass
+     * through. A few loop periods is a good starting point.</p>
+     * 
+     * @param timeConstant Filter time constant in seconds, or 0 for no filtering
+     * @throws IllegalArgumentException if the time constant is negative
+     */
+    public void setDerivativeFilter(double timeConstant) {
+        if (!(timeConstant >= 0)) {
+            throw new IllegalArgumentException("Derivative filter time constant cannot be negative.");
+        }
+        derivativeTimeConstant = timeConstant;
+    }
+
+    /**
+     * Sets how close to the setpoint counts as reached, at any rate.
+     * 
+     * @param errorTolerance Largest error counted as at the setpoint
+     * @throws IllegalArgumentException if the tolerance is negative
+     */
+    public void setTolerance(double errorTolerance) {
+        setTolerance(errorTolerance, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Sets how close to the setpoint, and how still, counts as reached.
+     * 
+     * @param errorTolerance Largest error counted as at the setpoint
+     * @param rateTolerance Largest measurement rate counted as at the setpoint, in units per second
+     * @throws IllegalArgumentException if either tolerance is negative
+     */
+    public void setTolerance(double errorTolerance, double rateTolerance) {
+        if (!(errorTolerance >= 0) || !(rateTolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerances cannot be negative.");
+        }
+        this.errorTolerance = errorTolerance;
+        this.rateTolerance = rateTolerance;
+    }
+
+    /**
+     * Sets the clock that {@link #calculate(double)} measures time steps with.
+     * 
+     * @param clock The clock, for example a {@link org.lib.cardinallib.simulation.VirtualClock}
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+        started = false;
+    }
+
+    /**
+     * Sets the target value. The integral is kept, and since the derivative acts on the
+     * measurement, the change does not cause a derivative spike.
+     * 
+     * @param setpoint The target value
+     */
+    public void setSetpoint(double setpoint) {
+        this.setpoint = setpoint;
+    }
+
+    /**
+     * Gets the target value.
+     * 
+     * @return The setpoint
+     */
+    public double getSetpoint() {
+        return setpoint;
+    }
+
+    /**
+     * Computes the output, timing the step since the previous call with the controller's clock.
+     * 
+     * @param measurement The measured value
+     * @return The clamped output
+     */
+    public double calculate(double measurement) {
+        return calculate(measurement, nextTimeStep(), 0);
+    }
+
+    /**
+     * Computes the output with an extra feedforward term, timing the step since the
+     * previous call with the controller's clock.
+     * 
+     * @param measurement The measured value
+     * @param feedforward Power added before clamping, such as from {@link MotorFeedforward}
+     * @return The clamped output
+     */
+    public double calculate(double measurement, double feedforward) {
+        return calculate(measurement, nextTimeStep(), feedforward);
+    }
+
+    /**
+     * Computes the output for a time step measured by the caller.
+     * 
+     * @param measurement The measured value
+     * @param dt Seconds since the previous call
+     * @param feedforward Power added before clamping, such as from {@link MotorFeedforward}
+     * @return The clamped output
+     */
+    public double calculate(double measurement, double dt, double feedforward) {
+        error = setpoint - measurement;
+        double candidate = integral;
+        if (!started) {
+            rate = 0;
+            started = true;
+        } else if (dt > 0) {
+            double rawRate = (measurement - lastMeasurement) / dt;
+            rate += (rawRate - rate) * (dt / (derivativeTimeConstant + dt));
+            candidate += error * dt;
+        }
+        lastMeasurement = measurement;
+
+        double output = kP * error - kD * rate + kF * setpoint + feedforward;
+        if (kI != 0) {
+            // Limits that exclude zero must not give the integral a value with no error behind it
+            double integralTerm = Math.max(Math.min(kI * candidate, Math.max(maxOutput, 0)),
+                    Math.min(minOutput, 0));
+            double fixed = output;
+            output += integralTerm;
+            // Only let the integral grow while saturated if it pulls the output back into range
+            boolean windingUp = output > maxOutput ? integralTerm > kI * integral
+                    : output < minOutput && integralTerm < kI * integral;
+            if (!windingUp) {
+                integral = integralTerm / kI;
+            } else {
+                output = fixed + kI * integral;
+            }
+        }
+
+        lastOutput = clamp(output);
+        return lastOutput;
+    }
+
+    /**
+     * Checks whether the latest measurement was within tolerance of the setpoint.
+     * 
+     * @return {@code true} if the latest error and rate are within the tolerances,
+     *         {@code false} otherwise or before the first call
+     */
+    public boolean atSetpoint() {
+        return started && Math.abs(error) <= errorTolerance && Math.abs(rate) <= rateTolerance;
+    }
+
+    /**
+     * Clears the integral and the previous measurement, for example when a mechanism is
+     * re-enabled after being held still by hand.
+     */
+    public void reset() {
+        integral = 0;
+        rate = 0;
+        error = 0;
+        lastOutput = 0;
+        started = false;
+    }
+
+    /**
+     * Gets the error at the latest call.
+     * 
+     * @return Setpoint minus the latest measurement
+     */
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * Gets the filtered rate of the measurement.
+     * 
+     * @return Measurement rate in units per second
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Gets the accumulated error.
+     * 
+     * @return Integral of the error in error-seconds, or 0 while {@code kI} is 0
+     */
+    public double getIntegral() {
+        return integral;
+    }
+
+    /**
+     * Gets the output of the latest call.
+     * 
+     * @return The clamped output, or 0 before the first call
+     */
+    public double getLastOutput() {
+        return lastOutput;
+    }
+
+    /**
+     * Reads the clock and returns the seconds since the previous timed call.
+     * 
+     * @return The time step, or 0 on the first call
+     */
+    private double nextTimeStep() {
+        long now = clock.nanoTime();
+        double dt = started ? (now - lastNanos) * 1e-9 : 0;
+        lastNanos = now;
+        return dt;
+    }
+
+    /**
+     * Clamps a value to the output limits.
+     * 
+     * @param value The value
+     * @return The value within [{@link #minOutput}, {@link #maxOutput}]
+     */
+    private double clamp(double value) {
+        return value < minOutput ? minOutput : value > maxOutput ? maxOutput : value;
+    }
+}
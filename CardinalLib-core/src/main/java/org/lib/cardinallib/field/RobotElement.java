@@ -0,0 +1,196 @@
+package org.lib.cardinallib.field;
+import org.lib.cardinallib.math.Pose2d;
+
+/**
+ * Represents the robot as a game element on the field.
+ * 
+ * <p>This class tracks the robot's position and orientation, allowing it to be
+ * treated as a game element for path planning, localization, and field awareness.</p>
+ * 
+ * <p>The robot's orientation can change, unlike goal elements which are fixed.</p>
+ * 
+ * <p><b>Velocity:</b> when poses are published with
+ * {@link #update(double, double, double, double)}, the robot estimates its field-relative
+ * velocity from the change between successive updates. Sources that measure velocity
+ * directly can publish it with {@link #setVelocity(double, double, double)} instead.
+ * An update without a timestamp is treated as a reset: it zeroes the velocity and the
+ * next timed update starts a fresh estimate.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // Each loop, after odometry
+ * robot.update(odo.getX(), odo.getY(), odo.getHeading(), timer.seconds());
+ * double vx = robot.getVelocityX();
+ * }</pre>
+ * 
+ * @see GameElement
+ * @see GoalElement
+ * @see ShootOnMoveSolver
+ */
+public class RobotElement extends GameElement {
+    /** The robot's current pose (position and orientation) */
+    private Pose2d pose;
+    /** Field-relative X velocity in units per second */
+    private double velocityX;
+    /** Field-relative Y velocity in units per second */
+    private double velocityY;
+    /** Angular velocity in radians per second */
+    private double angularVelocity;
+    /** Timestamp of the last timed update in seconds */
+    private double lastTime;
+    /** Whether {@link #lastTime} belongs to the current pose */
+    private boolean timed;
+    /** Weight of the previous velocity when blending in a new estimate, in [0, 1) */
+    private double smoothing;
+
+    /**
+     * Creates a new RobotElement with the specified initial position and orientation.
+     * 
+     * @param x Initial X-coordinate on the field
+     * @param y Initial Y-coordinate on the field
+     * @param orientation Initial orientation in radians
+     */
+    public RobotElement(double x, double y, double orientation) {
+        super(x, y, orientation);
+        pose = new Pose2d(x, y, orientation);
+    }
+
+    /**
+     * Updates the robot's position and orientation without a timestamp.
+     * 
+     * <p>The velocity is zeroed, since there is no time to estimate it from. Use this to
+     * place or reset the robot, and {@link #update(double, double, double, double)} for
+     * regular pose updates.</p>
+     * 
+     * @param x New X-coordinate
+     * @param y New Y-coordinate
+     * @param orientation New orientation in radians
+     */
+    @Override
+    public void update(double x, double y, double orientation) {
+        setPose(x, y, orientation);
+        velocityX = 0;
+        velocityY = 0;
+        angularVelocity = 0;
+        timed = false;
+    }
+
+    /**
+     * Updates the robot's pose and estimates its velocity from the previous timed update.
+     * 
+     * <p>The first timed update after construction or a reset only records the pose.
+     * An update whose timestamp is not after the previous one keeps the previous velocity.</p>
+     * 
+     * @param x New X-coordinate
+     * @param y New Y-coordinate
+     * @param orientation New orientation in radians
+     * @param timeSeconds Time the pose was measured, in seconds on any steady clock
+     */
+    public void update(double x, double y, double orientation, double timeSeconds) {
+        if (timed) {
+            double dt = timeSeconds - lastTime;
+            if (dt > 0) {
+                double keep = smoothing;
+                double blend = 1 - keep;
+                velocityX = keep * velocityX + blend * (x - this.x) / dt;
+                velocityY = keep * velocityY + blend * (y - this.y) / dt;
+                angularVelocity = keep * angularVelocity
+                        + blend * Pose2d.normalizeAngle(orientation - this.orientation) / dt;
+            }
+        }
+        setPose(x, y, orientation);
+        lastTime = timeSeconds;
+        timed = true;
+    }
+
+    /**
+     * Sets the velocity directly, for sources that measure it rather than differentiate poses.
+     * 
+     * @param velocityX Field-relative X velocity in units per second
+     * @param velocityY Field-relative Y velocity in units per second
+     * @param angularVelocity Angular velocity in radians per second
+     */
+    public void setVelocity(double velocityX, double velocityY, double angularVelocity) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.angularVelocity = angularVelocity;
+    }
+
+    /**
+     * Sets how much the velocity estimate is smoothed between timed updates.
+     * 
+     * <p>Each new estimate is blended as {@code smoothing × old + (1 - smoothing) × new}.
+     * 0, the default, uses the raw difference between the last two poses; values closer
+     * to 1 reject more encoder noise but lag behind real changes in speed.</p>
+     * 
+     * @param smoothing Weight of the previous estimate, in [0, 1)
+     * @throws IllegalArgumentException if the weight is outside [0, 1)
+     */
+    public void setVelocitySmoothing(double smoothing) {
+        if (!(smoothing >= 0 && smoothing < 1)) {
+            throw new IllegalArgumentException("Velocity smoothing must be in [0, 1).");
+        }
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Gets the robot's field-relative X velocity.
+     * 
+     * @return Velocity along the field X axis in units per second
+     */
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * Gets the robot's field-relative Y velocity.
+     * 
+     * @return Velocity along the field Y axis in units per second
+     */
+    public double getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * Gets the robot's angular velocity.
+     * 
+     * @return Rate of change of orientation in radians per second, counterclockwise positive
+     */
+    public double getAngularVelocity() {
+        return angularVelocity;
+    }
+
+    /**
+     * Gets the robot's speed over the field.
+     * 
+     * @return Magnitude of the translational velocity in units per second
+     */
+    public double getSpeed() {
+        return Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+    }
+
+    /**
+     * Gets the robot's current pose.
+     * 
+     * @return A Pose2d representing the robot's current position and orientation
+     */
+    @Override
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    /**
+     * Stores a new pose in both the pose object and the inherited fields.
+     * 
+     * @param x New X-coordinate
+     * @param y New Y-coordinate
+     * @param orientation New orientation in radians
+     */
+    private void setPose(double x, double y, double orientation) {
+        pose.set(x, y, orientation);
+        this.x = x;
+        this.y = y;
+        this.orientation = orientation;
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.lib.cardinallib.field;
+
+import org.lib.cardinallib.math.MathFormulas;
+import org.lib.cardinallib.math.Pose2d;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Aims a shot while the robot is moving.
+ * 
+ * <p>A projectile launched from a moving robot keeps the robot's velocity, so during its
+ * time of flight t it drifts by v × t. Aiming at a <i>virtual goal</i> moved the other
+ * way, at G - v × t, cancels the drift: the robot points at and spins up for the virtual
+ * goal as if it were standing still. The time of flight depends on the distance to the
+ * virtual goal, which depends on the time of flight, so {@link #solve()} iterates:</p>
+ * <ol>
+ *     <li>t = timeOfFlight(distance to the real goal)</li>
+ *     <li>virtual goal = goal - v × t</li>
+ *     <li>t = timeOfFlight(distance to the virtual goal), and repeat from step 2</li>
+ * </ol>
+ * 
+ * <p>The loop stops once t changes by less than {@value #TIME_TOLERANCE} s or after a
+ * fixed number of iterations, so one solve always fits in a control tick and allocates
+ * nothing. It converges when the robot moves slower than the distance-to-flight-time
+ * curve lets the shot outrun it (|v| × dt/dd &lt; 1), which holds for any shot that
+ * is faster over the ground than the robot; three to five iterations are usually enough.</p>
+ * 
+ * <p>The time-of-flight and RPM models map a stationary shot's distance to its flight time
+ * and flywheel RPM. They can be measured, or come from a table such as
+ * {@link org.lib.cardinallib.math.ShooterTable}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ShootOnMoveSolver aim = new ShootOnMoveSolver(robot, goal,
+ *         distance -> 0.25 + 0.18 * distance,   // measured time of flight
+ *         distance -> table.getRPM(distance));  // single-angle ShooterTable
+ * 
+ * // Each loop, after robot.update(x, y, heading, time)
+ * aim.solve();
+ * turret.setFieldHeading(aim.getHeading());
+ * shooter.setTargetRPM(aim.getRPM());
+ * }</pre>
+ * 
+ * @see RobotElement#getVelocityX()
+ * @see GoalElement
+ */
+public class ShootOnMoveSolver {
+
+    /** Default number of iterations allowed per solve */
+    public static final int DEFAULT_MAX_ITERATIONS = 5;
+    /** A solve stops early once the time of flight changes by less than this, in seconds */
+    public static final double TIME_TOLERANCE = 1e-4;
+
+    /** The robot whose pose and velocity are read */
+    private final RobotElement robot;
+    /** The real goal */
+    private final GoalElement goal;
+    /** Stationary time of flight in seconds for a distance */
+    private final DoubleUnaryOperator timeOfFlight;
+    /** Stationary flywheel RPM for a distance */
+    private final DoubleUnaryOperator rpmForDistance;
+    /** Most iterations allowed per solve */
+    private final int maxIterations;
+    /** Seconds between the pose's measurement and the shot leaving the robot */
+    private double latency;
+
+    /** Robot position the last solve aimed from */
+    private final Pose2d shooter = new Pose2d(0, 0, 0);
+    /** Goal moved against the robot's velocity by the time of flight */
+    private final Pose2d virtualGoal = new Pose2d(0, 0, 0);
+    /** Field heading from the robot to the virtual goal, in radians */
+    private double heading;
+    /** Distance from the robot to the virtual goal */
+    private double distance;
+    /** Time of flight to the virtual goal, in seconds */
+    private double flightTime;
+    /** Flywheel RPM for the virtual goal's distance */
+    private double rpm;
+    /** Iterations the last solve used */
+    private int iterations;
+    /** Whether the last solve met {@link #TIME_TOLERANCE} */
+    private boolean converged;
+
+    /**
+     * Creates a solver that runs at most {@value #DEFAULT_MAX_ITERATIONS} iterations per solve.
+     * 
+     * @param robot The robot, updated with timestamps so it tracks velocity
+     * @param goal The goal to hit
+     * @param timeOfFlight Flight time in seconds of a stationary shot at a distance
+     * @param rpmForDistance Flywheel RPM of a stationary shot at a distance
+     */
+    public ShootOnMoveSolver(RobotElement robot, GoalElement goal,
+                             DoubleUnaryOperator timeOfFlight, DoubleUnaryOperator rpmForDistance) {
+        this(robot, goal, timeOfFlight, rpmForDistance, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Creates a solver with a custom iteration limit.
+     * 
+     * @param robot The robot, updated with timestamps so it tracks velocity
+     * @param goal The goal to hit
+     * @param timeOfFlight Flight time in seconds of a stationary shot at a distance
+     * @param rpmForDistance Flywheel RPM of a stationary shot at a distance
+     * @param maxIterations Most iterations per solve, at least 1
+     * @throws IllegalArgumentException if the iteration limit is less than 1
+     */
+    public ShootOnMoveSolver(RobotElement robot, GoalElement goal,
+                             DoubleUnaryOperator timeOfFlight, DoubleUnaryOperator rpmForDistance,
+                             int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("A solver needs at least 1 iteration.");
+        }
+        this.robot = robot;
+        this.goal = goal;
+        this.timeOfFlight = timeOfFlight;
+        this.rpmForDistance = rpmForDistance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Sets how far ahead to predict the robot's position before aiming.
+     * 
+     * <p>Pose estimates are slightly old by the time they are used, and the shot leaves a
+     * moment after the command to fire. The solver aims from where the robot will be
+     * after this delay at its current velocity.</p>
+     * 
+     * @param seconds Delay to compensate for, in seconds
+     * @throws IllegalArgumentException if the delay is negative
+     */
+    public void setLatency(double seconds) {
+        if (!(seconds >= 0)) {
+            throw new IllegalArgumentException("Latency cannot be negative.");
+        }
+        latency = seconds;
+    }
+
+    /**
+     * Computes the virtual goal, heading and RPM from the robot's current pose and velocity.
+     * 
+     * @return {@code true} if the time of flight converged within the iteration limit
+     */
+    public boolean solve() {
+        double vx = robot.getVelocityX();
+        double vy = robot.getVelocityY();
+        Pose2d robotPose = robot.getPose();
+        shooter.set(robotPose.x + vx * latency, robotPose.y + vy * latency, robotPose.heading);
+
+        Pose2d goalPose = goal.getPose();
+        double t = timeOfFlight.applyAsDouble(MathFormulas.DistFormula(shooter, goalPose));
+        converged = false;
+        int i = 0;
+        while (i < maxIterations) {
+            i++;
+            virtualGoal.set(goalPose.x - vx * t, goalPose.y - vy * t, 0);
+            double next = timeOfFlight.applyAsDouble(MathFormulas.DistFormula(shooter, virtualGoal));
+            double change = Math.abs(next - t);
+            t = next;
+            if (change < TIME_TOLERANCE) {
+                converged = true;
+                break;
+            }
+        }
+        virtualGoal.set(goalPose.x - vx * t, goalPose.y - vy * t, 0);
+
+        iterations = i;
+        flightTime = t;
+        distance = MathFormulas.DistFormula(shooter, virtualGoal);
+        heading = MathFormulas.AngleFormula(shooter, virtualGoal);
+        rpm = rpmForDistance.applyAsDouble(distance);
+        return converged;
+    }
+
+    /**
+     * Gets the virtual goal from the last solve.
+     * 
+     * @return The goal position moved against the robot's velocity; reused by each solve
+     */
+    public Pose2d getVirtualGoal() {
+        return virtualGoal;
+    }
+
+    /**
+     * Gets the field heading to aim the shot along.
+     * 
+     * @return Heading from the robot to the virtual goal, in radians in [-π, π]
+     */
+    public double getHeading() {
+        return heading;
+    }
+
+    /**
+     * Gets the heading error of the robot's front relative to the aim heading, for a
+     * fixed shooter that aims by turning the drivetrain.
+     * 
+     * @return Aim heading minus robot heading, in radians in (-π, π]
+     */
+    public double getHeadingError() {
+        return Pose2d.normalizeAngle(heading - robot.getPose().heading);
+    }
+
+    /**
+     * Gets the distance used for the shot.
+     * 
+     * @return Distance from the robot to the virtual goal
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Gets the flywheel RPM for the shot.
+     * 
+     * @return RPM for the virtual goal's distance
+     */
+    public double getRPM() {
+        return rpm;
+    }
+
+    /**
+     * Gets the time of flight of the shot.
+     * 
+     * @return Time of flight to the virtual goal, in seconds
+     */
+    public double getTimeOfFlight() {
+        return flightTime;
+    }
+
+    /**
+     * Gets how many iterations the last solve used.
+     * 
+     * @return Iteration count, at most the solver's limit
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Checks whether the last solve converged.
+     * 
+     * @return {@code true} if the time of flight settled within the iteration limit
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+}
@@ -0,0 +1,483 @@
+package org.lib.cardinallib.localization;
+
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.PoseHistory;
+
+/**
+ * An extended Kalman filter that estimates the robot's field pose from odometry and
+ * absolute pose measurements, weighing each by its uncertainty.
+ * 
+ * <p>The state is the pose (x, y, heading) with a 3x3 covariance. Each
+ * {@link #predict(double, double, double, double) prediction} moves the pose along the
+ * odometry twist with the SE(2) exponential and grows the covariance in proportion to the
+ * distance driven and angle turned, so the filter trusts odometry less the further it
+ * has gone. Each {@link #update(double, double, double, double, double, double) update}
+ * blends in a measured pose, such as one computed from an AprilTag, by the Kalman gain:
+ * a precise measurement of an uncertain pose moves it a lot, a noisy measurement of a
+ * confident pose barely moves it.</p>
+ * 
+ * <p><b>Outlier gating:</b> before an update is applied, its squared Mahalanobis distance,
+ * the innovation weighed by the combined covariance, is compared with a threshold. A
+ * misdetected tag or a reflection lands far outside the expected spread and is rejected
+ * instead of yanking the estimate away. The default threshold, {@value #DEFAULT_GATE},
+ * accepts 99% of measurements that agree with the filter's covariance.</p>
+ * 
+ * <p><b>Latency:</b> odometry poses are kept in a {@link PoseHistory}, and a measurement is
+ * compared with the estimate at its capture time, found by undoing the odometry motion
+ * since then. The correction is then applied to the current estimate.</p>
+ * 
+ * <p>All matrix work is hand-unrolled 3x3 arithmetic on preallocated arrays, so neither
+ * predictions nor updates allocate. The filter is not thread-safe; use it from the main
+ * loop. Tracking-wheel odometry on its own thread is read safely through
+ * {@link #predict(TrackingWheelOdometry)}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.05, Math.toRadians(2), 256);
+ * localizer.setOdometryNoise(0.02, 0.01);
+ * 
+ * // Each loop
+ * localizer.predict(odometry);
+ * if (tagPose != null) {
+ *     localizer.update(tagPose.x, tagPose.y, tagPose.heading, captureTime,
+ *             0.04, Math.toRadians(3));
+ * }
+ * localizer.publish(robot);
+ * }</pre>
+ * 
+ * @see PoseFusion
+ * @see TrackingWheelOdometry
+ */
+public class KalmanLocalizer {
+
+    /** Default gate: the 99th percentile of the χ² distribution with 3 degrees of freedom */
+    public static final double DEFAULT_GATE = 11.34;
+
+    /** Estimated pose */
+    private final Pose2d pose;
+    /** Pose covariance, row-major */
+    private final double[] covariance = new double[9];
+    /** Raw odometry poses by the time they were measured */
+    private final PoseHistory history;
+
+    /** Position standard deviation after driving one unit */
+    private double translationNoise = 0.02;
+    /** Heading standard deviation after turning one radian */
+    private double headingNoise = 0.02;
+    /** Largest squared Mahalanobis distance accepted */
+    private double gate = DEFAULT_GATE;
+
+    /** Squared Mahalanobis distance of the last update */
+    private double lastDistance = Double.NaN;
+    /** Number of updates accepted */
+    private long acceptedCount;
+    /** Number of updates rejected by the gate */
+    private long rejectedCount;
+    /** Whether an update moved the estimate since the last publish */
+    private boolean corrected;
+
+    /** Odometry pose before the newest one */
+    private final Pose2d previous = new Pose2d(0, 0, 0);
+    /** Newest odometry pose */
+    private final Pose2d current = new Pose2d(0, 0, 0);
+    /** Odometry twist or pose at a capture time */
+    private final Pose2d scratch = new Pose2d(0, 0, 0);
+    /** Innovation covariance, then its inverse */
+    private final double[] innovation = new double[9];
+    /** Inverse innovation covariance */
+    private final double[] inverse = new double[9];
+    /** Kalman gain */
+    private final double[] gain = new double[9];
+    /** I - K */
+    private final double[] complement = new double[9];
+    /** Intermediate product */
+    private final double[] product = new double[9];
+
+    /**
+     * Creates a localizer at a starting pose.
+     * 
+     * @param x Starting X-coordinate
+     * @param y Starting Y-coordinate
+     * @param heading Starting heading in radians
+     * @param positionStdDev Uncertainty of the starting position, as a standard deviation
+     * @param headingStdDev Uncertainty of the starting heading in radians
+     * @param historyCapacity Number of odometry poses kept; at the loop rate this must cover
+     *                        the longest measurement delay
+     * @throws IllegalArgumentException if a standard deviation is not positive or the
+     *                                  capacity is less than 2
+     */
+    public KalmanLocalizer(double x, double y, double heading,
+                           double positionStdDev, double headingStdDev, int historyCapacity) {
+        pose = new Pose2d(x, y, heading);
+        history = new PoseHistory(historyCapacity);
+        setPose(x, y, heading, positionStdDev, headingStdDev);
+    }
+
+    /**
+     * Sets how quickly odometry uncertainty grows.
+     * 
+     * <p>Odometry error is modeled as a random walk: variance grows in proportion to the
+     * distance driven and the angle turned, so the standard deviation grows with their
+     * square roots. The defaults are 0.02 for both.</p>
+     * 
+     * @param translationPerUnit Position standard deviation after driving one unit
+     * @param headingPerRadian Heading standard deviation after turning one radian
+     * @throws IllegalArgumentException if either value is negative
+     */
+    public void setOdometryNoise(double translationPerUnit, double headingPerRadian) {
+        if (!(translationPerUnit >= 0) || !(headingPerRadian >= 0)) {
+            throw new IllegalArgumentException("Odometry noise cannot be negative.");
+        }
+        translationNoise = translationPerUnit;
+        headingNoise = headingPerRadian;
+    }
+
+    /**
+     * Sets the outlier gate.
+     * 
+     * @param threshold Largest squared Mahalanobis distance accepted, or
+     *                  {@link Double#POSITIVE_INFINITY} to accept every measurement
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public void setGate(double threshold) {
+        if (!(threshold > 0)) {
+            throw new IllegalArgumentException("Gate threshold must be positive.");
+        }
+        gate = threshold;
+    }
+
+    /**
+     * Moves the estimate to a known pose with a new uncertainty. The odometry history is kept.
+     * 
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param heading Heading in radians
+     * @param positionStdDev Uncertainty of the position, as a standard deviation
+     * @param headingStdDev Uncertainty of the heading in radians
+     * @throws IllegalArgumentException if a standard deviation is not positive
+     */
+    public void setPose(double x, double y, double heading, double positionStdDev, double headingStdDev) {
+        if (!(positionStdDev > 0) || !(headingStdDev > 0)) {
+            throw new IllegalArgumentException("Standard deviations must be positive.");
+        }
+        pose.set(x, y, Pose2d.normalizeAngle(heading));
+        Matrix3.diagonal(covariance, positionStdDev * positionStdDev,
+                positionStdDev * positionStdDev, headingStdDev * headingStdDev);
+        corrected = true;
+    }
+
+    /**
+     * Moves the estimate by an odometry twist measured in the robot's frame.
+     * 
+     * @param dx Forward motion since the previous prediction
+     * @param dy Leftward motion since the previous prediction
+     * @param dTheta Counterclockwise rotation since the previous prediction, in radians
+     * @param time Time the motion ended in seconds, later than the previous prediction
+     * @throws IllegalArgumentException if the time is not later than the previous prediction's
+     */
+    public void predict(double dx, double dy, double dTheta, double time) {
+        if (history.size() > 0) {
+            history.getNewest(current);
+        } else {
+            current.set(0, 0, 0);
+        }
+        current.exp(dx, dy, dTheta, current);
+        history.add(current, time);
+        propagate(dx, dy, dTheta);
+    }
+
+    /**
+     * Moves the estimate by the motion tracking-wheel odometry measured since the previous
+     * call, if it has a new pose.
+     * 
+     * @param odometry The odometry, which may be updating on another thread
+     * @return {@code true} if the odometry had a new pose
+     */
+    public boolean predict(TrackingWheelOdometry odometry) {
+        boolean started = history.size() > 0;
+        if (started) {
+            history.getNewest(previous);
+        }
+        if (!odometry.record(history)) {
+            return false;
+        }
+        if (started) {
+            history.getNewest(current);
+            previous.log(current, scratch);
+            propagate(scratch.x, scratch.y, scratch.heading);
+        }
+        return true;
+    }
+
+    /**
+     * Blends in a measured pose captured at a past time.
+     * 
+     * @param x Measured X-coordinate
+     * @param y Measured Y-coordinate
+     * @param heading Measured heading in radians
+     * @param captureTime Time the measurement was taken, on the odometry's clock, in seconds
+     * @param positionStdDev Uncertainty of the measured position, as a standard deviation
+     * @param headingStdDev Uncertainty of the measured heading in radians
+     * @return {@code true} if the measurement was applied, {@code false} if it was gated out
+     *         or its capture time is outside the odometry history
+     * @throws IllegalArgumentException if a standard deviation is not positive
+     */
+    public boolean update(double x, double y, double heading, double captureTime,
+                          double positionStdDev, double headingStdDev) {
+        if (!(positionStdDev > 0) || !(headingStdDev > 0)) {
+            throw new IllegalArgumentException("Standard deviations must be positive.");
+        }
+        if (!history.contains(captureTime)) {
+            return false;
+        }
+
+        // Estimate at the capture time: the current estimate with the odometry motion
+        // since then undone
+        history.getNewest(current);
+        history.getPose(captureTime, scratch);
+        scratch.relativeTo(current, scratch);
+        pose.compose(scratch, scratch);
+
+        double r0 = positionStdDev * positionStdDev;
+        double r2 = headingStdDev * headingStdDev;
+        double e0 = x - scratch.x;
+        double e1 = y - scratch.y;
+        double e2 = Pose2d.normalizeAngle(heading - scratch.heading);
+        return correct(e0, e1, e2, r0, r2);
+    }
+
+    /**
+     * Blends in a measured pose captured at the time of the newest odometry pose, or now if
+     * there is no odometry yet.
+     * 
+     * @param x Measured X-coordinate
+     * @param y Measured Y-coordinate
+     * @param heading Measured heading in radians
+     * @param positionStdDev Uncertainty of the measured position, as a standard deviation
+     * @param headingStdDev Uncertainty of the measured heading in radians
+     * @return {@code true} if the measurement was applied, {@code false} if it was gated out
+     * @throws IllegalArgumentException if a standard deviation is not positive
+     */
+    public boolean update(double x, double y, double heading, double positionStdDev, double headingStdDev) {
+        if (!(positionStdDev > 0) || !(headingStdDev > 0)) {
+            throw new IllegalArgumentException("Standard deviations must be positive.");
+        }
+        return correct(x - pose.x, y - pose.y, Pose2d.normalizeAngle(heading - pose.heading),
+                positionStdDev * positionStdDev, headingStdDev * headingStdDev);
+    }
+
+    /**
+     * Gets the estimated pose.
+     * 
+     * @param out Receives the pose
+     * @return {@code out}
+     */
+    public Pose2d getPose(Pose2d out) {
+        out.set(pose);
+        return out;
+    }
+
+    /**
+     * Copies the pose covariance.
+     * 
+     * @param out Receives the 3x3 covariance of (x, y, heading), row-major
+     * @return {@code out}
+     * @throws IllegalArgumentException if {@code out} holds fewer than 9 values
+     */
+    public double[] getCovariance(double[] out) {
+        if (out.length < 9) {
+            throw new IllegalArgumentException("Output array must hold at least 9 values.");
+        }
+        System.arraycopy(covariance, 0, out, 0, 9);
+        return out;
+    }
+
+    /**
+     * Gets the position uncertainty along its worst direction.
+     * 
+     * @return Standard deviation along the major axis of the position covariance
+     */
+    public double getPositionStdDev() {
+        double a = covariance[0];
+        double b = covariance[1];
+        double d = covariance[4];
+        double half = (a + d) / 2;
+        double spread = Math.sqrt((a - d) * (a - d) / 4 + b * b);
+        return Math.sqrt(half + spread);
+    }
+
+    /**
+     * Gets the heading uncertainty.
+     * 
+     * @return Standard deviation of the heading in radians
+     */
+    public double getHeadingStdDev() {
+        return Math.sqrt(covariance[8]);
+    }
+
+    /**
+     * Gets the squared Mahalanobis distance of the most recent update, accepted or not.
+     * 
+     * @return The distance, or NaN before the first update
+     */
+    public double getLastMahalanobisDistance() {
+        return lastDistance;
+    }
+
+    /**
+     * Gets the number of updates applied.
+     * 
+     * @return Accepted update count
+     */
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * Gets the number of updates rejected by the outlier gate.
+     * 
+     * @return Rejected update count
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Publishes the estimate into a robot element, timestamped with the newest odometry pose.
+     * 
+     * <p>An update moves the estimate without the robot moving, so when one was applied
+     * since the last publish, the robot's velocity is left as it was instead of being
+     * estimated from the jump.</p>
+     * 
+     * @param robot The robot element to update
+     * @throws IndexOutOfBoundsException if no odometry has been recorded yet
+     */
+    public void publish(RobotElement robot) {
+        double time = history.getNewestTime();
+        if (corrected) {
+            double velocityX = robot.getVelocityX();
+            double velocityY = robot.getVelocityY();
+            double angularVelocity = robot.getAngularVelocity();
+            robot.update(pose.x, pose.y, pose.heading, time);
+            robot.setVelocity(velocityX, velocityY, angularVelocity);
+            corrected = false;
+        } else {
+            robot.update(pose.x, pose.y, pose.heading, time);
+        }
+    }
+
+    /**
+     * Gets the odometry history.
+     * 
+     * @return The history, in the odometry's own frame
+     */
+    public PoseHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Moves the pose along a twist and grows the covariance: P = F P Fᵀ + Q.
+     * 
+     * @param dx Forward motion
+     * @param dy Leftward motion
+     * @param dTheta Counterclockwise rotation in radians
+     */
+    private void propagate(double dx, double dy, double dTheta) {
+        double oldX = pose.x;
+        double oldY = pose.y;
+        pose.exp(dx, dy, dTheta, pose);
+
+        // F = I except for the heading column: turning the start pose swings the motion
+        // around it, so ∂x'/∂θ = -(y' - y) and ∂y'/∂θ = x' - x
+        double a = oldY - pose.y;
+        double b = pose.x - oldX;
+        double[] p = covariance;
+        double p00 = p[0];
+        double p01 = p[1];
+        double p02 = p[2];
+        double p11 = p[4];
+        double p12 = p[5];
+        double p22 = p[8];
+        double n00 = p00 + 2 * a * p02 + a * a * p22;
+        double n01 = p01 + a * p12 + b * p02 + a * b * p22;
+        double n02 = p02 + a * p22;
+        double n11 = p11 + 2 * b * p12 + b * b * p22;
+        double n12 = p12 + b * p22;
+
+        // Q: odometry error is a random walk, so variance grows with distance driven and
+        // angle turned rather than with the number of updates they were split into
+        double qTranslation = translationNoise * translationNoise * Math.sqrt(dx * dx + dy * dy);
+        double qHeading = headingNoise * headingNoise * Math.abs(dTheta);
+
+        p[0] = n00 + qTranslation;
+        p[1] = n01;
+        p[2] = n02;
+        p[3] = n01;
+        p[4] = n11 + qTranslation;
+        p[5] = n12;
+        p[6] = n02;
+        p[7] = n12;
+        p[8] = p22 + qHeading;
+    }
+
+    /**
+     * Gates and applies an innovation with a measurement matrix of I and a diagonal
+     * measurement covariance.
+     * 
+     * @param e0 X innovation
+     * @param e1 Y innovation
+     * @param e2 Heading innovation in radians
+     * @param r0 Position measurement variance
+     * @param r2 Heading measurement variance
+     * @return {@code true} if the innovation passed the gate and was applied
+     */
+    private boolean correct(double e0, double e1, double e2, double r0, double r2) {
+        double[] p = covariance;
+        double[] s = innovation;
+        System.arraycopy(p, 0, s, 0, 9);
+        s[0] += r0;
+        s[4] += r0;
+        s[8] += r2;
+        if (!Matrix3.invertSymmetric(s, inverse)) {
+            return false;
+        }
+
+        lastDistance = Matrix3.quadraticForm(inverse, e0, e1, e2);
+        if (!(lastDistance <= gate)) {
+            rejectedCount++;
+            return false;
+        }
+
+        // K = P S⁻¹
+        double[] k = gain;
+        Matrix3.multiply(p, inverse, k);
+        pose.set(pose.x + k[0] * e0 + k[1] * e1 + k[2] * e2,
+                pose.y + k[3] * e0 + k[4] * e1 + k[5] * e2,
+                Pose2d.normalizeAngle(pose.heading + k[6] * e0 + k[7] * e1 + k[8] * e2));
+
+        // Joseph form, P = (I - K) P (I - K)ᵀ + K R Kᵀ, stays positive definite under rounding
+        double[] c = complement;
+        for (int i = 0; i < 9; i++) {
+            c[i] = -k[i];
+        }
+        c[0] += 1;
+        c[4] += 1;
+        c[8] += 1;
+        Matrix3.multiply(c, p, product);
+        Matrix3.multiplyTransposed(product, c, p);
+        for (int i = 0; i < 3; i++) {
+            double ki0 = k[i * 3];
+            double ki1 = k[i * 3 + 1];
+            double ki2 = k[i * 3 + 2];
+            for (int j = 0; j < 3; j++) {
+                p[i * 3 + j] += r0 * (ki0 * k[j * 3] + ki1 * k[j * 3 + 1]) + r2 * ki2 * k[j * 3 + 2];
+            }
+        }
+        Matrix3.symmetrize(p);
+
+        acceptedCount++;
+        corrected = true;
+        return true;
+    }
+}
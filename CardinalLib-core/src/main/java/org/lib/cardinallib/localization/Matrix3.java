@@ -0,0 +1,141 @@
+package org.lib.cardinallib.localization;
+
+/**
+ * Unrolled 3x3 matrix operations on row-major {@code double[9]} arrays.
+ * 
+ * <p>Every estimator matrix in this package is 3x3, one row and column each for x, y and
+ * heading. Writing the products out by hand keeps them branch-free and allocation-free,
+ * which a general matrix library does not.</p>
+ * 
+ * <p>Unless noted, the output array must not be one of the inputs.</p>
+ */
+final class Matrix3 {
+
+    /**
+     * Not instantiable.
+     */
+    private Matrix3() { }
+
+    /**
+     * Sets a matrix to a diagonal matrix.
+     * 
+     * @param out The matrix to write; may be anything
+     * @param d0 Entry (0, 0)
+     * @param d1 Entry (1, 1)
+     * @param d2 Entry (2, 2)
+     */
+    static void diagonal(double[] out, double d0, double d1, double d2) {
+        out[0] = d0;
+        out[1] = 0;
+        out[2] = 0;
+        out[3] = 0;
+        out[4] = d1;
+        out[5] = 0;
+        out[6] = 0;
+        out[7] = 0;
+        out[8] = d2;
+    }
+
+    /**
+     * Multiplies two matrices.
+     * 
+     * @param a Left matrix
+     * @param b Right matrix
+     * @param out Receives {@code a b}
+     */
+    static void multiply(double[] a, double[] b, double[] out) {
+        out[0] = a[0] * b[0] + a[1] * b[3] + a[2] * b[6];
+        out[1] = a[0] * b[1] + a[1] * b[4] + a[2] * b[7];
+        out[2] = a[0] * b[2] + a[1] * b[5] + a[2] * b[8];
+        out[3] = a[3] * b[0] + a[4] * b[3] + a[5] * b[6];
+        out[4] = a[3] * b[1] + a[4] * b[4] + a[5] * b[7];
+        out[5] = a[3] * b[2] + a[4] * b[5] + a[5] * b[8];
+        out[6] = a[6] * b[0] + a[7] * b[3] + a[8] * b[6];
+        out[7] = a[6] * b[1] + a[7] * b[4] + a[8] * b[7];
+        out[8] = a[6] * b[2] + a[7] * b[5] + a[8] * b[8];
+    }
+
+    /**
+     * Multiplies a matrix by the transpose of another.
+     * 
+     * @param a Left matrix
+     * @param b Matrix whose transpose is on the right
+     * @param out Receives {@code a bᵀ}
+     */
+    static void multiplyTransposed(double[] a, double[] b, double[] out) {
+        out[0] = a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+        out[1] = a[0] * b[3] + a[1] * b[4] + a[2] * b[5];
+        out[2] = a[0] * b[6] + a[1] * b[7] + a[2] * b[8];
+        out[3] = a[3] * b[0] + a[4] * b[1] + a[5] * b[2];
+        out[4] = a[3] * b[3] + a[4] * b[4] + a[5] * b[5];
+        out[5] = a[3] * b[6] + a[4] * b[7] + a[5] * b[8];
+        out[6] = a[6] * b[0] + a[7] * b[1] + a[8] * b[2];
+        out[7] = a[6] * b[3] + a[7] * b[4] + a[8] * b[5];
+        out[8] = a[6] * b[6] + a[7] * b[7] + a[8] * b[8];
+    }
+
+    /**
+     * Inverts a symmetric matrix by its adjugate. Only the upper triangle is read.
+     * 
+     * @param a The matrix to invert
+     * @param out Receives the inverse, which is also symmetric
+     * @return {@code false}, leaving {@code out} unchanged, if the matrix is not positive definite
+     */
+    static boolean invertSymmetric(double[] a, double[] out) {
+        double a00 = a[0];
+        double a01 = a[1];
+        double a02 = a[2];
+        double a11 = a[4];
+        double a12 = a[5];
+        double a22 = a[8];
+        double c00 = a11 * a22 - a12 * a12;
+        double c01 = a02 * a12 - a01 * a22;
+        double c02 = a01 * a12 - a02 * a11;
+        double det = a00 * c00 + a01 * c01 + a02 * c02;
+        if (!(det > 0) || !(a00 > 0) || !(a00 * a11 - a01 * a01 > 0)) {
+            return false;
+        }
+        double inv = 1 / det;
+        out[0] = c00 * inv;
+        out[1] = c01 * inv;
+        out[2] = c02 * inv;
+        out[3] = out[1];
+        out[4] = (a00 * a22 - a02 * a02) * inv;
+        out[5] = (a01 * a02 - a00 * a12) * inv;
+        out[6] = out[2];
+        out[7] = out[5];
+        out[8] = (a00 * a11 - a01 * a01) * inv;
+        return true;
+    }
+
+    /**
+     * Evaluates the quadratic form vᵀ A v for a symmetric matrix.
+     * 
+     * @param a The symmetric matrix
+     * @param v0 First vector entry
+     * @param v1 Second vector entry
+     * @param v2 Third vector entry
+     * @return vᵀ A v
+     */
+    static double quadraticForm(double[] a, double v0, double v1, double v2) {
+        return a[0] * v0 * v0 + a[4] * v1 * v1 + a[8] * v2 * v2
+                + 2 * (a[1] * v0 * v1 + a[2] * v0 * v2 + a[5] * v1 * v2);
+    }
+
+    /**
+     * Averages a matrix with its transpose, removing rounding asymmetry.
+     * 
+     * @param a The matrix to symmetrize in place
+     */
+    static void symmetrize(double[] a) {
+        double m01 = (a[1] + a[3]) / 2;
+        double m02 = (a[2] + a[6]) / 2;
+        double m12 = (a[5] + a[7]) / 2;
+        a[1] = m01;
+        a[3] = m01;
+        a[2] = m02;
+        a[6] = m02;
+        a[5] = m12;
+        a[7] = m12;
+    }
+}
@@ -0,0 +1,201 @@
+package org.lib.cardinallib.localization;
+
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.PoseHistory;
+
+/**
+ * Combines odometry with delayed absolute measurements, such as AprilTag detections,
+ * at the moment each measurement was captured.
+ * 
+ * <p>A camera frame is processed 50 to 150 ms after it is captured. Comparing it with the
+ * robot's current pose would blame all the motion since then on odometry error. Instead,
+ * every odometry pose is kept in a {@link PoseHistory}; a measurement is compared with
+ * the estimate at its capture time, that past estimate is corrected, and the odometry
+ * motion recorded since the capture is replayed on top of the corrected pose.</p>
+ * 
+ * <p>Replaying the motion since the capture is the same as applying one rigid transform
+ * to the odometry: if the past estimate P moves to C, every later odometry pose O becomes
+ * C ∘ P⁻¹ ∘ O. The fusion therefore keeps a single correction transform, the fused pose is
+ * {@code correction ∘ odometry}, and nothing in the history is rewritten. A measurement
+ * costs one binary search and a few compositions, and nothing allocates.</p>
+ * 
+ * <p>Measurements are blended in with weights between 0 and 1 instead of replacing the
+ * estimate, so single noisy detections are averaged out over several frames. A
+ * measurement older than the history or newer than the latest odometry is rejected.</p>
+ * 
+ * <p>The fusion is not thread-safe; use it from the main loop. Odometry running on its
+ * own thread is read safely through {@link #addOdometry(TrackingWheelOdometry)}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * PoseFusion fusion = new PoseFusion(256);
+ * 
+ * // Each loop
+ * fusion.addOdometry(odometry);
+ * if (tagPose != null) {
+ *     fusion.addMeasurement(tagPose.x, tagPose.y, tagPose.heading, captureTime, 0.3, 0.1);
+ * }
+ * fusion.publish(robot);
+ * }</pre>
+ * 
+ * @see PoseHistory
+ * @see TrackingWheelOdometry
+ */
+public class PoseFusion {
+
+    /** Odometry poses by the time they were measured */
+    private final PoseHistory history;
+    /** Transform from the odometry frame to the field: fused = correction ∘ odometry */
+    private final Pose2d correction = new Pose2d(0, 0, 0);
+    /** Odometry pose at a measurement's capture time */
+    private final Pose2d past = new Pose2d(0, 0, 0);
+    /** Fused estimate being corrected or published */
+    private final Pose2d estimate = new Pose2d(0, 0, 0);
+    /** Whether the correction changed since the last publish */
+    private boolean corrected;
+
+    /**
+     * Creates a fusion with an empty history.
+     * 
+     * @param historyCapacity Number of odometry poses kept; at the loop rate this must cover
+     *                        the longest measurement delay
+     * @throws IllegalArgumentException if the capacity is less than 2
+     */
+    public PoseFusion(int historyCapacity) {
+        history = new PoseHistory(historyCapacity);
+    }
+
+    /**
+     * Records an odometry pose.
+     * 
+     * @param x Odometry X-coordinate
+     * @param y Odometry Y-coordinate
+     * @param heading Odometry heading in radians
+     * @param time Time the pose was measured in seconds, later than the previous pose
+     * @throws IllegalArgumentException if the time is not later than the previous pose's
+     */
+    public void addOdometry(double x, double y, double heading, double time) {
+        history.add(x, y, heading, time);
+    }
+
+    /**
+     * Records the latest pose of tracking-wheel odometry, if it has a new one.
+     * 
+     * @param odometry The odometry, which may be updating on another thread
+     * @return {@code true} if a new pose was recorded
+     */
+    public boolean addOdometry(TrackingWheelOdometry odometry) {
+        return odometry.record(history);
+    }
+
+    /**
+     * Blends in an absolute measurement of the robot's pose at a past time.
+     * 
+     * @param x Measured X-coordinate
+     * @param y Measured Y-coordinate
+     * @param heading Measured heading in radians
+     * @param captureTime Time the measurement was taken, on the odometry's clock, in seconds
+     * @param positionWeight How far to move the position toward the measurement, 0 to 1
+     * @param headingWeight How far to turn the heading toward the measurement, 0 to 1;
+     *                      0 for measurements that do not observe heading
+     * @return {@code true} if the measurement was applied, {@code false} if its capture
+     *         time is outside the history
+     * @throws IllegalArgumentException if a weight is outside [0, 1]
+     */
+    public boolean addMeasurement(double x, double y, double heading, double captureTime,
+                                  double positionWeight, double headingWeight) {
+        if (!(positionWeight >= 0 && positionWeight <= 1 && headingWeight >= 0 && headingWeight <= 1)) {
+            throw new IllegalArgumentException("Measurement weights must be between 0 and 1.");
+        }
+        if (!history.contains(captureTime)) {
+            return false;
+        }
+
+        history.getPose(captureTime, past);
+        correction.compose(past, estimate);
+        estimate.set(estimate.x + (x - estimate.x) * positionWeight,
+                estimate.y + (y - estimate.y) * positionWeight,
+                Pose2d.normalizeAngle(estimate.heading
+                        + Pose2d.normalizeAngle(heading - estimate.heading) * headingWeight));
+
+        // correction = corrected past estimate ∘ past odometry⁻¹
+        past.inverse(past);
+        estimate.compose(past, correction);
+        corrected = true;
+        return true;
+    }
+
+    /**
+     * Moves the fused estimate to a known pose, keeping the odometry history.
+     * 
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param heading Heading in radians
+     * @throws IndexOutOfBoundsException if no odometry has been recorded yet
+     */
+    public void setPose(double x, double y, double heading) {
+        history.getNewest(past).inverse(past);
+        estimate.set(x, y, heading);
+        estimate.compose(past, correction);
+        corrected = true;
+    }
+
+    /**
+     * Gets the fused estimate at the newest odometry pose.
+     * 
+     * @param out Receives the pose
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if no odometry has been recorded yet
+     */
+    public Pose2d getPose(Pose2d out) {
+        history.getNewest(out);
+        return correction.compose(out, out);
+    }
+
+    /**
+     * Publishes the fused estimate into a robot element, timestamped with the newest
+     * odometry pose.
+     * 
+     * <p>A correction moves the estimate without the robot moving, so when one was applied
+     * since the last publish, the robot's velocity is left as it was instead of being
+     * estimated from the jump.</p>
+     * 
+     * @param robot The robot element to update
+     * @throws IndexOutOfBoundsException if no odometry has been recorded yet
+     */
+    public void publish(RobotElement robot) {
+        getPose(estimate);
+        double time = history.getNewestTime();
+        if (corrected) {
+            double velocityX = robot.getVelocityX();
+            double velocityY = robot.getVelocityY();
+            double angularVelocity = robot.getAngularVelocity();
+            robot.update(estimate.x, estimate.y, estimate.heading, time);
+            robot.setVelocity(velocityX, velocityY, angularVelocity);
+            corrected = false;
+        } else {
+            robot.update(estimate.x, estimate.y, estimate.heading, time);
+        }
+    }
+
+    /**
+     * Gets the transform applied to odometry, which sums every correction so far.
+     * 
+     * @param out Receives the transform from the odometry frame to the field
+     * @return {@code out}
+     */
+    public Pose2d getCorrection(Pose2d out) {
+        out.set(correction);
+        return out;
+    }
+
+    /**
+     * Gets the odometry history.
+     * 
+     * @return The history, in the odometry's own frame
+     */
+    public PoseHistory getHistory() {
+        return history;
+    }
+}
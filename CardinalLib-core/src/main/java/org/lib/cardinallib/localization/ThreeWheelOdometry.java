@@ -0,0 +1,116 @@
+package org.lib.cardinallib.localization;
+
+import org.lib.cardinallib.math.RobotFormulas;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Odometry from two parallel tracking wheels and one perpendicular tracking wheel.
+ * 
+ * <p>The two parallel wheels measure forward motion at different distances from the
+ * robot's center of rotation, so their difference gives the rotation and needs no IMU.
+ * The perpendicular wheel measures sideways motion; the part of it caused by rotation is
+ * removed using its distance in front of the center.</p>
+ * 
+ * <p>Offsets are measured from the robot's center of rotation in the robot's frame, with
+ * x forward and y to the left, in the same units as {@link RobotFormulas#ticksToDistance(int)}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ThreeWheelOdometry odometry = new ThreeWheelOdometry(
+ *         leftEncoder::getCurrentPosition, rightEncoder::getCurrentPosition,
+ *         strafeEncoder::getCurrentPosition,
+ *         0.16, -0.16, -0.08, robotFormulas, 0, 0, 0);
+ * odometry.start(500);
+ * 
+ * // Each main loop
+ * odometry.publish(robot);
+ * }</pre>
+ * 
+ * @see TwoWheelOdometry
+ */
+public class ThreeWheelOdometry extends TrackingWheelOdometry {
+
+    /** Left parallel wheel encoder */
+    private final IntSupplier left;
+    /** Right parallel wheel encoder */
+    private final IntSupplier right;
+    /** Perpendicular wheel encoder */
+    private final IntSupplier perpendicular;
+    /** Lateral offset of the left wheel, positive to the left */
+    private final double leftOffset;
+    /** Lateral offset of the right wheel, positive to the left */
+    private final double rightOffset;
+    /** Forward offset of the perpendicular wheel */
+    private final double perpendicularOffset;
+    /** Left wheel distance at the previous sample */
+    private double lastLeft;
+    /** Right wheel distance at the previous sample */
+    private double lastRight;
+    /** Perpendicular wheel distance at the previous sample */
+    private double lastPerpendicular;
+
+    /**
+     * Creates three-wheel odometry.
+     * 
+     * @param left Tick count of the left parallel wheel, increasing as it rolls forward
+     * @param right Tick count of the right parallel wheel, increasing as it rolls forward
+     * @param perpendicular Tick count of the perpendicular wheel, increasing as it rolls left
+     * @param leftOffset Lateral offset of the left wheel from the center of rotation, positive to the left
+     * @param rightOffset Lateral offset of the right wheel from the center of rotation, positive to the left
+     * @param perpendicularOffset Forward offset of the perpendicular wheel from the center of rotation
+     * @param formulas Converts encoder ticks to distance
+     * @param x Starting X-coordinate
+     * @param y Starting Y-coordinate
+     * @param heading Starting heading in radians
+     * @throws IllegalArgumentException if the left wheel is not to the left of the right wheel
+     */
+    public ThreeWheelOdometry(IntSupplier left, IntSupplier right, IntSupplier perpendicular,
+                              double leftOffset, double rightOffset, double perpendicularOffset,
+                              RobotFormulas formulas, double x, double y, double heading) {
+        super(formulas, x, y, heading);
+        if (!(leftOffset > rightOffset)) {
+            throw new IllegalArgumentException("The left wheel must be to the left of the right wheel.");
+        }
+        this.left = left;
+        this.right = right;
+        this.perpendicular = perpendicular;
+        this.leftOffset = leftOffset;
+        this.rightOffset = rightOffset;
+        this.perpendicularOffset = perpendicularOffset;
+    }
+
+    /**
+     * Records the current wheel distances.
+     */
+    @Override
+    void zero() {
+        lastLeft = formulas.ticksToDistance(left.getAsInt());
+        lastRight = formulas.ticksToDistance(right.getAsInt());
+        lastPerpendicular = formulas.ticksToDistance(perpendicular.getAsInt());
+    }
+
+    /**
+     * Computes the twist from the three wheels' motion.
+     * 
+     * <p>A wheel at lateral offset y rolls forward by dx - y dθ, and one at forward offset
+     * x rolls left by dy + x dθ.</p>
+     */
+    @Override
+    void sample() {
+        double l = formulas.ticksToDistance(left.getAsInt());
+        double r = formulas.ticksToDistance(right.getAsInt());
+        double p = formulas.ticksToDistance(perpendicular.getAsInt());
+        double dl = l - lastLeft;
+        double dr = r - lastRight;
+        double dp = p - lastPerpendicular;
+        lastLeft = l;
+        lastRight = r;
+        lastPerpendicular = p;
+
+        double dTheta = (dr - dl) / (leftOffset - rightOffset);
+        twistHeading = dTheta;
+        twistX = dl + leftOffset * dTheta;
+        twistY = dp - perpendicularOffset * dTheta;
+    }
+}
@@ -0,0 +1,367 @@
+package org.lib.cardinallib.localization;
+
+import org.lib.cardinallib.commands.Clock;
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.PoseHistory;
+import org.lib.cardinallib.math.RobotFormulas;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Base class for odometry from unpowered tracking wheels ("dead wheels").
+ * 
+ * <p>Each {@link #update()} reads the encoders, turns the change in ticks into distance
+ * with {@link RobotFormulas#ticksToDistance(int)}, works out how far the robot moved
+ * forward, sideways and around since the previous update, and moves the pose along that
+ * twist with {@link Pose2d#exp(double, double, double, Pose2d)}. Integrating along the arc
+ * rather than in a straight line keeps the estimate accurate when an update comes late
+ * and covers a large turn. Updates allocate nothing.</p>
+ * 
+ * <p>Updates can run on the caller's loop, or on a dedicated thread started with
+ * {@link #start(double)} so the encoders are sampled at a high, steady rate regardless of
+ * how long the main loop takes. Updates are serialized by this object's lock. Each update
+ * publishes its result behind a sequence counter (a seqlock), so other threads read a
+ * consistent pose through {@link #getPose(Pose2d)} or {@link #publish(RobotElement)}
+ * without locking and without ever blocking the update thread.</p>
+ * 
+ * <p>Encoders must count up when their wheel rolls forward (parallel wheels) or left
+ * (perpendicular wheels); negate a supplier such as {@code () -> -encoder.getCurrentPosition()}
+ * to reverse one.</p>
+ * 
+ * @see TwoWheelOdometry
+ * @see ThreeWheelOdometry
+ */
+public abstract class TrackingWheelOdometry {
+
+    /** Converts encoder ticks to distance */
+    final RobotFormulas formulas;
+    /** Forward motion since the previous sample, in the robot's frame */
+    double twistX;
+    /** Leftward motion since the previous sample, in the robot's frame */
+    double twistY;
+    /** Counterclockwise rotation since the previous sample, in radians */
+    double twistHeading;
+
+    /** Clock timestamps are read from */
+    private Clock clock = Clock.SYSTEM;
+    /** The pose being integrated, owned by the updating thread */
+    private final Pose2d pose;
+    /** Clock time of the previous update in nanoseconds */
+    private long lastNanos;
+    /** Whether the encoders have been read once, so deltas can be taken */
+    private boolean sampled;
+
+    /** Even while the published fields are stable, odd while an update is writing them */
+    private volatile long sequence;
+    /** Published X-coordinate */
+    private volatile double publishedX;
+    /** Published Y-coordinate */
+    private volatile double publishedY;
+    /** Published heading in radians */
+    private volatile double publishedHeading;
+    /** Published field-relative X velocity */
+    private volatile double publishedVelocityX;
+    /** Published field-relative Y velocity */
+    private volatile double publishedVelocityY;
+    /** Published angular velocity in radians per second */
+    private volatile double publishedAngularVelocity;
+    /** Clock time of the published pose in seconds */
+    private volatile double publishedTime;
+
+    /** Thread running updates, or {@code null} */
+    private Thread thread;
+    /** Whether the update thread should keep running */
+    private volatile boolean running;
+    /** The exception that stopped the update thread, if any */
+    private volatile RuntimeException error;
+
+    /**
+     * Creates odometry starting at a pose.
+     * 
+     * @param formulas Converts encoder ticks to distance
+     * @param x Starting X-coordinate
+     * @param y Starting Y-coordinate
+     * @param heading Starting heading in radians
+     */
+    TrackingWheelOdometry(RobotFormulas formulas, double x, double y, double heading) {
+        this.formulas = formulas;
+        pose = new Pose2d(x, y, heading);
+        publish(x, y, heading, 0, 0, 0, 0);
+    }
+
+    /**
+     * Reads the encoders and stores their current readings as the baseline for the next
+     * {@link #sample()}.
+     */
+    abstract void zero();
+
+    /**
+     * Reads the encoders and stores the motion since the previous reading in
+     * {@link #twistX}, {@link #twistY} and {@link #twistHeading}.
+     */
+    abstract void sample();
+
+    /**
+     * Sets the clock that update timestamps are read from.
+     * 
+     * @param clock The clock, for example a {@link org.lib.cardinallib.simulation.VirtualClock}
+     */
+    public synchronized void setClock(Clock clock) {
+        this.clock = clock;
+        sampled = false;
+    }
+
+    /**
+     * Reads the encoders once and moves the pose by the motion since the previous update.
+     * 
+     * <p>The first update after construction or {@link #setClock(Clock)} only records the
+     * encoder readings.</p>
+     */
+    public synchronized void update() {
+        long now = clock.nanoTime();
+        if (!sampled) {
+            zero();
+            sampled = true;
+            lastNanos = now;
+            publish(pose.x, pose.y, pose.heading, 0, 0, 0, now * 1e-9);
+            return;
+        }
+
+        sample();
+        double oldX = pose.x;
+        double oldY = pose.y;
+        pose.exp(twistX, twistY, twistHeading, pose);
+
+        double dt = (now - lastNanos) * 1e-9;
+        lastNanos = now;
+        if (dt > 0) {
+            publish(pose.x, pose.y, pose.heading,
+                    (pose.x - oldX) / dt, (pose.y - oldY) / dt, twistHeading / dt, now * 1e-9);
+        } else {
+            publish(pose.x, pose.y, pose.heading,
+                    publishedVelocityX, publishedVelocityY, publishedAngularVelocity, now * 1e-9);
+        }
+    }
+
+    /**
+     * Moves the estimate to a known pose, for example at the start of autonomous or after
+     * lining up against a wall. Encoder counts are kept, so motion continues from here.
+     * 
+     * @param x New X-coordinate
+     * @param y New Y-coordinate
+     * @param heading New heading in radians
+     */
+    public synchronized void setPose(double x, double y, double heading) {
+        pose.set(x, y, heading);
+        publish(x, y, heading, 0, 0, 0, publishedTime);
+    }
+
+    /**
+     * Starts a daemon thread that calls {@link #update()} at a fixed rate.
+     * 
+     * <p>The thread sleeps between updates. If an update runs past its deadline the next
+     * one starts immediately and the schedule restarts from there rather than bursting
+     * to catch up. If an encoder read throws, the thread stops and the exception is kept
+     * for {@link #getError()}.</p>
+     * 
+     * @param frequencyHz Updates per second
+     * @throws IllegalArgumentException if the frequency is not positive
+     * @throws IllegalStateException if the thread is already running
+     */
+    public synchronized void start(double frequencyHz) {
+        if (!(frequencyHz > 0)) {
+            throw new IllegalArgumentException("Update frequency must be positive.");
+        }
+        if (running) {
+            throw new IllegalStateException("Odometry is already running.");
+        }
+        long periodNanos = Math.round(1e9 / frequencyHz);
+        error = null;
+        running = true;
+        thread = new Thread(() -> run(periodNanos), "cardinallib-odometry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the update thread and waits for it to finish. Does nothing if it is not running.
+     */
+    public void stop() {
+        Thread stopping;
+        synchronized (this) {
+            stopping = thread;
+            thread = null;
+            running = false;
+        }
+        if (stopping == null) return;
+        LockSupport.unpark(stopping);
+        try {
+            stopping.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks whether the update thread is running.
+     * 
+     * @return {@code true} between {@link #start(double)} and {@link #stop()}, unless an update threw
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the exception that stopped the update thread, if any.
+     * 
+     * @return The exception, or {@code null}
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * Copies the latest published pose, consistent even while another thread is updating.
+     * 
+     * @param out Receives the pose
+     * @return {@code out}
+     */
+    public Pose2d getPose(Pose2d out) {
+        while (true) {
+            long before = sequence;
+            if ((before & 1) == 0) {
+                double x = publishedX;
+                double y = publishedY;
+                double heading = publishedHeading;
+                if (sequence == before) {
+                    out.set(x, y, heading);
+                    return out;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Publishes the latest pose and velocity into a robot element.
+     * 
+     * <p>Call this from the thread that owns the robot element, typically once per main
+     * loop. The pose is passed to {@link RobotElement#update(double, double, double, double)}
+     * with the time it was measured, and the velocity measured by the wheels replaces the
+     * element's own estimate.</p>
+     * 
+     * @param robot The robot element to update
+     */
+    public void publish(RobotElement robot) {
+        while (true) {
+            long before = sequence;
+            if ((before & 1) == 0) {
+                double x = publishedX;
+                double y = publishedY;
+                double heading = publishedHeading;
+                double velocityX = publishedVelocityX;
+                double velocityY = publishedVelocityY;
+                double angularVelocity = publishedAngularVelocity;
+                double time = publishedTime;
+                if (sequence == before) {
+                    robot.update(x, y, heading, time);
+                    robot.setVelocity(velocityX, velocityY, angularVelocity);
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Appends the latest pose to a history, if it is newer than the history's newest pose.
+     * 
+     * <p>Call this from the thread that owns the history, typically once per main loop.
+     * Each pose is recorded with the time it was measured, not the time it was read.</p>
+     * 
+     * @param history The history to append to
+     * @return {@code true} if a pose was appended, {@code false} if there was no new one
+     */
+    public boolean record(PoseHistory history) {
+        while (true) {
+            long before = sequence;
+            if ((before & 1) == 0) {
+                double x = publishedX;
+                double y = publishedY;
+                double heading = publishedHeading;
+                double time = publishedTime;
+                if (sequence == before) {
+                    if (history.size() > 0 && !(time > history.getNewestTime())) {
+                        return false;
+                    }
+                    history.add(x, y, heading, time);
+                    return true;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Gets how many times the estimate has been published, to tell whether it changed
+     * since a previous read.
+     * 
+     * @return Number of publishes since construction
+     */
+    public long getUpdateCount() {
+        return sequence >>> 1;
+    }
+
+    /**
+     * Writes a new estimate behind the sequence counter.
+     * 
+     * <p>The published fields are volatile, which orders every write against the counter
+     * without the explicit memory fences that older Android runtimes lack.</p>
+     * 
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param heading Heading in radians
+     * @param velocityX Field-relative X velocity
+     * @param velocityY Field-relative Y velocity
+     * @param angularVelocity Angular velocity in radians per second
+     * @param time Clock time of the estimate in seconds
+     */
+    private void publish(double x, double y, double heading,
+                         double velocityX, double velocityY, double angularVelocity, double time) {
+        long s = sequence;
+        sequence = s + 1;
+        publishedX = x;
+        publishedY = y;
+        publishedHeading = heading;
+        publishedVelocityX = velocityX;
+        publishedVelocityY = velocityY;
+        publishedAngularVelocity = angularVelocity;
+        publishedTime = time;
+        sequence = s + 2;
+    }
+
+    /**
+     * Body of the update thread.
+     * 
+     * @param periodNanos Time between updates in nanoseconds
+     */
+    private void run(long periodNanos) {
+        long next = System.nanoTime();
+        try {
+            while (running) {
+                update();
+                next += periodNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                } else {
+                    next = System.nanoTime();
+                }
+            }
+        } catch (RuntimeException e) {
+            error = e;
+            running = false;
+        }
+    }
+}
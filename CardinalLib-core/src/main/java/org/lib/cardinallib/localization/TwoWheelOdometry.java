@@ -0,0 +1,102 @@
+package org.lib.cardinallib.localization;
+
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.RobotFormulas;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Odometry from one parallel and one perpendicular tracking wheel plus a heading sensor.
+ * 
+ * <p>The rotation comes from the heading sensor, usually the IMU, and is used to remove
+ * the part of each wheel's motion caused by the robot turning around a point the wheel
+ * is not on.</p>
+ * 
+ * <p>Offsets are measured from the robot's center of rotation in the robot's frame, with
+ * x forward and y to the left, in the same units as {@link RobotFormulas#ticksToDistance(int)}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * TwoWheelOdometry odometry = new TwoWheelOdometry(
+ *         forwardEncoder::getCurrentPosition, strafeEncoder::getCurrentPosition,
+ *         () -> imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS),
+ *         0.05, -0.08, robotFormulas, 0, 0, 0);
+ * odometry.start(300);
+ * }</pre>
+ * 
+ * @see ThreeWheelOdometry
+ */
+public class TwoWheelOdometry extends TrackingWheelOdometry {
+
+    /** Parallel wheel encoder */
+    private final IntSupplier parallel;
+    /** Perpendicular wheel encoder */
+    private final IntSupplier perpendicular;
+    /** Heading sensor in radians, counterclockwise positive */
+    private final DoubleSupplier headingSensor;
+    /** Lateral offset of the parallel wheel, positive to the left */
+    private final double parallelOffset;
+    /** Forward offset of the perpendicular wheel */
+    private final double perpendicularOffset;
+    /** Parallel wheel distance at the previous sample */
+    private double lastParallel;
+    /** Perpendicular wheel distance at the previous sample */
+    private double lastPerpendicular;
+    /** Heading sensor reading at the previous sample */
+    private double lastHeading;
+
+    /**
+     * Creates two-wheel odometry.
+     * 
+     * @param parallel Tick count of the parallel wheel, increasing as it rolls forward
+     * @param perpendicular Tick count of the perpendicular wheel, increasing as it rolls left
+     * @param headingSensor Robot heading in radians, counterclockwise positive; any offset or wrapping is fine
+     * @param parallelOffset Lateral offset of the parallel wheel from the center of rotation, positive to the left
+     * @param perpendicularOffset Forward offset of the perpendicular wheel from the center of rotation
+     * @param formulas Converts encoder ticks to distance
+     * @param x Starting X-coordinate
+     * @param y Starting Y-coordinate
+     * @param heading Starting heading in radians
+     */
+    public TwoWheelOdometry(IntSupplier parallel, IntSupplier perpendicular, DoubleSupplier headingSensor,
+                            double parallelOffset, double perpendicularOffset,
+                            RobotFormulas formulas, double x, double y, double heading) {
+        super(formulas, x, y, heading);
+        this.parallel = parallel;
+        this.perpendicular = perpendicular;
+        this.headingSensor = headingSensor;
+        this.parallelOffset = parallelOffset;
+        this.perpendicularOffset = perpendicularOffset;
+    }
+
+    /**
+     * Records the current wheel distances and heading.
+     */
+    @Override
+    void zero() {
+        lastParallel = formulas.ticksToDistance(parallel.getAsInt());
+        lastPerpendicular = formulas.ticksToDistance(perpendicular.getAsInt());
+        lastHeading = headingSensor.getAsDouble();
+    }
+
+    /**
+     * Computes the twist from the wheels' motion and the change in heading.
+     */
+    @Override
+    void sample() {
+        double a = formulas.ticksToDistance(parallel.getAsInt());
+        double p = formulas.ticksToDistance(perpendicular.getAsInt());
+        double h = headingSensor.getAsDouble();
+        double dTheta = Pose2d.normalizeAngle(h - lastHeading);
+        double da = a - lastParallel;
+        double dp = p - lastPerpendicular;
+        lastParallel = a;
+        lastPerpendicular = p;
+        lastHeading = h;
+
+        twistHeading = dTheta;
+        twistX = da + parallelOffset * dTheta;
+        twistY = dp - perpendicularOffset * dTheta;
+    }
+}
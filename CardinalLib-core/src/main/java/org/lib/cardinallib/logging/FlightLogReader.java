@@ -0,0 +1,232 @@
+package org.lib.cardinallib.logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a log written by {@link FlightRecorder} and converts it to CSV. Meant for desktop
+ * use after a match, not for the robot.
+ * 
+ * <p>A log that was cut short, for example by a power loss, is read up to its last
+ * complete block. A header that is cut short or corrupt is reported as an
+ * {@link IOException}.</p>
+ * 
+ * <p>From the command line, with the CardinalLib-core jar on the class path:</p>
+ * <pre>{@code
+ * java -cp CardinalLib-core.jar org.lib.cardinallib.logging.FlightLogReader match.log match.csv
+ * }</pre>
+ * 
+ * <p>The CSV has one row per record with the columns {@code time_s} (seconds since the
+ * first record), {@code loop_ms}, {@code x}, {@code y}, {@code heading}, {@code commands}
+ * (the names of the running commands, separated by {@code ;}) and one column per user
+ * channel.</p>
+ * 
+ * @see FlightRecorder
+ */
+public class FlightLogReader {
+
+    /** Number of command ID slots per record */
+    private final int commandSlots;
+    /** Names of the user channels */
+    private final List<String> channelNames;
+    /** Longs per record */
+    private final int width;
+    /** Every record, one after another */
+    private final long[] records;
+    /** Number of records */
+    private final int recordCount;
+    /** Command names by ID */
+    private final Map<Integer, String> commandNames = new HashMap<>();
+
+    /**
+     * Reads a whole log file.
+     * 
+     * @param file The log file
+     * @throws IOException if the file cannot be read, is not a flight log, or is cut short
+     *                     or corrupt before its first block
+     */
+    public FlightLogReader(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 16 || buffer.getInt() != FlightRecorder.MAGIC) {
+            throw new IOException("Not a flight recorder log: " + file + ".");
+        }
+        int version = buffer.getInt();
+        if (version != FlightRecorder.VERSION) {
+            throw new IOException("Unsupported flight log version " + version + ".");
+        }
+        commandSlots = buffer.getInt();
+        int channelCount = buffer.getInt();
+        // Every channel name takes at least its 4-byte length
+        if (commandSlots < 0 || channelCount < 0 || channelCount > buffer.remaining() / 4
+                || (long) FlightRecorder.FIRST_COMMAND + commandSlots + channelCount > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt flight log header: " + file + ".");
+        }
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < channelCount; i++) {
+            if (buffer.remaining() < 4) {
+                throw new IOException("Flight log is truncated in its channel table: " + file + ".");
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Flight log is truncated in its channel table: " + file + ".");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        channelNames = Collections.unmodifiableList(names);
+        width = FlightRecorder.FIRST_COMMAND + commandSlots + channelCount;
+
+        long[] data = new long[Math.max(0, buffer.remaining() / 8)];
+        int longs = 0;
+        while (buffer.remaining() >= 8) {
+            int type = buffer.getInt();
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) break;
+
+            if (type == FlightRecorder.BLOCK_RECORDS) {
+                int count = length / 8;
+                for (int i = 0; i < count; i++) {
+                    data[longs++] = buffer.getLong();
+                }
+                buffer.position(buffer.position() + length % 8);
+            } else if (type == FlightRecorder.BLOCK_NAME && length >= 4) {
+                int id = buffer.getInt();
+                byte[] bytes = new byte[length - 4];
+                buffer.get(bytes);
+                commandNames.put(id, new String(bytes, StandardCharsets.UTF_8));
+            } else {
+                buffer.position(buffer.position() + length);
+            }
+        }
+        recordCount = longs / width;
+        records = data;
+    }
+
+    /**
+     * Gets the number of records in the log.
+     * 
+     * @return The record count
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the names of the user channels, in column order.
+     * 
+     * @return The channel names
+     */
+    public List<String> getChannelNames() {
+        return channelNames;
+    }
+
+    /**
+     * Gets the name recorded for a command ID.
+     * 
+     * @param id A command ID from the log
+     * @return The command's name, or {@code "#id"} if the log has no name for it
+     */
+    public String getCommandName(int id) {
+        String name = commandNames.get(id);
+        return name != null ? name : "#" + id;
+    }
+
+    /**
+     * Writes the log as CSV, one row per record.
+     * 
+     * @param out Where to write the CSV
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("time_s,loop_ms,x,y,heading,commands");
+        for (String name : channelNames) {
+            out.write(',');
+            out.write(csvField(name));
+        }
+        out.write('\n');
+
+        long firstTime = recordCount > 0 ? records[FlightRecorder.TIME] : 0;
+        StringBuilder commands = new StringBuilder();
+        for (int r = 0; r < recordCount; r++) {
+            int base = r * width;
+            out.write(Double.toString((records[base + FlightRecorder.TIME] - firstTime) / 1e9));
+            out.write(',');
+            out.write(Double.toString(records[base + FlightRecorder.DURATION] / 1e6));
+            out.write(',');
+            out.write(Double.toString(Double.longBitsToDouble(records[base + FlightRecorder.X])));
+            out.write(',');
+            out.write(Double.toString(Double.longBitsToDouble(records[base + FlightRecorder.Y])));
+            out.write(',');
+            out.write(Double.toString(Double.longBitsToDouble(records[base + FlightRecorder.HEADING])));
+            out.write(',');
+
+            commands.setLength(0);
+            int count = (int) Math.min(records[base + FlightRecorder.COMMAND_COUNT], commandSlots);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) commands.append(';');
+                commands.append(getCommandName((int) records[base + FlightRecorder.FIRST_COMMAND + i]));
+            }
+            out.write(csvField(commands.toString()));
+
+            int channelBase = base + FlightRecorder.FIRST_COMMAND + commandSlots;
+            for (int i = 0; i < channelNames.size(); i++) {
+                out.write(',');
+                out.write(Double.toString(Double.longBitsToDouble(records[channelBase + i])));
+            }
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Converts a flight log to CSV.
+     * 
+     * <p>Usage: {@code FlightLogReader <log file> [csv file]}. Without a CSV file the
+     * output goes to standard output.</p>
+     * 
+     * @param args The log file and optional output file
+     * @throws IOException if reading or writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: FlightLogReader <log file> [csv file]");
+            System.exit(2);
+        }
+        FlightLogReader reader = new FlightLogReader(new File(args[0]));
+        if (args.length == 2) {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]), StandardCharsets.UTF_8))) {
+                reader.writeCsv(out);
+            }
+        } else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            reader.writeCsv(out);
+        }
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, quote or line break.
+     * 
+     * @param value The raw field
+     * @return The field as it should appear in the CSV
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
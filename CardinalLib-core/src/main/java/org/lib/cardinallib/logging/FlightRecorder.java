@@ -0,0 +1,516 @@
+package org.lib.cardinallib.logging;
+
+import org.lib.cardinallib.commands.Clock;
+import org.lib.cardinallib.commands.Command;
+import org.lib.cardinallib.commands.CommandMachine;
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records a fixed-width binary log of every loop, cheap enough to leave on during matches.
+ * 
+ * <p>Each call to {@link #record(long)} stores one record of primitive values:</p>
+ * <ul>
+ *     <li>the loop timestamp and loop duration in nanoseconds</li>
+ *     <li>the {@link RobotElement}'s pose</li>
+ *     <li>the {@link Command#getId() IDs} of the commands running on the {@link CommandMachine}</li>
+ *     <li>every user channel registered with {@link #channel(String)}</li>
+ * </ul>
+ * 
+ * <p>Records go into a preallocated {@code long[]} ring buffer, so recording does not
+ * allocate. A background thread copies finished records out of the ring and writes them
+ * to the log file through a {@link FileChannel}. If the writer falls so far behind that
+ * the ring is full, new records are dropped and counted rather than blocking the loop.
+ * A command's name is written to the log once, the first time it is seen running.</p>
+ * 
+ * <p>The log is made of blocks, so a file cut short by a power loss is still readable up
+ * to the last complete block. Use {@link FlightLogReader} on a desktop to turn it into CSV.</p>
+ * 
+ * <p>Example usage in a LinearOpMode:</p>
+ * <pre>{@code
+ * FlightRecorder recorder = new FlightRecorder(new File("/sdcard/FIRST/match.log"), robot, cmdMachine);
+ * int battery = recorder.channel("battery");
+ * recorder.start();
+ * waitForStart();
+ * while (opModeIsActive()) {
+ *     long start = System.nanoTime();
+ *     cmdMachine.update();
+ *     recorder.set(battery, voltageSensor.getVoltage());
+ *     recorder.record(System.nanoTime() - start);
+ * }
+ * recorder.close();
+ * }</pre>
+ * 
+ * <p>Timestamps come from the machine's {@link Clock}, so a simulated run is logged in
+ * simulated time.</p>
+ * 
+ * <p>{@link #channel(String)}, {@link #set(int, double)} and {@link #record(long)} must be
+ * called from the loop thread.</p>
+ * 
+ * @see FlightLogReader
+ */
+public class FlightRecorder implements Closeable {
+
+    /** First four bytes of every log file */
+    static final int MAGIC = 0x52464C43;
+    /** Log format version */
+    static final int VERSION = 1;
+    /** Block type holding a run of records */
+    static final int BLOCK_RECORDS = 1;
+    /** Block type holding the name of a command ID */
+    static final int BLOCK_NAME = 2;
+
+    /** Record field: loop timestamp in nanoseconds */
+    static final int TIME = 0;
+    /** Record field: loop duration in nanoseconds */
+    static final int DURATION = 1;
+    /** Record field: robot X-coordinate, as double bits */
+    static final int X = 2;
+    /** Record field: robot Y-coordinate, as double bits */
+    static final int Y = 3;
+    /** Record field: robot heading, as double bits */
+    static final int HEADING = 4;
+    /** Record field: number of command IDs that follow */
+    static final int COMMAND_COUNT = 5;
+    /** Record field: first command ID slot */
+    static final int FIRST_COMMAND = 6;
+
+    /** Default number of command ID slots per record */
+    private static final int DEFAULT_COMMAND_SLOTS = 8;
+    /** Default ring capacity in records, about 40 seconds at 100 Hz */
+    private static final int DEFAULT_CAPACITY = 4096;
+    /** Maximum number of records written in one block */
+    private static final int RECORDS_PER_BLOCK = 256;
+    /** Time the writer thread sleeps between flushes (100 ms) */
+    private static final long FLUSH_INTERVAL_NANOS = 100_000_000L;
+
+    /** The file the log is written to */
+    private final File file;
+    /** The robot whose pose is recorded, or null */
+    private final RobotElement robot;
+    /** The machine whose running commands are recorded, or null */
+    private final CommandMachine machine;
+    /** The clock record timestamps are read from */
+    private final Clock clock;
+    /** Number of command ID slots per record */
+    private final int commandSlots;
+    /** Ring capacity in records, a power of two */
+    private final int capacity;
+    /** Names of the user channels */
+    private final List<String> channelNames = new ArrayList<>();
+    /** Current value of each user channel */
+    private double[] channelValues = new double[0];
+
+    /** Longs per record */
+    private int width;
+    /** The ring of records; record {@code n} starts at {@code (n & (capacity - 1)) * width} */
+    private long[] ring;
+    /** Scratch array the machine's running commands are copied into */
+    private Command[] running;
+    /** Whether each command ID's name has been queued for writing */
+    private boolean[] named = new boolean[64];
+    /** Command names waiting to be written, in the order they were seen */
+    private final ConcurrentLinkedQueue<CommandName> pendingNames = new ConcurrentLinkedQueue<>();
+
+    /** Number of records written into the ring */
+    private volatile long head = 0;
+    /** Number of records the writer thread has written to the file */
+    private volatile long tail = 0;
+    /** Time of the previous record, used by {@link #record()} */
+    private long lastRecordTime;
+    /** Whether anything has been recorded yet */
+    private boolean recordedOnce = false;
+    /** Number of records dropped because the ring was full */
+    private long droppedRecords = 0;
+
+    /** The open log file */
+    private FileChannel channel;
+    /** Buffer a block of records is staged in before writing */
+    private ByteBuffer blockBuffer;
+    /** Thread that writes records to the file */
+    private Thread writer;
+    /** Whether recording has started and no error has occurred */
+    private volatile boolean recording = false;
+    /** Whether {@link #close()} has been called */
+    private volatile boolean closed = false;
+    /** The first error the writer thread hit, which stops recording */
+    private volatile IOException error;
+
+    /**
+     * Creates a recorder with 8 command slots and a 4096-record ring.
+     * 
+     * @param file The log file to create or overwrite
+     * @param robot The robot whose pose to record, or {@code null} to record NaN
+     * @param machine The machine whose running commands to record, or {@code null}
+     */
+    public FlightRecorder(File file, RobotElement robot, CommandMachine machine) {
+        this(file, robot, machine, DEFAULT_COMMAND_SLOTS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a recorder.
+     * 
+     * @param file The log file to create or overwrite
+     * @param robot The robot whose pose to record, or {@code null} to record NaN
+     * @param machine The machine whose running commands to record, or {@code null}
+     * @param commandSlots Maximum number of running commands recorded per loop
+     * @param capacity Number of records the ring holds before new ones are dropped; rounded up to a power of two
+     * @throws IllegalArgumentException if commandSlots is negative or capacity is not between 1 and 2^30
+     */
+    public FlightRecorder(File file, RobotElement robot, CommandMachine machine, int commandSlots, int capacity) {
+        if (commandSlots < 0) {
+            throw new IllegalArgumentException("Command slots cannot be negative.");
+        }
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30 records.");
+        }
+        this.file = file;
+        this.robot = robot;
+        this.machine = machine;
+        this.clock = machine != null ? machine.getClock() : Clock.SYSTEM;
+        this.commandSlots = commandSlots;
+        int rounded = 1;
+        while (rounded < capacity) {
+            rounded <<= 1;
+        }
+        this.capacity = rounded;
+    }
+
+    /**
+     * Registers a user channel. Channels must be registered before {@link #start()}.
+     * 
+     * @param name The column name shown in the CSV output
+     * @return The channel index for {@link #set(int, double)}
+     * @throws IllegalStateException if the recorder has already started
+     */
+    public int channel(String name) {
+        if (ring != null) {
+            throw new IllegalStateException("Channels must be registered before the recorder starts.");
+        }
+        channelNames.add(name);
+        channelValues = Arrays.copyOf(channelValues, channelNames.size());
+        channelValues[channelValues.length - 1] = Double.NaN;
+        return channelNames.size() - 1;
+    }
+
+    /**
+     * Sets a user channel's value. The value is stored in every following record until it
+     * is set again.
+     * 
+     * @param channel A channel index from {@link #channel(String)}
+     * @param value The new value
+     */
+    public void set(int channel, double value) {
+        channelValues[channel] = value;
+    }
+
+    /**
+     * Creates the log file, writes its header and starts the writer thread.
+     * 
+     * @throws IOException if the file cannot be created
+     * @throws IllegalStateException if the recorder was already started
+     */
+    public void start() throws IOException {
+        if (ring != null) {
+            throw new IllegalStateException("The recorder has already started.");
+        }
+        width = FIRST_COMMAND + commandSlots + channelNames.size();
+        ring = new long[capacity * width];
+        running = new Command[commandSlots];
+        blockBuffer = ByteBuffer.allocateDirect(8 + RECORDS_PER_BLOCK * width * 8).order(ByteOrder.LITTLE_ENDIAN);
+
+        channel = new FileOutputStream(file).getChannel();
+        writeFully(header());
+
+        writer = new Thread(this::runWriter, "cardinallib-flight-recorder");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        recording = true;
+        writer.start();
+    }
+
+    /**
+     * Records one loop, using the time since the previous record as the loop duration.
+     */
+    public void record() {
+        long now = clock.nanoTime();
+        long duration = recordedOnce ? now - lastRecordTime : 0;
+        record(now, duration);
+    }
+
+    /**
+     * Records one loop.
+     * 
+     * @param loopDurationNanos How long the loop's work took, for example measured around
+     *                          {@link CommandMachine#update()}
+     */
+    public void record(long loopDurationNanos) {
+        record(clock.nanoTime(), loopDurationNanos);
+    }
+
+    /**
+     * Gets the number of records dropped because the writer thread fell behind.
+     * 
+     * @return The dropped record count
+     */
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    /**
+     * Gets the number of records written into the ring so far.
+     * 
+     * @return The record count, excluding dropped records
+     */
+    public long getRecordCount() {
+        return head;
+    }
+
+    /**
+     * Checks whether the recorder is accepting records.
+     * 
+     * @return {@code true} after {@link #start()} until {@link #close()} or a write error
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Gets the error that stopped recording, if any.
+     * 
+     * @return The first write error, or {@code null}
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Stops recording, writes every remaining record and closes the file.
+     * 
+     * @throws IOException if writing or closing the file failed at any point
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        recording = false;
+        closed = true;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Writes one record into the ring.
+     * 
+     * @param now The loop timestamp in nanoseconds
+     * @param duration The loop duration in nanoseconds
+     */
+    private void record(long now, long duration) {
+        lastRecordTime = now;
+        recordedOnce = true;
+        if (!recording) return;
+        long h = head;
+        if (h - tail >= capacity) {
+            droppedRecords++;
+            return;
+        }
+
+        long[] ring = this.ring;
+        int base = (int) (h & (capacity - 1)) * width;
+        ring[base + TIME] = now;
+        ring[base + DURATION] = duration;
+        if (robot != null) {
+            Pose2d pose = robot.getPose();
+            ring[base + X] = Double.doubleToRawLongBits(pose.x);
+            ring[base + Y] = Double.doubleToRawLongBits(pose.y);
+            ring[base + HEADING] = Double.doubleToRawLongBits(pose.heading);
+        } else {
+            long nan = Double.doubleToRawLongBits(Double.NaN);
+            ring[base + X] = nan;
+            ring[base + Y] = nan;
+            ring[base + HEADING] = nan;
+        }
+
+        int count = machine != null ? machine.getActiveCommands(running) : 0;
+        ring[base + COMMAND_COUNT] = count;
+        for (int i = 0; i < count; i++) {
+            Command command = running[i];
+            int id = command.getId();
+            if (id >= named.length || !named[id]) {
+                queueName(command);
+            }
+            ring[base + FIRST_COMMAND + i] = id;
+            running[i] = null;
+        }
+
+        int channelBase = base + FIRST_COMMAND + commandSlots;
+        for (int i = 0; i < channelValues.length; i++) {
+            ring[channelBase + i] = Double.doubleToRawLongBits(channelValues[i]);
+        }
+        head = h + 1;
+    }
+
+    /**
+     * Queues a newly seen command's name for the writer thread. Allocates, but only once
+     * per command.
+     * 
+     * @param command The command
+     */
+    private void queueName(Command command) {
+        int id = command.getId();
+        if (id >= named.length) {
+            named = Arrays.copyOf(named, Math.max(named.length * 2, id + 1));
+        }
+        named[id] = true;
+        pendingNames.add(new CommandName(id, command.getName()));
+    }
+
+    /**
+     * Body of the writer thread: flushes records until the recorder is closed.
+     */
+    private void runWriter() {
+        while (true) {
+            boolean last = closed;
+            try {
+                flush();
+            } catch (IOException e) {
+                error = e;
+                recording = false;
+                return;
+            }
+            if (last) return;
+            LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+        }
+    }
+
+    /**
+     * Writes every pending command name and record to the file.
+     * 
+     * @throws IOException if writing fails
+     */
+    private void flush() throws IOException {
+        // Names queued before a record was published are visible once head is read
+        long h = head;
+        CommandName name;
+        while ((name = pendingNames.poll()) != null) {
+            writeFully(name.toBlock());
+        }
+
+        long t = tail;
+        while (t < h) {
+            int start = (int) (t & (capacity - 1));
+            int count = (int) Math.min(Math.min(h - t, RECORDS_PER_BLOCK), capacity - start);
+            blockBuffer.clear();
+            blockBuffer.putInt(BLOCK_RECORDS);
+            blockBuffer.putInt(count * width * 8);
+            int end = (start + count) * width;
+            for (int i = start * width; i < end; i++) {
+                blockBuffer.putLong(ring[i]);
+            }
+            blockBuffer.flip();
+            writeFully(blockBuffer);
+            t += count;
+            tail = t;
+        }
+    }
+
+    /**
+     * Builds the file header: format, record layout and channel names.
+     * 
+     * @return The header bytes, ready to write
+     */
+    private ByteBuffer header() {
+        int size = 16;
+        List<byte[]> names = new ArrayList<>();
+        for (String channelName : channelNames) {
+            byte[] bytes = channelName.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            size += 4 + bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(commandSlots);
+        buffer.putInt(names.size());
+        for (byte[] bytes : names) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes a whole buffer to the file.
+     * 
+     * @param buffer The bytes to write
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * A command name waiting to be written to the log.
+     */
+    private static final class CommandName {
+        /** The command's ID */
+        private final int id;
+        /** The command's name */
+        private final String name;
+
+        /**
+         * Creates a pending name.
+         * 
+         * @param id The command's ID
+         * @param name The command's name
+         */
+        CommandName(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        /**
+         * Encodes the name as a log block.
+         * 
+         * @return The block bytes, ready to write
+         */
+        ByteBuffer toBlock() {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(12 + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(BLOCK_NAME);
+            buffer.putInt(4 + bytes.length);
+            buffer.putInt(id);
+            buffer.put(bytes);
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.lib.cardinallib.math;
+
+/**
+ * {@link RobotFormulas} built from measured data instead of hand-written formulas.
+ * 
+ * <p>Each pair of conversions comes from one {@link Calibration}: the forward method
+ * applies the fit and the inverse method inverts the same fit, so
+ * {@code velocityToPower(powerToVelocity(p))} returns {@code p} up to the table error,
+ * no matter how the curve is shaped. Every conversion is one table lookup.</p>
+ * 
+ * <p>Any calibration may be {@code null} if the robot does not use those conversions;
+ * calling them then throws {@link IllegalStateException}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * Calibration shooterPower = Calibration.monotoneSpline(
+ *         new double[] {0.0, 0.1, 0.3, 0.5, 0.7, 1.0},
+ *         new double[] {0.0, 0.0, 2.8, 5.1, 6.9, 8.8});  // deadband below 0.1
+ * Calibration shooterRpm = Calibration.polynomial(rpmSamples, velocitySamples, 1);
+ * Calibration driveTicks = Calibration.polynomial(tickSamples, distanceSamples, 1);
+ * 
+ * RobotFormulas formulas = new CalibratedFormulas(shooterPower, shooterRpm, driveTicks, null);
+ * double rpm = formulas.velocityToRpm(6.2);
+ * }</pre>
+ * 
+ * @see Calibration
+ */
+public class CalibratedFormulas extends RobotFormulas {
+
+    /** Shooter motor power to projectile velocity */
+    private final Calibration shooterPower;
+    /** Flywheel RPM to projectile velocity */
+    private final Calibration shooterRpm;
+    /** Encoder ticks to distance traveled */
+    private final Calibration driveTicks;
+    /** Drive motor power to robot linear velocity */
+    private final Calibration drivePower;
+
+    /**
+     * Creates formulas from calibrations, each mapping a control input to a physical quantity.
+     * 
+     * @param shooterPower Shooter motor power to projectile velocity in m/s, or {@code null}
+     * @param shooterRpm Flywheel RPM to projectile velocity in m/s, or {@code null}
+     * @param driveTicks Encoder ticks to distance in meters, or {@code null}
+     * @param drivePower Drive motor power to linear velocity in m/s, or {@code null}
+     */
+    public CalibratedFormulas(Calibration shooterPower, Calibration shooterRpm,
+                              Calibration driveTicks, Calibration drivePower) {
+        this.shooterPower = shooterPower;
+        this.shooterRpm = shooterRpm;
+        this.driveTicks = driveTicks;
+        this.drivePower = drivePower;
+    }
+
+    /**
+     * Applies the shooter power calibration.
+     * 
+     * @param power Motor power
+     * @return Projectile velocity in m/s
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double powerToVelocity(double power) {
+        return require(shooterPower, "shooter power").apply(power);
+    }
+
+    /**
+     * Inverts the shooter power calibration.
+     * 
+     * @param velocity Desired projectile velocity in m/s
+     * @return Motor power
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double velocityToPower(double velocity) {
+        return require(shooterPower, "shooter power").invert(velocity);
+    }
+
+    /**
+     * Applies the flywheel RPM calibration.
+     * 
+     * @param rpm Flywheel revolutions per minute
+     * @return Projectile velocity in m/s
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double rpmToVelocity(double rpm) {
+        return require(shooterRpm, "shooter RPM").apply(rpm);
+    }
+
+    /**
+     * Inverts the flywheel RPM calibration.
+     * 
+     * @param velocity Desired projectile velocity in m/s
+     * @return Flywheel RPM
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double velocityToRpm(double velocity) {
+        return require(shooterRpm, "shooter RPM").invert(velocity);
+    }
+
+    /**
+     * Applies the encoder tick calibration.
+     * 
+     * @param ticks Encoder counts
+     * @return Distance in meters
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double ticksToDistance(int ticks) {
+        return require(driveTicks, "drive ticks").apply(ticks);
+    }
+
+    /**
+     * Inverts the encoder tick calibration, rounded to whole ticks.
+     * 
+     * @param distanceMeters Distance in meters
+     * @return Encoder counts
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public int distanceToTicks(double distanceMeters) {
+        return (int) Math.round(require(driveTicks, "drive ticks").invert(distanceMeters));
+    }
+
+    /**
+     * Applies the drive power calibration.
+     * 
+     * @param power Motor power
+     * @return Linear velocity in m/s
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double powerToLinearVelocity(double power) {
+        return require(drivePower, "drive power").apply(power);
+    }
+
+    /**
+     * Inverts the drive power calibration.
+     * 
+     * @param velocity Desired linear velocity in m/s
+     * @return Motor power
+     * @throws IllegalStateException if the calibration was not provided
+     */
+    @Override
+    public double linearVelocityToPower(double velocity) {
+        return require(drivePower, "drive power").invert(velocity);
+    }
+
+    /**
+     * Gets the shooter power calibration, for example to inspect its residuals.
+     * 
+     * @return The calibration, or {@code null} if there is none
+     */
+    public Calibration getShooterPowerCalibration() {
+        return shooterPower;
+    }
+
+    /**
+     * Gets the flywheel RPM calibration.
+     * 
+     * @return The calibration, or {@code null} if there is none
+     */
+    public Calibration getShooterRpmCalibration() {
+        return shooterRpm;
+    }
+
+    /**
+     * Gets the encoder tick calibration.
+     * 
+     * @return The calibration, or {@code null} if there is none
+     */
+    public Calibration getDriveTicksCalibration() {
+        return driveTicks;
+    }
+
+    /**
+     * Gets the drive power calibration.
+     * 
+     * @return The calibration, or {@code null} if there is none
+     */
+    public Calibration getDrivePowerCalibration() {
+        return drivePower;
+    }
+
+    /**
+     * Returns a calibration, or throws if it was not provided.
+     * 
+     * @param calibration The calibration
+     * @param name Name used in the error message
+     * @return The calibration
+     * @throws IllegalStateException if the calibration is {@code null}
+     */
+    private static Calibration require(Calibration calibration, String name) {
+        if (calibration == null) {
+            throw new IllegalStateException("No " + name + " calibration was provided.");
+        }
+        return calibration;
+    }
+}
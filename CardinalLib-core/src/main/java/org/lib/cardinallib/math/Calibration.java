@@ -0,0 +1,585 @@
+package org.lib.cardinallib.math;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A monotone curve fitted to measured input/output pairs, with fast lookups in both directions.
+ * 
+ * <p>Two kinds of fit are available:</p>
+ * <ul>
+ *     <li>{@link #polynomial(double[], double[], int)}: a least-squares polynomial, for
+ *         relationships with a known smooth shape, such as a nearly linear flywheel.</li>
+ *     <li>{@link #monotoneSpline(double[], double[])}: the least-squares monotone fit
+ *         (isotonic regression) joined by a monotone cubic spline, for curves with
+ *         deadbands or saturation that no low-degree polynomial follows.</li>
+ * </ul>
+ * 
+ * <p>After fitting, the curve is compiled into two uniform tables of {@value #TABLE_SIZE}
+ * points: one over the input range, and one over the output range whose entries are the
+ * fit's exact inverse, found by bisection. {@link #apply(double)} and {@link #invert(double)}
+ * then each cost one table interpolation, and the two directions come from the same fit
+ * so they cannot drift apart. Inputs beyond the measured range extrapolate along the end
+ * of the table.</p>
+ * 
+ * <p>The fit must be monotone over the measured range, or it has no inverse; building a
+ * polynomial that turns around throws. Where the curve is flat, such as a motor deadband,
+ * {@link #invert(double)} gives the input closest to the start of the range that reaches
+ * the output.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * double[] power = {0.2, 0.4, 0.6, 0.8, 1.0};
+ * double[] velocity = {1.9, 4.1, 6.0, 7.6, 8.9};  // measured m/s
+ * Calibration shooter = Calibration.polynomial(power, velocity, 2);
+ * System.out.println("RMS residual " + shooter.getRmsResidual());
+ * 
+ * double v = shooter.apply(0.7);      // power to velocity
+ * double p = shooter.invert(6.5);     // velocity to power
+ * }</pre>
+ * 
+ * @see CalibratedFormulas
+ */
+public final class Calibration {
+
+    /** Number of points in each compiled table */
+    public static final int TABLE_SIZE = 1025;
+    /** Bisection steps per inverse table entry, enough to reach double precision */
+    private static final int BISECTION_STEPS = 64;
+
+    /** Smallest measured input */
+    private final double minInput;
+    /** Largest measured input */
+    private final double maxInput;
+    /** Fit output at {@link #minInput} */
+    private final double startOutput;
+    /** Fit output at {@link #maxInput} */
+    private final double endOutput;
+    /** Fit output at evenly spaced inputs */
+    private final double[] forward;
+    /** Reciprocal of the input spacing of {@link #forward} */
+    private final double forwardScale;
+    /** Smallest output in {@link #inverse}'s range */
+    private final double inverseStart;
+    /** Input reaching each of evenly spaced outputs */
+    private final double[] inverse;
+    /** Reciprocal of the output spacing of {@link #inverse} */
+    private final double inverseScale;
+    /** Measured output minus fit output, for each sample in the order given */
+    private final double[] residuals;
+    /** Root-mean-square of {@link #residuals} */
+    private final double rmsResidual;
+    /** Largest absolute value in {@link #residuals} */
+    private final double maxResidual;
+    /** Largest difference between {@link #apply(double)} and the fit, between table points */
+    private final double forwardTableError;
+    /** Largest difference between {@link #invert(double)} and the exact inverse, between table points */
+    private final double inverseTableError;
+
+    /**
+     * Compiles a fit into lookup tables.
+     * 
+     * @param fit The fitted curve, valid on [minInput, maxInput]
+     * @param minInput Smallest measured input
+     * @param maxInput Largest measured input
+     * @param inputs Measured inputs, for residuals
+     * @param outputs Measured outputs, for residuals
+     * @throws IllegalArgumentException if the fit is not monotone over the range
+     */
+    private Calibration(DoubleUnaryOperator fit, double minInput, double maxInput,
+                        double[] inputs, double[] outputs) {
+        this.minInput = minInput;
+        this.maxInput = maxInput;
+
+        double inputStep = (maxInput - minInput) / (TABLE_SIZE - 1);
+        forward = new double[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            forward[i] = fit.applyAsDouble(i == TABLE_SIZE - 1 ? maxInput : minInput + i * inputStep);
+        }
+        forwardScale = 1 / inputStep;
+        startOutput = forward[0];
+        endOutput = forward[TABLE_SIZE - 1];
+
+        // An increasing and a decreasing curve are handled alike by flipping the sign
+        double sign = Math.signum(endOutput - startOutput);
+        if (sign == 0) {
+            throw new IllegalArgumentException("Fit neither rises nor falls over the measured range and has no inverse.");
+        }
+        // Flat stretches of a spline can wobble by rounding error, so allow a tiny reversal
+        double tolerance = 1e-12 * Math.abs(endOutput - startOutput);
+        for (int i = 1; i < TABLE_SIZE; i++) {
+            if ((forward[i] - forward[i - 1]) * sign < -tolerance) {
+                throw new IllegalArgumentException("Fit is not monotone over the measured range; "
+                        + "use a lower degree or a monotone spline.");
+            }
+        }
+
+        inverseStart = Math.min(startOutput, endOutput);
+        double outputStep = Math.abs(endOutput - startOutput) / (TABLE_SIZE - 1);
+        inverse = new double[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            inverse[i] = solve(fit, inverseStart + i * outputStep, sign);
+        }
+        inverseScale = 1 / outputStep;
+
+        double forwardError = 0;
+        double inverseError = 0;
+        for (int i = 0; i < TABLE_SIZE - 1; i++) {
+            double input = minInput + (i + 0.5) * inputStep;
+            forwardError = Math.max(forwardError, Math.abs(apply(input) - fit.applyAsDouble(input)));
+            double output = inverseStart + (i + 0.5) * outputStep;
+            inverseError = Math.max(inverseError, Math.abs(invert(output) - solve(fit, output, sign)));
+        }
+        forwardTableError = forwardError;
+        inverseTableError = inverseError;
+
+        residuals = new double[inputs.length];
+        double sumSquares = 0;
+        double worst = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            residuals[i] = outputs[i] - fit.applyAsDouble(inputs[i]);
+            sumSquares += residuals[i] * residuals[i];
+            worst = Math.max(worst, Math.abs(residuals[i]));
+        }
+        rmsResidual = Math.sqrt(sumSquares / inputs.length);
+        maxResidual = worst;
+    }
+
+    /**
+     * Fits a polynomial by least squares.
+     * 
+     * @param inputs Measured inputs
+     * @param outputs Measured outputs, one per input
+     * @param degree Polynomial degree, at least 1
+     * @return The compiled calibration
+     * @throws IllegalArgumentException if the samples cannot determine the polynomial, or
+     *                                  if the fitted polynomial is not monotone over them
+     */
+    public static Calibration polynomial(double[] inputs, double[] outputs, int degree) {
+        if (degree < 1) {
+            throw new IllegalArgumentException("Polynomial degree must be at least 1.");
+        }
+        checkSamples(inputs, outputs, degree + 1);
+
+        // Work in t = (x - center) / halfWidth on [-1, 1] to keep the normal equations well scaled
+        double min = min(inputs);
+        double max = max(inputs);
+        if (!(max > min)) {
+            throw new IllegalArgumentException("Samples need at least " + (degree + 1)
+                    + " distinct inputs for a degree " + degree + " polynomial.");
+        }
+        double center = (min + max) / 2;
+        double halfWidth = (max - min) / 2;
+
+        int n = degree + 1;
+        double[][] system = new double[n][n + 1];
+        double[] powers = new double[2 * degree + 1];
+        for (int s = 0; s < inputs.length; s++) {
+            double t = (inputs[s] - center) / halfWidth;
+            powers[0] = 1;
+            for (int p = 1; p < powers.length; p++) {
+                powers[p] = powers[p - 1] * t;
+            }
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
+                    system[r][c] += powers[r + c];
+                }
+                system[r][n] += outputs[s] * powers[r];
+            }
+        }
+        double[] coefficients = solveLinear(system);
+        if (coefficients == null) {
+            throw new IllegalArgumentException("Samples need at least " + n
+                    + " distinct inputs for a degree " + degree + " polynomial.");
+        }
+
+        DoubleUnaryOperator fit = x -> {
+            double t = (x - center) / halfWidth;
+            double value = coefficients[degree];
+            for (int i = degree - 1; i >= 0; i--) {
+                value = value * t + coefficients[i];
+            }
+            return value;
+        };
+        return new Calibration(fit, min, max, inputs, outputs);
+    }
+
+    /**
+     * Fits a monotone curve by least squares and joins it with a monotone cubic spline.
+     * 
+     * <p>Whether the curve rises or falls follows the overall trend of the samples.
+     * Samples at the same input are averaged. Noise that breaks monotonicity is pooled
+     * into flat stretches, which is the closest monotone fit in the least-squares sense.</p>
+     * 
+     * @param inputs Measured inputs
+     * @param outputs Measured outputs, one per input
+     * @return The compiled calibration
+     * @throws IllegalArgumentException if there are fewer than 2 distinct inputs, or if the
+     *                                  samples show no trend at all
+     */
+    public static Calibration monotoneSpline(double[] inputs, double[] outputs) {
+        checkSamples(inputs, outputs, 2);
+
+        Integer[] order = new Integer[inputs.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(inputs[a], inputs[b]));
+
+        // Average samples that share an input
+        double[] xs = new double[inputs.length];
+        double[] ys = new double[inputs.length];
+        double[] weights = new double[inputs.length];
+        int count = 0;
+        for (int index : order) {
+            if (count > 0 && inputs[index] == xs[count - 1]) {
+                ys[count - 1] += outputs[index];
+                weights[count - 1]++;
+            } else {
+                xs[count] = inputs[index];
+                ys[count] = outputs[index];
+                weights[count] = 1;
+                count++;
+            }
+        }
+        if (count < 2) {
+            throw new IllegalArgumentException("Samples need at least 2 distinct inputs.");
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < count; i++) {
+            ys[i] /= weights[i];
+            meanX += xs[i] * weights[i];
+            meanY += ys[i] * weights[i];
+        }
+        meanX /= inputs.length;
+        meanY /= inputs.length;
+        double covariance = 0;
+        for (int i = 0; i < count; i++) {
+            covariance += weights[i] * (xs[i] - meanX) * (ys[i] - meanY);
+        }
+        double sign = covariance < 0 ? -1 : 1;
+
+        double[] fitted = isotonic(ys, weights, count, sign);
+        double[] x = Arrays.copyOf(xs, count);
+        double[] slopes = monotoneSlopes(x, fitted);
+
+        DoubleUnaryOperator fit = input -> {
+            int i = Arrays.binarySearch(x, input);
+            if (i >= 0) return fitted[i];
+            i = Math.min(Math.max(-i - 2, 0), x.length - 2);
+            double h = x[i + 1] - x[i];
+            double s = (input - x[i]) / h;
+            double s2 = s * s;
+            double s3 = s2 * s;
+            return (2 * s3 - 3 * s2 + 1) * fitted[i] + (s3 - 2 * s2 + s) * h * slopes[i]
+                    + (-2 * s3 + 3 * s2) * fitted[i + 1] + (s3 - s2) * h * slopes[i + 1];
+        };
+        return new Calibration(fit, x[0], x[count - 1], inputs, outputs);
+    }
+
+    /**
+     * Maps an input to its output through the fit.
+     * 
+     * @param input The input, such as motor power
+     * @return The fitted output, extrapolated linearly outside the measured range
+     */
+    public double apply(double input) {
+        return lookup(forward, minInput, forwardScale, input);
+    }
+
+    /**
+     * Maps an output back to the input that produces it.
+     * 
+     * @param output The desired output, such as a velocity
+     * @return The input reaching it, extrapolated linearly outside the fitted output range
+     */
+    public double invert(double output) {
+        return lookup(inverse, inverseStart, inverseScale, output);
+    }
+
+    /**
+     * Checks whether an input is inside the measured range.
+     * 
+     * @param input The input
+     * @return {@code true} if {@link #apply(double)} interpolates rather than extrapolates
+     */
+    public boolean containsInput(double input) {
+        return input >= minInput && input <= maxInput;
+    }
+
+    /**
+     * Checks whether an output is inside the fitted output range.
+     * 
+     * @param output The output
+     * @return {@code true} if {@link #invert(double)} interpolates rather than extrapolates
+     */
+    public boolean containsOutput(double output) {
+        return output >= Math.min(startOutput, endOutput) && output <= Math.max(startOutput, endOutput);
+    }
+
+    /**
+     * Gets the smallest measured input.
+     * 
+     * @return The start of the input range
+     */
+    public double getMinInput() {
+        return minInput;
+    }
+
+    /**
+     * Gets the largest measured input.
+     * 
+     * @return The end of the input range
+     */
+    public double getMaxInput() {
+        return maxInput;
+    }
+
+    /**
+     * Gets each sample's measured output minus the fit's output.
+     * 
+     * @return A copy of the residuals, in the order the samples were given
+     */
+    public double[] getResiduals() {
+        return residuals.clone();
+    }
+
+    /**
+     * Gets the root-mean-square residual, a summary of how well the fit matches the samples.
+     * 
+     * @return RMS residual in output units
+     */
+    public double getRmsResidual() {
+        return rmsResidual;
+    }
+
+    /**
+     * Gets the largest residual, which points to an outlier or a poor choice of fit.
+     * 
+     * @return Largest absolute residual in output units
+     */
+    public double getMaxResidual() {
+        return maxResidual;
+    }
+
+    /**
+     * Gets how far {@link #apply(double)} can stray from the fit, measured midway between
+     * table points when the table was built.
+     * 
+     * @return Largest forward table error in output units
+     */
+    public double getForwardTableError() {
+        return forwardTableError;
+    }
+
+    /**
+     * Gets how far {@link #invert(double)} can stray from the fit's exact inverse,
+     * measured midway between table points when the table was built. It is largest where
+     * the curve is nearly flat.
+     * 
+     * @return Largest inverse table error in input units
+     */
+    public double getInverseTableError() {
+        return inverseTableError;
+    }
+
+    /**
+     * Interpolates a uniform table, extrapolating along its end segments.
+     * 
+     * @param table The table
+     * @param start The key of the first entry
+     * @param scale Reciprocal of the key spacing
+     * @param key The key to look up
+     * @return The interpolated value
+     */
+    private static double lookup(double[] table, double start, double scale, double key) {
+        double u = (key - start) * scale;
+        int i = (int) u;
+        if (i < 0) {
+            i = 0;
+        } else if (i > TABLE_SIZE - 2) {
+            i = TABLE_SIZE - 2;
+        }
+        double a = table[i];
+        return a + (table[i + 1] - a) * (u - i);
+    }
+
+    /**
+     * Finds the input whose fit output is a target, by bisection over the measured range.
+     * 
+     * @param fit The fitted curve
+     * @param target The output to reach
+     * @param sign 1 if the fit rises, -1 if it falls
+     * @return The input closest to the start of the range whose output reaches the target
+     */
+    private double solve(DoubleUnaryOperator fit, double target, double sign) {
+        double low = minInput;
+        double high = maxInput;
+        for (int i = 0; i < BISECTION_STEPS && high - low > 0; i++) {
+            double mid = (low + high) / 2;
+            if (mid == low || mid == high) break;
+            if ((fit.applyAsDouble(mid) - target) * sign < 0) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (fit.applyAsDouble(low) - target) * sign >= 0 ? low : high;
+    }
+
+    /**
+     * Pools adjacent violators so the values never move against the trend
+     * (the pool-adjacent-violators algorithm).
+     * 
+     * @param values Averaged outputs in input order
+     * @param weights Number of samples behind each value
+     * @param count Number of values
+     * @param sign 1 for a rising fit, -1 for a falling one
+     * @return The weighted least-squares monotone values
+     */
+    private static double[] isotonic(double[] values, double[] weights, int count, double sign) {
+        double[] blockValue = new double[count];
+        double[] blockWeight = new double[count];
+        int[] blockEnd = new int[count];
+        int blocks = 0;
+        for (int i = 0; i < count; i++) {
+            blockValue[blocks] = values[i] * sign;
+            blockWeight[blocks] = weights[i];
+            blockEnd[blocks] = i;
+            blocks++;
+            while (blocks > 1 && blockValue[blocks - 2] > blockValue[blocks - 1]) {
+                double weight = blockWeight[blocks - 2] + blockWeight[blocks - 1];
+                blockValue[blocks - 2] = (blockValue[blocks - 2] * blockWeight[blocks - 2]
+                        + blockValue[blocks - 1] * blockWeight[blocks - 1]) / weight;
+                blockWeight[blocks - 2] = weight;
+                blockEnd[blocks - 2] = blockEnd[blocks - 1];
+                blocks--;
+            }
+        }
+        double[] fitted = new double[count];
+        int start = 0;
+        for (int b = 0; b < blocks; b++) {
+            for (int i = start; i <= blockEnd[b]; i++) {
+                fitted[i] = blockValue[b] * sign;
+            }
+            start = blockEnd[b] + 1;
+        }
+        return fitted;
+    }
+
+    /**
+     * Chooses spline slopes that keep a cubic Hermite spline monotone (Fritsch-Carlson).
+     * 
+     * @param x Knot inputs, strictly increasing
+     * @param y Knot outputs, monotone
+     * @return The slope at each knot
+     */
+    private static double[] monotoneSlopes(double[] x, double[] y) {
+        int n = x.length;
+        double[] slopes = new double[n];
+        if (n == 2) {
+            double secant = (y[1] - y[0]) / (x[1] - x[0]);
+            slopes[0] = secant;
+            slopes[1] = secant;
+            return slopes;
+        }
+        for (int i = 1; i < n - 1; i++) {
+            double h0 = x[i] - x[i - 1];
+            double h1 = x[i + 1] - x[i];
+            double d0 = (y[i] - y[i - 1]) / h0;
+            double d1 = (y[i + 1] - y[i]) / h1;
+            if (d0 * d1 <= 0) {
+                slopes[i] = 0;
+            } else {
+                // Weighted harmonic mean of the neighboring secants, at most 3 times
+                // either one, which keeps every interval monotone
+                double w0 = 2 * h1 + h0;
+                double w1 = h1 + 2 * h0;
+                slopes[i] = (w0 + w1) / (w0 / d0 + w1 / d1);
+            }
+        }
+        slopes[0] = (y[1] - y[0]) / (x[1] - x[0]);
+        slopes[n - 1] = (y[n - 1] - y[n - 2]) / (x[n - 1] - x[n - 2]);
+        return slopes;
+    }
+
+    /**
+     * Solves a linear system by Gaussian elimination with partial pivoting.
+     * 
+     * @param system Augmented matrix of n rows and n + 1 columns, overwritten
+     * @return The solution, or {@code null} if the system is singular
+     */
+    private static double[] solveLinear(double[][] system) {
+        int n = system.length;
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(system[row][col]) > Math.abs(system[pivot][col])) pivot = row;
+            }
+            if (Math.abs(system[pivot][col]) < 1e-12) return null;
+            double[] swap = system[col];
+            system[col] = system[pivot];
+            system[pivot] = swap;
+            for (int row = col + 1; row < n; row++) {
+                double factor = system[row][col] / system[col][col];
+                for (int c = col; c <= n; c++) {
+                    system[row][c] -= factor * system[col][c];
+                }
+            }
+        }
+        double[] solution = new double[n];
+        for (int row = n - 1; row >= 0; row--) {
+            double sum = system[row][n];
+            for (int c = row + 1; c < n; c++) {
+                sum -= system[row][c] * solution[c];
+            }
+            solution[row] = sum / system[row][row];
+        }
+        return solution;
+    }
+
+    /**
+     * Checks that sample arrays match and are large enough.
+     * 
+     * @param inputs Measured inputs
+     * @param outputs Measured outputs
+     * @param minimum Fewest samples the fit needs
+     * @throws IllegalArgumentException if the arrays differ in length, are too short or hold NaN
+     */
+    private static void checkSamples(double[] inputs, double[] outputs, int minimum) {
+        if (inputs.length != outputs.length) {
+            throw new IllegalArgumentException("Inputs and outputs must have the same length.");
+        }
+        if (inputs.length < minimum) {
+            throw new IllegalArgumentException("Fit needs at least " + minimum + " samples.");
+        }
+        for (int i = 0; i < inputs.length; i++) {
+            if (!Double.isFinite(inputs[i]) || !Double.isFinite(outputs[i])) {
+                throw new IllegalArgumentException("Samples must be finite numbers.");
+            }
+        }
+    }
+
+    /**
+     * Finds the smallest value in an array.
+     * 
+     * @param values The values
+     * @return The minimum
+     */
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : values) min = Math.min(min, value);
+        return min;
+    }
+
+    /**
+     * Finds the largest value in an array.
+     * 
+     * @param values The values
+     * @return The maximum
+     */
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) max = Math.max(max, value);
+        return max;
+    }
+}
@@ -0,0 +1,139 @@
+package org.lib.cardinallib.math;
+
+/**
+ * Approximate trigonometry for aiming code, trading precision a servo cannot use for speed.
+ * 
+ * <p>Maximum absolute errors against {@link Math}, measured over a dense sweep of inputs:</p>
+ * <ul>
+ *     <li>{@link #sin(double)}, {@link #cos(double)}: 3e-7 for |x| ≤ 1e6. A 4096-entry table with
+ *         linear interpolation, whose error is at most (2π/4096)²/8.</li>
+ *     <li>{@link #tan(double)}: 3e-7 / cos²(x), computed as sin/cos, so it grows near ±π/2.</li>
+ *     <li>{@link #atan2(double, double)}: 2e-8 radians. Octant reduction and the
+ *         Abramowitz and Stegun 4.4.49 polynomial.</li>
+ *     <li>{@link #sqrt(double)}: exact. It calls {@link Math#sqrt(double)}, which the JIT turns
+ *         into a single hardware instruction that no approximation beats.</li>
+ * </ul>
+ * 
+ * <p>For large arguments the sine table loses accuracy along with the argument itself:
+ * at |x| = 1e6 the reduction adds about 1e-10. NaN and infinite arguments return NaN
+ * (or the {@link Math#atan2(double, double)} result for {@code atan2}).</p>
+ * 
+ * <p>Most code selects these functions through {@link TrigBackend#FAST} rather than
+ * calling them directly.</p>
+ * 
+ * @see TrigBackend
+ * @see MathFormulas#setTrigBackend(TrigBackend)
+ */
+public final class FastMath {
+
+    /** Number of table intervals over one full turn, a power of two */
+    private static final int SIN_STEPS = 4096;
+    /** Mask that wraps a table index into one turn */
+    private static final int SIN_MASK = SIN_STEPS - 1;
+    /** Table index offset of a quarter turn, so cos(x) = sin(x + π/2) */
+    private static final int QUARTER_TURN = SIN_STEPS / 4;
+    /** Table intervals per radian */
+    private static final double STEPS_PER_RADIAN = SIN_STEPS / (2 * Math.PI);
+    /** sin at each table point, with one extra entry so interpolation never wraps */
+    private static final double[] SIN = new double[SIN_STEPS + 1];
+
+    static {
+        for (int i = 0; i <= SIN_STEPS; i++) {
+            SIN[i] = Math.sin(i * (2 * Math.PI / SIN_STEPS));
+        }
+    }
+
+    /** Abramowitz and Stegun 4.4.49 coefficients for atan(z) on [0, 1] */
+    private static final double A2 = -0.3333314528;
+    private static final double A4 = 0.1999355085;
+    private static final double A6 = -0.1420889944;
+    private static final double A8 = 0.1065626393;
+    private static final double A10 = -0.0752896400;
+    private static final double A12 = 0.0429096138;
+    private static final double A14 = -0.0161657367;
+    private static final double A16 = 0.0028662257;
+
+    private FastMath() {
+    }
+
+    /**
+     * Approximates the sine of an angle.
+     * 
+     * @param x Angle in radians
+     * @return sin(x) within 3e-7 for |x| ≤ 1e6
+     */
+    public static double sin(double x) {
+        return lookup(x, 0);
+    }
+
+    /**
+     * Approximates the cosine of an angle.
+     * 
+     * @param x Angle in radians
+     * @return cos(x) within 3e-7 for |x| ≤ 1e6
+     */
+    public static double cos(double x) {
+        return lookup(x, QUARTER_TURN);
+    }
+
+    /**
+     * Approximates the tangent of an angle as sin/cos.
+     * 
+     * @param x Angle in radians
+     * @return tan(x) within about 3e-7 / cos²(x)
+     */
+    public static double tan(double x) {
+        return lookup(x, 0) / lookup(x, QUARTER_TURN);
+    }
+
+    /**
+     * Approximates the angle of the point (x, y), like {@link Math#atan2(double, double)}.
+     * 
+     * @param y Y-coordinate
+     * @param x X-coordinate
+     * @return Angle in radians in [-π, π], within 2e-8 of {@link Math#atan2(double, double)}
+     */
+    public static double atan2(double y, double x) {
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+        boolean steep = ay > ax;
+        double z = steep ? ax / ay : ay / ax;
+        if (!(z <= 1)) {
+            // Both zero, both infinite, or NaN: let Math handle the signed special cases
+            return Math.atan2(y, x);
+        }
+
+        double z2 = z * z;
+        double r = z * (1 + z2 * (A2 + z2 * (A4 + z2 * (A6 + z2 * (A8
+                + z2 * (A10 + z2 * (A12 + z2 * (A14 + z2 * A16))))))));
+        if (steep) r = Math.PI / 2 - r;
+        if (x < 0) r = Math.PI - r;
+        return Math.copySign(r, y);
+    }
+
+    /**
+     * Computes a square root. This is {@link Math#sqrt(double)}, which is already a
+     * single hardware instruction.
+     * 
+     * @param x The value
+     * @return The exact square root
+     */
+    public static double sqrt(double x) {
+        return Math.sqrt(x);
+    }
+
+    /**
+     * Interpolates the sine table.
+     * 
+     * @param x Angle in radians
+     * @param offset Table index offset, 0 for sine or {@link #QUARTER_TURN} for cosine
+     * @return The interpolated value
+     */
+    private static double lookup(double x, int offset) {
+        double index = x * STEPS_PER_RADIAN;
+        double floor = Math.floor(index);
+        int i = (int) (((long) floor + offset) & SIN_MASK);
+        double a = SIN[i];
+        return a + (SIN[i + 1] - a) * (index - floor);
+    }
+}
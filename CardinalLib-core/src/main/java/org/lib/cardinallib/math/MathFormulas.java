@@ -0,0 +1,219 @@
+package org.lib.cardinallib.math;
+
+/**
+ * Utility class for geometric and projectile motion calculations.
+ * 
+ * <p>Provides methods for calculating angles, distances, and projectile trajectories.
+ * Projectile formulas assume standard gravity (9.81 m/s²), no air resistance, and
+ * launch/landing at the same height.</p>
+ * 
+ * <p>The trigonometry in {@link #AngleFormula(Pose2d, Pose2d)},
+ * {@link #calculateRange(double, double)} and {@link #heightAtDistance(double, double, double)}
+ * goes through a {@link TrigBackend}. The default is {@link TrigBackend#JAVA}; switch to
+ * {@link TrigBackend#FAST} with {@link #setTrigBackend(TrigBackend)}, or pass a backend to
+ * the overloads that take one.</p>
+ * 
+ * @see Pose2d
+ * @see RobotFormulas
+ * @see ShooterTable
+ * @see TrigBackend
+ */
+public class MathFormulas {
+    /** Standard gravitational acceleration constant (9.81 m/s²) */
+    static final double GRAVITY = 9.81;
+    /** Small tolerance value used to avoid floating-point divide-by-zero errors */
+    static final double EPSILON = 1e-9;
+    /** Backend used by the overloads that do not take one */
+    private static TrigBackend trigBackend = TrigBackend.JAVA;
+
+    /**
+     * Sets the backend used by the formulas that do not take one. Set it once during
+     * init, before other threads use these formulas.
+     * 
+     * @param backend The backend, such as {@link TrigBackend#FAST}
+     * @throws IllegalArgumentException if the backend is null
+     */
+    public static void setTrigBackend(TrigBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Trig backend cannot be null.");
+        }
+        trigBackend = backend;
+    }
+
+    /**
+     * Gets the backend used by the formulas that do not take one.
+     * 
+     * @return The current backend
+     */
+    public static TrigBackend getTrigBackend() {
+        return trigBackend;
+    }
+
+    /**
+     * Calculates the bearing angle from one position to another.
+     * 
+     * @param a Starting position (e.g., robot's current pose)
+     * @param b Target position (e.g., goal or waypoint)
+     * @return Bearing angle in radians from {@code a} to {@code b}, in range [-π, π]
+     */
+    public static double AngleFormula(Pose2d a, Pose2d b) {
+        return AngleFormula(a, b, trigBackend);
+    }
+
+    /**
+     * Calculates the bearing angle from one position to another with the given backend.
+     * 
+     * @param a Starting position (e.g., robot's current pose)
+     * @param b Target position (e.g., goal or waypoint)
+     * @param trig The backend that computes atan2
+     * @return Bearing angle in radians from {@code a} to {@code b}, in range [-π, π]
+     */
+    public static double AngleFormula(Pose2d a, Pose2d b, TrigBackend trig) {
+
+        double dx = b.x - a.x;
+        double dy = b.y - a.y;
+        return trig.atan2(dy, dx);
+
+    }
+
+    /**
+     * Calculates the Euclidean distance between two positions.
+     * 
+     * @param a First position
+     * @param b Second position
+     * @return Straight-line distance in the same units as Pose2d coordinates
+     */
+    public static double DistFormula(Pose2d a, Pose2d b) {
+
+        double dx = b.x - a.x;
+        double dy = b.y - a.y;
+        return Math.sqrt(dx * dx + dy * dy);
+
+    }
+
+    /**
+     * Calculates the horizontal range of a projectile.
+     * 
+     * <p>Formula: R = (v² × sin(2θ)) / g. Maximum range occurs at 45°.</p>
+     * 
+     * @param v Initial velocity in m/s
+     * @param theta Launch angle in radians above horizontal
+     * @return Horizontal distance traveled in meters
+     */
+    public static double calculateRange(double v, double theta) {
+        return calculateRange(v, theta, trigBackend);
+    }
+
+    /**
+     * Calculates the horizontal range of a projectile with the given backend.
+     * 
+     * @param v Initial velocity in m/s
+     * @param theta Launch angle in radians above horizontal
+     * @param trig The backend that computes sin
+     * @return Horizontal distance traveled in meters
+     * @see #calculateRange(double, double)
+     */
+    public static double calculateRange(double v, double theta, TrigBackend trig) {
+
+        double vSquared = v * v;
+        return vSquared * trig.sin(2 * theta) / GRAVITY;
+
+    }
+
+    /**
+     * Calculates the initial velocity required to achieve a given range.
+     * 
+     * <p>Inverse of {@link #calculateRange(double, double)}. Formula: v = √(R × g / sin(2θ))</p>
+     * 
+     * @param R Desired horizontal distance in meters
+     * @param theta Launch angle in radians above horizontal
+     * @return Required initial velocity in m/s
+     * @throws IllegalArgumentException if R is not positive, or if sin(2θ) is not positive
+     *                                  (θ not strictly between 0 and π/2, where no launch speed
+     *                                  reaches the target)
+     */
+    public static double calculateInitialVelocity(double R, double theta) {
+
+        if (!(R > 0)) {
+
+            throw new IllegalArgumentException("Range must be positive.");
+
+        }
+
+        double denominator = Math.sin(2 * theta);
+
+        if (!(denominator > EPSILON)) {
+
+            throw new IllegalArgumentException("Angle results in undefined projectile motion (sin(2θ) <= 0).");
+
+        }
+
+        return Math.sqrt(R * GRAVITY / denominator);
+
+    }
+
+    /**
+     * Calculates the height of a projectile at a given horizontal distance.
+     * 
+     * <p>Formula: y = x × tan(θ) - (g × x²) / (2 × v² × cos²(θ))</p>
+     * 
+     * @param v Initial velocity in m/s
+     * @param theta Launch angle in radians above horizontal
+     * @param x Horizontal distance from launch point in meters
+     * @return Height in meters above launch position (can be negative)
+     * @throws IllegalArgumentException if cos(θ) ≈ 0 (θ ≈ π/2)
+     */
+    public static double heightAtDistance(double v, double theta, double x) {
+        return heightAtDistance(v, theta, x, trigBackend);
+    }
+
+    /**
+     * Calculates the height of a projectile at a given horizontal distance with the
+     * given backend.
+     * 
+     * @param v Initial velocity in m/s
+     * @param theta Launch angle in radians above horizontal
+     * @param x Horizontal distance from launch point in meters
+     * @param trig The backend that computes tan and cos
+     * @return Height in meters above launch position (can be negative)
+     * @throws IllegalArgumentException if cos(θ) ≈ 0 (θ ≈ π/2)
+     * @see #heightAtDistance(double, double, double)
+     */
+    public static double heightAtDistance(double v, double theta, double x, TrigBackend trig) {
+
+        double linearTerm = trig.tan(theta) * x;
+        double cos = trig.cos(theta);
+        double denominator = 2 * v * v * cos * cos;
+
+        if (Math.abs(denominator) < EPSILON) {
+            throw new IllegalArgumentException("Angle results in undefined projectile motion (sin(2θ) = 0).");
+        }
+
+        double quadraticTerm = (GRAVITY * x * x) / denominator;
+        return linearTerm - quadraticTerm;
+
+    }
+
+    /**
+     * Calculates the required flywheel RPM to achieve a given projectile range.
+     * 
+     * <p>Assumes projectile velocity equals flywheel tangential velocity (v = ω × r).
+     * Real-world results may vary due to friction and energy losses.</p>
+     * 
+     * <p>To evaluate this every loop, build a {@link ShooterTable} once instead.</p>
+     * 
+     * @param rBall Ball/projectile radius in meters
+     * @param distance Desired horizontal distance in meters
+     * @param theta Launch angle in radians above horizontal
+     * @return Required flywheel RPM
+     * @throws IllegalArgumentException if the ball radius or distance is not positive, or if
+     *                                  sin(2θ) is not positive (θ not strictly between 0 and π/2)
+     */
+    public static double findRequiredRPM(double rBall, double distance, double theta) {
+        if (!(rBall > 0)) {
+            throw new IllegalArgumentException("Ball radius must be positive.");
+        }
+        return (60 / (2 * Math.PI * rBall)) * calculateInitialVelocity(distance, theta);
+    }
+
+}
\ No newline at end of file
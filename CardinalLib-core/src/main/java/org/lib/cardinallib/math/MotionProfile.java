@@ -0,0 +1,314 @@
+package org.lib.cardinallib.math;
+
+/**
+ * A motion profile that moves a mechanism a set distance from rest to rest within
+ * velocity, acceleration and, optionally, jerk limits.
+ * 
+ * <p>{@link #trapezoid} accelerates at the limit, cruises, and decelerates, so acceleration
+ * steps between three values. {@link #sCurve} also limits jerk, ramping acceleration up
+ * and down so the mechanism is not jolted at each corner. If the distance is too short
+ * to reach the velocity or acceleration limit, the profile peaks below it instead.</p>
+ * 
+ * <p>The segments are worked out once, when the profile is created. Each segment has
+ * constant jerk, so sampling finds the segment the time falls in (at most seven) and
+ * evaluates a polynomial: O(1) with no allocation, cheap enough to call every loop.
+ * Times before the start sample the start and times after {@link #getDuration()} sample
+ * the end.</p>
+ * 
+ * <p>Positions are measured from the start of the move. A negative distance runs the
+ * same profile backwards.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // During init: 1.5 m forward at up to 1.2 m/s, 2 m/s², 10 m/s³
+ * MotionProfile profile = MotionProfile.sCurve(1.5, 1.2, 2.0, 10.0);
+ * 
+ * // Each loop, t seconds after starting
+ * double target = start + profile.getPosition(t);
+ * double power = profile.getFeedforward(t, robotFormulas)
+ *         + kP * (target - currentPosition);
+ * }</pre>
+ * 
+ * @see org.lib.cardinallib.commands.MotionProfileCommand
+ */
+public final class MotionProfile {
+
+    /** Most constant-jerk segments in a profile */
+    private static final int MAX_SEGMENTS = 7;
+
+    /** Signed distance of the whole move */
+    private final double distance;
+    /** Total time of the move in seconds */
+    private final double duration;
+    /** Number of segments in use */
+    private final int segmentCount;
+    /** Time each segment starts at, in seconds */
+    private final double[] startTimes = new double[MAX_SEGMENTS];
+    /** Position at the start of each segment */
+    private final double[] positions = new double[MAX_SEGMENTS];
+    /** Velocity at the start of each segment */
+    private final double[] velocities = new double[MAX_SEGMENTS];
+    /** Acceleration at the start of each segment */
+    private final double[] accelerations = new double[MAX_SEGMENTS];
+    /** Jerk throughout each segment */
+    private final double[] jerks = new double[MAX_SEGMENTS];
+    /** Highest speed reached */
+    private final double peakVelocity;
+
+    /**
+     * Creates a profile from segment durations for a forward move.
+     * 
+     * @param distance Signed distance of the move
+     * @param durations Length of each segment in seconds
+     * @param jerks Jerk of each segment for a forward move, or 0 for a trapezoid
+     * @param steps Acceleration each segment adds at its start for a forward move
+     * @param peakVelocity Highest speed reached
+     */
+    private MotionProfile(double distance, double[] durations, double[] jerks, double[] steps,
+                          double peakVelocity) {
+        double sign = distance < 0 ? -1 : 1;
+        double p = 0;
+        double v = 0;
+        double a = 0;
+        double t = 0;
+        int count = 0;
+        for (int i = 0; i < durations.length; i++) {
+            a += steps[i];
+            double dt = durations[i];
+            if (!(dt > 0)) continue;
+            double j = jerks[i];
+            startTimes[count] = t;
+            positions[count] = sign * p;
+            velocities[count] = sign * v;
+            accelerations[count] = sign * a;
+            this.jerks[count] = sign * j;
+            count++;
+
+            p += dt * (v + dt * (a / 2 + dt * j / 6));
+            v += dt * (a + dt * j / 2);
+            a += dt * j;
+            t += dt;
+        }
+        this.distance = distance;
+        this.duration = t;
+        this.segmentCount = count;
+        this.peakVelocity = peakVelocity;
+    }
+
+    /**
+     * Creates a trapezoidal profile, which limits velocity and acceleration.
+     * 
+     * @param distance Signed distance to move
+     * @param maxVelocity Highest speed allowed, greater than 0
+     * @param maxAcceleration Highest acceleration allowed, greater than 0
+     * @return The profile
+     * @throws IllegalArgumentException if the distance is not finite or a limit is not positive
+     */
+    public static MotionProfile trapezoid(double distance, double maxVelocity, double maxAcceleration) {
+        checkLimits(distance, maxVelocity, maxAcceleration);
+        double d = Math.abs(distance);
+
+        // Peak below maxVelocity when there is no room to reach it: d = v² / a
+        double v = Math.min(maxVelocity, Math.sqrt(d * maxAcceleration));
+        double accelTime = v / maxAcceleration;
+        double cruiseTime = v > 0 ? (d - v * accelTime) / v : 0;
+
+        return new MotionProfile(distance,
+                new double[] {accelTime, cruiseTime, accelTime},
+                new double[] {0, 0, 0},
+                new double[] {maxAcceleration, -maxAcceleration, -maxAcceleration},
+                v);
+    }
+
+    /**
+     * Creates an S-curve profile, which limits velocity, acceleration and jerk.
+     * 
+     * @param distance Signed distance to move
+     * @param maxVelocity Highest speed allowed, greater than 0
+     * @param maxAcceleration Highest acceleration allowed, greater than 0
+     * @param maxJerk Highest rate of change of acceleration allowed, greater than 0
+     * @return The profile
+     * @throws IllegalArgumentException if the distance is not finite or a limit is not positive
+     */
+    public static MotionProfile sCurve(double distance, double maxVelocity, double maxAcceleration,
+                                       double maxJerk) {
+        checkLimits(distance, maxVelocity, maxAcceleration);
+        if (!(maxJerk > 0) || Double.isInfinite(maxJerk)) {
+            throw new IllegalArgumentException("Jerk limit must be positive and finite.");
+        }
+        double d = Math.abs(distance);
+        double a = maxAcceleration;
+        double j = maxJerk;
+
+        // Speed at which the jerk ramps alone reach maxAcceleration
+        double rampVelocity = a * a / j;
+        double v = maxVelocity;
+        if (v * accelerationTime(v, a, j) > d) {
+            // Too short to cruise: the largest v whose ramp up and down covers exactly d
+            v = a / 2 * (Math.sqrt(a * a / (j * j) + 4 * d / a) - a / j);
+            if (v < rampVelocity) {
+                v = Math.cbrt(d * d * j / 4);
+            }
+        }
+
+        double accelTime = accelerationTime(v, a, j);
+        double jerkTime = v < rampVelocity ? accelTime / 2 : a / j;
+        double constantTime = accelTime - 2 * jerkTime;
+        double cruiseTime = v > 0 ? Math.max(d - v * accelTime, 0) / v : 0;
+
+        return new MotionProfile(distance,
+                new double[] {jerkTime, constantTime, jerkTime, cruiseTime, jerkTime, constantTime, jerkTime},
+                new double[] {j, 0, -j, 0, -j, 0, j},
+                new double[] {0, 0, 0, 0, 0, 0, 0},
+                v);
+    }
+
+    /**
+     * Gets the position at a time.
+     * 
+     * @param t Seconds since the start of the move
+     * @return Position relative to the start
+     */
+    public double getPosition(double t) {
+        if (t >= duration) return distance;
+        int i = segmentAt(t);
+        if (i < 0) return 0;
+        double dt = t - startTimes[i];
+        return positions[i] + dt * (velocities[i] + dt * (accelerations[i] / 2 + dt * jerks[i] / 6));
+    }
+
+    /**
+     * Gets the velocity at a time.
+     * 
+     * @param t Seconds since the start of the move
+     * @return Velocity, with the sign of the distance
+     */
+    public double getVelocity(double t) {
+        if (t >= duration) return 0;
+        int i = segmentAt(t);
+        if (i < 0) return 0;
+        double dt = t - startTimes[i];
+        return velocities[i] + dt * (accelerations[i] + dt * jerks[i] / 2);
+    }
+
+    /**
+     * Gets the acceleration at a time.
+     * 
+     * @param t Seconds since the start of the move
+     * @return Acceleration
+     */
+    public double getAcceleration(double t) {
+        if (t >= duration) return 0;
+        int i = segmentAt(t);
+        if (i < 0) return 0;
+        return accelerations[i] + (t - startTimes[i]) * jerks[i];
+    }
+
+    /**
+     * Gets the motor power that holds the profile's velocity at a time, with no feedback.
+     * 
+     * @param t Seconds since the start of the move
+     * @param formulas The robot's conversion from linear velocity to power
+     * @return Power from {@link RobotFormulas#linearVelocityToPower(double)}
+     */
+    public double getFeedforward(double t, RobotFormulas formulas) {
+        return formulas.linearVelocityToPower(getVelocity(t));
+    }
+
+    /**
+     * Gets the motor power that holds the profile's velocity at a time, plus a term
+     * proportional to acceleration for the power spent speeding up and slowing down.
+     * 
+     * @param t Seconds since the start of the move
+     * @param formulas The robot's conversion from linear velocity to power
+     * @param accelerationGain Power per unit of acceleration
+     * @return Velocity feedforward plus {@code accelerationGain} × acceleration
+     */
+    public double getFeedforward(double t, RobotFormulas formulas, double accelerationGain) {
+        return formulas.linearVelocityToPower(getVelocity(t)) + accelerationGain * getAcceleration(t);
+    }
+
+    /**
+     * Checks whether the move is complete at a time.
+     * 
+     * @param t Seconds since the start of the move
+     * @return {@code true} if the profile has reached its end
+     */
+    public boolean isFinished(double t) {
+        return t >= duration;
+    }
+
+    /**
+     * Gets the total time of the move.
+     * 
+     * @return Duration in seconds
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the distance of the move.
+     * 
+     * @return Signed distance
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Gets the highest speed the profile reaches, which is below the velocity limit on
+     * short moves.
+     * 
+     * @return Peak speed
+     */
+    public double getPeakVelocity() {
+        return peakVelocity;
+    }
+
+    /**
+     * Finds the segment a time falls in.
+     * 
+     * @param t Seconds since the start of the move, less than the duration
+     * @return Segment index, or -1 before the start
+     */
+    private int segmentAt(double t) {
+        int i = segmentCount - 1;
+        while (i >= 0 && t < startTimes[i]) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Finds how long an S-curve takes to go from rest to a speed.
+     * 
+     * @param v Target speed
+     * @param a Acceleration limit
+     * @param j Jerk limit
+     * @return Time in seconds
+     */
+    private static double accelerationTime(double v, double a, double j) {
+        return v * j >= a * a ? v / a + a / j : 2 * Math.sqrt(v / j);
+    }
+
+    /**
+     * Checks the distance and the limits shared by every profile.
+     * 
+     * @param distance Signed distance to move
+     * @param maxVelocity Highest speed allowed
+     * @param maxAcceleration Highest acceleration allowed
+     * @throws IllegalArgumentException if the distance is not finite or a limit is not positive
+     */
+    private static void checkLimits(double distance, double maxVelocity, double maxAcceleration) {
+        if (!Double.isFinite(distance)) {
+            throw new IllegalArgumentException("Distance must be finite.");
+        }
+        if (!(maxVelocity > 0) || Double.isInfinite(maxVelocity)) {
+            throw new IllegalArgumentException("Velocity limit must be positive and finite.");
+        }
+        if (!(maxAcceleration > 0) || Double.isInfinite(maxAcceleration)) {
+            throw new IllegalArgumentException("Acceleration limit must be positive and finite.");
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package org.lib.cardinallib.math;
+
+/**
+ * Represents a 2D pose (position and orientation) on the field.
+ * 
+ * <p>A pose consists of:
+ * <ul>
+ *     <li>X-coordinate: horizontal position on the field</li>
+ *     <li>Y-coordinate: vertical position on the field</li>
+ *     <li>Heading: orientation angle in radians</li>
+ * </ul>
+ * </p>
+ * 
+ * <p>This class is commonly used to represent:
+ * <ul>
+ *     <li>Robot position and orientation for localization</li>
+ *     <li>Target positions for path planning</li>
+ *     <li>Waypoints in autonomous routines</li>
+ *     <li>Field element positions</li>
+ * </ul>
+ * </p>
+ * 
+ * <p><b>Coordinate System:</b> The coordinate system follows standard FTC conventions:
+ * <ul>
+ *     <li>X-axis: typically increases from left to right (or west to east)</li>
+ *     <li>Y-axis: typically increases from bottom to top (or south to north)</li>
+ *     <li>Heading: measured in radians, typically 0 points along the positive X-axis,
+ *         with positive rotation being counterclockwise</li>
+ * </ul>
+ * </p>
+ * 
+ * <p><b>Units:</b> The units for x, y, and heading should be consistent throughout
+ * your application. Common choices are:
+ * <ul>
+ *     <li>Inches (common in FTC)</li>
+ *     <li>Meters (SI units, useful for physics calculations)</li>
+ *     <li>Field tiles (relative to field dimensions)</li>
+ * </ul>
+ * </p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // Create a pose at (24, 36) inches with heading of 90 degrees (π/2 radians)
+ * Pose2d robotPose = new Pose2d(24.0, 36.0, Math.PI / 2);
+ * 
+ * // Update the pose
+ * robotPose.set(30.0, 40.0, Math.PI);
+ * 
+ * // Access individual components
+ * double x = robotPose.x;
+ * double y = robotPose.y;
+ * double heading = robotPose.heading;
+ * }</pre>
+ * 
+ * <p><b>Transforms:</b> A pose is also a rigid transform in the plane (an element of
+ * SE(2)): a rotation by {@code heading} followed by a translation by {@code (x, y)}.
+ * {@link #compose(Pose2d)}, {@link #inverse()}, {@link #relativeTo(Pose2d)},
+ * {@link #transformPoint(Pose2d)}, {@link #exp(double, double, double)} and
+ * {@link #log(Pose2d)} work on poses in that sense. Every result heading is normalized to
+ * (-π, π].</p>
+ * 
+ * <p>Each operation comes in two forms. The short form returns a new pose and leaves its
+ * inputs unchanged. The form with an extra {@code out} parameter writes the result into
+ * {@code out} and returns it, so loops can reuse a pose instead of allocating one every
+ * call. {@code out} may be the same object as any input.</p>
+ * <pre>{@code
+ * // Pose of the shooter on the field, from the robot pose and the shooter's mounting offset
+ * Pose2d shooter = robotPose.compose(SHOOTER_OFFSET);
+ * 
+ * // The same, without allocating
+ * robotPose.compose(SHOOTER_OFFSET, shooterPose);
+ * 
+ * // Odometry: apply the motion measured in the robot's frame since the last loop
+ * robotPose.exp(dForward, dStrafe, dHeading, robotPose);
+ * }</pre>
+ * 
+ * @see MathFormulas#AngleFormula(Pose2d, Pose2d)
+ * @see MathFormulas#DistFormula(Pose2d, Pose2d)
+ */
+public class Pose2d {
+
+    /** Below this rotation, exp and log use Taylor series to avoid dividing by a tiny angle */
+    private static final double SMALL_ANGLE = 1e-9;
+
+    /**
+     * The X-coordinate of the pose on the field.
+     * 
+     * <p>This represents the horizontal position. Units should be consistent
+     * with your field coordinate system (e.g., inches or meters).</p>
+     */
+    public double x;
+
+    /**
+     * The Y-coordinate of the pose on the field.
+     * 
+     * <p>This represents the vertical position. Units should be consistent
+     * with your field coordinate system (e.g., inches or meters).</p>
+     */
+    public double y;
+
+    /**
+     * The heading (orientation) of the pose in radians.
+     * 
+     * <p>The heading represents the direction the pose is facing. Typically:
+     * <ul>
+     *     <li>0 radians points along the positive X-axis</li>
+     *     <li>π/2 radians (90°) points along the positive Y-axis</li>
+     *     <li>π radians (180°) points along the negative X-axis</li>
+     *     <li>-π/2 radians (-90°) points along the negative Y-axis</li>
+     * </ul>
+     * Positive rotation is typically counterclockwise.</p>
+     * 
+     * <p><b>Note:</b> The heading is stored in radians, not degrees. Use
+     * {@link Math#toRadians(double)} to convert from degrees if needed.</p>
+     */
+    public double heading;
+
+    /**
+     * Creates a new Pose2d with the specified coordinates and heading.
+     * 
+     * @param x The X-coordinate on the field
+     * @param y The Y-coordinate on the field
+     * @param heading The heading (orientation) in radians
+     */
+    public Pose2d(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    /**
+     * Updates this pose with new coordinates and heading.
+     * 
+     * <p>This method modifies the current pose in place rather than creating
+     * a new instance. Useful for updating a pose that is being tracked over time.</p>
+     * 
+     * @param x The new X-coordinate
+     * @param y The new Y-coordinate
+     * @param heading The new heading in radians
+     */
+    public void set(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+    }
+
+    /**
+     * Copies another pose into this one.
+     * 
+     * @param other The pose to copy
+     */
+    public void set(Pose2d other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.heading = other.heading;
+    }
+
+    /**
+     * Applies another transform after this one: {@code other} is given in this pose's
+     * frame, and the result is the same pose in this pose's parent frame.
+     * 
+     * <p>For example, if this is the robot's pose on the field and {@code other} is the
+     * shooter's position on the robot, the result is the shooter's pose on the field.</p>
+     * 
+     * @param other A pose relative to this one
+     * @return A new pose, {@code this ∘ other}
+     */
+    public Pose2d compose(Pose2d other) {
+        return compose(other, new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Applies another transform after this one, writing the result into {@code out}.
+     * 
+     * @param other A pose relative to this one
+     * @param out The pose to write the result to; may be {@code this} or {@code other}
+     * @return {@code out}
+     * @see #compose(Pose2d)
+     */
+    public Pose2d compose(Pose2d other, Pose2d out) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double ox = other.x;
+        double oy = other.y;
+        out.set(x + cos * ox - sin * oy,
+                y + sin * ox + cos * oy,
+                normalizeAngle(heading + other.heading));
+        return out;
+    }
+
+    /**
+     * Gets the inverse transform, which undoes this one. Composing a pose with its
+     * inverse gives the identity pose (0, 0, 0).
+     * 
+     * @return A new pose, the inverse of this one
+     */
+    public Pose2d inverse() {
+        return inverse(new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Gets the inverse transform, writing the result into {@code out}.
+     * 
+     * @param out The pose to write the result to; may be {@code this}
+     * @return {@code out}
+     * @see #inverse()
+     */
+    public Pose2d inverse(Pose2d out) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double px = x;
+        double py = y;
+        out.set(-cos * px - sin * py,
+                sin * px - cos * py,
+                normalizeAngle(-heading));
+        return out;
+    }
+
+    /**
+     * Expresses this pose in the frame of another pose.
+     * 
+     * <p>For example, if both poses are on the field and {@code origin} is the robot's pose,
+     * the result says where this pose is from the robot's point of view: x forward, y to
+     * the left, and the heading relative to the robot's heading.</p>
+     * 
+     * @param origin The pose whose frame to express this pose in
+     * @return A new pose, {@code origin⁻¹ ∘ this}
+     */
+    public Pose2d relativeTo(Pose2d origin) {
+        return relativeTo(origin, new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Expresses this pose in the frame of another pose, writing the result into {@code out}.
+     * 
+     * @param origin The pose whose frame to express this pose in
+     * @param out The pose to write the result to; may be {@code this} or {@code origin}
+     * @return {@code out}
+     * @see #relativeTo(Pose2d)
+     */
+    public Pose2d relativeTo(Pose2d origin, Pose2d out) {
+        double cos = Math.cos(origin.heading);
+        double sin = Math.sin(origin.heading);
+        double dx = x - origin.x;
+        double dy = y - origin.y;
+        out.set(cos * dx + sin * dy,
+                -sin * dx + cos * dy,
+                normalizeAngle(heading - origin.heading));
+        return out;
+    }
+
+    /**
+     * Maps a point given in this pose's frame into the parent frame. Only the point's
+     * position is transformed; its heading is copied unchanged.
+     * 
+     * <p>For example, if this is the robot's pose and {@code point} is a sensor's offset
+     * on the robot, the result is where the sensor is on the field.</p>
+     * 
+     * @param point A point relative to this pose
+     * @return A new pose with the point's position in the parent frame
+     */
+    public Pose2d transformPoint(Pose2d point) {
+        return transformPoint(point, new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Maps a point given in this pose's frame into the parent frame, writing the result
+     * into {@code out}.
+     * 
+     * @param point A point relative to this pose
+     * @param out The pose to write the result to; may be {@code this} or {@code point}
+     * @return {@code out}
+     * @see #transformPoint(Pose2d)
+     */
+    public Pose2d transformPoint(Pose2d point, Pose2d out) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double px = point.x;
+        double py = point.y;
+        out.set(x + cos * px - sin * py,
+                y + sin * px + cos * py,
+                point.heading);
+        return out;
+    }
+
+    /**
+     * Moves this pose along a twist: a constant forward, sideways and turning motion,
+     * given in this pose's frame, followed for one unit of time.
+     * 
+     * <p>This is the SE(2) exponential map. Unlike adding the rotated motion directly, it
+     * follows the arc the robot actually drives while turning, which is what odometry
+     * should use to integrate wheel motion between loops.</p>
+     * 
+     * @param dx Forward motion
+     * @param dy Leftward motion
+     * @param dTheta Counterclockwise rotation in radians
+     * @return A new pose, {@code this ∘ exp(dx, dy, dTheta)}
+     */
+    public Pose2d exp(double dx, double dy, double dTheta) {
+        return exp(dx, dy, dTheta, new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Moves this pose along a twist, writing the result into {@code out}.
+     * 
+     * @param dx Forward motion
+     * @param dy Leftward motion
+     * @param dTheta Counterclockwise rotation in radians
+     * @param out The pose to write the result to; may be {@code this}
+     * @return {@code out}
+     * @see #exp(double, double, double)
+     */
+    public Pose2d exp(double dx, double dy, double dTheta, Pose2d out) {
+        double sinTerm;
+        double cosTerm;
+        if (Math.abs(dTheta) < SMALL_ANGLE) {
+            sinTerm = 1 - dTheta * dTheta / 6;
+            cosTerm = dTheta / 2;
+        } else {
+            // 1 - cos(θ) written as 2 sin²(θ/2) to avoid cancellation at small angles
+            double halfSin = Math.sin(dTheta / 2);
+            sinTerm = Math.sin(dTheta) / dTheta;
+            cosTerm = 2 * halfSin * halfSin / dTheta;
+        }
+        double localX = sinTerm * dx - cosTerm * dy;
+        double localY = cosTerm * dx + sinTerm * dy;
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        out.set(x + cos * localX - sin * localY,
+                y + sin * localX + cos * localY,
+                normalizeAngle(heading + dTheta));
+        return out;
+    }
+
+    /**
+     * Gets the twist that moves this pose to another: the inverse of
+     * {@link #exp(double, double, double)}. The twist is returned as a pose holding
+     * {@code (dx, dy, dTheta)} in this pose's frame.
+     * 
+     * <p>The rotation is the shortest one, between -π and π, so
+     * {@code start.exp(t.x, t.y, t.heading)} with {@code t = start.log(end)} gives
+     * {@code end} back.</p>
+     * 
+     * @param end The pose to move to
+     * @return A new pose holding the twist
+     */
+    public Pose2d log(Pose2d end) {
+        return log(end, new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Gets the twist that moves this pose to another, writing it into {@code out}.
+     * 
+     * @param end The pose to move to
+     * @param out The pose to write the twist to; may be {@code this} or {@code end}
+     * @return {@code out}
+     * @see #log(Pose2d)
+     */
+    public Pose2d log(Pose2d end, Pose2d out) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double ex = end.x - x;
+        double ey = end.y - y;
+        double dx = cos * ex + sin * ey;
+        double dy = -sin * ex + cos * ey;
+        double dTheta = normalizeAngle(end.heading - heading);
+
+        double halfTheta = dTheta / 2;
+        double scale;
+        if (Math.abs(dTheta) < SMALL_ANGLE) {
+            scale = 1 - dTheta * dTheta / 12;
+        } else {
+            // (θ/2) sin(θ) / (1 - cos(θ)), rewritten as (θ/2) cot(θ/2) to stay accurate at small angles
+            scale = halfTheta * Math.cos(halfTheta) / Math.sin(halfTheta);
+        }
+        out.set(scale * dx + halfTheta * dy,
+                -halfTheta * dx + scale * dy,
+                dTheta);
+        return out;
+    }
+
+    /**
+     * Gets a copy of this pose with its heading normalized to (-π, π].
+     * 
+     * @return A new pose
+     */
+    public Pose2d normalized() {
+        return normalized(new Pose2d(0, 0, 0));
+    }
+
+    /**
+     * Copies this pose into {@code out} with its heading normalized to (-π, π].
+     * 
+     * @param out The pose to write the result to; may be {@code this}
+     * @return {@code out}
+     */
+    public Pose2d normalized(Pose2d out) {
+        out.set(x, y, normalizeAngle(heading));
+        return out;
+    }
+
+    /**
+     * Wraps an angle into the range (-π, π].
+     * 
+     * @param radians Any angle in radians
+     * @return The equivalent angle between -π (exclusive) and π (inclusive)
+     */
+    public static double normalizeAngle(double radians) {
+        if (radians > -Math.PI && radians <= Math.PI) return radians;
+        double wrapped = Math.IEEEremainder(radians, 2 * Math.PI);
+        return wrapped <= -Math.PI ? wrapped + 2 * Math.PI : wrapped;
+    }
+
+    /**
+     * Returns the pose as {@code (x, y, heading)}.
+     * 
+     * @return A short description of the pose
+     */
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + heading + ")";
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,468 @@
+package org.lib.cardinallib.math;
+
+import java.util.Arrays;
+
+/**
+ * A list of timestamped poses stored as parallel primitive arrays.
+ * 
+ * <p>Each sample is an x, y and heading plus a timestamp in seconds, kept in four
+ * {@code double[]} columns instead of one {@link Pose2d} object per sample. Trajectories
+ * and pose histories stored this way take no per-sample objects, sit contiguously in
+ * memory, and can be scanned in bulk without producing garbage.</p>
+ * 
+ * <p>Bulk operations:</p>
+ * <ul>
+ *     <li>{@link #distancesTo(Pose2d, double[])} and {@link #anglesTo(Pose2d, double[])}
+ *         apply {@link MathFormulas#DistFormula(Pose2d, Pose2d)} and
+ *         {@link MathFormulas#AngleFormula(Pose2d, Pose2d)} from every sample to a target,
+ *         or from a range of samples with the {@code (from, to, ...)} overloads. Bearings
+ *         use the {@link TrigBackend} selected in {@link MathFormulas}, or the one passed
+ *         to the overloads that take a backend</li>
+ *     <li>{@link #nearestIndex(double, double)} finds the sample closest to a point</li>
+ *     <li>{@link #floorIndex(double)} finds a sample by time with a binary search</li>
+ *     <li>{@link #slice(int, int)} returns a view of part of the buffer without copying
+ *         the samples. The view itself is a new object, so take slices at init time and
+ *         use the range overloads in the loop</li>
+ * </ul>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * PoseBuffer path = new PoseBuffer(2048);
+ * for (...) {
+ *     path.add(x, y, heading, t);
+ * }
+ * 
+ * // In the loop, with a preallocated double[] distances:
+ * int closest = path.nearestIndex(robotPose.x, robotPose.y);
+ * path.distancesTo(closest, path.size(), goalPose, distances);
+ * }</pre>
+ * 
+ * <p>Only a buffer created with a constructor can grow; slices have a fixed size but see
+ * and can change the samples of the buffer they were taken from.</p>
+ * 
+ * @see Pose2d
+ * @see MathFormulas
+ */
+public class PoseBuffer {
+
+    /** X-coordinate of each sample */
+    private double[] xs;
+    /** Y-coordinate of each sample */
+    private double[] ys;
+    /** Heading of each sample in radians */
+    private double[] headings;
+    /** Timestamp of each sample in seconds */
+    private double[] times;
+    /** Index in the arrays of this buffer's first sample */
+    private final int offset;
+    /** Number of samples in this buffer */
+    private int size;
+    /** Whether this buffer is a slice of another one */
+    private final boolean view;
+
+    /**
+     * Creates an empty buffer with room for the given number of samples.
+     * 
+     * @param capacity Number of samples that can be added before the arrays grow
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public PoseBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        xs = new double[capacity];
+        ys = new double[capacity];
+        headings = new double[capacity];
+        times = new double[capacity];
+        offset = 0;
+        size = 0;
+        view = false;
+    }
+
+    /**
+     * Creates a view of part of another buffer's arrays.
+     * 
+     * @param parent The buffer to view
+     * @param offset Array index of the first sample in the view
+     * @param size Number of samples in the view
+     */
+    private PoseBuffer(PoseBuffer parent, int offset, int size) {
+        xs = parent.xs;
+        ys = parent.ys;
+        headings = parent.headings;
+        times = parent.times;
+        this.offset = offset;
+        this.size = size;
+        view = true;
+    }
+
+    /**
+     * Appends a sample, growing the arrays if they are full.
+     * 
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param heading Heading in radians
+     * @param time Timestamp in seconds
+     * @throws IllegalStateException if this buffer is a slice
+     */
+    public void add(double x, double y, double heading, double time) {
+        if (view) {
+            throw new IllegalStateException("Slices cannot grow.");
+        }
+        if (size == xs.length) {
+            int capacity = Math.max(16, xs.length * 2);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            headings = Arrays.copyOf(headings, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        headings[size] = heading;
+        times[size] = time;
+        size++;
+    }
+
+    /**
+     * Appends a pose as a sample.
+     * 
+     * @param pose The pose to copy
+     * @param time Timestamp in seconds
+     * @throws IllegalStateException if this buffer is a slice
+     */
+    public void add(Pose2d pose, double time) {
+        add(pose.x, pose.y, pose.heading, time);
+    }
+
+    /**
+     * Overwrites a sample.
+     * 
+     * @param index The sample index
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param heading Heading in radians
+     * @param time Timestamp in seconds
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    public void set(int index, double x, double y, double heading, double time) {
+        int i = arrayIndex(index);
+        xs[i] = x;
+        ys[i] = y;
+        headings[i] = heading;
+        times[i] = time;
+    }
+
+    /**
+     * Removes every sample. The arrays are kept for reuse.
+     * 
+     * @throws IllegalStateException if this buffer is a slice
+     */
+    public void clear() {
+        if (view) {
+            throw new IllegalStateException("Slices cannot be cleared.");
+        }
+        size = 0;
+    }
+
+    /**
+     * Gets the number of samples.
+     * 
+     * @return The sample count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a sample's X-coordinate.
+     * 
+     * @param index The sample index
+     * @return The X-coordinate
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    public double getX(int index) {
+        return xs[arrayIndex(index)];
+    }
+
+    /**
+     * Gets a sample's Y-coordinate.
+     * 
+     * @param index The sample index
+     * @return The Y-coordinate
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    public double getY(int index) {
+        return ys[arrayIndex(index)];
+    }
+
+    /**
+     * Gets a sample's heading.
+     * 
+     * @param index The sample index
+     * @return The heading in radians
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    public double getHeading(int index) {
+        return headings[arrayIndex(index)];
+    }
+
+    /**
+     * Gets a sample's timestamp.
+     * 
+     * @param index The sample index
+     * @return The timestamp in seconds
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    public double getTime(int index) {
+        return times[arrayIndex(index)];
+    }
+
+    /**
+     * Copies a sample's pose into {@code out}.
+     * 
+     * @param index The sample index
+     * @param out The pose to write to
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    public Pose2d get(int index, Pose2d out) {
+        int i = arrayIndex(index);
+        out.set(xs[i], ys[i], headings[i]);
+        return out;
+    }
+
+    /**
+     * Computes the distance from every sample to a target, as
+     * {@link MathFormulas#DistFormula(Pose2d, Pose2d)} would.
+     * 
+     * @param target The target position
+     * @param out Receives the distance of sample {@code i} at index {@code i}
+     * @return {@code out}
+     * @throws IllegalArgumentException if {@code out} is shorter than {@link #size()}
+     */
+    public double[] distancesTo(Pose2d target, double[] out) {
+        return distancesTo(0, size, target, out);
+    }
+
+    /**
+     * Computes the distance from each sample in {@code [from, to)} to a target, as
+     * {@link MathFormulas#DistFormula(Pose2d, Pose2d)} would.
+     * 
+     * @param from First sample index to include
+     * @param to One past the last sample index to include
+     * @param target The target position
+     * @param out Receives the distance of sample {@code from + i} at index {@code i}
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code to - from}
+     */
+    public double[] distancesTo(int from, int to, Pose2d target, double[] out) {
+        checkRange(from, to);
+        checkOutput(out, to - from);
+        double[] xs = this.xs;
+        double[] ys = this.ys;
+        double tx = target.x;
+        double ty = target.y;
+        for (int i = 0, j = offset + from, count = to - from; i < count; i++, j++) {
+            double dx = tx - xs[j];
+            double dy = ty - ys[j];
+            out[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+        return out;
+    }
+
+    /**
+     * Computes the bearing from every sample to a target, as
+     * {@link MathFormulas#AngleFormula(Pose2d, Pose2d)} would, with the backend selected by
+     * {@link MathFormulas#setTrigBackend(TrigBackend)}.
+     * 
+     * @param target The target position
+     * @param out Receives the bearing of sample {@code i}, in radians in [-π, π], at index {@code i}
+     * @return {@code out}
+     * @throws IllegalArgumentException if {@code out} is shorter than {@link #size()}
+     */
+    public double[] anglesTo(Pose2d target, double[] out) {
+        return anglesTo(0, size, target, out, MathFormulas.getTrigBackend());
+    }
+
+    /**
+     * Computes the bearing from every sample to a target with the given backend.
+     * 
+     * @param target The target position
+     * @param out Receives the bearing of sample {@code i}, in radians in [-π, π], at index {@code i}
+     * @param trig The backend that computes atan2
+     * @return {@code out}
+     * @throws IllegalArgumentException if {@code out} is shorter than {@link #size()}
+     * @see #anglesTo(Pose2d, double[])
+     */
+    public double[] anglesTo(Pose2d target, double[] out, TrigBackend trig) {
+        return anglesTo(0, size, target, out, trig);
+    }
+
+    /**
+     * Computes the bearing from each sample in {@code [from, to)} to a target, as
+     * {@link MathFormulas#AngleFormula(Pose2d, Pose2d)} would, with the backend selected by
+     * {@link MathFormulas#setTrigBackend(TrigBackend)}.
+     * 
+     * @param from First sample index to include
+     * @param to One past the last sample index to include
+     * @param target The target position
+     * @param out Receives the bearing of sample {@code from + i}, in radians in [-π, π], at index {@code i}
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code to - from}
+     */
+    public double[] anglesTo(int from, int to, Pose2d target, double[] out) {
+        return anglesTo(from, to, target, out, MathFormulas.getTrigBackend());
+    }
+
+    /**
+     * Computes the bearing from each sample in {@code [from, to)} to a target with the
+     * given backend.
+     * 
+     * @param from First sample index to include
+     * @param to One past the last sample index to include
+     * @param target The target position
+     * @param out Receives the bearing of sample {@code from + i}, in radians in [-π, π], at index {@code i}
+     * @param trig The backend that computes atan2
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     * @throws IllegalArgumentException if {@code out} is shorter than {@code to - from}
+     * @see #anglesTo(int, int, Pose2d, double[])
+     */
+    public double[] anglesTo(int from, int to, Pose2d target, double[] out, TrigBackend trig) {
+        checkRange(from, to);
+        checkOutput(out, to - from);
+        double[] xs = this.xs;
+        double[] ys = this.ys;
+        double tx = target.x;
+        double ty = target.y;
+        for (int i = 0, j = offset + from, count = to - from; i < count; i++, j++) {
+            out[i] = trig.atan2(ty - ys[j], tx - xs[j]);
+        }
+        return out;
+    }
+
+    /**
+     * Finds the sample closest to a point.
+     * 
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @return The index of the closest sample, or -1 if the buffer is empty
+     */
+    public int nearestIndex(double x, double y) {
+        return nearestIndex(x, y, 0, size);
+    }
+
+    /**
+     * Finds the sample closest to a point among the samples in {@code [from, to)}.
+     * 
+     * <p>Path followers can search a window just ahead of the previous closest sample
+     * instead of the whole path.</p>
+     * 
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @param from First sample index to consider
+     * @param to One past the last sample index to consider
+     * @return The index of the closest sample, or -1 if the range is empty
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     */
+    public int nearestIndex(double x, double y, int from, int to) {
+        checkRange(from, to);
+        double[] xs = this.xs;
+        double[] ys = this.ys;
+        int best = -1;
+        double bestSquared = Double.POSITIVE_INFINITY;
+        for (int i = from + offset, end = to + offset; i < end; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double squared = dx * dx + dy * dy;
+            if (squared < bestSquared) {
+                bestSquared = squared;
+                best = i;
+            }
+        }
+        return best < 0 ? -1 : best - offset;
+    }
+
+    /**
+     * Finds the last sample taken at or before a time. Timestamps must be in
+     * non-decreasing order.
+     * 
+     * @param time The time in seconds
+     * @return The index of the last sample with a timestamp at or before {@code time},
+     *         or -1 if every sample is later
+     */
+    public int floorIndex(double time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[offset + mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Gets a view of the samples in {@code [from, to)} without copying them.
+     * 
+     * <p>The view shares this buffer's arrays, so changes through either are visible in
+     * both. If this buffer grows after the slice is taken, the slice keeps the old arrays.</p>
+     * 
+     * <p>Each call creates a new view object. Take slices once at init time; in the loop,
+     * use the range overloads such as {@link #distancesTo(int, int, Pose2d, double[])}.</p>
+     * 
+     * @param from Index of the first sample in the slice
+     * @param to One past the index of the last sample in the slice
+     * @return A fixed-size view of the samples
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     */
+    public PoseBuffer slice(int from, int to) {
+        checkRange(from, to);
+        return new PoseBuffer(this, offset + from, to - from);
+    }
+
+    /**
+     * Converts a sample index to an array index.
+     * 
+     * @param index The sample index
+     * @return The index into the column arrays
+     * @throws IndexOutOfBoundsException if the index is outside the buffer
+     */
+    private int arrayIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside a buffer of size " + size + ".");
+        }
+        return offset + index;
+    }
+
+    /**
+     * Checks that a range of sample indices is inside the buffer.
+     * 
+     * @param from First index of the range
+     * @param to One past the last index of the range
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     */
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is outside a buffer of size " + size + ".");
+        }
+    }
+
+    /**
+     * Checks that an output array can hold the given number of values.
+     * 
+     * @param out The output array
+     * @param count The number of values that will be written
+     * @throws IllegalArgumentException if the array is too short
+     */
+    private void checkOutput(double[] out, int count) {
+        if (out.length < count) {
+            throw new IllegalArgumentException("Output array must hold at least " + count + " values.");
+        }
+    }
+}
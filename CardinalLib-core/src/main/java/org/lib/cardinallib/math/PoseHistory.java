@@ -0,0 +1,267 @@
+package org.lib.cardinallib.math;
+
+/**
+ * A fixed-size record of recent timestamped poses, for looking up where the robot was at
+ * a moment in the past.
+ * 
+ * <p>Poses are kept in a ring of parallel primitive arrays, like {@link PoseBuffer} but
+ * with a fixed capacity: once full, each new pose overwrites the oldest, so recording
+ * every loop allocates nothing and the history always covers the most recent
+ * {@code capacity} poses. Timestamps must increase.</p>
+ * 
+ * <p>{@link #getPose(double, Pose2d)} finds the two poses around a time with a binary
+ * search and interpolates between them, position linearly and heading along the shorter
+ * way around. This is what latency compensation needs: a camera frame captured 80 ms ago
+ * should be compared with where the robot was 80 ms ago, not where it is now.</p>
+ * 
+ * <p>Indices count from the oldest pose, 0, to the newest, {@link #size()} - 1.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * PoseHistory history = new PoseHistory(256);
+ * 
+ * // Each loop
+ * history.add(pose.x, pose.y, pose.heading, now);
+ * 
+ * // When a delayed measurement arrives
+ * if (history.contains(captureTime)) {
+ *     history.getPose(captureTime, then);
+ * }
+ * }</pre>
+ * 
+ * @see PoseBuffer
+ * @see org.lib.cardinallib.localization.PoseFusion
+ */
+public class PoseHistory {
+
+    /** X-coordinate of each pose */
+    private final double[] xs;
+    /** Y-coordinate of each pose */
+    private final double[] ys;
+    /** Heading of each pose in radians */
+    private final double[] headings;
+    /** Timestamp of each pose in seconds */
+    private final double[] times;
+    /** Array index of the oldest pose */
+    private int start;
+    /** Number of poses held */
+    private int size;
+
+    /**
+     * Creates an empty history.
+     * 
+     * @param capacity Number of poses kept before the oldest are overwritten, at least 2
+     * @throws IllegalArgumentException if the capacity is less than 2
+     */
+    public PoseHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A pose history needs room for at least 2 poses.");
+        }
+        xs = new double[capacity];
+        ys = new double[capacity];
+        headings = new double[capacity];
+        times = new double[capacity];
+    }
+
+    /**
+     * Records a pose, overwriting the oldest one if the history is full.
+     * 
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @param heading Heading in radians
+     * @param time Timestamp in seconds, later than every pose already recorded
+     * @throws IllegalArgumentException if the timestamp is not later than the newest pose's
+     */
+    public void add(double x, double y, double heading, double time) {
+        if (size > 0 && !(time > times[arrayIndex(size - 1)])) {
+            throw new IllegalArgumentException("Pose timestamps must increase.");
+        }
+        int i;
+        if (size < xs.length) {
+            i = arrayIndex(size);
+            size++;
+        } else {
+            i = start;
+            start = start + 1 == xs.length ? 0 : start + 1;
+        }
+        xs[i] = x;
+        ys[i] = y;
+        headings[i] = heading;
+        times[i] = time;
+    }
+
+    /**
+     * Records a pose, overwriting the oldest one if the history is full.
+     * 
+     * @param pose The pose to copy
+     * @param time Timestamp in seconds, later than every pose already recorded
+     * @throws IllegalArgumentException if the timestamp is not later than the newest pose's
+     */
+    public void add(Pose2d pose, double time) {
+        add(pose.x, pose.y, pose.heading, time);
+    }
+
+    /**
+     * Removes every pose.
+     */
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the number of poses held.
+     * 
+     * @return The pose count, at most {@link #getCapacity()}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of poses kept before the oldest are overwritten.
+     * 
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return xs.length;
+    }
+
+    /**
+     * Checks whether a time is covered by the history.
+     * 
+     * @param time The time in seconds
+     * @return {@code true} if the time is between the oldest and newest timestamps, inclusive
+     */
+    public boolean contains(double time) {
+        return size > 0 && time >= times[start] && time <= times[arrayIndex(size - 1)];
+    }
+
+    /**
+     * Gets the interpolated pose at a time.
+     * 
+     * @param time The time in seconds
+     * @param out Receives the pose
+     * @return {@code out}
+     * @throws IllegalArgumentException if the time is not covered by the history
+     */
+    public Pose2d getPose(double time, Pose2d out) {
+        if (!contains(time)) {
+            throw new IllegalArgumentException("Time " + time + " s is outside the pose history.");
+        }
+        int index = floorIndex(time);
+        int a = arrayIndex(index);
+        if (index == size - 1 || times[a] == time) {
+            out.set(xs[a], ys[a], headings[a]);
+            return out;
+        }
+        int b = a + 1 == xs.length ? 0 : a + 1;
+        double f = (time - times[a]) / (times[b] - times[a]);
+        out.set(xs[a] + (xs[b] - xs[a]) * f,
+                ys[a] + (ys[b] - ys[a]) * f,
+                Pose2d.normalizeAngle(headings[a] + Pose2d.normalizeAngle(headings[b] - headings[a]) * f));
+        return out;
+    }
+
+    /**
+     * Finds the last pose recorded at or before a time with a binary search.
+     * 
+     * @param time The time in seconds
+     * @return The index of the last pose with a timestamp at or before {@code time},
+     *         or -1 if every pose is later
+     */
+    public int floorIndex(double time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[arrayIndex(mid)] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Copies a pose into {@code out}.
+     * 
+     * @param index The pose index, 0 for the oldest
+     * @param out The pose to write to
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the index is outside the history
+     */
+    public Pose2d get(int index, Pose2d out) {
+        int i = checkedIndex(index);
+        out.set(xs[i], ys[i], headings[i]);
+        return out;
+    }
+
+    /**
+     * Gets a pose's timestamp.
+     * 
+     * @param index The pose index, 0 for the oldest
+     * @return The timestamp in seconds
+     * @throws IndexOutOfBoundsException if the index is outside the history
+     */
+    public double getTime(int index) {
+        return times[checkedIndex(index)];
+    }
+
+    /**
+     * Gets the timestamp of the oldest pose.
+     * 
+     * @return The timestamp in seconds
+     * @throws IndexOutOfBoundsException if the history is empty
+     */
+    public double getOldestTime() {
+        return getTime(0);
+    }
+
+    /**
+     * Gets the timestamp of the newest pose.
+     * 
+     * @return The timestamp in seconds
+     * @throws IndexOutOfBoundsException if the history is empty
+     */
+    public double getNewestTime() {
+        return getTime(size - 1);
+    }
+
+    /**
+     * Copies the newest pose into {@code out}.
+     * 
+     * @param out The pose to write to
+     * @return {@code out}
+     * @throws IndexOutOfBoundsException if the history is empty
+     */
+    public Pose2d getNewest(Pose2d out) {
+        return get(size - 1, out);
+    }
+
+    /**
+     * Converts a pose index to an array index without checking it.
+     * 
+     * @param index The pose index
+     * @return The index into the column arrays
+     */
+    private int arrayIndex(int index) {
+        int i = start + index;
+        return i < xs.length ? i : i - xs.length;
+    }
+
+    /**
+     * Converts a pose index to an array index.
+     * 
+     * @param index The pose index
+     * @return The index into the column arrays
+     * @throws IndexOutOfBoundsException if the index is outside the history
+     */
+    private int checkedIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside a history of size " + size + ".");
+        }
+        return arrayIndex(index);
+    }
+}
@@ -0,0 +1,300 @@
+package org.lib.cardinallib.math;
+
+/**
+ * Solves projectile shots with air drag and a target above or below the launch point.
+ * 
+ * <p>The {@link MathFormulas} projectile functions ignore drag and assume the projectile
+ * lands at its launch height. This solver integrates the trajectory numerically instead,
+ * with gravity and quadratic drag (a = -g ŷ - k |v| v), using fourth-order Runge-Kutta
+ * steps of {@value #TIME_STEP} s. Given a target at a horizontal distance and a height
+ * relative to the launcher, it finds the launch velocity needed at a fixed angle or the
+ * launch angle needed at a fixed velocity.</p>
+ * 
+ * <p>Each solve runs many integrations, so do not solve during a match. Build a
+ * {@link ProjectileTable} during init with {@link #buildVelocityTable} and look the answer
+ * up each loop.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // 75 g ball, 12.7 cm across, sphere drag coefficient
+ * ProjectileSolver solver = ProjectileSolver.forBall(0.075, 0.127, 0.47);
+ * 
+ * // During init: fixed 50° hood, 1-4 m away, goal 0.6-1.0 m above the launcher
+ * ProjectileTable table = solver.buildVelocityTable(Math.toRadians(50),
+ *         1.0, 4.0, 31, 0.6, 1.0, 5);
+ * 
+ * // Each loop
+ * if (table.contains(distance, goalHeight)) {
+ *     shooter.setTargetRPM(table.getRPM(distance, goalHeight, robotFormulas));
+ * }
+ * }</pre>
+ * 
+ * @see ProjectileTable
+ * @see MathFormulas
+ */
+public class ProjectileSolver {
+
+    /** Density of air at sea level and 15 °C, in kg/m³ */
+    public static final double AIR_DENSITY = 1.225;
+    /** Integration step in seconds */
+    public static final double TIME_STEP = 0.002;
+    /** Longest flight simulated before a shot counts as falling short, in seconds */
+    private static final double MAX_FLIGHT_TIME = 10;
+    /** Fastest launch velocity considered, in m/s */
+    private static final double MAX_VELOCITY = 100;
+    /** Velocity solutions are refined to within this many m/s */
+    private static final double VELOCITY_TOLERANCE = 1e-5;
+    /** Angle solutions are refined to within this many radians */
+    private static final double ANGLE_TOLERANCE = 1e-7;
+    /** Number of launch angles tried while bracketing the low-arc solution */
+    private static final int ANGLE_SCAN_STEPS = 90;
+
+    /** Drag factor k = ρ C_d A / (2 m), in 1/m */
+    private final double dragFactor;
+
+    /**
+     * Creates a solver from a drag factor.
+     * 
+     * @param dragFactor k in a = -k |v| v, equal to ρ C_d A / (2 m), in 1/m; 0 for no drag
+     * @throws IllegalArgumentException if the drag factor is negative
+     */
+    public ProjectileSolver(double dragFactor) {
+        if (!(dragFactor >= 0)) {
+            throw new IllegalArgumentException("Drag factor cannot be negative.");
+        }
+        this.dragFactor = dragFactor;
+    }
+
+    /**
+     * Creates a solver for a round projectile in sea-level air.
+     * 
+     * @param mass Projectile mass in kilograms
+     * @param diameter Projectile diameter in meters
+     * @param dragCoefficient Drag coefficient, about 0.47 for a smooth sphere
+     * @return A solver for the projectile
+     * @throws IllegalArgumentException if the mass is not positive or another value is negative
+     */
+    public static ProjectileSolver forBall(double mass, double diameter, double dragCoefficient) {
+        if (!(mass > 0)) {
+            throw new IllegalArgumentException("Mass must be positive.");
+        }
+        if (!(diameter >= 0) || !(dragCoefficient >= 0)) {
+            throw new IllegalArgumentException("Diameter and drag coefficient cannot be negative.");
+        }
+        double area = Math.PI * diameter * diameter / 4;
+        return new ProjectileSolver(AIR_DENSITY * dragCoefficient * area / (2 * mass));
+    }
+
+    /**
+     * Gets the drag factor.
+     * 
+     * @return k in a = -k |v| v, in 1/m
+     */
+    public double getDragFactor() {
+        return dragFactor;
+    }
+
+    /**
+     * Simulates a shot and finds its height when it reaches a horizontal distance.
+     * 
+     * @param v Launch velocity in m/s
+     * @param theta Launch angle in radians above horizontal
+     * @param distance Horizontal distance in meters
+     * @return Height in meters relative to the launch point, or
+     *         {@link Double#NEGATIVE_INFINITY} if the projectile never gets that far
+     */
+    public double heightAtDistance(double v, double theta, double distance) {
+        if (distance <= 0) return 0;
+        double k = dragFactor;
+        double x = 0;
+        double y = 0;
+        double vx = v * Math.cos(theta);
+        double vy = v * Math.sin(theta);
+        if (!(vx > 0)) return Double.NEGATIVE_INFINITY;
+
+        double h = TIME_STEP;
+        for (double t = 0; t < MAX_FLIGHT_TIME; t += h) {
+            // Positions only feed the result, so each stage needs only the velocity
+            double s1 = Math.sqrt(vx * vx + vy * vy);
+            double ax1 = -k * s1 * vx;
+            double ay1 = -MathFormulas.GRAVITY - k * s1 * vy;
+
+            double vx2 = vx + ax1 * h / 2;
+            double vy2 = vy + ay1 * h / 2;
+            double s2 = Math.sqrt(vx2 * vx2 + vy2 * vy2);
+            double ax2 = -k * s2 * vx2;
+            double ay2 = -MathFormulas.GRAVITY - k * s2 * vy2;
+
+            double vx3 = vx + ax2 * h / 2;
+            double vy3 = vy + ay2 * h / 2;
+            double s3 = Math.sqrt(vx3 * vx3 + vy3 * vy3);
+            double ax3 = -k * s3 * vx3;
+            double ay3 = -MathFormulas.GRAVITY - k * s3 * vy3;
+
+            double vx4 = vx + ax3 * h;
+            double vy4 = vy + ay3 * h;
+            double s4 = Math.sqrt(vx4 * vx4 + vy4 * vy4);
+            double ax4 = -k * s4 * vx4;
+            double ay4 = -MathFormulas.GRAVITY - k * s4 * vy4;
+
+            double nextX = x + h / 6 * (vx + 2 * vx2 + 2 * vx3 + vx4);
+            double nextY = y + h / 6 * (vy + 2 * vy2 + 2 * vy3 + vy4);
+            if (nextX >= distance) {
+                return y + (nextY - y) * (distance - x) / (nextX - x);
+            }
+
+            x = nextX;
+            y = nextY;
+            vx += h / 6 * (ax1 + 2 * ax2 + 2 * ax3 + ax4);
+            vy += h / 6 * (ay1 + 2 * ay2 + 2 * ay3 + ay4);
+        }
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Finds the launch velocity that reaches a target at a fixed launch angle.
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @param height Target height relative to the launch point in meters
+     * @param theta Launch angle in radians above horizontal
+     * @return Required launch velocity in m/s
+     * @throws IllegalArgumentException if no velocity up to 100 m/s reaches the target
+     */
+    public double solveVelocity(double distance, double height, double theta) {
+        double v = findVelocity(distance, height, theta);
+        if (Double.isNaN(v)) {
+            throw new IllegalArgumentException("Target cannot be reached at this launch angle.");
+        }
+        return v;
+    }
+
+    /**
+     * Finds the lowest launch angle that reaches a target at a fixed launch velocity.
+     * 
+     * <p>When a target can be reached at all there are usually two angles, a flat shot
+     * and a lob. This returns the flat one, which has the shorter flight time.</p>
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @param height Target height relative to the launch point in meters
+     * @param v Launch velocity in m/s
+     * @return Required launch angle in radians above horizontal
+     * @throws IllegalArgumentException if no angle between 0 and π/2 reaches the target
+     */
+    public double solveAngle(double distance, double height, double v) {
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("Distance must be positive.");
+        }
+        double step = (Math.PI / 2) / ANGLE_SCAN_STEPS;
+        double low = 0;
+        double high = Double.NaN;
+        for (int i = 1; i < ANGLE_SCAN_STEPS; i++) {
+            double theta = i * step;
+            if (heightAtDistance(v, theta, distance) >= height) {
+                high = theta;
+                break;
+            }
+            low = theta;
+        }
+        if (Double.isNaN(high)) {
+            throw new IllegalArgumentException("Target cannot be reached at this launch velocity.");
+        }
+        while (high - low > ANGLE_TOLERANCE) {
+            double mid = (low + high) / 2;
+            if (heightAtDistance(v, mid, distance) >= height) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Precomputes required launch velocities at a fixed launch angle over a grid of target
+     * distances and heights.
+     * 
+     * @param theta Launch angle in radians above horizontal
+     * @param minDistance Shortest distance in meters, greater than 0
+     * @param maxDistance Longest distance in meters
+     * @param distanceSteps Number of grid points along distance, at least 2
+     * @param minHeight Lowest target height relative to the launcher in meters
+     * @param maxHeight Highest target height relative to the launcher in meters
+     * @param heightSteps Number of grid points along height, at least 1
+     * @return A table of velocities for in-match lookups
+     * @throws IllegalArgumentException if the angle, a range or a step count is invalid
+     */
+    public ProjectileTable buildVelocityTable(double theta, double minDistance, double maxDistance, int distanceSteps,
+                                              double minHeight, double maxHeight, int heightSteps) {
+        if (!(theta > 0) || !(theta < Math.PI / 2)) {
+            throw new IllegalArgumentException("Launch angle must be between 0 and π/2.");
+        }
+        if (!(minDistance > 0) || !(maxDistance > minDistance)) {
+            throw new IllegalArgumentException("Distance range must be positive and increasing.");
+        }
+        if (distanceSteps < 2) {
+            throw new IllegalArgumentException("A table needs at least 2 distance steps.");
+        }
+        if (heightSteps < 1) {
+            throw new IllegalArgumentException("A table needs at least 1 height step.");
+        }
+        if (heightSteps == 1 ? minHeight != maxHeight : !(maxHeight > minHeight)) {
+            throw new IllegalArgumentException("Height range must be increasing, or a single height for 1 step.");
+        }
+
+        double distanceStep = (maxDistance - minDistance) / (distanceSteps - 1);
+        double heightStep = heightSteps == 1 ? 0 : (maxHeight - minHeight) / (heightSteps - 1);
+        double[] velocity = new double[distanceSteps * heightSteps];
+        for (int i = 0; i < distanceSteps; i++) {
+            double distance = i == distanceSteps - 1 ? maxDistance : minDistance + i * distanceStep;
+            for (int j = 0; j < heightSteps; j++) {
+                double height = j == heightSteps - 1 ? maxHeight : minHeight + j * heightStep;
+                velocity[i * heightSteps + j] = findVelocity(distance, height, theta);
+            }
+        }
+        return new ProjectileTable(theta, minDistance, maxDistance, distanceSteps,
+                minHeight, maxHeight, heightSteps, velocity);
+    }
+
+    /**
+     * Finds the launch velocity that reaches a target by bisection.
+     * 
+     * <p>At a fixed angle a faster shot is higher at every distance, so the height at the
+     * target rises with velocity. Drag only lowers a trajectory, so the drag-free velocity
+     * is a lower bound.</p>
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @param height Target height relative to the launch point in meters
+     * @param theta Launch angle in radians above horizontal
+     * @return Required launch velocity in m/s, or NaN if the target cannot be reached
+     */
+    private double findVelocity(double distance, double height, double theta) {
+        double cos = Math.cos(theta);
+        double rise = distance * Math.tan(theta) - height;
+        if (!(distance > 0) || !(cos > 0) || !(rise > 0)) {
+            // Aimed at or below the target: no speed climbs to it
+            return Double.NaN;
+        }
+
+        // Drag-free solution of height = d tanθ - g d² / (2 v² cos²θ)
+        double low = distance / cos * Math.sqrt(MathFormulas.GRAVITY / (2 * rise));
+        if (low > MAX_VELOCITY) return Double.NaN;
+        if (heightAtDistance(low, theta, distance) >= height) return low;
+
+        double high = Math.min(low * 2, MAX_VELOCITY);
+        while (heightAtDistance(high, theta, distance) < height) {
+            if (high >= MAX_VELOCITY) return Double.NaN;
+            low = high;
+            high = Math.min(high * 2, MAX_VELOCITY);
+        }
+
+        while (high - low > VELOCITY_TOLERANCE) {
+            double mid = (low + high) / 2;
+            if (heightAtDistance(mid, theta, distance) >= height) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+}
@@ -0,0 +1,212 @@
+package org.lib.cardinallib.math;
+
+/**
+ * Launch velocities precomputed by a {@link ProjectileSolver} over a grid of target
+ * distances and heights, at one launch angle.
+ * 
+ * <p>{@link #getVelocity(double, double)} interpolates bilinearly between the four
+ * surrounding grid points, so an in-match query is a few multiplications with no
+ * integration and no allocation. {@link #getRPM(double, double, RobotFormulas)} passes the
+ * velocity through {@link RobotFormulas#velocityToRpm(double)} for a flywheel setpoint.</p>
+ * 
+ * <p>Grid points the shot cannot reach at the table's angle are marked unreachable.
+ * {@link #contains(double, double)} is {@code false} for any target whose cell touches
+ * one, and lookups there throw instead of returning NaN. Near that edge the required
+ * velocity climbs steeply and interpolation is least accurate, so keep the table's range
+ * clear of it or use more grid steps there.</p>
+ * 
+ * @see ProjectileSolver#buildVelocityTable
+ */
+public class ProjectileTable {
+
+    /** Launch angle every velocity was solved for, in radians */
+    private final double launchAngle;
+    /** Shortest distance in the table, in meters */
+    private final double minDistance;
+    /** Longest distance in the table, in meters */
+    private final double maxDistance;
+    /** Lowest target height in the table, in meters */
+    private final double minHeight;
+    /** Highest target height in the table, in meters */
+    private final double maxHeight;
+    /** Number of grid points along distance */
+    private final int distanceSteps;
+    /** Number of grid points along height */
+    private final int heightSteps;
+    /** Reciprocal of the distance spacing */
+    private final double inverseDistanceStep;
+    /** Reciprocal of the height spacing, or 0 for a single-height table */
+    private final double inverseHeightStep;
+    /** Launch velocity at each grid point in m/s, row-major by distance, NaN if unreachable */
+    private final double[] velocity;
+
+    /**
+     * Creates a table from solved velocities.
+     * 
+     * @param launchAngle Launch angle in radians
+     * @param minDistance Shortest distance in meters
+     * @param maxDistance Longest distance in meters
+     * @param distanceSteps Number of grid points along distance
+     * @param minHeight Lowest target height in meters
+     * @param maxHeight Highest target height in meters
+     * @param heightSteps Number of grid points along height
+     * @param velocity Velocity at each grid point, row-major by distance, NaN if unreachable
+     */
+    ProjectileTable(double launchAngle, double minDistance, double maxDistance, int distanceSteps,
+                    double minHeight, double maxHeight, int heightSteps, double[] velocity) {
+        this.launchAngle = launchAngle;
+        this.minDistance = minDistance;
+        this.maxDistance = maxDistance;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.distanceSteps = distanceSteps;
+        this.heightSteps = heightSteps;
+        this.velocity = velocity;
+        inverseDistanceStep = (distanceSteps - 1) / (maxDistance - minDistance);
+        inverseHeightStep = heightSteps == 1 ? 0 : (heightSteps - 1) / (maxHeight - minHeight);
+    }
+
+    /**
+     * Checks whether a target is inside the table and every grid point around it is reachable.
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @param height Target height relative to the launcher in meters
+     * @return {@code true} if {@link #getVelocity(double, double)} can answer for this target
+     */
+    public boolean contains(double distance, double height) {
+        if (!(distance >= minDistance && distance <= maxDistance
+                && height >= minHeight && height <= maxHeight)) {
+            return false;
+        }
+        int a = cornerIndex(distance, height);
+        if (heightSteps == 1) {
+            return !Double.isNaN(velocity[a]) && !Double.isNaN(velocity[a + 1]);
+        }
+        int b = a + heightSteps;
+        return !Double.isNaN(velocity[a]) && !Double.isNaN(velocity[a + 1])
+                && !Double.isNaN(velocity[b]) && !Double.isNaN(velocity[b + 1]);
+    }
+
+    /**
+     * Looks up the launch velocity for a target.
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @param height Target height relative to the launcher in meters
+     * @return Interpolated launch velocity in m/s
+     * @throws IllegalArgumentException if the target is outside the table or unreachable
+     */
+    public double getVelocity(double distance, double height) {
+        if (!contains(distance, height)) {
+            throw new IllegalArgumentException("Distance " + distance + " m and height " + height
+                    + " m are outside the projectile table or unreachable.");
+        }
+
+        double u = (distance - minDistance) * inverseDistanceStep;
+        int i = Math.min((int) u, distanceSteps - 2);
+        double fu = u - i;
+
+        int row = i * heightSteps;
+        if (heightSteps == 1) {
+            return velocity[row] + (velocity[row + 1] - velocity[row]) * fu;
+        }
+
+        double w = (height - minHeight) * inverseHeightStep;
+        int j = Math.min((int) w, heightSteps - 2);
+        double fw = w - j;
+
+        int a = row + j;
+        int b = a + heightSteps;
+        double near = velocity[a] + (velocity[a + 1] - velocity[a]) * fw;
+        double far = velocity[b] + (velocity[b + 1] - velocity[b]) * fw;
+        return near + (far - near) * fu;
+    }
+
+    /**
+     * Looks up the launch velocity in a single-height table.
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @return Interpolated launch velocity in m/s
+     * @throws IllegalStateException if the table has more than one height step
+     * @throws IllegalArgumentException if the target is outside the table or unreachable
+     */
+    public double getVelocity(double distance) {
+        if (heightSteps != 1) {
+            throw new IllegalStateException("Table covers more than one height.");
+        }
+        return getVelocity(distance, minHeight);
+    }
+
+    /**
+     * Looks up the flywheel RPM for a target.
+     * 
+     * @param distance Horizontal distance to the target in meters
+     * @param height Target height relative to the launcher in meters
+     * @param formulas The robot's conversion from launch velocity to RPM
+     * @return Flywheel RPM from {@link RobotFormulas#velocityToRpm(double)}
+     * @throws IllegalArgumentException if the target is outside the table or unreachable
+     */
+    public double getRPM(double distance, double height, RobotFormulas formulas) {
+        return formulas.velocityToRpm(getVelocity(distance, height));
+    }
+
+    /**
+     * Gets the launch angle the table was solved for.
+     * 
+     * @return Angle in radians above horizontal
+     */
+    public double getLaunchAngle() {
+        return launchAngle;
+    }
+
+    /**
+     * Gets the shortest distance in the table.
+     * 
+     * @return Distance in meters
+     */
+    public double getMinDistance() {
+        return minDistance;
+    }
+
+    /**
+     * Gets the longest distance in the table.
+     * 
+     * @return Distance in meters
+     */
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Gets the lowest target height in the table.
+     * 
+     * @return Height in meters relative to the launcher
+     */
+    public double getMinHeight() {
+        return minHeight;
+    }
+
+    /**
+     * Gets the highest target height in the table.
+     * 
+     * @return Height in meters relative to the launcher
+     */
+    public double getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Finds the grid point at the near, low corner of the cell containing a target.
+     * 
+     * @param distance Distance inside the table in meters
+     * @param height Height inside the table in meters
+     * @return Index into {@link #velocity}
+     */
+    private int cornerIndex(double distance, double height) {
+        int i = Math.min((int) ((distance - minDistance) * inverseDistanceStep), distanceSteps - 2);
+        if (heightSteps == 1) {
+            return i;
+        }
+        int j = Math.min((int) ((height - minHeight) * inverseHeightStep), heightSteps - 2);
+        return i * heightSteps + j;
+    }
+}
@@ -54,6 +54,8 @@ package org.lib.cardinallib.math;
  * </p>
  * 
  * @see MathFormulas
+ * @see CalibratedFormulas
+ * @see ProjectileTable#getRPM(double, double, RobotFormulas)
  */
 public abstract class RobotFormulas {
 
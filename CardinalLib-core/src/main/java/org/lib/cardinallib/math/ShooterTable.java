@@ -0,0 +1,308 @@
+package org.lib.cardinallib.math;
+
+/**
+ * A precomputed grid of flywheel RPMs over distance and launch angle.
+ * 
+ * <p>The table evaluates {@link MathFormulas#findRequiredRPM(double, double, double)} once
+ * per grid point when it is built. After that, {@link #getRPM(double, double)} answers with
+ * bilinear interpolation between the four surrounding points: a few multiplications and
+ * no {@code sin}, {@code sqrt} or allocation, so it can run every loop while the robot
+ * tracks a goal.</p>
+ * 
+ * <p><b>Accuracy:</b> for every cell the table stores an upper bound on the difference
+ * between the interpolated value and the closed-form solution, derived from the second
+ * derivatives of the formula over that cell. {@link #getErrorBound(double, double)} returns
+ * the bound for one lookup and {@link #getMaxErrorBound()} the worst cell in the table.
+ * Error grows at short distances and at angles far from 45°, where the formula curves
+ * most, so use more grid steps if those bounds are too large.</p>
+ * 
+ * <p><b>Range:</b> every launch angle in the table must be strictly between 0 and π/2.
+ * At those two angles sin(2θ) = 0 and no velocity reaches the target, so the constructor
+ * rejects them rather than filling the table with NaN or Infinity. Lookups outside the
+ * table throw; check {@link #contains(double, double)} first if the robot can leave the
+ * table's range.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // During init: 0.5-4 m in 36 steps, 25-60 degrees in 36 steps
+ * ShooterTable table = new ShooterTable(0.048, 0.5, 4.0, 36,
+ *         Math.toRadians(25), Math.toRadians(60), 36);
+ * 
+ * // Each loop
+ * double distance = MathFormulas.DistFormula(robot.getPose(), goal.getPose());
+ * if (table.contains(distance, hoodAngle)) {
+ *     shooter.setTargetRPM(table.getRPM(distance, hoodAngle));
+ * }
+ * }</pre>
+ * 
+ * <p>A shooter with a fixed hood can use a single angle step with equal minimum and
+ * maximum angles, which interpolates along distance only.</p>
+ * 
+ * @see MathFormulas#findRequiredRPM(double, double, double)
+ */
+public class ShooterTable {
+
+    /** Shortest distance in the table, in meters */
+    private final double minDistance;
+    /** Longest distance in the table, in meters */
+    private final double maxDistance;
+    /** Smallest launch angle in the table, in radians */
+    private final double minAngle;
+    /** Largest launch angle in the table, in radians */
+    private final double maxAngle;
+    /** Number of grid points along distance */
+    private final int distanceSteps;
+    /** Number of grid points along angle */
+    private final int angleSteps;
+    /** Reciprocal of the distance spacing */
+    private final double inverseDistanceStep;
+    /** Reciprocal of the angle spacing, or 0 for a single-angle table */
+    private final double inverseAngleStep;
+    /** RPM at each grid point, row-major by distance */
+    private final double[] rpm;
+    /** Interpolation error bound of each cell in RPM, row-major by distance */
+    private final double[] cellError;
+    /** Largest value in {@link #cellError} */
+    private final double maxError;
+
+    /**
+     * Builds a table by evaluating the closed-form solution at every grid point.
+     * 
+     * @param rBall Ball/projectile radius in meters
+     * @param minDistance Shortest distance in meters, greater than 0
+     * @param maxDistance Longest distance in meters
+     * @param distanceSteps Number of grid points along distance, at least 2
+     * @param minAngle Smallest launch angle in radians, greater than 0
+     * @param maxAngle Largest launch angle in radians, less than π/2
+     * @param angleSteps Number of grid points along angle, at least 1
+     * @throws IllegalArgumentException if a range or step count is invalid, or if the angle range
+     *                                  reaches an angle where sin(2θ) = 0
+     */
+    public ShooterTable(double rBall, double minDistance, double maxDistance, int distanceSteps,
+                        double minAngle, double maxAngle, int angleSteps) {
+        if (!(rBall > 0)) {
+            throw new IllegalArgumentException("Ball radius must be positive.");
+        }
+        if (!(minDistance > 0) || !(maxDistance > minDistance)) {
+            throw new IllegalArgumentException("Distance range must be positive and increasing.");
+        }
+        if (distanceSteps < 2) {
+            throw new IllegalArgumentException("A table needs at least 2 distance steps.");
+        }
+        if (angleSteps < 1) {
+            throw new IllegalArgumentException("A table needs at least 1 angle step.");
+        }
+        if (angleSteps == 1 ? minAngle != maxAngle : !(maxAngle > minAngle)) {
+            throw new IllegalArgumentException("Angle range must be increasing, or a single angle for 1 step.");
+        }
+        if (!(minAngle > 0) || !(maxAngle < Math.PI / 2)
+                || Math.sin(2 * minAngle) < MathFormulas.EPSILON || Math.sin(2 * maxAngle) < MathFormulas.EPSILON) {
+            throw new IllegalArgumentException("Angle range results in undefined projectile motion (sin(2θ) = 0).");
+        }
+
+        this.minDistance = minDistance;
+        this.maxDistance = maxDistance;
+        this.minAngle = minAngle;
+        this.maxAngle = maxAngle;
+        this.distanceSteps = distanceSteps;
+        this.angleSteps = angleSteps;
+
+        double distanceStep = (maxDistance - minDistance) / (distanceSteps - 1);
+        double angleStep = angleSteps == 1 ? 0 : (maxAngle - minAngle) / (angleSteps - 1);
+        inverseDistanceStep = 1 / distanceStep;
+        inverseAngleStep = angleSteps == 1 ? 0 : 1 / angleStep;
+
+        rpm = new double[distanceSteps * angleSteps];
+        for (int i = 0; i < distanceSteps; i++) {
+            double distance = distanceAt(i, distanceStep);
+            for (int j = 0; j < angleSteps; j++) {
+                rpm[i * angleSteps + j] = MathFormulas.findRequiredRPM(rBall, distance, angleAt(j, angleStep));
+            }
+        }
+
+        // RPM = k √d / √sin(2θ). For bilinear interpolation the error in a cell is at most
+        // h_d²/8 · max|∂²/∂d²| + h_θ²/8 · max|∂²/∂θ²|. With s = sin(2θ):
+        //   ∂²/∂d² = -k / (4 d^1.5 √s)                  largest at the cell's smallest d and s
+        //   ∂²/∂θ² = k √d (2 / √s + 3 (1 - s²) / s^2.5)  largest at the cell's largest d and smallest s
+        // sin(2θ) is concave on (0, π/2), so its smallest value in a cell is at one of the cell's edges.
+        double k = 60 / (2 * Math.PI * rBall) * Math.sqrt(MathFormulas.GRAVITY);
+        int angleCells = Math.max(1, angleSteps - 1);
+        cellError = new double[(distanceSteps - 1) * angleCells];
+        double worst = 0;
+        for (int i = 0; i < distanceSteps - 1; i++) {
+            double nearDistance = distanceAt(i, distanceStep);
+            double farDistance = distanceAt(i + 1, distanceStep);
+            for (int j = 0; j < angleCells; j++) {
+                double s = angleSteps == 1
+                        ? Math.sin(2 * minAngle)
+                        : Math.min(Math.sin(2 * angleAt(j, angleStep)), Math.sin(2 * angleAt(j + 1, angleStep)));
+                double distanceCurvature = k / (4 * nearDistance * Math.sqrt(nearDistance) * Math.sqrt(s));
+                double angleCurvature = k * Math.sqrt(farDistance)
+                        * (2 / Math.sqrt(s) + 3 * (1 - s * s) / (s * s * Math.sqrt(s)));
+                double bound = distanceStep * distanceStep / 8 * distanceCurvature
+                        + angleStep * angleStep / 8 * angleCurvature;
+                cellError[i * angleCells + j] = bound;
+                worst = Math.max(worst, bound);
+            }
+        }
+        maxError = worst;
+    }
+
+    /**
+     * Checks whether a distance and angle are inside the table.
+     * 
+     * @param distance Horizontal distance in meters
+     * @param theta Launch angle in radians
+     * @return {@code true} if {@link #getRPM(double, double)} can answer for these inputs
+     */
+    public boolean contains(double distance, double theta) {
+        return distance >= minDistance && distance <= maxDistance
+                && theta >= minAngle && theta <= maxAngle;
+    }
+
+    /**
+     * Looks up the flywheel RPM for a distance and launch angle.
+     * 
+     * @param distance Horizontal distance in meters
+     * @param theta Launch angle in radians
+     * @return Interpolated flywheel RPM
+     * @throws IllegalArgumentException if the inputs are outside the table
+     */
+    public double getRPM(double distance, double theta) {
+        checkRange(distance, theta);
+
+        double u = (distance - minDistance) * inverseDistanceStep;
+        int i = Math.min((int) u, distanceSteps - 2);
+        double fu = u - i;
+
+        int row = i * angleSteps;
+        if (angleSteps == 1) {
+            return rpm[row] + (rpm[row + 1] - rpm[row]) * fu;
+        }
+
+        double v = (theta - minAngle) * inverseAngleStep;
+        int j = Math.min((int) v, angleSteps - 2);
+        double fv = v - j;
+
+        int a = row + j;
+        int b = a + angleSteps;
+        double near = rpm[a] + (rpm[a + 1] - rpm[a]) * fv;
+        double far = rpm[b] + (rpm[b + 1] - rpm[b]) * fv;
+        return near + (far - near) * fu;
+    }
+
+    /**
+     * Looks up the flywheel RPM in a single-angle table.
+     * 
+     * @param distance Horizontal distance in meters
+     * @return Interpolated flywheel RPM
+     * @throws IllegalStateException if the table has more than one angle step
+     * @throws IllegalArgumentException if the distance is outside the table
+     */
+    public double getRPM(double distance) {
+        if (angleSteps != 1) {
+            throw new IllegalStateException("Table covers more than one angle.");
+        }
+        return getRPM(distance, minAngle);
+    }
+
+    /**
+     * Gets the most the interpolated RPM can differ from the closed-form solution for
+     * the given inputs.
+     * 
+     * @param distance Horizontal distance in meters
+     * @param theta Launch angle in radians
+     * @return Error bound in RPM for the cell containing the inputs
+     * @throws IllegalArgumentException if the inputs are outside the table
+     */
+    public double getErrorBound(double distance, double theta) {
+        checkRange(distance, theta);
+        int i = Math.min((int) ((distance - minDistance) * inverseDistanceStep), distanceSteps - 2);
+        if (angleSteps == 1) {
+            return cellError[i];
+        }
+        int j = Math.min((int) ((theta - minAngle) * inverseAngleStep), angleSteps - 2);
+        return cellError[i * (angleSteps - 1) + j];
+    }
+
+    /**
+     * Gets the largest interpolation error bound of any cell in the table.
+     * 
+     * @return Error bound in RPM that holds for every lookup
+     */
+    public double getMaxErrorBound() {
+        return maxError;
+    }
+
+    /**
+     * Gets the shortest distance in the table.
+     * 
+     * @return Distance in meters
+     */
+    public double getMinDistance() {
+        return minDistance;
+    }
+
+    /**
+     * Gets the longest distance in the table.
+     * 
+     * @return Distance in meters
+     */
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Gets the smallest launch angle in the table.
+     * 
+     * @return Angle in radians
+     */
+    public double getMinAngle() {
+        return minAngle;
+    }
+
+    /**
+     * Gets the largest launch angle in the table.
+     * 
+     * @return Angle in radians
+     */
+    public double getMaxAngle() {
+        return maxAngle;
+    }
+
+    /**
+     * Gets the distance of a grid row. The last row is exactly {@link #maxDistance}.
+     * 
+     * @param i Row index
+     * @param step Distance spacing
+     * @return Distance in meters
+     */
+    private double distanceAt(int i, double step) {
+        return i == distanceSteps - 1 ? maxDistance : minDistance + i * step;
+    }
+
+    /**
+     * Gets the angle of a grid column. The last column is exactly {@link #maxAngle}.
+     * 
+     * @param j Column index
+     * @param step Angle spacing
+     * @return Angle in radians
+     */
+    private double angleAt(int j, double step) {
+        return j == angleSteps - 1 ? maxAngle : minAngle + j * step;
+    }
+
+    /**
+     * Rejects inputs outside the table.
+     * 
+     * @param distance Horizontal distance in meters
+     * @param theta Launch angle in radians
+     * @throws IllegalArgumentException if the inputs are outside the table
+     */
+    private void checkRange(double distance, double theta) {
+        if (!contains(distance, theta)) {
+            throw new IllegalArgumentException("Distance " + distance + " m and angle " + theta
+                    + " rad are outside the shooter table.");
+        }
+    }
+}
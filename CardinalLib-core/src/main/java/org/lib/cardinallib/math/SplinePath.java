@@ -0,0 +1,445 @@
+package org.lib.cardinallib.math;
+
+/**
+ * A smooth path through a list of waypoints, made of quintic Hermite splines.
+ * 
+ * <p>The path passes through each waypoint's position facing its heading. Between two
+ * waypoints it follows a quintic polynomial whose tangent at each end points along the
+ * waypoint heading with a length equal to the distance between the waypoints, and whose
+ * second derivative is zero at the waypoints. Position, heading and curvature are
+ * therefore continuous along the whole path, and curvature passes through zero at each
+ * waypoint.</p>
+ * 
+ * <p>Points on the path are addressed by a parameter t from 0 at the first waypoint to
+ * {@link #getSegmentCount()} at the last, where each whole number is a waypoint. The
+ * parameter does not advance at a steady rate along the path, so a table of arc length
+ * against t is built once, when the path is created. {@link #getParameter(double)} finds
+ * the t at a distance along the path with a binary search of that table and
+ * {@link #getDistance(double)} goes the other way in O(1).</p>
+ * 
+ * <p>For following, {@link #closestParameter(double, double, double)} projects the robot
+ * onto the path starting from the parameter it found on the previous loop. It walks the
+ * table from there to the nearest sample and refines with Newton's method, so its cost
+ * depends on how far the robot moved since the last loop rather than on the path's
+ * length. Starting from the previous answer also keeps it on the right part of a path
+ * that crosses or passes close to itself.</p>
+ * 
+ * <p>All queries write into caller-provided objects or return primitives, so a path can
+ * be followed without allocating.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // During init
+ * SplinePath path = new SplinePath(
+ *         new Pose2d(0, 0, 0),
+ *         new Pose2d(1.2, 0.6, Math.toRadians(45)),
+ *         new Pose2d(2.0, 1.5, Math.toRadians(90)));
+ * Pose2d target = new Pose2d(0, 0, 0);
+ * double t = 0;
+ * 
+ * // Each loop: aim 0.3 m ahead of the robot's projection onto the path
+ * t = path.closestParameter(robotPose.x, robotPose.y, t);
+ * double s = path.getDistance(t);
+ * path.getPoseAtDistance(s + 0.3, target);
+ * double curvature = path.getCurvatureAtDistance(s);
+ * }</pre>
+ * 
+ * @see Pose2d
+ * @see PoseBuffer
+ */
+public class SplinePath {
+
+    /** Arc-length table samples per segment */
+    public static final int SAMPLES_PER_SEGMENT = 32;
+    /** Most Newton iterations used to refine a parameter */
+    private static final int NEWTON_ITERATIONS = 3;
+    /** Arc-length lookups stop refining once within this distance of the target */
+    private static final double DISTANCE_TOLERANCE = 1e-9;
+    /** Closest-point refinement stops once a step moves the parameter less than this */
+    private static final double PARAMETER_TOLERANCE = 1e-9;
+    /** Three-point Gauss-Legendre node offset from the interval midpoint, as a fraction of its half-length */
+    private static final double GAUSS_NODE = Math.sqrt(0.6);
+    /** Weight of the outer Gauss-Legendre nodes */
+    private static final double GAUSS_OUTER_WEIGHT = 5.0 / 9.0;
+    /** Weight of the middle Gauss-Legendre node */
+    private static final double GAUSS_MIDDLE_WEIGHT = 8.0 / 9.0;
+
+    /** Number of segments between waypoints */
+    private final int segments;
+    /** Polynomial coefficients of x for each segment, six per segment from the constant term up */
+    private final double[] cx;
+    /** Polynomial coefficients of y for each segment, six per segment from the constant term up */
+    private final double[] cy;
+    /** X-coordinate of each table sample */
+    private final double[] sampleX;
+    /** Y-coordinate of each table sample */
+    private final double[] sampleY;
+    /** Distance along the path at each table sample */
+    private final double[] sampleDistance;
+    /** Total length of the path */
+    private final double length;
+
+    /**
+     * Creates a path through waypoints.
+     * 
+     * @param waypoints Positions to pass through and headings to pass through them at, at least 2
+     * @throws IllegalArgumentException if there are fewer than 2 waypoints or two consecutive
+     *                                  waypoints are at the same position
+     */
+    public SplinePath(Pose2d... waypoints) {
+        if (waypoints.length < 2) {
+            throw new IllegalArgumentException("A path needs at least 2 waypoints.");
+        }
+        segments = waypoints.length - 1;
+        cx = new double[segments * 6];
+        cy = new double[segments * 6];
+        for (int i = 0; i < segments; i++) {
+            Pose2d a = waypoints[i];
+            Pose2d b = waypoints[i + 1];
+            double chord = Math.hypot(b.x - a.x, b.y - a.y);
+            if (!(chord > 0)) {
+                throw new IllegalArgumentException("Consecutive waypoints must be at different positions.");
+            }
+            fitQuintic(cx, i * 6, a.x, chord * Math.cos(a.heading), b.x, chord * Math.cos(b.heading));
+            fitQuintic(cy, i * 6, a.y, chord * Math.sin(a.heading), b.y, chord * Math.sin(b.heading));
+        }
+
+        int count = segments * SAMPLES_PER_SEGMENT + 1;
+        sampleX = new double[count];
+        sampleY = new double[count];
+        sampleDistance = new double[count];
+        double step = 1.0 / SAMPLES_PER_SEGMENT;
+        double s = 0;
+        for (int k = 0; k < count; k++) {
+            double t = k * step;
+            if (k > 0) {
+                s += arcLength(t - step, t);
+            }
+            sampleX[k] = value(cx, t);
+            sampleY[k] = value(cy, t);
+            sampleDistance[k] = s;
+        }
+        length = s;
+    }
+
+    /**
+     * Gets the number of segments, which is also the largest parameter.
+     * 
+     * @return One less than the number of waypoints
+     */
+    public int getSegmentCount() {
+        return segments;
+    }
+
+    /**
+     * Gets the length of the path.
+     * 
+     * @return Arc length from the first waypoint to the last
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Finds a point on the path from its parameter.
+     * 
+     * @param t Parameter, clamped to [0, {@link #getSegmentCount()}]
+     * @param out Receives the position and the heading of the path's tangent
+     * @return {@code out}
+     */
+    public Pose2d getPose(double t, Pose2d out) {
+        t = clamp(t);
+        out.set(value(cx, t), value(cy, t),
+                Math.atan2(slope(cy, t), slope(cx, t)));
+        return out;
+    }
+
+    /**
+     * Finds a point on the path from its distance along the path.
+     * 
+     * @param distance Arc length from the start, clamped to [0, {@link #getLength()}]
+     * @param out Receives the position and the heading of the path's tangent
+     * @return {@code out}
+     */
+    public Pose2d getPoseAtDistance(double distance, Pose2d out) {
+        return getPose(getParameter(distance), out);
+    }
+
+    /**
+     * Gets the signed curvature of the path at a parameter.
+     * 
+     * @param t Parameter, clamped to [0, {@link #getSegmentCount()}]
+     * @return 1 / turning radius, positive when the path turns counterclockwise
+     */
+    public double getCurvature(double t) {
+        t = clamp(t);
+        double dx = slope(cx, t);
+        double dy = slope(cy, t);
+        double ddx = bend(cx, t);
+        double ddy = bend(cy, t);
+        double speed = Math.sqrt(dx * dx + dy * dy);
+        return (dx * ddy - dy * ddx) / (speed * speed * speed);
+    }
+
+    /**
+     * Gets the signed curvature of the path at a distance along it.
+     * 
+     * @param distance Arc length from the start, clamped to [0, {@link #getLength()}]
+     * @return 1 / turning radius, positive when the path turns counterclockwise
+     */
+    public double getCurvatureAtDistance(double distance) {
+        return getCurvature(getParameter(distance));
+    }
+
+    /**
+     * Gets the distance along the path to a parameter.
+     * 
+     * <p>Integrates from the table sample below {@code t}, so this costs O(1).</p>
+     * 
+     * @param t Parameter, clamped to [0, {@link #getSegmentCount()}]
+     * @return Arc length from the start
+     */
+    public double getDistance(double t) {
+        t = clamp(t);
+        int k = Math.min((int) (t * SAMPLES_PER_SEGMENT), sampleDistance.length - 2);
+        double start = (double) k / SAMPLES_PER_SEGMENT;
+        return sampleDistance[k] + arcLength(start, t);
+    }
+
+    /**
+     * Finds the parameter at a distance along the path.
+     * 
+     * <p>Binary searches the arc-length table, interpolates between the two samples, and
+     * refines with Newton's method on the exact arc length.</p>
+     * 
+     * @param distance Arc length from the start, clamped to [0, {@link #getLength()}]
+     * @return Parameter in [0, {@link #getSegmentCount()}]
+     */
+    public double getParameter(double distance) {
+        if (!(distance > 0)) return 0;
+        if (distance >= length) return segments;
+
+        int low = 0;
+        int high = sampleDistance.length - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (sampleDistance[mid] <= distance) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        double start = (double) low / SAMPLES_PER_SEGMENT;
+        double end = (double) high / SAMPLES_PER_SEGMENT;
+        double span = sampleDistance[high] - sampleDistance[low];
+        double t = start + (end - start) * (distance - sampleDistance[low]) / span;
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            double error = sampleDistance[low] + arcLength(start, t) - distance;
+            double rate = speed(t);
+            if (Math.abs(error) < DISTANCE_TOLERANCE || !(rate > 0)) break;
+            t -= error / rate;
+            t = Math.min(Math.max(t, start), end);
+        }
+        return t;
+    }
+
+    /**
+     * Projects a point onto the path, searching the whole path.
+     * 
+     * <p>Use this once to find where a robot starts, then
+     * {@link #closestParameter(double, double, double)} each loop.</p>
+     * 
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @return Parameter of the closest point on the path
+     */
+    public double closestParameter(double x, double y) {
+        double[] xs = sampleX;
+        double[] ys = sampleY;
+        int best = 0;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < xs.length; k++) {
+            double dx = xs[k] - x;
+            double dy = ys[k] - y;
+            double d = dx * dx + dy * dy;
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = k;
+            }
+        }
+        return refine(x, y, best);
+    }
+
+    /**
+     * Projects a point onto the path, searching outward from a previous answer.
+     * 
+     * <p>Walks the table from the sample nearest {@code previous} in whichever direction
+     * brings it closer to the point, stopping at the first local minimum, then refines
+     * between the neighbouring samples. The result is the closest point on the part of
+     * the path near {@code previous}, which for a robot that moved a little since the
+     * last loop is the closest point overall.</p>
+     * 
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @param previous Parameter found on the previous loop
+     * @return Parameter of the closest point near {@code previous}
+     */
+    public double closestParameter(double x, double y, double previous) {
+        double[] xs = sampleX;
+        double[] ys = sampleY;
+        int last = xs.length - 1;
+        int k = (int) Math.round(clamp(previous) * SAMPLES_PER_SEGMENT);
+
+        double dx = xs[k] - x;
+        double dy = ys[k] - y;
+        double d = dx * dx + dy * dy;
+        boolean moved = false;
+        while (k < last) {
+            dx = xs[k + 1] - x;
+            dy = ys[k + 1] - y;
+            double next = dx * dx + dy * dy;
+            if (next >= d) break;
+            d = next;
+            k++;
+            moved = true;
+        }
+        while (!moved && k > 0) {
+            dx = xs[k - 1] - x;
+            dy = ys[k - 1] - y;
+            double next = dx * dx + dy * dy;
+            if (next >= d) break;
+            d = next;
+            k--;
+        }
+        return refine(x, y, k);
+    }
+
+    /**
+     * Refines the closest point to a point near a table sample with Newton's method on
+     * the squared distance.
+     * 
+     * @param x X-coordinate of the point
+     * @param y Y-coordinate of the point
+     * @param k Index of the table sample closest to the point
+     * @return Parameter of the closest point, between the neighbouring samples
+     */
+    private double refine(double x, double y, int k) {
+        double low = (double) Math.max(k - 1, 0) / SAMPLES_PER_SEGMENT;
+        double high = (double) Math.min(k + 1, sampleX.length - 1) / SAMPLES_PER_SEGMENT;
+        double t = (double) k / SAMPLES_PER_SEGMENT;
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            double ex = value(cx, t) - x;
+            double ey = value(cy, t) - y;
+            double dx = slope(cx, t);
+            double dy = slope(cy, t);
+            double slope = ex * dx + ey * dy;
+            double curve = dx * dx + dy * dy + ex * bend(cx, t) + ey * bend(cy, t);
+            if (!(curve > 0)) break;
+            double next = Math.min(Math.max(t - slope / curve, low), high);
+            if (Math.abs(next - t) < PARAMETER_TOLERANCE) return next;
+            t = next;
+        }
+        return t;
+    }
+
+    /**
+     * Integrates the path's speed between two parameters with three-point Gauss-Legendre
+     * quadrature, which is accurate to a fraction of a micrometer over one table step.
+     * 
+     * @param from Start parameter
+     * @param to End parameter
+     * @return Arc length between them
+     */
+    private double arcLength(double from, double to) {
+        double half = (to - from) / 2;
+        double mid = from + half;
+        double offset = half * GAUSS_NODE;
+        return half * (GAUSS_OUTER_WEIGHT * (speed(mid - offset) + speed(mid + offset))
+                + GAUSS_MIDDLE_WEIGHT * speed(mid));
+    }
+
+    /**
+     * Gets the rate the path advances per unit of parameter.
+     * 
+     * @param t Parameter in [0, {@link #getSegmentCount()}]
+     * @return |dr/dt|
+     */
+    private double speed(double t) {
+        double dx = slope(cx, t);
+        double dy = slope(cy, t);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Evaluates one coordinate's polynomial.
+     * 
+     * @param c Coefficients of the coordinate
+     * @param t Parameter in [0, {@link #getSegmentCount()}]
+     * @return The coordinate at {@code t}
+     */
+    private double value(double[] c, double t) {
+        int segment = Math.min((int) t, segments - 1);
+        double u = t - segment;
+        int i = segment * 6;
+        return c[i] + u * (c[i + 1] + u * (c[i + 2] + u * (c[i + 3] + u * (c[i + 4] + u * c[i + 5]))));
+    }
+
+    /**
+     * Evaluates the first derivative of one coordinate's polynomial.
+     * 
+     * @param c Coefficients of the coordinate
+     * @param t Parameter in [0, {@link #getSegmentCount()}]
+     * @return The coordinate's rate of change per unit of parameter at {@code t}
+     */
+    private double slope(double[] c, double t) {
+        int segment = Math.min((int) t, segments - 1);
+        double u = t - segment;
+        int i = segment * 6;
+        return c[i + 1] + u * (2 * c[i + 2] + u * (3 * c[i + 3] + u * (4 * c[i + 4] + u * 5 * c[i + 5])));
+    }
+
+    /**
+     * Evaluates the second derivative of one coordinate's polynomial.
+     * 
+     * @param c Coefficients of the coordinate
+     * @param t Parameter in [0, {@link #getSegmentCount()}]
+     * @return The coordinate's second derivative at {@code t}
+     */
+    private double bend(double[] c, double t) {
+        int segment = Math.min((int) t, segments - 1);
+        double u = t - segment;
+        int i = segment * 6;
+        return 2 * c[i + 2] + u * (6 * c[i + 3] + u * (12 * c[i + 4] + u * 20 * c[i + 5]));
+    }
+
+    /**
+     * Clamps a parameter to the path.
+     * 
+     * @param t Parameter
+     * @return {@code t} limited to [0, {@link #getSegmentCount()}], 0 if NaN
+     */
+    private double clamp(double t) {
+        return t > 0 ? Math.min(t, segments) : 0;
+    }
+
+    /**
+     * Writes the coefficients of a quintic with given end values and first derivatives and
+     * zero second derivatives at both ends.
+     * 
+     * @param c Coefficient array
+     * @param i Index of the constant term
+     * @param p0 Value at u = 0
+     * @param v0 First derivative at u = 0
+     * @param p1 Value at u = 1
+     * @param v1 First derivative at u = 1
+     */
+    private static void fitQuintic(double[] c, int i, double p0, double v0, double p1, double v1) {
+        c[i] = p0;
+        c[i + 1] = v0;
+        c[i + 2] = 0;
+        c[i + 3] = -10 * p0 - 6 * v0 + 10 * p1 - 4 * v1;
+        c[i + 4] = 15 * p0 + 8 * v0 - 15 * p1 + 7 * v1;
+        c[i + 5] = -6 * p0 - 3 * v0 + 6 * p1 - 3 * v1;
+    }
+}
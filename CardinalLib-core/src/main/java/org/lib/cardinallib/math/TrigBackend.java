@@ -0,0 +1,120 @@
+package org.lib.cardinallib.math;
+
+/**
+ * The trigonometry and square root functions used by {@link MathFormulas}.
+ * 
+ * <p>{@link #JAVA} uses {@link Math} and is the default. {@link #FAST} uses {@link FastMath},
+ * which is faster and accurate to about 3e-7, far finer than a servo or hood can position.
+ * Select one for every call with {@link MathFormulas#setTrigBackend(TrigBackend)}, or
+ * pass one to the overloads that take a backend.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * // During init, for the whole program
+ * MathFormulas.setTrigBackend(TrigBackend.FAST);
+ * 
+ * // Or for one call
+ * double bearing = MathFormulas.AngleFormula(robot.getPose(), goal.getPose(), TrigBackend.FAST);
+ * }</pre>
+ * 
+ * @see FastMath
+ */
+public interface TrigBackend {
+
+    /** Exact results from {@link Math} */
+    TrigBackend JAVA = new TrigBackend() {
+        @Override
+        public double sin(double x) {
+            return Math.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return Math.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return Math.tan(x);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Math.atan2(y, x);
+        }
+
+        @Override
+        public double sqrt(double x) {
+            return Math.sqrt(x);
+        }
+    };
+
+    /** Approximate results from {@link FastMath}, with the error bounds documented there */
+    TrigBackend FAST = new TrigBackend() {
+        @Override
+        public double sin(double x) {
+            return FastMath.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return FastMath.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return FastMath.tan(x);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return FastMath.atan2(y, x);
+        }
+
+        @Override
+        public double sqrt(double x) {
+            return FastMath.sqrt(x);
+        }
+    };
+
+    /**
+     * Computes the sine of an angle.
+     * 
+     * @param x Angle in radians
+     * @return sin(x)
+     */
+    double sin(double x);
+
+    /**
+     * Computes the cosine of an angle.
+     * 
+     * @param x Angle in radians
+     * @return cos(x)
+     */
+    double cos(double x);
+
+    /**
+     * Computes the tangent of an angle.
+     * 
+     * @param x Angle in radians
+     * @return tan(x)
+     */
+    double tan(double x);
+
+    /**
+     * Computes the angle of the point (x, y).
+     * 
+     * @param y Y-coordinate
+     * @param x X-coordinate
+     * @return Angle in radians in [-π, π]
+     */
+    double atan2(double y, double x);
+
+    /**
+     * Computes a square root.
+     * 
+     * @param x The value
+     * @return √x
+     */
+    double sqrt(double x);
+}
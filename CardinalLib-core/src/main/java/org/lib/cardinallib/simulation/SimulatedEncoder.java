@@ -0,0 +1,89 @@
+package org.lib.cardinallib.simulation;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A stand-in for a quadrature encoder in simulations and benchmarks.
+ * 
+ * <p>The simulation moves the encoder's wheel with {@link #move(double)} and code under
+ * test reads whole ticks through {@link #getAsInt()}, the same way it reads a real
+ * encoder, so odometry can be run and checked on a desktop. The count is truncated to
+ * whole ticks like real hardware, and the position is volatile so the simulation and an
+ * odometry thread can run on different threads.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SimulatedEncoder left = new SimulatedEncoder(2000 / (Math.PI * 0.048)); // ticks per meter
+ * ThreeWheelOdometry odometry = new ThreeWheelOdometry(left, right, strafe, ...);
+ * left.move(0.01); // the wheel rolled 1 cm forward
+ * odometry.update();
+ * }</pre>
+ * 
+ * @see org.lib.cardinallib.localization.TrackingWheelOdometry
+ */
+public class SimulatedEncoder implements IntSupplier {
+
+    /** Ticks counted per unit of distance rolled */
+    private final double ticksPerUnit;
+    /** Exact position in ticks, before truncation */
+    private volatile double ticks;
+
+    /**
+     * Creates an encoder at tick 0.
+     * 
+     * @param ticksPerUnit Ticks counted per unit of distance the wheel rolls
+     * @throws IllegalArgumentException if the resolution is not positive
+     */
+    public SimulatedEncoder(double ticksPerUnit) {
+        if (!(ticksPerUnit > 0)) {
+            throw new IllegalArgumentException("Ticks per unit must be positive.");
+        }
+        this.ticksPerUnit = ticksPerUnit;
+    }
+
+    /**
+     * Rolls the wheel. Only one thread may move an encoder.
+     * 
+     * @param distance Distance rolled, negative to roll backwards
+     */
+    public void move(double distance) {
+        ticks += distance * ticksPerUnit;
+    }
+
+    /**
+     * Sets the tick count, as resetting a real encoder would.
+     * 
+     * @param count The new count
+     */
+    public void setTicks(int count) {
+        ticks = count;
+    }
+
+    /**
+     * Reads the encoder.
+     * 
+     * @return Whole ticks counted
+     */
+    @Override
+    public int getAsInt() {
+        return (int) Math.floor(ticks);
+    }
+
+    /**
+     * Gets the exact distance the wheel has rolled, without tick truncation.
+     * 
+     * @return Distance since tick 0
+     */
+    public double getDistance() {
+        return ticks / ticksPerUnit;
+    }
+
+    /**
+     * Gets the encoder's resolution.
+     * 
+     * @return Ticks per unit of distance
+     */
+    public double getTicksPerUnit() {
+        return ticksPerUnit;
+    }
+}
@@ -0,0 +1,130 @@
+package org.lib.cardinallib.simulation;
+
+import org.lib.cardinallib.commands.Subsystem;
+
+/**
+ * A stand-in for a robot mechanism in simulations.
+ * 
+ * <p>The mechanism has a position that moves toward a target at a fixed maximum rate
+ * every time {@link #periodic(double)} runs, like a lift or arm under position control.
+ * Commands written against it can wait for {@link #isAtTarget(double)}, so a routine
+ * that waits on mechanisms takes a realistic, repeatable amount of simulated time.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SimulatedMechanism lift = new SimulatedMechanism("Lift", 40); // 40 in/s
+ * harness.register(lift);
+ * lift.setTarget(30);
+ * harness.runFor(1.0); // lift.getPosition() is now 30
+ * }</pre>
+ * 
+ * @see SimulationHarness#register(Subsystem...)
+ */
+public class SimulatedMechanism extends Subsystem {
+
+    /** Name used in output */
+    private final String name;
+    /** Maximum speed in position units per second */
+    private final double maxRate;
+    /** Current position */
+    private double position;
+    /** Position being moved toward */
+    private double target;
+
+    /**
+     * Creates a mechanism at position 0.
+     * 
+     * @param name A name for the mechanism, used in output
+     * @param maxRate The fastest the position can change, in units per second
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public SimulatedMechanism(String name, double maxRate) {
+        if (!(maxRate > 0)) {
+            throw new IllegalArgumentException("Maximum rate must be positive.");
+        }
+        this.name = name;
+        this.maxRate = maxRate;
+    }
+
+    /**
+     * Moves the position toward the target by at most {@code maxRate * dt}.
+     * 
+     * @param dt Seconds since the previous loop
+     */
+    @Override
+    public void periodic(double dt) {
+        double step = maxRate * dt;
+        double error = target - position;
+        if (Math.abs(error) <= step) {
+            position = target;
+        } else {
+            position += Math.copySign(step, error);
+        }
+    }
+
+    /**
+     * Sets the position to move toward.
+     * 
+     * @param target The target position
+     */
+    public void setTarget(double target) {
+        this.target = target;
+    }
+
+    /**
+     * Gets the position being moved toward.
+     * 
+     * @return The target position
+     */
+    public double getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the current position.
+     * 
+     * @return The position
+     */
+    public double getPosition() {
+        return position;
+    }
+
+    /**
+     * Places the mechanism at a position immediately, without moving.
+     * 
+     * @param position The new position, which also becomes the target
+     */
+    public void reset(double position) {
+        this.position = position;
+        this.target = position;
+    }
+
+    /**
+     * Checks whether the mechanism has reached its target.
+     * 
+     * @param tolerance The largest distance from the target that counts as reached
+     * @return {@code true} if the position is within the tolerance of the target
+     */
+    public boolean isAtTarget(double tolerance) {
+        return Math.abs(target - position) <= tolerance;
+    }
+
+    /**
+     * Gets the mechanism's name.
+     * 
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the mechanism's name and position.
+     * 
+     * @return A short description
+     */
+    @Override
+    public String toString() {
+        return name + " at " + position;
+    }
+}
@@ -0,0 +1,191 @@
+package org.lib.cardinallib.simulation;
+
+import org.lib.cardinallib.commands.Command;
+import org.lib.cardinallib.commands.CommandListener;
+import org.lib.cardinallib.commands.CommandMachine;
+import org.lib.cardinallib.commands.Subsystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a {@link CommandMachine} on a {@link VirtualClock}, as fast as the computer allows.
+ * 
+ * <p>Each {@link #step()} advances the clock by exactly one loop period, runs
+ * {@link Subsystem#periodic(double)} on every registered subsystem and updates the machine,
+ * the same order a {@link org.lib.cardinallib.commands.LoopRunner} uses on the robot. No
+ * real time passes, so a 30-second autonomous finishes in milliseconds on a laptop, and
+ * because the clock and the loop period are fixed the run is the same every time.</p>
+ * 
+ * <p>Every command start and end, including commands inside groups, is recorded in a
+ * timeline. Comparing {@link #formatTimeline()} with a saved copy shows when a change
+ * moves the timing of a routine.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SimulationHarness sim = new SimulationHarness(100); // 100 Hz loop
+ * SimulatedMechanism lift = new SimulatedMechanism("Lift", 40);
+ * sim.register(lift);
+ * sim.getMachine().schedule(new MyAuto(lift));
+ * sim.runUntilIdle(30);
+ * System.out.println(sim.formatTimeline());
+ * }</pre>
+ * 
+ * <p>Commands that do work on other threads, such as an
+ * {@link org.lib.cardinallib.commands.AsyncCommand}, still take real time and make a run
+ * non-deterministic.</p>
+ * 
+ * @see VirtualClock
+ * @see SimulatedMechanism
+ */
+public class SimulationHarness {
+
+    /** The simulated clock */
+    private final VirtualClock clock = new VirtualClock();
+    /** The machine under test, running on {@link #clock} */
+    private final CommandMachine machine = new CommandMachine(clock);
+    /** Loop period in nanoseconds */
+    private final long periodNanos;
+    /** Loop period in seconds */
+    private final double periodSeconds;
+    /** Subsystems whose periodic method runs each step */
+    private Subsystem[] subsystems = new Subsystem[0];
+    /** Every command start and end so far */
+    private final List<TimelineEvent> timeline = new ArrayList<>();
+
+    /**
+     * Creates a harness with its own virtual clock and command machine.
+     * 
+     * @param frequencyHz The simulated loop rate in cycles per second
+     * @throws IllegalArgumentException if the frequency is not positive
+     */
+    public SimulationHarness(double frequencyHz) {
+        if (!(frequencyHz > 0)) {
+            throw new IllegalArgumentException("Loop frequency must be positive.");
+        }
+        periodNanos = Math.round(1e9 / frequencyHz);
+        periodSeconds = periodNanos / 1e9;
+        machine.addListener(new CommandListener() {
+            @Override
+            public void commandStarted(Command command) {
+                timeline.add(new TimelineEvent(clock.nanoTime(), TimelineEvent.Type.START, command.getName()));
+            }
+
+            @Override
+            public void commandEnded(Command command, boolean interrupted) {
+                TimelineEvent.Type type = interrupted ? TimelineEvent.Type.INTERRUPT : TimelineEvent.Type.END;
+                timeline.add(new TimelineEvent(clock.nanoTime(), type, command.getName()));
+            }
+        });
+    }
+
+    /**
+     * Registers subsystems whose {@link Subsystem#periodic(double)} runs every step,
+     * in registration order, before the machine is updated.
+     * 
+     * @param toAdd The subsystems to register
+     * @return This harness for method chaining
+     */
+    public SimulationHarness register(Subsystem... toAdd) {
+        int start = subsystems.length;
+        subsystems = Arrays.copyOf(subsystems, start + toAdd.length);
+        System.arraycopy(toAdd, 0, subsystems, start, toAdd.length);
+        return this;
+    }
+
+    /**
+     * Advances the clock by one period and runs one loop.
+     */
+    public void step() {
+        clock.advance(periodNanos);
+        for (Subsystem subsystem : subsystems) {
+            subsystem.periodic(periodSeconds);
+        }
+        machine.update(periodSeconds);
+    }
+
+    /**
+     * Runs loops until the given amount of simulated time has passed.
+     * 
+     * @param seconds Simulated time to run for
+     */
+    public void runFor(double seconds) {
+        long steps = Math.round(seconds * 1e9 / periodNanos);
+        for (long i = 0; i < steps; i++) {
+            step();
+        }
+    }
+
+    /**
+     * Runs loops until no command is scheduled or a time limit passes.
+     * 
+     * @param maxSeconds The most simulated time to run for
+     * @return {@code true} if every command finished, {@code false} if the time limit was reached first
+     */
+    public boolean runUntilIdle(double maxSeconds) {
+        long end = clock.nanoTime() + Math.round(maxSeconds * 1e9);
+        while (!machine.isIdle()) {
+            if (clock.nanoTime() - end >= 0) return false;
+            step();
+        }
+        return true;
+    }
+
+    /**
+     * Gets the machine being simulated. Schedule commands and add triggers on it.
+     * 
+     * @return The command machine
+     */
+    public CommandMachine getMachine() {
+        return machine;
+    }
+
+    /**
+     * Gets the simulated clock.
+     * 
+     * @return The clock shared by the machine and its commands
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the simulated time since the harness was created.
+     * 
+     * @return The time in seconds
+     */
+    public double getTime() {
+        return clock.nanoTime() / 1e9;
+    }
+
+    /**
+     * Gets every command start and end recorded so far, in order.
+     * 
+     * @return An unmodifiable view of the timeline
+     */
+    public List<TimelineEvent> getTimeline() {
+        return Collections.unmodifiableList(timeline);
+    }
+
+    /**
+     * Formats the timeline with one event per line.
+     * 
+     * @return The formatted timeline
+     */
+    public String formatTimeline() {
+        StringBuilder builder = new StringBuilder();
+        for (TimelineEvent event : timeline) {
+            builder.append(event).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Clears the recorded timeline.
+     */
+    public void clearTimeline() {
+        timeline.clear();
+    }
+}
@@ -0,0 +1,89 @@
+package org.lib.cardinallib.simulation;
+
+import java.util.Locale;
+
+/**
+ * A command starting or ending at a point in simulated time.
+ * 
+ * @see SimulationHarness#getTimeline()
+ */
+public final class TimelineEvent {
+
+    /**
+     * What happened to the command.
+     */
+    public enum Type {
+        /** The command was initialized */
+        START,
+        /** The command finished on its own */
+        END,
+        /** The command was cancelled or replaced before finishing */
+        INTERRUPT
+    }
+
+    /** Simulated time of the event in nanoseconds since the simulation started */
+    private final long timeNanos;
+    /** What happened */
+    private final Type type;
+    /** The command's name */
+    private final String commandName;
+
+    /**
+     * Creates an event.
+     * 
+     * @param timeNanos Simulated time since the simulation started, in nanoseconds
+     * @param type What happened
+     * @param commandName The command's name
+     */
+    public TimelineEvent(long timeNanos, Type type, String commandName) {
+        this.timeNanos = timeNanos;
+        this.type = type;
+        this.commandName = commandName;
+    }
+
+    /**
+     * Gets the simulated time of the event.
+     * 
+     * @return Nanoseconds since the simulation started
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Gets the simulated time of the event.
+     * 
+     * @return Seconds since the simulation started
+     */
+    public double getTime() {
+        return timeNanos / 1e9;
+    }
+
+    /**
+     * Gets what happened to the command.
+     * 
+     * @return The event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the name of the command.
+     * 
+     * @return The command's name
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Formats the event as one timeline line, for example {@code "   1.250  START      WaitCommand"}.
+     * 
+     * @return The formatted event
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%8.3f  %-9s  %s", getTime(), type, commandName);
+    }
+}
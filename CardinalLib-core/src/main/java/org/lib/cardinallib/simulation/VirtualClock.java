@@ -0,0 +1,76 @@
+package org.lib.cardinallib.simulation;
+
+import org.lib.cardinallib.commands.Clock;
+
+/**
+ * A {@link Clock} that only moves when it is told to.
+ * 
+ * <p>Give one to a {@link org.lib.cardinallib.commands.CommandMachine} to run commands in
+ * simulated time: a {@link org.lib.cardinallib.commands.WaitCommand} of 5 seconds finishes
+ * as soon as the clock has been advanced by 5 seconds, however long that took.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * VirtualClock clock = new VirtualClock();
+ * CommandMachine cmdMachine = new CommandMachine(clock);
+ * cmdMachine.schedule(new WaitCommand(5));
+ * clock.advanceSeconds(5);
+ * cmdMachine.update(5);
+ * }</pre>
+ * 
+ * @see SimulationHarness
+ */
+public class VirtualClock implements Clock {
+
+    /** The current time in nanoseconds */
+    private long now;
+
+    /**
+     * Creates a clock that starts at time 0.
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Creates a clock that starts at the given time.
+     * 
+     * @param startNanos The initial time in nanoseconds
+     */
+    public VirtualClock(long startNanos) {
+        now = startNanos;
+    }
+
+    /**
+     * Gets the current simulated time.
+     * 
+     * @return The time in nanoseconds
+     */
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward.
+     * 
+     * @param nanos The time to add in nanoseconds
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public void advance(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("A clock cannot move backwards.");
+        }
+        now += nanos;
+    }
+
+    /**
+     * Moves the clock forward.
+     * 
+     * @param seconds The time to add in seconds
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public void advanceSeconds(double seconds) {
+        advance(Math.round(seconds * 1e9));
+    }
+}
@@ -0,0 +1,123 @@
+package org.lib.cardinallib.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncWorkerPoolTest {
+
+    @Test
+    void cancelledJobKeepsItsSlotUntilItReturns() throws InterruptedException {
+        AsyncWorkerPool pool = new AsyncWorkerPool(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean release = new AtomicBoolean();
+        try {
+            // Spins without checking for interrupts, like a long native call would
+            Future<?> stuck = pool.trySubmit(() -> {
+                started.countDown();
+                while (!release.get()) {
+                    Thread.onSpinWait();
+                }
+            });
+            assertNotNull(stuck);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            stuck.cancel(true);
+            assertEquals(1, pool.getRunningJobs());
+            assertNull(pool.trySubmit(() -> { }));
+
+            release.set(true);
+            awaitRunningJobs(pool, 0);
+            assertNotNull(pool.trySubmit(() -> { }));
+        } finally {
+            release.set(true);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void finishedAndFailedJobsGiveTheirSlotBack() throws InterruptedException {
+        AsyncWorkerPool pool = new AsyncWorkerPool(2);
+        try {
+            assertNotNull(pool.trySubmit(() -> { }));
+            assertNotNull(pool.trySubmit(() -> {
+                throw new IllegalStateException("job failed");
+            }));
+            awaitRunningJobs(pool, 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void submitAfterShutdownThrowsWithoutLeakingASlot() {
+        AsyncWorkerPool pool = new AsyncWorkerPool(1);
+        pool.shutdown();
+
+        assertTrue(pool.isShutdown());
+        assertThrows(IllegalStateException.class, () -> pool.trySubmit(() -> { }));
+        assertEquals(0, pool.getRunningJobs());
+    }
+
+    @Test
+    void defaultPoolIsReplacedAfterShutdown() {
+        AsyncWorkerPool first = AsyncWorkerPool.getDefault();
+        first.shutdown();
+
+        AsyncWorkerPool second = AsyncWorkerPool.getDefault();
+        assertNotSame(first, second);
+        assertFalse(second.isShutdown());
+        assertSame(second, AsyncWorkerPool.getDefault());
+    }
+
+    @Test
+    void commandOnShutDownPoolFinishesWithAnError() {
+        AsyncWorkerPool pool = new AsyncWorkerPool(1);
+        pool.shutdown();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AsyncCommand<Integer> command = new AsyncCommand<>(pool, () -> 42, result -> { })
+                .onError(failure::set);
+
+        command.init();
+        command.update();
+        assertTrue(command.isFinished());
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertNull(command.getResult());
+    }
+
+    @Test
+    void defaultPoolCommandSurvivesShutdownOfTheDefaultPool() throws InterruptedException {
+        AsyncCommand<Integer> command = new AsyncCommand<>(() -> 42, null);
+        AsyncWorkerPool.getDefault().shutdown();
+
+        command.init();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!command.isFinished() && System.nanoTime() - deadline < 0) {
+            command.update();
+            Thread.sleep(1);
+        }
+        assertEquals(42, command.getResult());
+    }
+
+    private static void awaitRunningJobs(AsyncWorkerPool pool, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getRunningJobs() != expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, pool.getRunningJobs());
+    }
+}
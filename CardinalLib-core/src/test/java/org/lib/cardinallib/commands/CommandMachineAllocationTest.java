@@ -0,0 +1,119 @@
+package org.lib.cardinallib.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.simulation.VirtualClock;
+
+/**
+ * Checks that a steady-state {@link CommandMachine#update()} allocates nothing.
+ */
+class CommandMachineAllocationTest {
+
+    /** Loop period of the simulated op mode in nanoseconds (10 ms) */
+    private static final long PERIOD_NANOS = 10_000_000L;
+    /** Updates run before measuring, so every command has been scheduled and profiled */
+    private static final int WARMUP_UPDATES = 20_000;
+    /** Updates per measured round */
+    private static final int MEASURED_UPDATES = 10_000;
+    /** Number of measured rounds */
+    private static final int ROUNDS = 5;
+
+    /** A command that counts its updates and finishes after a fixed number of them */
+    private static final class CountingCommand extends Command {
+        private final int length;
+        private int updates;
+
+        CountingCommand(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public void init() {
+            updates = 0;
+        }
+
+        @Override
+        public void update() {
+            updates++;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return length > 0 && updates >= length;
+        }
+    }
+
+    /** Loop counter read by the trigger conditions */
+    private long loops;
+
+    @Test
+    void steadyStateUpdateDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        VirtualClock clock = new VirtualClock();
+        CommandMachine machine = new CommandMachine(32, 8, clock);
+        machine.setProfilingEnabled(true);
+
+        // Runs for the whole test
+        machine.schedule(new CountingCommand(0));
+        machine.schedule(new CountingCommand(0).withRateDivisor(4));
+
+        // Restarted by triggers: a sequence that parks on its wait, a plain parked wait,
+        // a low-rate parallel group and a timed-out command
+        Command sequence = new CommandSequence()
+                .add(new CountingCommand(3))
+                .add(new WaitCommand(0.25))
+                .add(new CountingCommand(5));
+        Command wait = new WaitCommand(0.5);
+        Command parallel = new ParallelCommand()
+                .add(new CountingCommand(2))
+                .add(new WaitCommand(0.1));
+        Command timeout = new CountingCommand(0).withTimeout(0.3);
+        machine.addTrigger(new Trigger(() -> loops % 50 == 0, sequence));
+        machine.addTrigger(new Trigger(() -> loops % 70 == 0, wait));
+        machine.addTrigger(new Trigger(() -> loops % 40 < 20, parallel).withRateDivisor(2));
+        machine.addTrigger(new Trigger(() -> loops % 60 == 0, timeout));
+
+        allocatedDuring(threads, machine, clock, WARMUP_UPDATES);
+
+        // The JIT occasionally allocates a few bytes on the measuring thread while it
+        // swaps compiled code in, so take the best of several rounds. An update that
+        // allocates shows up in every round.
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            allocated = Math.min(allocated, allocatedDuring(threads, machine, clock, MEASURED_UPDATES));
+        }
+
+        assertEquals(0, allocated, "bytes allocated over " + MEASURED_UPDATES + " updates");
+        assertTrue(machine.getProfile(sequence).getUpdate().getCount() > 0);
+    }
+
+    /**
+     * Runs the given number of loops and measures what the current thread allocated.
+     */
+    private long allocatedDuring(com.sun.management.ThreadMXBean threads, CommandMachine machine,
+                                 VirtualClock clock, int updates) {
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < updates; i++) {
+            tick(machine, clock);
+        }
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    /**
+     * Advances the clock by one loop period and updates the machine.
+     */
+    private void tick(CommandMachine machine, VirtualClock clock) {
+        loops++;
+        clock.advance(PERIOD_NANOS);
+        machine.update();
+    }
+}
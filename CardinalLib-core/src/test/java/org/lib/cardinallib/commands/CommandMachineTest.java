@@ -0,0 +1,358 @@
+package org.lib.cardinallib.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.simulation.VirtualClock;
+
+class CommandMachineTest {
+
+    /** Loop period in seconds */
+    private static final double DT = 0.005;
+
+    /** A command that counts its updates and records how it ended */
+    private static final class Probe extends Command {
+        /** Updates before finishing, or 0 to run until cancelled */
+        private final int length;
+        int updates;
+        int ends;
+        boolean interrupted;
+
+        Probe(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public void init() {
+            updates = 0;
+        }
+
+        @Override
+        public void update() {
+            updates++;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return length > 0 && updates >= length;
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            ends++;
+            this.interrupted = interrupted;
+        }
+    }
+
+    private static final class Part extends Subsystem { }
+
+    /** A never-ending command that records the tick and dt of each update */
+    private static final class RateProbe extends Command {
+        /** Tick counter shared with the test loop */
+        private final int[] tick;
+        final List<Integer> ticks = new ArrayList<>();
+        final List<Double> dts = new ArrayList<>();
+
+        RateProbe(int[] tick, int divisor) {
+            this.tick = tick;
+            withRateDivisor(divisor);
+        }
+
+        @Override
+        public void init() { }
+
+        @Override
+        public void update() { }
+
+        @Override
+        public void update(double dt) {
+            ticks.add(tick[0]);
+            dts.add(dt);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return false;
+        }
+
+        /** Phase of this command's runs modulo its divisor */
+        int phase() {
+            return ticks.get(0) % getRateDivisor();
+        }
+    }
+
+    /** Runs a machine for a number of updates of {@link #DT}, counting ticks from 1 */
+    private static void run(CommandMachine machine, int[] tick, int updates) {
+        for (int i = 0; i < updates; i++) {
+            tick[0]++;
+            machine.update(DT);
+        }
+    }
+
+    @Test
+    void commandMovedToAnotherMachineRunsOnlyThere() {
+        VirtualClock clock = new VirtualClock();
+        CommandMachine a = new CommandMachine(clock);
+        CommandMachine b = new CommandMachine(clock);
+        Probe stays = new Probe(0);
+        Probe moved = new Probe(3);
+        a.schedule(stays);
+        a.schedule(moved);
+        a.update(DT);
+        assertEquals(1, moved.updates);
+
+        // Still in a's active array when b takes it over
+        a.cancel(moved);
+        b.schedule(moved);
+        assertEquals(0, moved.updates);
+
+        a.update(DT);
+        assertEquals(0, moved.updates);
+        for (int i = 0; i < 3; i++) {
+            b.update(DT);
+        }
+        assertEquals(3, moved.updates);
+        assertFalse(b.isScheduled(moved));
+        assertTrue(b.isIdle());
+
+        // a's running list is intact
+        a.update(DT);
+        Command[] running = new Command[4];
+        assertEquals(1, a.getActiveCommands(running));
+        assertSame(stays, running[0]);
+        assertEquals(1, a.getActiveCount());
+        assertEquals(3, stays.updates);
+    }
+
+    @Test
+    void requirementCancelOnAnotherMachineHandsTheCommandOver() {
+        VirtualClock clock = new VirtualClock();
+        CommandMachine a = new CommandMachine(clock);
+        CommandMachine b = new CommandMachine(clock);
+        Part arm = new Part();
+        Probe first = new Probe(0);
+        first.requires(arm);
+        Probe second = new Probe(0);
+        second.requires(arm);
+        a.schedule(first);
+        a.update(DT);
+
+        // Scheduling on b interrupts the owner on a through owner.machine.cancel(owner)
+        b.schedule(second);
+        assertTrue(first.interrupted);
+        assertSame(second, arm.getOwner());
+
+        // Then first is moved over to b in the same loop, taking the arm back
+        b.schedule(first);
+        assertSame(first, arm.getOwner());
+        a.update(DT);
+        b.update(DT);
+        assertEquals(1, first.updates);
+        assertTrue(second.interrupted);
+        assertTrue(a.isIdle());
+        assertEquals(0, a.getActiveCount());
+        assertEquals(1, b.getActiveCount());
+    }
+
+    @Test
+    void conflictingCommandInterruptsTheOwnerOnly() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Part lift = new Part();
+        Part intake = new Part();
+        Probe raise = new Probe(0);
+        raise.requires(lift);
+        Probe spin = new Probe(0);
+        spin.requires(intake);
+        Probe free = new Probe(0);
+        machine.schedule(raise);
+        machine.schedule(spin);
+        machine.schedule(free);
+        machine.update(DT);
+        assertSame(raise, lift.getOwner());
+
+        Probe lower = new Probe(0);
+        lower.requires(lift);
+        machine.schedule(lower);
+
+        assertEquals(1, raise.ends);
+        assertTrue(raise.interrupted);
+        assertFalse(machine.isScheduled(raise));
+        assertSame(lower, lift.getOwner());
+
+        machine.update(DT);
+        assertEquals(1, raise.updates);
+        assertEquals(1, lower.updates);
+        assertEquals(2, spin.updates);
+        assertEquals(2, free.updates);
+        assertTrue(machine.isScheduled(spin));
+        assertSame(spin, intake.getOwner());
+        assertEquals(0, spin.ends);
+    }
+
+    @Test
+    void commandRequiringSeveralSubsystemsInterruptsEveryOwner() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Part lift = new Part();
+        Part intake = new Part();
+        Probe raise = new Probe(0);
+        raise.requires(lift);
+        Probe spin = new Probe(0);
+        spin.requires(intake);
+        machine.schedule(raise);
+        machine.schedule(spin);
+
+        Probe stow = new Probe(2);
+        stow.requires(lift, intake);
+        machine.schedule(stow);
+        assertTrue(raise.interrupted);
+        assertTrue(spin.interrupted);
+        assertSame(stow, lift.getOwner());
+        assertSame(stow, intake.getOwner());
+
+        // Finishing normally releases both and ends with interrupted = false
+        machine.update(DT);
+        machine.update(DT);
+        assertEquals(1, stow.ends);
+        assertFalse(stow.interrupted);
+        assertNull(lift.getOwner());
+        assertNull(intake.getOwner());
+        assertTrue(machine.isIdle());
+    }
+
+    @Test
+    void cancelReleasesOwnershipAndReschedulingRestarts() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Part lift = new Part();
+        Probe raise = new Probe(0);
+        raise.requires(lift);
+        machine.schedule(raise);
+        machine.schedule(raise);
+        machine.update(DT);
+        assertEquals(1, raise.updates);
+
+        machine.cancel(raise);
+        assertNull(lift.getOwner());
+        assertTrue(raise.interrupted);
+        machine.cancel(raise);
+        assertEquals(1, raise.ends);
+
+        machine.schedule(raise);
+        machine.update(DT);
+        assertEquals(1, raise.updates);
+        assertSame(raise, lift.getOwner());
+        assertEquals(1, machine.getActiveCount());
+    }
+
+    @Test
+    void divisorCommandRunsEveryNthUpdate() {
+        for (int divisor : new int[] {2, 3, 5, 8}) {
+            CommandMachine machine = new CommandMachine(new VirtualClock());
+            int[] tick = {0};
+            RateProbe probe = new RateProbe(tick, divisor);
+            machine.schedule(probe);
+            run(machine, tick, 200);
+
+            assertTrue(probe.ticks.get(0) <= divisor, "first run at " + probe.ticks.get(0));
+            for (int i = 1; i < probe.ticks.size(); i++) {
+                assertEquals(divisor, probe.ticks.get(i) - probe.ticks.get(i - 1), "divisor " + divisor);
+            }
+            assertEquals(200 / divisor, probe.ticks.size(), 1);
+        }
+    }
+
+    @Test
+    void divisorCommandReceivesTheSummedDt() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        int[] tick = {0};
+        RateProbe probe = new RateProbe(tick, 4);
+        machine.schedule(probe);
+
+        // Each update k has a dt of k milliseconds, so skipped time is easy to add up
+        double skipped = 0;
+        int runs = 0;
+        for (int k = 1; k <= 40; k++) {
+            tick[0]++;
+            double dt = k * 1e-3;
+            skipped += dt;
+            machine.update(dt);
+            if (probe.dts.size() > runs) {
+                assertEquals(skipped, probe.dts.get(runs), 1e-12, "run at tick " + k);
+                skipped = 0;
+                runs++;
+            }
+        }
+        assertEquals(10, runs);
+    }
+
+    @Test
+    void divisorCommandsAreSpreadOverDifferentPhases() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        int[] tick = {0};
+        RateProbe[] probes = new RateProbe[8];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = new RateProbe(tick, 4);
+            machine.schedule(probes[i]);
+        }
+        run(machine, tick, 40);
+
+        // Eight commands on four phases: two per phase, so two run on every update
+        int[] perPhase = new int[4];
+        for (RateProbe probe : probes) {
+            perPhase[probe.phase()]++;
+        }
+        for (int count : perPhase) {
+            assertEquals(2, count);
+        }
+    }
+
+    @Test
+    void cancellingReleasesThePhaseForTheNextCommand() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        int[] tick = {0};
+        RateProbe[] probes = new RateProbe[4];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = new RateProbe(tick, 4);
+            machine.schedule(probes[i]);
+        }
+        run(machine, tick, 8);
+        boolean[] used = new boolean[4];
+        for (RateProbe probe : probes) {
+            assertFalse(used[probe.phase()], "two commands on phase " + probe.phase());
+            used[probe.phase()] = true;
+        }
+
+        machine.cancel(probes[2]);
+        RateProbe replacement = new RateProbe(tick, 4);
+        machine.schedule(replacement);
+        run(machine, tick, 8);
+        assertEquals(probes[2].phase(), replacement.phase());
+    }
+
+    @Test
+    void divisorTriggersAreCheckedEveryNthUpdateOnTheirOwnPhase() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        int[] tick = {0};
+        RateProbe probe = new RateProbe(tick, 2);
+        machine.schedule(probe);
+        List<Integer> checks = new ArrayList<>();
+        machine.addTrigger(new Trigger(() -> {
+            checks.add(tick[0]);
+            return false;
+        }, new Probe(1)).withRateDivisor(2));
+        run(machine, tick, 40);
+
+        assertEquals(20, checks.size());
+        for (int i = 1; i < checks.size(); i++) {
+            assertEquals(2, checks.get(i) - checks.get(i - 1));
+        }
+        // The command already carries one phase, so the trigger takes the other
+        assertEquals(1 - probe.phase(), checks.get(0) % 2);
+    }
+}
@@ -0,0 +1,209 @@
+package org.lib.cardinallib.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.simulation.SimulationHarness;
+import org.lib.cardinallib.simulation.TimelineEvent;
+
+/**
+ * Runs the same tree directly and compiled into a {@link CommandPlan} and compares what
+ * the leaves do.
+ */
+class CommandPlanTest {
+
+    /** Simulated loop rate */
+    private static final double FREQUENCY = 100;
+
+    /** A named command that runs until it has been updated a given number of times */
+    private static final class Step extends Command {
+        private final String name;
+        private final int length;
+        private int updates;
+
+        Step(String name, int length) {
+            this.name = name;
+            this.length = length;
+        }
+
+        @Override
+        public void init() {
+            updates = 0;
+        }
+
+        @Override
+        public void update() {
+            updates++;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return updates >= length;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /** A named wait, so it can be told apart in the timeline */
+    private static final class Pause extends WaitCommand {
+        private final String name;
+
+        Pause(String name, double seconds) {
+            super(seconds);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /** Names of the leaves in {@link #tree()} */
+    private static final List<String> LEAVES = List.of("drive", "lift", "settle", "grab", "score", "park");
+
+    /** A fresh auto-like tree with nested groups and a wait */
+    private static Command tree() {
+        return new CommandSequence()
+                .add(new Step("drive", 5))
+                .add(new ParallelCommand()
+                        .add(new Step("lift", 8))
+                        .add(new CommandSequence()
+                                .add(new Pause("settle", 0.1))
+                                .add(new Step("grab", 3))))
+                .add(new ParallelCommand()
+                        .add(new Step("score", 2))
+                        .add(new Step("park", 4)));
+    }
+
+    /**
+     * Formats the leaf events of a timeline with times relative to a start time, so runs
+     * started at different times can be compared.
+     */
+    private static List<String> leafEvents(List<TimelineEvent> timeline, long startNanos) {
+        List<String> events = new ArrayList<>();
+        for (TimelineEvent event : timeline) {
+            if (LEAVES.contains(event.getCommandName())) {
+                events.add(String.format(Locale.US, "%.3f %s %s",
+                        (event.getTimeNanos() - startNanos) / 1e9, event.getType(), event.getCommandName()));
+            }
+        }
+        return events;
+    }
+
+    /** Runs a command to completion on a fresh harness and returns its leaf events */
+    private static List<String> runToCompletion(Command command) {
+        SimulationHarness sim = new SimulationHarness(FREQUENCY);
+        sim.getMachine().schedule(command);
+        assertTrue(sim.runUntilIdle(5));
+        return leafEvents(sim.getTimeline(), 0);
+    }
+
+    @Test
+    void planMatchesTheTreeRunDirectly() {
+        List<String> direct = runToCompletion(tree());
+        List<String> compiled = runToCompletion(CommandPlan.compile(tree()));
+
+        assertEquals(direct, compiled);
+        assertEquals(2 * LEAVES.size(), compiled.size());
+        assertEquals("0.000 START drive", compiled.get(0));
+    }
+
+    @Test
+    void planFinishesWhenTheLastLeafDoes() {
+        SimulationHarness sim = new SimulationHarness(FREQUENCY);
+        CommandPlan plan = CommandPlan.compile(tree());
+        assertEquals(LEAVES.size(), plan.getLeafCount());
+        sim.getMachine().schedule(plan);
+        assertTrue(sim.runUntilIdle(5));
+
+        List<TimelineEvent> timeline = sim.getTimeline();
+        TimelineEvent last = timeline.get(timeline.size() - 1);
+        TimelineEvent lastLeaf = timeline.get(timeline.size() - 2);
+        assertEquals(TimelineEvent.Type.END, last.getType());
+        assertEquals(plan.getName(), last.getCommandName());
+        assertEquals(lastLeaf.getTimeNanos(), last.getTimeNanos());
+        assertTrue(plan.isFinished());
+        assertEquals(0, plan.getActiveLeafCount());
+    }
+
+    @Test
+    void planRerunsCleanlyAfterCompleting() {
+        List<String> expected = runToCompletion(tree());
+        SimulationHarness sim = new SimulationHarness(FREQUENCY);
+        CommandPlan plan = CommandPlan.compile(tree());
+
+        sim.getMachine().schedule(plan);
+        assertTrue(sim.runUntilIdle(5));
+        sim.runFor(0.05);
+        sim.clearTimeline();
+
+        long restart = sim.getClock().nanoTime();
+        sim.getMachine().schedule(plan);
+        assertTrue(sim.runUntilIdle(5));
+        assertEquals(expected, leafEvents(sim.getTimeline(), restart));
+    }
+
+    @Test
+    void interruptionEndsTheSameLeavesAndLeavesThePlanReusable() {
+        // Cancelled while lift runs and settle sleeps
+        double cancelAt = 0.08;
+        SimulationHarness directSim = new SimulationHarness(FREQUENCY);
+        Command direct = tree();
+        directSim.getMachine().schedule(direct);
+        directSim.runFor(cancelAt);
+        directSim.getMachine().cancel(direct);
+
+        SimulationHarness planSim = new SimulationHarness(FREQUENCY);
+        CommandPlan plan = CommandPlan.compile(tree());
+        planSim.getMachine().schedule(plan);
+        planSim.runFor(cancelAt);
+        planSim.getMachine().cancel(plan);
+
+        List<String> interrupted = leafEvents(planSim.getTimeline(), 0);
+        assertEquals(leafEvents(directSim.getTimeline(), 0), interrupted);
+        assertTrue(interrupted.contains("0.080 INTERRUPT lift"));
+        assertTrue(interrupted.contains("0.080 INTERRUPT settle"));
+        assertFalse(plan.isFinished());
+        assertEquals(0, plan.getActiveLeafCount());
+
+        planSim.clearTimeline();
+        long restart = planSim.getClock().nanoTime();
+        planSim.getMachine().schedule(plan);
+        assertTrue(planSim.runUntilIdle(5));
+        assertEquals(runToCompletion(tree()), leafEvents(planSim.getTimeline(), restart));
+    }
+
+    @Test
+    void emptyGroupsCompleteWithoutTakingAnUpdate() {
+        List<String> direct = runToCompletion(new CommandSequence()
+                .add(new Step("drive", 2))
+                .add(new ParallelCommand())
+                .add(new Step("score", 1)));
+        List<String> compiled = runToCompletion(CommandPlan.compile(new CommandSequence()
+                .add(new Step("drive", 2))
+                .add(new ParallelCommand())
+                .add(new Step("score", 1))));
+
+        // Run directly, the empty group is only seen to be finished on the next update
+        assertEquals("0.030 START score", direct.get(2));
+        assertEquals("0.020 START score", compiled.get(2));
+    }
+
+    @Test
+    void rejectsRepeatedInstances() {
+        Step step = new Step("drive", 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> CommandPlan.compile(new CommandSequence().add(step).add(step)));
+    }
+}
@@ -0,0 +1,144 @@
+package org.lib.cardinallib.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.control.MotorFeedforward;
+import org.lib.cardinallib.control.PIDFController;
+import org.lib.cardinallib.simulation.VirtualClock;
+
+class SetpointCommandTest {
+
+    /** Loop period in seconds */
+    private static final double DT = 0.01;
+
+    /** A scripted measurement and the last output written */
+    private static final class Mechanism {
+        double position;
+        double power = Double.NaN;
+        int writes;
+
+        void setPower(double power) {
+            this.power = power;
+            writes++;
+        }
+    }
+
+    private static PIDFController controller() {
+        PIDFController controller = new PIDFController(2, 0, 0, 0);
+        controller.setTolerance(0.01);
+        return controller;
+    }
+
+    @Test
+    void finishesAfterStayingSettledForTheSettleTime() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Mechanism lift = new Mechanism();
+        SetpointCommand command = new SetpointCommand(controller(), 1, () -> lift.position, lift::setPower)
+                .withSettleTime(0.045);
+        machine.schedule(command);
+
+        // Reaches the setpoint, passes through it, then comes back and stays
+        double[] script = {0.5, 0.9, 1.0, 1.0, 1.005, 1.03, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0};
+        int finishedAt = -1;
+        for (int i = 0; i < script.length; i++) {
+            lift.position = script[i];
+            machine.update(DT);
+            if (!machine.isScheduled(command)) {
+                finishedAt = i;
+                break;
+            }
+        }
+        // The first settled stretch is cut short at index 5; from index 6 on, 0.045 s at
+        // 10 ms per update is reached on the fifth update
+        assertEquals(10, finishedAt);
+        assertEquals(0, lift.power, 0);
+    }
+
+    @Test
+    void zeroSettleTimeFinishesOnTheFirstUpdateAtTheSetpoint() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Mechanism lift = new Mechanism();
+        SetpointCommand command = new SetpointCommand(controller(), 1, () -> lift.position, lift::setPower);
+        machine.schedule(command);
+
+        lift.position = 0.5;
+        machine.update(DT);
+        assertTrue(machine.isScheduled(command));
+        assertEquals(1, lift.power, 1e-12);
+
+        lift.position = 0.995;
+        machine.update(DT);
+        assertFalse(machine.isScheduled(command));
+    }
+
+    @Test
+    void holdNeverFinishes() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Mechanism lift = new Mechanism();
+        lift.position = 1;
+        SetpointCommand command = new SetpointCommand(controller(), 1, () -> lift.position, lift::setPower)
+                .withHold();
+        machine.schedule(command);
+
+        for (int i = 0; i < 1000; i++) {
+            machine.update(DT);
+        }
+        assertTrue(machine.isScheduled(command));
+        assertTrue(command.getController().atSetpoint());
+        assertEquals(1000, lift.writes);
+
+        machine.cancel(command);
+        assertEquals(0, lift.power, 0);
+        assertEquals(1001, lift.writes);
+    }
+
+    @Test
+    void interruptionWritesZero() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Mechanism lift = new Mechanism();
+        SetpointCommand command = new SetpointCommand(controller(), 1, () -> lift.position, lift::setPower);
+        machine.schedule(command);
+        machine.update(DT);
+        assertEquals(1, lift.power, 0);
+
+        machine.cancel(command);
+        assertEquals(0, lift.power, 0);
+    }
+
+    @Test
+    void restartResetsTheController() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Mechanism lift = new Mechanism();
+        PIDFController controller = new PIDFController(0, 1, 0, 0);
+        controller.setTolerance(0.01);
+        SetpointCommand command = new SetpointCommand(controller, 1, () -> lift.position, lift::setPower)
+                .withSettleTime(0.1);
+        machine.schedule(command);
+        for (int i = 0; i < 20; i++) {
+            machine.update(DT);
+        }
+        assertTrue(controller.getIntegral() > 0);
+
+        machine.cancel(command);
+        machine.schedule(command);
+        assertEquals(0, controller.getIntegral(), 0);
+        assertEquals(1, controller.getSetpoint(), 0);
+    }
+
+    @Test
+    void feedforwardTreatsTheSetpointAsAVelocity() {
+        CommandMachine machine = new CommandMachine(new VirtualClock());
+        Mechanism flywheel = new Mechanism();
+        flywheel.position = 20;
+        PIDFController controller = new PIDFController(0, 0, 0, 0);
+        SetpointCommand command = new SetpointCommand(controller, 20, () -> flywheel.position, flywheel::setPower)
+                .withFeedforward(new MotorFeedforward(0.05, 0.02, 0))
+                .withHold();
+        machine.schedule(command);
+        machine.update(DT);
+        assertEquals(0.05 + 0.4, flywheel.power, 1e-12);
+    }
+}
@@ -0,0 +1,89 @@
+package org.lib.cardinallib.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.simulation.SimulationHarness;
+import org.lib.cardinallib.simulation.TimelineEvent;
+
+class TimeoutCommandTest {
+
+    /** A command that runs until it has been updated a given number of times */
+    private static final class Steps extends Command {
+        private final int length;
+        private int updates;
+
+        Steps(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public void init() {
+            updates = 0;
+        }
+
+        @Override
+        public void update() {
+            updates++;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return updates >= length;
+        }
+
+        @Override
+        public String getName() {
+            return "Steps";
+        }
+    }
+
+    @Test
+    void timeoutIsReportedAsInterruptOfInnerCommand() {
+        SimulationHarness sim = new SimulationHarness(100);
+        sim.getMachine().schedule(new Steps(1000).withTimeout(0.5));
+        assertTrue(sim.runUntilIdle(2));
+
+        List<TimelineEvent> timeline = sim.getTimeline();
+        assertEquals(4, timeline.size());
+        assertEvent(timeline.get(0), TimelineEvent.Type.START, "Steps (timeout)");
+        assertEvent(timeline.get(1), TimelineEvent.Type.START, "Steps");
+        assertEvent(timeline.get(2), TimelineEvent.Type.INTERRUPT, "Steps");
+        assertEvent(timeline.get(3), TimelineEvent.Type.END, "Steps (timeout)");
+        assertEquals(0.5, timeline.get(2).getTime(), 1e-9);
+    }
+
+    @Test
+    void innerCommandFinishingFirstIsReportedAsEnd() {
+        SimulationHarness sim = new SimulationHarness(100);
+        sim.getMachine().schedule(new Steps(3).withTimeout(0.5));
+        assertTrue(sim.runUntilIdle(2));
+
+        List<TimelineEvent> timeline = sim.getTimeline();
+        assertEquals(4, timeline.size());
+        assertEvent(timeline.get(1), TimelineEvent.Type.START, "Steps");
+        assertEvent(timeline.get(2), TimelineEvent.Type.END, "Steps");
+        assertEquals(0.03, timeline.get(2).getTime(), 1e-9);
+    }
+
+    @Test
+    void cancellingWrapperInterruptsInnerCommand() {
+        SimulationHarness sim = new SimulationHarness(100);
+        Command timeout = new Steps(1000).withTimeout(0.5);
+        sim.getMachine().schedule(timeout);
+        sim.runFor(0.1);
+        sim.getMachine().cancel(timeout);
+
+        List<TimelineEvent> timeline = sim.getTimeline();
+        assertEvent(timeline.get(2), TimelineEvent.Type.INTERRUPT, "Steps");
+        assertEvent(timeline.get(3), TimelineEvent.Type.INTERRUPT, "Steps (timeout)");
+    }
+
+    private static void assertEvent(TimelineEvent event, TimelineEvent.Type type, String name) {
+        assertEquals(type, event.getType());
+        assertEquals(name, event.getCommandName());
+    }
+}
@@ -0,0 +1,30 @@
+package org.lib.cardinallib.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class MotorFeedforwardTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    @Test
+    void constructorsTakeTheGainsInTheSameOrder() {
+        MotorFeedforward constant = new MotorFeedforward(0.05, 0.2, 0.01);
+        MotorFeedforward function = new MotorFeedforward(0.05, velocity -> 0.2 * velocity, 0.01);
+
+        assertEquals(0.01, constant.getAccelerationGain(), 0);
+        assertEquals(0.01, function.getAccelerationGain(), 0);
+        for (double v = -2; v <= 2; v += 0.5) {
+            assertEquals(constant.calculate(v, 3), function.calculate(v, 3), TOLERANCE);
+        }
+    }
+
+    @Test
+    void outputSumsStaticVelocityAndAccelerationTerms() {
+        MotorFeedforward feedforward = new MotorFeedforward(0.05, 0.2, 0.01);
+        assertEquals(0.05 + 0.3 + 0.02, feedforward.calculate(1.5, 2), TOLERANCE);
+        assertEquals(-0.05 - 0.3, feedforward.calculate(-1.5), TOLERANCE);
+        assertEquals(0.02, feedforward.calculate(0, 2), TOLERANCE);
+    }
+}
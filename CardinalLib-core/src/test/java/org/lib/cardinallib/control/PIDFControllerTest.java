@@ -0,0 +1,162 @@
+package org.lib.cardinallib.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PIDFControllerTest {
+
+    private static final double TOLERANCE = 1e-12;
+    /** Loop period in seconds */
+    private static final double DT = 0.02;
+
+    @Test
+    void limitsExcludingZeroDoNotCreateAPhantomIntegral() {
+        PIDFController controller = new PIDFController(0, 1, 0, 0);
+        controller.setOutputLimits(0.1, 1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0.1, controller.calculate(0, DT, 0), TOLERANCE);
+        }
+        assertEquals(0, controller.getIntegral(), TOLERANCE);
+
+        controller.setOutputLimits(-1, -0.1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-0.1, controller.calculate(0, DT, 0), TOLERANCE);
+        }
+        assertEquals(0, controller.getIntegral(), TOLERANCE);
+    }
+
+    @Test
+    void zeroIntegralGainAccumulatesNothing() {
+        PIDFController controller = new PIDFController(0.5, 0, 0, 0);
+        controller.setSetpoint(1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0.5, controller.calculate(0, DT, 0), TOLERANCE);
+        }
+        assertEquals(0, controller.getIntegral(), 0);
+
+        // Turning the integral on later starts from nothing
+        controller.setGains(0.5, 1, 0, 0);
+        assertEquals(0.5 + DT, controller.calculate(0, DT, 0), TOLERANCE);
+    }
+
+    @Test
+    void integralTermStaysWithinTheOutputLimits() {
+        PIDFController controller = new PIDFController(0, 2, 0, 0);
+        controller.setOutputLimits(-0.8, 0.6);
+        controller.setSetpoint(10);
+        for (int i = 0; i < 1000; i++) {
+            controller.calculate(0, DT, 0);
+            assertTrue(2 * controller.getIntegral() <= 0.6 + TOLERANCE);
+        }
+        assertEquals(0.3, controller.getIntegral(), TOLERANCE);
+
+        controller.setSetpoint(-10);
+        for (int i = 0; i < 1000; i++) {
+            controller.calculate(0, DT, 0);
+            assertTrue(2 * controller.getIntegral() >= -0.8 - TOLERANCE);
+        }
+        assertEquals(-0.4, controller.getIntegral(), TOLERANCE);
+    }
+
+    @Test
+    void saturatedOutputDoesNotWindUp() {
+        PIDFController controller = new PIDFController(1, 0.5, 0, 0);
+        controller.setSetpoint(5);
+        // Held against a hard stop for 10 s: proportional alone saturates the output
+        for (int i = 0; i < 500; i++) {
+            assertEquals(1, controller.calculate(0, DT, 0), TOLERANCE);
+        }
+        assertEquals(0, controller.getIntegral(), TOLERANCE);
+
+        // Released past the setpoint, the output reverses at once instead of unwinding
+        controller.setSetpoint(0);
+        assertEquals(-0.2 - 0.5 * 0.2 * DT, controller.calculate(0.2, DT, 0), TOLERANCE);
+    }
+
+    @Test
+    void integralPullingBackIntoRangeStillAccumulates() {
+        PIDFController controller = new PIDFController(0, 1, 0, 0);
+        controller.setSetpoint(1);
+        controller.calculate(0, DT, 0);
+        for (int i = 0; i < 10; i++) {
+            controller.calculate(0, DT, 0);
+        }
+        double integral = controller.getIntegral();
+        assertEquals(10 * DT, integral, TOLERANCE);
+
+        // A large feedforward saturates the output; negative error may still unwind it
+        controller.setSetpoint(0);
+        controller.calculate(1, DT, 5);
+        assertEquals(integral - DT, controller.getIntegral(), TOLERANCE);
+        // Positive error would push further out of range, so it is held
+        controller.setSetpoint(2);
+        controller.calculate(1, DT, 5);
+        assertEquals(integral - DT, controller.getIntegral(), TOLERANCE);
+    }
+
+    @Test
+    void setpointStepCausesNoDerivativeKick() {
+        PIDFController controller = new PIDFController(0.5, 0, 0.2, 0);
+        controller.setOutputLimits(-100, 100);
+        controller.calculate(0, DT, 0);
+        controller.calculate(0, DT, 0);
+
+        // Only the proportional term sees the step; the measurement did not move
+        controller.setSetpoint(2);
+        assertEquals(1, controller.calculate(0, DT, 0), TOLERANCE);
+        assertEquals(0, controller.getRate(), TOLERANCE);
+    }
+
+    @Test
+    void derivativeActsOnTheMeasuredRate() {
+        PIDFController controller = new PIDFController(0, 0, 0.2, 0);
+        controller.setOutputLimits(-100, 100);
+        // The first call has no previous measurement, so no derivative
+        assertEquals(0, controller.calculate(1, DT, 0), TOLERANCE);
+
+        // Moving at 5 units/s toward a setpoint of 0 is damped by kD·rate
+        assertEquals(-0.2 * 5, controller.calculate(1 + 5 * DT, DT, 0), TOLERANCE);
+        assertEquals(5, controller.getRate(), TOLERANCE);
+    }
+
+    @Test
+    void derivativeFilterSmoothsAMeasurementJump() {
+        double timeConstant = 3 * DT;
+        PIDFController controller = new PIDFController(0, 0, 1, 0);
+        controller.setOutputLimits(-100, 100);
+        controller.setDerivativeFilter(timeConstant);
+        controller.calculate(0, DT, 0);
+
+        // A one-tick jump of 0.1 is a raw rate of 5; the filter passes a quarter of it
+        controller.calculate(0.1, DT, 0);
+        double alpha = DT / (timeConstant + DT);
+        assertEquals(5 * alpha, controller.getRate(), TOLERANCE);
+
+        // Then decays geometrically while the measurement holds still
+        double expected = 5 * alpha;
+        for (int i = 0; i < 10; i++) {
+            controller.calculate(0.1, DT, 0);
+            expected -= expected * alpha;
+            assertEquals(expected, controller.getRate(), TOLERANCE);
+        }
+    }
+
+    @Test
+    void atSetpointChecksErrorAndRate() {
+        PIDFController controller = new PIDFController(1, 0, 0, 0);
+        controller.setTolerance(0.05, 0.5);
+        controller.setSetpoint(1);
+        assertFalse(controller.atSetpoint());
+
+        controller.calculate(0.97, DT, 0);
+        assertTrue(controller.atSetpoint());
+        // Within the error tolerance but moving at 2 units/s
+        controller.calculate(1.01, DT, 0);
+        assertFalse(controller.atSetpoint());
+        controller.calculate(1.01, DT, 0);
+        assertTrue(controller.atSetpoint());
+    }
+}
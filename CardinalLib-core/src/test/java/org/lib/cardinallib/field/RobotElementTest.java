@@ -0,0 +1,67 @@
+package org.lib.cardinallib.field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RobotElementTest {
+
+    /** Time between pose updates in seconds */
+    private static final double DT = 0.01;
+
+    @Test
+    void timedUpdatesEstimateTheVelocity() {
+        RobotElement robot = new RobotElement(0, 0, 0);
+        robot.update(0, 0, 0, 1);
+        assertEquals(0, robot.getSpeed(), 0);
+
+        robot.update(0.02, -0.01, 0.005, 1 + DT);
+        assertEquals(2, robot.getVelocityX(), 1e-9);
+        assertEquals(-1, robot.getVelocityY(), 1e-9);
+        assertEquals(0.5, robot.getAngularVelocity(), 1e-9);
+        assertEquals(Math.sqrt(5), robot.getSpeed(), 1e-9);
+
+        // A repeated timestamp keeps the estimate
+        robot.update(0.05, -0.01, 0.005, 1 + DT);
+        assertEquals(2, robot.getVelocityX(), 1e-9);
+    }
+
+    @Test
+    void angularVelocityIsTakenAcrossTheWrap() {
+        RobotElement robot = new RobotElement(0, 0, 0);
+        robot.update(0, 0, Math.PI - 0.01, 0);
+        robot.update(0, 0, -Math.PI + 0.01, DT);
+        assertEquals(2, robot.getAngularVelocity(), 1e-9);
+    }
+
+    @Test
+    void untimedUpdateZeroesTheVelocity() {
+        RobotElement robot = new RobotElement(0, 0, 0);
+        robot.update(0, 0, 0, 0);
+        robot.update(0.02, 0.03, 0.01, DT);
+        assertEquals(2, robot.getVelocityX(), 1e-9);
+
+        robot.update(5, 5, 0);
+        assertEquals(0, robot.getVelocityX(), 0);
+        assertEquals(0, robot.getVelocityY(), 0);
+        assertEquals(0, robot.getAngularVelocity(), 0);
+        assertEquals(5, robot.getPose().x, 0);
+
+        // The next timed update only records the pose, so the jump is not read as motion
+        robot.update(5, 5, 0, 2 * DT);
+        assertEquals(0, robot.getSpeed(), 0);
+        robot.update(5.01, 5, 0, 3 * DT);
+        assertEquals(1, robot.getVelocityX(), 1e-9);
+    }
+
+    @Test
+    void smoothingBlendsEstimates() {
+        RobotElement robot = new RobotElement(0, 0, 0);
+        robot.setVelocitySmoothing(0.5);
+        robot.update(0, 0, 0, 0);
+        robot.update(0.02, 0, 0, DT);
+        assertEquals(1, robot.getVelocityX(), 1e-9);
+        robot.update(0.04, 0, 0, 2 * DT);
+        assertEquals(1.5, robot.getVelocityX(), 1e-9);
+    }
+}
@@ -0,0 +1,91 @@
+package org.lib.cardinallib.field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+class ShootOnMoveSolverTest {
+
+    /** Time between pose updates in seconds */
+    private static final double DT = 0.01;
+
+    /** Measured-style time of flight in seconds for a distance */
+    private static final DoubleUnaryOperator TIME_OF_FLIGHT = distance -> 0.25 + 0.18 * distance;
+    /** Flywheel RPM for a distance */
+    private static final DoubleUnaryOperator RPM = distance -> 1500 + 400 * distance;
+
+    /** A robot at a position with a velocity estimated from two timed updates */
+    private static RobotElement movingRobot(double x, double y, double vx, double vy) {
+        RobotElement robot = new RobotElement(x, y, 0);
+        robot.update(x - vx * DT, y - vy * DT, 0, 0);
+        robot.update(x, y, 0, DT);
+        return robot;
+    }
+
+    @Test
+    void stationaryRobotAimsAtTheRealGoal() {
+        RobotElement robot = movingRobot(1, 1, 0, 0);
+        GoalElement goal = new GoalElement(4, 5);
+        ShootOnMoveSolver solver = new ShootOnMoveSolver(robot, goal, TIME_OF_FLIGHT, RPM);
+
+        assertTrue(solver.solve());
+        assertEquals(1, solver.getIterations());
+        assertEquals(4, solver.getVirtualGoal().x, 0);
+        assertEquals(5, solver.getVirtualGoal().y, 0);
+        assertEquals(5, solver.getDistance(), 1e-12);
+        assertEquals(Math.atan2(4, 3), solver.getHeading(), 1e-12);
+        assertEquals(RPM.applyAsDouble(5), solver.getRPM(), 1e-9);
+        assertEquals(TIME_OF_FLIGHT.applyAsDouble(5), solver.getTimeOfFlight(), 1e-12);
+    }
+
+    @Test
+    void movingRobotAimsAtTheGoalMovedByItsDrift() {
+        GoalElement goal = new GoalElement(4, 5);
+        double[][] velocities = {{1, 0}, {0, -1.5}, {-0.8, 0.6}, {1.2, 1.2}};
+        for (double[] v : velocities) {
+            RobotElement robot = movingRobot(1, 1, v[0], v[1]);
+            ShootOnMoveSolver solver = new ShootOnMoveSolver(robot, goal, TIME_OF_FLIGHT, RPM, 20);
+
+            assertTrue(solver.solve(), "did not converge at " + v[0] + ", " + v[1]);
+            double t = solver.getTimeOfFlight();
+            assertEquals(TIME_OF_FLIGHT.applyAsDouble(solver.getDistance()), t, ShootOnMoveSolver.TIME_TOLERANCE);
+            assertEquals(4 - v[0] * t, solver.getVirtualGoal().x, 1e-9);
+            assertEquals(5 - v[1] * t, solver.getVirtualGoal().y, 1e-9);
+
+            double dx = solver.getVirtualGoal().x - 1;
+            double dy = solver.getVirtualGoal().y - 1;
+            assertEquals(Math.hypot(dx, dy), solver.getDistance(), 1e-9);
+            assertEquals(Math.atan2(dy, dx), solver.getHeading(), 1e-9);
+            assertEquals(RPM.applyAsDouble(solver.getDistance()), solver.getRPM(), 1e-9);
+        }
+    }
+
+    @Test
+    void latencyAimsFromThePredictedPosition() {
+        RobotElement robot = movingRobot(1, 1, 2, 0);
+        GoalElement goal = new GoalElement(4, 5);
+        ShootOnMoveSolver solver = new ShootOnMoveSolver(robot, goal, TIME_OF_FLIGHT, RPM, 20);
+        solver.setLatency(0.1);
+
+        assertTrue(solver.solve());
+        double dx = solver.getVirtualGoal().x - 1.2;
+        double dy = solver.getVirtualGoal().y - 1;
+        assertEquals(Math.hypot(dx, dy), solver.getDistance(), 1e-9);
+    }
+
+    @Test
+    void untimedUpdateMakesTheSolverAimStationary() {
+        RobotElement robot = movingRobot(1, 1, 1.5, 0.5);
+        GoalElement goal = new GoalElement(4, 5);
+        ShootOnMoveSolver solver = new ShootOnMoveSolver(robot, goal, TIME_OF_FLIGHT, RPM);
+
+        robot.update(1, 1, 0);
+        solver.solve();
+        assertEquals(4, solver.getVirtualGoal().x, 0);
+        assertEquals(5, solver.getVirtualGoal().y, 0);
+        assertEquals(RPM.applyAsDouble(5), solver.getRPM(), 1e-9);
+    }
+}
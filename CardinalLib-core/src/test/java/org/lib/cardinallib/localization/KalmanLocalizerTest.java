@@ -0,0 +1,181 @@
+package org.lib.cardinallib.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.math.Pose2d;
+
+class KalmanLocalizerTest {
+
+    private static final double TOLERANCE = 1e-9;
+    /** Loop period in seconds */
+    private static final double DT = 0.02;
+
+    /**
+     * Checks that a covariance is symmetric and positive definite with Sylvester's criterion:
+     * every leading principal minor is positive.
+     */
+    private static void assertSymmetricPositiveDefinite(double[] p, String context) {
+        assertEquals(p[1], p[3], 0, context + ": p01 != p10");
+        assertEquals(p[2], p[6], 0, context + ": p02 != p20");
+        assertEquals(p[5], p[7], 0, context + ": p12 != p21");
+        double minor2 = p[0] * p[4] - p[1] * p[3];
+        double minor3 = p[0] * (p[4] * p[8] - p[5] * p[7])
+                - p[1] * (p[3] * p[8] - p[5] * p[6])
+                + p[2] * (p[3] * p[7] - p[4] * p[6]);
+        assertTrue(p[0] > 0, context + ": p00 = " + p[0]);
+        assertTrue(minor2 > 0, context + ": 2x2 minor = " + minor2);
+        assertTrue(minor3 > 0, context + ": determinant = " + minor3);
+    }
+
+    @Test
+    void gateRejectsOutliersAndLeavesTheEstimate() {
+        KalmanLocalizer localizer = new KalmanLocalizer(1, 2, 0, 0.05, 0.05, 16);
+        double[] before = localizer.getCovariance(new double[9]);
+
+        // 1 m off with a combined position deviation of about 0.064 m
+        assertFalse(localizer.update(2, 2, 0, 0.04, 0.05));
+        assertTrue(localizer.getLastMahalanobisDistance() > KalmanLocalizer.DEFAULT_GATE);
+        assertEquals(1, localizer.getRejectedCount());
+        assertEquals(0, localizer.getAcceptedCount());
+
+        Pose2d pose = localizer.getPose(new Pose2d(0, 0, 0));
+        assertEquals(1, pose.x, 0);
+        assertEquals(2, pose.y, 0);
+        double[] after = localizer.getCovariance(new double[9]);
+        for (int i = 0; i < 9; i++) {
+            assertEquals(before[i], after[i], 0);
+        }
+
+        // A measurement within the expected spread passes
+        assertTrue(localizer.update(1.05, 2, 0, 0.04, 0.05));
+        assertEquals(1, localizer.getAcceptedCount());
+        assertTrue(localizer.getPose(pose).x > 1);
+    }
+
+    @Test
+    void mahalanobisDistanceMatchesDiagonalCovariance() {
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.3, 0.2, 16);
+        localizer.setGate(Double.POSITIVE_INFINITY);
+        localizer.update(0.5, -0.4, 0.1, 0.4, 0.1);
+
+        double position = 0.3 * 0.3 + 0.4 * 0.4;
+        double heading = 0.2 * 0.2 + 0.1 * 0.1;
+        double expected = (0.5 * 0.5 + 0.4 * 0.4) / position + 0.1 * 0.1 / heading;
+        assertEquals(expected, localizer.getLastMahalanobisDistance(), TOLERANCE);
+    }
+
+    @Test
+    void infiniteGateAcceptsEveryMeasurement() {
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.01, 0.01, 16);
+        localizer.setGate(Double.POSITIVE_INFINITY);
+        assertTrue(localizer.update(100, -100, 3, 0.01, 0.01));
+        assertEquals(0, localizer.getRejectedCount());
+    }
+
+    @Test
+    void equalUncertaintiesMeetHalfway() {
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.1, 0.1, 16);
+        assertTrue(localizer.update(0.2, -0.1, 0.1, 0.1, 0.1));
+
+        Pose2d pose = localizer.getPose(new Pose2d(0, 0, 0));
+        assertEquals(0.1, pose.x, TOLERANCE);
+        assertEquals(-0.05, pose.y, TOLERANCE);
+        assertEquals(0.05, pose.heading, TOLERANCE);
+        // Two equal variances combine to half of either
+        assertEquals(0.1 / Math.sqrt(2), localizer.getPositionStdDev(), TOLERANCE);
+        assertEquals(0.1 / Math.sqrt(2), localizer.getHeadingStdDev(), TOLERANCE);
+    }
+
+    @Test
+    void predictionGrowsUncertaintyWithDistance() {
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.01, 0.01, 256);
+        localizer.setOdometryNoise(0.02, 0.01);
+        double last = localizer.getPositionStdDev();
+        for (int i = 1; i <= 100; i++) {
+            localizer.predict(0.01, 0, 0, i * DT);
+            double current = localizer.getPositionStdDev();
+            assertTrue(current > last, "step " + i);
+            last = current;
+        }
+        // Splitting the same motion into fewer steps adds the same translation variance
+        KalmanLocalizer coarse = new KalmanLocalizer(0, 0, 0, 0.01, 0.01, 256);
+        coarse.setOdometryNoise(0.02, 0.01);
+        coarse.predict(1, 0, 0, DT);
+        assertEquals(coarse.getCovariance(new double[9])[0], localizer.getCovariance(new double[9])[0], TOLERANCE);
+    }
+
+    @Test
+    void delayedMeasurementIsComparedAtItsCaptureTime() {
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.05, 0.05, 64);
+        for (int i = 1; i <= 20; i++) {
+            localizer.predict(0.02, 0, 0.01, i * DT);
+        }
+        // Where the filter believed the robot was 100 ms ago
+        Pose2d pose = localizer.getPose(new Pose2d(0, 0, 0));
+        Pose2d back = new Pose2d(0, 0, 0).exp(-0.1, 0, -0.05);
+        Pose2d then = pose.compose(back);
+
+        assertTrue(localizer.update(then.x, then.y, then.heading, 15 * DT, 0.01, 0.01));
+        assertEquals(0, localizer.getLastMahalanobisDistance(), 1e-12);
+        Pose2d after = localizer.getPose(new Pose2d(0, 0, 0));
+        assertEquals(pose.x, after.x, TOLERANCE);
+        assertEquals(pose.y, after.y, TOLERANCE);
+        assertEquals(pose.heading, after.heading, TOLERANCE);
+
+        assertFalse(localizer.update(0, 0, 0, 21 * DT, 0.01, 0.01));
+    }
+
+    @Test
+    void covarianceStaysSymmetricPositiveDefinite() {
+        Random random = new Random(3);
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.05, 0.05, 256);
+        localizer.setOdometryNoise(0.02, 0.01);
+        Pose2d truth = new Pose2d(0, 0, 0);
+        Pose2d pose = new Pose2d(0, 0, 0);
+        double[] covariance = new double[9];
+
+        for (int i = 1; i <= 20_000; i++) {
+            double dx = 0.03 * random.nextDouble();
+            double dy = 0.01 * (random.nextDouble() - 0.5);
+            double dTheta = 0.04 * (random.nextDouble() - 0.5);
+            truth.exp(dx, dy, dTheta, truth);
+            localizer.predict(dx + 0.001 * random.nextGaussian(), dy, dTheta, i * DT);
+
+            if (i % 5 == 0) {
+                // Mix very precise measurements, which stress rounding, with noisy ones
+                double positionStdDev = i % 15 == 0 ? 1e-5 : 0.05;
+                double headingStdDev = i % 15 == 0 ? 1e-5 : 0.03;
+                localizer.update(truth.x + positionStdDev * random.nextGaussian(),
+                        truth.y + positionStdDev * random.nextGaussian(),
+                        truth.heading + headingStdDev * random.nextGaussian(),
+                        positionStdDev, headingStdDev);
+            }
+            if (i % 1000 == 0) {
+                // An outlier now and then
+                localizer.update(truth.x + 3, truth.y - 3, truth.heading, 0.05, 0.03);
+            }
+            assertSymmetricPositiveDefinite(localizer.getCovariance(covariance), "step " + i);
+        }
+
+        assertTrue(localizer.getRejectedCount() >= 20);
+        localizer.getPose(pose);
+        assertEquals(truth.x, pose.x, 0.1);
+        assertEquals(truth.y, pose.y, 0.1);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        KalmanLocalizer localizer = new KalmanLocalizer(0, 0, 0, 0.05, 0.05, 16);
+        assertThrows(IllegalArgumentException.class, () -> new KalmanLocalizer(0, 0, 0, 0, 0.05, 16));
+        assertThrows(IllegalArgumentException.class, () -> localizer.update(0, 0, 0, Double.NaN, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> localizer.setGate(0));
+        assertThrows(IllegalArgumentException.class, () -> localizer.setOdometryNoise(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> localizer.getCovariance(new double[8]));
+    }
+}
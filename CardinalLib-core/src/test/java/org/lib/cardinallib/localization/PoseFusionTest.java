@@ -0,0 +1,152 @@
+package org.lib.cardinallib.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+
+class PoseFusionTest {
+
+    private static final double TOLERANCE = 1e-9;
+    /** Loop period in seconds */
+    private static final double DT = 0.02;
+
+    /** Odometry that started at the wrong pose: truth = ERROR ∘ odometry */
+    private static final Pose2d ERROR = new Pose2d(0.3, -0.2, 0.25);
+
+    /** True pose on a 1 m/s, 0.5 rad/s arc from the origin */
+    private static Pose2d truth(double time) {
+        return new Pose2d(0, 0, 0).exp(time, 0, 0.5 * time);
+    }
+
+    /** What the drifted odometry reports at a time */
+    private static Pose2d odometry(double time) {
+        return ERROR.inverse().compose(truth(time));
+    }
+
+    private static void record(PoseFusion fusion, int first, int last) {
+        for (int i = first; i <= last; i++) {
+            Pose2d pose = odometry(i * DT);
+            fusion.addOdometry(pose.x, pose.y, pose.heading, i * DT);
+        }
+    }
+
+    private static void assertPose(Pose2d expected, Pose2d actual, double tolerance) {
+        assertEquals(expected.x, actual.x, tolerance, "x");
+        assertEquals(expected.y, actual.y, tolerance, "y");
+        assertEquals(0, Pose2d.normalizeAngle(expected.heading - actual.heading), tolerance, "heading");
+    }
+
+    @Test
+    void delayedMeasurementIsReplayedToThePresent() {
+        PoseFusion fusion = new PoseFusion(64);
+        record(fusion, 0, 50);
+
+        // A camera frame captured 100 ms ago sees the true pose at that time
+        double captureTime = 45 * DT;
+        Pose2d seen = truth(captureTime);
+        assertTrue(fusion.addMeasurement(seen.x, seen.y, seen.heading, captureTime, 1, 1));
+
+        Pose2d pose = new Pose2d(0, 0, 0);
+        assertPose(truth(50 * DT), fusion.getPose(pose), TOLERANCE);
+        assertPose(ERROR, fusion.getCorrection(pose), TOLERANCE);
+
+        // Later odometry is carried by the same correction
+        record(fusion, 51, 80);
+        assertPose(truth(80 * DT), fusion.getPose(pose), TOLERANCE);
+    }
+
+    @Test
+    void replayMatchesACorrectionAppliedAtCaptureTime() {
+        PoseFusion delayed = new PoseFusion(64);
+        PoseFusion immediate = new PoseFusion(64);
+        double captureTime = 20 * DT;
+        Pose2d seen = truth(captureTime);
+
+        record(immediate, 0, 20);
+        immediate.addMeasurement(seen.x, seen.y, seen.heading, captureTime, 0.4, 0.3);
+        record(immediate, 21, 30);
+
+        record(delayed, 0, 30);
+        delayed.addMeasurement(seen.x, seen.y, seen.heading, captureTime, 0.4, 0.3);
+
+        assertPose(immediate.getPose(new Pose2d(0, 0, 0)), delayed.getPose(new Pose2d(0, 0, 0)), TOLERANCE);
+    }
+
+    @Test
+    void partialWeightsMoveTheEstimatePartway() {
+        PoseFusion fusion = new PoseFusion(16);
+        fusion.addOdometry(0, 0, 0, 0);
+        fusion.addOdometry(1, 0, 0, 1);
+
+        assertTrue(fusion.addMeasurement(2, 2, 1, 1, 0.5, 0.25));
+        Pose2d pose = fusion.getPose(new Pose2d(0, 0, 0));
+        assertEquals(1.5, pose.x, TOLERANCE);
+        assertEquals(1, pose.y, TOLERANCE);
+        assertEquals(0.25, pose.heading, TOLERANCE);
+
+        // Position-only measurement leaves the heading alone
+        assertTrue(fusion.addMeasurement(1.5, 1, 3, 1, 1, 0));
+        assertEquals(0.25, fusion.getPose(pose).heading, TOLERANCE);
+    }
+
+    @Test
+    void repeatedNoisyMeasurementsConverge() {
+        PoseFusion fusion = new PoseFusion(256);
+        record(fusion, 0, 200);
+        for (int i = 100; i <= 200; i += 5) {
+            double noise = (i % 10 == 0 ? 1 : -1) * 0.01;
+            Pose2d seen = truth(i * DT);
+            fusion.addMeasurement(seen.x + noise, seen.y - noise, seen.heading, i * DT, 0.3, 0.3);
+        }
+        assertPose(truth(200 * DT), fusion.getPose(new Pose2d(0, 0, 0)), 0.02);
+    }
+
+    @Test
+    void measurementsOutsideTheHistoryAreRejected() {
+        PoseFusion fusion = new PoseFusion(8);
+        record(fusion, 0, 20);
+        Pose2d before = fusion.getPose(new Pose2d(0, 0, 0));
+
+        // The oldest kept pose is at 13 * DT
+        assertFalse(fusion.addMeasurement(0, 0, 0, 12 * DT, 1, 1));
+        assertFalse(fusion.addMeasurement(0, 0, 0, 21 * DT, 1, 1));
+        assertPose(before, fusion.getPose(new Pose2d(0, 0, 0)), 0);
+
+        assertThrows(IllegalArgumentException.class, () -> fusion.addMeasurement(0, 0, 0, 15 * DT, 1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> fusion.addMeasurement(0, 0, 0, 15 * DT, 0, Double.NaN));
+    }
+
+    @Test
+    void setPoseKeepsFollowingOdometry() {
+        PoseFusion fusion = new PoseFusion(16);
+        fusion.addOdometry(1, 1, 0, 0);
+        fusion.setPose(5, 5, Math.PI / 2);
+        fusion.addOdometry(2, 1, 0, 1);
+
+        Pose2d pose = fusion.getPose(new Pose2d(0, 0, 0));
+        assertEquals(5, pose.x, TOLERANCE);
+        assertEquals(6, pose.y, TOLERANCE);
+        assertEquals(Math.PI / 2, pose.heading, TOLERANCE);
+    }
+
+    @Test
+    void publishingACorrectionKeepsTheVelocity() {
+        PoseFusion fusion = new PoseFusion(16);
+        RobotElement robot = new RobotElement(0, 0, 0);
+        fusion.addOdometry(0, 0, 0, 0);
+        fusion.publish(robot);
+        fusion.addOdometry(0.1, 0, 0, 0.1);
+        fusion.publish(robot);
+        assertEquals(1, robot.getVelocityX(), 1e-6);
+
+        fusion.addMeasurement(0.6, 0, 0, 0.1, 1, 0);
+        fusion.publish(robot);
+        assertEquals(0.6, robot.getPose().x, TOLERANCE);
+        assertEquals(1, robot.getVelocityX(), 1e-6);
+    }
+}
@@ -0,0 +1,142 @@
+package org.lib.cardinallib.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.math.Pose2d;
+import org.lib.cardinallib.math.RobotFormulas;
+import org.lib.cardinallib.simulation.SimulatedEncoder;
+import org.lib.cardinallib.simulation.VirtualClock;
+
+class ThreeWheelOdometryTest {
+
+    /** Encoder ticks per meter: 2000-count encoder on a 48 mm wheel */
+    private static final double TICKS_PER_METER = 2000 / (Math.PI * 0.048);
+    /** Lateral offset of each parallel wheel from the center */
+    private static final double TRACK_OFFSET = 0.16;
+    /** Forward offset of the perpendicular wheel from the center */
+    private static final double PERPENDICULAR_OFFSET = -0.08;
+    /** Update period in seconds */
+    private static final double DT = 0.002;
+    /** Roughly one tick of quantization per update, accumulated over a run */
+    private static final double POSITION_TOLERANCE = 5e-3;
+
+    private static final RobotFormulas FORMULAS = new RobotFormulas() {
+        @Override public double powerToVelocity(double power) { return power; }
+        @Override public double velocityToPower(double velocity) { return velocity; }
+        @Override public double rpmToVelocity(double rpm) { return rpm; }
+        @Override public double velocityToRpm(double velocity) { return velocity; }
+        @Override public double ticksToDistance(int ticks) { return ticks / TICKS_PER_METER; }
+        @Override public int distanceToTicks(double distance) { return (int) Math.round(distance * TICKS_PER_METER); }
+        @Override public double powerToLinearVelocity(double power) { return power; }
+        @Override public double linearVelocityToPower(double velocity) { return velocity; }
+    };
+
+    private SimulatedEncoder left;
+    private SimulatedEncoder right;
+    private SimulatedEncoder perpendicular;
+    private VirtualClock clock;
+    private ThreeWheelOdometry odometry;
+    private final Pose2d pose = new Pose2d(0, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        left = new SimulatedEncoder(TICKS_PER_METER);
+        right = new SimulatedEncoder(TICKS_PER_METER);
+        perpendicular = new SimulatedEncoder(TICKS_PER_METER);
+        clock = new VirtualClock();
+        odometry = new ThreeWheelOdometry(left, right, perpendicular,
+                TRACK_OFFSET, -TRACK_OFFSET, PERPENDICULAR_OFFSET, FORMULAS, 0, 0, 0);
+        odometry.setClock(clock);
+        odometry.update();
+    }
+
+    /**
+     * Rolls the wheels as a robot moving with the given body velocities for one period
+     * would, then updates the odometry.
+     */
+    private void drive(double forward, double left, double turn) {
+        this.left.move((forward - TRACK_OFFSET * turn) * DT);
+        right.move((forward + TRACK_OFFSET * turn) * DT);
+        perpendicular.move((left + PERPENDICULAR_OFFSET * turn) * DT);
+        clock.advanceSeconds(DT);
+        odometry.update();
+    }
+
+    @Test
+    void straightLineAndStrafe() {
+        for (int i = 0; i < 500; i++) {
+            drive(1, 0, 0);
+        }
+        odometry.getPose(pose);
+        assertEquals(1, pose.x, POSITION_TOLERANCE);
+        assertEquals(0, pose.y, POSITION_TOLERANCE);
+        assertEquals(0, pose.heading, 1e-3);
+
+        for (int i = 0; i < 250; i++) {
+            drive(0, 2, 0);
+        }
+        odometry.getPose(pose);
+        assertEquals(1, pose.x, POSITION_TOLERANCE);
+        assertEquals(1, pose.y, POSITION_TOLERANCE);
+    }
+
+    @Test
+    void turningInPlaceKeepsThePosition() {
+        // A quarter turn in 0.5 s
+        for (int i = 0; i < 250; i++) {
+            drive(0, 0, Math.PI);
+        }
+        odometry.getPose(pose);
+        assertEquals(Math.PI / 2, pose.heading, 1e-3);
+        assertEquals(0, pose.x, POSITION_TOLERANCE);
+        assertEquals(0, pose.y, POSITION_TOLERANCE);
+    }
+
+    @Test
+    void arcFollowsTheCircle() {
+        // 1 m/s at 1 rad/s: a circle of radius 1 centered at (0, 1). Quarter of it in π/2 s.
+        int steps = (int) Math.round(Math.PI / 2 / DT);
+        for (int i = 0; i < steps; i++) {
+            drive(1, 0, 1);
+        }
+        odometry.getPose(pose);
+        double angle = steps * DT;
+        assertEquals(Math.sin(angle), pose.x, POSITION_TOLERANCE);
+        assertEquals(1 - Math.cos(angle), pose.y, POSITION_TOLERANCE);
+        assertEquals(angle, pose.heading, 1e-3);
+    }
+
+    @Test
+    void publishesPoseAndVelocity() {
+        for (int i = 0; i < 100; i++) {
+            drive(0.5, 0, 0);
+        }
+        RobotElement robot = new RobotElement(0, 0, 0);
+        odometry.publish(robot);
+        assertEquals(0.1, robot.getPose().x, POSITION_TOLERANCE);
+        assertEquals(0.5, robot.getVelocityX(), 0.05);
+        assertEquals(0, robot.getVelocityY(), 0.05);
+    }
+
+    @Test
+    void setPoseMovesTheEstimateButKeepsCounting() {
+        drive(1, 0, 0);
+        odometry.setPose(2, 3, Math.PI / 2);
+        for (int i = 0; i < 500; i++) {
+            drive(1, 0, 0);
+        }
+        odometry.getPose(pose);
+        assertEquals(2, pose.x, POSITION_TOLERANCE);
+        assertEquals(4, pose.y, POSITION_TOLERANCE);
+    }
+
+    @Test
+    void rejectsSwappedWheels() {
+        assertThrows(IllegalArgumentException.class, () -> new ThreeWheelOdometry(left, right, perpendicular,
+                -TRACK_OFFSET, TRACK_OFFSET, PERPENDICULAR_OFFSET, FORMULAS, 0, 0, 0));
+    }
+}
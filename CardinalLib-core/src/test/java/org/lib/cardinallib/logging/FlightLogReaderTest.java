@@ -0,0 +1,176 @@
+package org.lib.cardinallib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lib.cardinallib.commands.Command;
+import org.lib.cardinallib.commands.CommandMachine;
+import org.lib.cardinallib.field.RobotElement;
+import org.lib.cardinallib.simulation.VirtualClock;
+
+class FlightLogReaderTest {
+
+    /** Loop period in seconds */
+    private static final double DT = 0.01;
+    /** Loops recorded by {@link #writeLog(File)} */
+    private static final int LOOPS = 100;
+    /** Updates before the recorded command finishes */
+    private static final int DRIVE_UPDATES = 50;
+    /** Header size of {@link #writeLog(File)}'s log: fixed fields, then two length-prefixed names */
+    private static final int HEADER_BYTES = 16 + 4 + "battery".length() + 4 + "arm, deg".length();
+
+    @TempDir
+    File directory;
+
+    /** A named command that runs for a number of updates */
+    private static final class Drive extends Command {
+        private int updates;
+
+        @Override
+        public void init() {
+            updates = 0;
+        }
+
+        @Override
+        public void update() {
+            updates++;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return updates >= DRIVE_UPDATES;
+        }
+
+        @Override
+        public String getName() {
+            return "drive";
+        }
+    }
+
+    /** Records {@link #LOOPS} simulated loops with two channels and one command */
+    private static void writeLog(File file) throws IOException {
+        VirtualClock clock = new VirtualClock();
+        CommandMachine machine = new CommandMachine(clock);
+        RobotElement robot = new RobotElement(0, 0, 0);
+        FlightRecorder recorder = new FlightRecorder(file, robot, machine);
+        int battery = recorder.channel("battery");
+        int arm = recorder.channel("arm, deg");
+        recorder.start();
+        machine.schedule(new Drive());
+
+        for (int i = 0; i < LOOPS; i++) {
+            robot.update(i * 0.25, 2, 0.5);
+            machine.update(DT);
+            recorder.set(battery, 12 - i * 0.5);
+            recorder.set(arm, i);
+            recorder.record(1_000_000L + i);
+            clock.advanceSeconds(DT);
+        }
+        recorder.close();
+        assertEquals(LOOPS, recorder.getRecordCount());
+        assertEquals(0, recorder.getDroppedRecords());
+    }
+
+    private static List<String> csv(FlightLogReader reader) throws IOException {
+        StringWriter out = new StringWriter();
+        reader.writeCsv(out);
+        return Arrays.asList(out.toString().split("\n", -1));
+    }
+
+    /** Writes the first bytes of one file to another */
+    private File cut(File log, int length) throws IOException {
+        File part = new File(directory, "cut-" + length + ".log");
+        Files.write(part.toPath(), Arrays.copyOf(Files.readAllBytes(log.toPath()), length));
+        return part;
+    }
+
+    /** Writes a header with the given fields followed by raw ints */
+    private File header(int commandSlots, int channelCount, int... rest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 4 * rest.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(FlightRecorder.MAGIC).putInt(FlightRecorder.VERSION).putInt(commandSlots).putInt(channelCount);
+        for (int value : rest) {
+            buffer.putInt(value);
+        }
+        File file = new File(directory, "header.log");
+        Files.write(file.toPath(), buffer.array());
+        return file;
+    }
+
+    @Test
+    void recordedLogReadsBack() throws IOException {
+        File log = new File(directory, "match.log");
+        writeLog(log);
+        FlightLogReader reader = new FlightLogReader(log);
+
+        assertEquals(LOOPS, reader.getRecordCount());
+        assertEquals(List.of("battery", "arm, deg"), reader.getChannelNames());
+
+        List<String> lines = csv(reader);
+        assertEquals(LOOPS + 2, lines.size());
+        assertEquals("", lines.get(LOOPS + 1));
+        assertEquals("time_s,loop_ms,x,y,heading,commands,battery,\"arm, deg\"", lines.get(0));
+        for (int i = 0; i < LOOPS; i++) {
+            String[] fields = lines.get(i + 1).split(",", -1);
+            assertEquals(8, fields.length);
+            assertEquals(i * DT, Double.parseDouble(fields[0]), 1e-9);
+            assertEquals((1_000_000L + i) / 1e6, Double.parseDouble(fields[1]), 1e-12);
+            assertEquals(i * 0.25, Double.parseDouble(fields[2]), 0);
+            assertEquals(2, Double.parseDouble(fields[3]), 0);
+            assertEquals(0.5, Double.parseDouble(fields[4]), 0);
+            // The command finishes on its last update, before that loop is recorded
+            assertEquals(i < DRIVE_UPDATES - 1 ? "drive" : "", fields[5], "record " + i);
+            assertEquals(12 - i * 0.5, Double.parseDouble(fields[6]), 0);
+            assertEquals(i, Double.parseDouble(fields[7]), 0);
+        }
+    }
+
+    @Test
+    void logCutInsideTheHeaderThrows() throws IOException {
+        File log = new File(directory, "match.log");
+        writeLog(log);
+        for (int length = 0; length < HEADER_BYTES; length++) {
+            File part = cut(log, length);
+            assertThrows(IOException.class, () -> new FlightLogReader(part), length + " bytes");
+        }
+
+        FlightLogReader headerOnly = new FlightLogReader(cut(log, HEADER_BYTES));
+        assertEquals(0, headerOnly.getRecordCount());
+        assertEquals(List.of("battery", "arm, deg"), headerOnly.getChannelNames());
+    }
+
+    @Test
+    void logCutInsideABlockReadsTheCompleteBlocks() throws IOException {
+        File log = new File(directory, "match.log");
+        writeLog(log);
+        int length = (int) log.length();
+        for (int drop = 1; drop < 16; drop++) {
+            FlightLogReader reader = new FlightLogReader(cut(log, length - drop));
+            assertTrue(reader.getRecordCount() < LOOPS);
+            assertEquals(reader.getRecordCount() + 2, csv(reader).size());
+        }
+    }
+
+    @Test
+    void corruptHeaderLengthsThrow() throws IOException {
+        // Name length past the end of the file, and negative
+        assertThrows(IOException.class, () -> new FlightLogReader(header(8, 1, 1000)));
+        assertThrows(IOException.class, () -> new FlightLogReader(header(8, 1, -4)));
+        // Channel and slot counts that cannot fit or are negative
+        assertThrows(IOException.class, () -> new FlightLogReader(header(8, -1)));
+        assertThrows(IOException.class, () -> new FlightLogReader(header(8, 1 << 20, 0)));
+        assertThrows(IOException.class, () -> new FlightLogReader(header(-1, 0)));
+        assertThrows(IOException.class, () -> new FlightLogReader(header(Integer.MAX_VALUE, 1, 0)));
+    }
+}
@@ -0,0 +1,119 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CalibrationTest {
+
+    @Test
+    void exactLinearSamplesFitWithZeroResidual() {
+        double[] power = {0.2, 0.4, 0.6, 0.8, 1.0};
+        double[] velocity = new double[power.length];
+        for (int i = 0; i < power.length; i++) {
+            velocity[i] = 9 * power[i] - 0.3;
+        }
+        Calibration calibration = Calibration.polynomial(power, velocity, 1);
+
+        assertEquals(0, calibration.getRmsResidual(), 1e-12);
+        assertEquals(0, calibration.getMaxResidual(), 1e-12);
+        assertEquals(4.2, calibration.apply(0.5), 1e-9);
+        assertEquals(0.5, calibration.invert(4.2), 1e-9);
+        // Linear extrapolation beyond the measured range
+        assertEquals(10.5, calibration.apply(1.2), 1e-9);
+    }
+
+    @Test
+    void polynomialApplyAndInvertRoundTrip() {
+        double[] power = {0.2, 0.4, 0.6, 0.8, 1.0};
+        double[] velocity = {1.9, 4.1, 6.0, 7.6, 8.9};
+        Calibration calibration = Calibration.polynomial(power, velocity, 2);
+
+        double tolerance = calibration.getForwardTableError() + calibration.getInverseTableError() + 1e-9;
+        for (double p = 0.2; p <= 1.0; p += 0.01) {
+            assertEquals(p, calibration.invert(calibration.apply(p)), 10 * tolerance, "power " + p);
+        }
+        for (double v = 1.9; v <= 8.9; v += 0.05) {
+            assertEquals(v, calibration.apply(calibration.invert(v)), 1e-5, "velocity " + v);
+        }
+    }
+
+    @Test
+    void residualsAreMeasuredMinusFit() {
+        double[] power = {0.2, 0.4, 0.6, 0.8, 1.0};
+        double[] velocity = {1.9, 4.1, 6.0, 7.6, 8.9};
+        Calibration calibration = Calibration.polynomial(power, velocity, 1);
+
+        double[] residuals = calibration.getResiduals();
+        double sumSquares = 0;
+        double worst = 0;
+        double sum = 0;
+        for (int i = 0; i < power.length; i++) {
+            assertEquals(velocity[i] - calibration.apply(power[i]), residuals[i],
+                    calibration.getForwardTableError() + 1e-9);
+            sumSquares += residuals[i] * residuals[i];
+            worst = Math.max(worst, Math.abs(residuals[i]));
+            sum += residuals[i];
+        }
+        assertEquals(Math.sqrt(sumSquares / power.length), calibration.getRmsResidual(), 1e-12);
+        assertEquals(worst, calibration.getMaxResidual(), 1e-12);
+        // Least squares with an intercept leaves residuals that sum to zero
+        assertEquals(0, sum, 1e-9);
+        assertTrue(calibration.getRmsResidual() > 0);
+    }
+
+    @Test
+    void monotoneSplineRoundTripsAcrossADeadband() {
+        double[] power = {0, 0.05, 0.1, 0.2, 0.4, 0.6, 0.8, 1.0};
+        double[] velocity = {0, 0, 0, 1.5, 4.0, 6.1, 7.7, 8.8};
+        Calibration calibration = Calibration.monotoneSpline(power, velocity);
+
+        // The spline passes through every sample; apply() only adds table error
+        assertEquals(0, calibration.getMaxResidual(), 1e-9);
+        for (int i = 0; i < power.length; i++) {
+            assertEquals(velocity[i], calibration.apply(power[i]), calibration.getForwardTableError() + 1e-9);
+        }
+        for (double v = 0.5; v <= 8.8; v += 0.1) {
+            assertEquals(v, calibration.apply(calibration.invert(v)), 1e-3, "velocity " + v);
+        }
+        // Flat stretch: the inverse picks the input closest to the start of the range
+        assertEquals(0, calibration.invert(0), 1e-3);
+    }
+
+    @Test
+    void monotoneSplinePoolsNoiseThatBreaksMonotonicity() {
+        double[] input = {1, 2, 3, 4};
+        double[] output = {1, 3, 2, 4};
+        Calibration calibration = Calibration.monotoneSpline(input, output);
+
+        double tolerance = calibration.getForwardTableError() + 1e-9;
+        assertEquals(2.5, calibration.apply(2), tolerance);
+        assertEquals(2.5, calibration.apply(3), tolerance);
+        double[] residuals = calibration.getResiduals();
+        assertEquals(0.5, residuals[1], 1e-9);
+        assertEquals(-0.5, residuals[2], 1e-9);
+    }
+
+    @Test
+    void fallingCurvesInvert() {
+        double[] input = {0, 1, 2, 3};
+        double[] output = {10, 7, 5, 4};
+        Calibration calibration = Calibration.monotoneSpline(input, output);
+        for (double y = 4; y <= 10; y += 0.25) {
+            assertEquals(y, calibration.apply(calibration.invert(y)), 1e-4, "output " + y);
+        }
+    }
+
+    @Test
+    void rejectsFitsWithoutAnInverse() {
+        double[] input = {-1, -0.5, 0, 0.5, 1};
+        double[] parabola = {1, 0.25, 0, 0.25, 1};
+        assertThrows(IllegalArgumentException.class, () -> Calibration.polynomial(input, parabola, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> Calibration.polynomial(new double[] {1, 1, 1}, new double[] {1, 2, 3}, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Calibration.monotoneSpline(new double[] {1, 2}, new double[] {3, 3}));
+    }
+}
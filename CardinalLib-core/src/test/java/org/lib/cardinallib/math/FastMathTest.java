@@ -0,0 +1,102 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link FastMath} against {@link Math} over the bounds documented on the class.
+ */
+class FastMathTest {
+
+    /** Documented maximum error of sin and cos */
+    private static final double SIN_BOUND = 3e-7;
+    /** Documented maximum error of atan2 in radians */
+    private static final double ATAN2_BOUND = 2e-8;
+
+    @Test
+    void sinAndCosStayWithinBoundOverDenseSweep() {
+        double sinError = 0;
+        double cosError = 0;
+        for (int i = 0; i <= 2_000_000; i++) {
+            double a = -1000 + i * (2000.0 / 2_000_000);
+            sinError = Math.max(sinError, Math.abs(FastMath.sin(a) - Math.sin(a)));
+            cosError = Math.max(cosError, Math.abs(FastMath.cos(a) - Math.cos(a)));
+        }
+        assertTrue(sinError <= SIN_BOUND, "sin error " + sinError);
+        assertTrue(cosError <= SIN_BOUND, "cos error " + cosError);
+    }
+
+    @Test
+    void sinAndCosStayWithinBoundForLargeArguments() {
+        Random random = new Random(7);
+        double error = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            double a = (random.nextDouble() * 2 - 1) * 1e6;
+            error = Math.max(error, Math.abs(FastMath.sin(a) - Math.sin(a)));
+            error = Math.max(error, Math.abs(FastMath.cos(a) - Math.cos(a)));
+        }
+        assertTrue(error <= SIN_BOUND, "error " + error);
+        assertEquals(Math.sin(1e6), FastMath.sin(1e6), SIN_BOUND);
+        assertEquals(Math.cos(-1e6), FastMath.cos(-1e6), SIN_BOUND);
+    }
+
+    @Test
+    void tanStaysWithinBoundScaledByCosSquared() {
+        for (int i = 0; i <= 1_000_000; i++) {
+            double a = -10 + i * (20.0 / 1_000_000);
+            double cos = Math.cos(a);
+            if (Math.abs(cos) < 0.05) continue;
+            double bound = SIN_BOUND / (cos * cos) * 1.05;
+            double error = Math.abs(FastMath.tan(a) - Math.tan(a));
+            assertTrue(error <= bound, "tan(" + a + ") error " + error + " exceeds " + bound);
+        }
+    }
+
+    @Test
+    void atan2StaysWithinBoundInEveryOctant() {
+        double error = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            double a = i * (2 * Math.PI / 1_000_000);
+            double r = 1e-3 + (i % 97) * 10.0;
+            double y = r * Math.sin(a);
+            double x = r * Math.cos(a);
+            error = Math.max(error, Math.abs(FastMath.atan2(y, x) - Math.atan2(y, x)));
+        }
+        assertTrue(error <= ATAN2_BOUND, "atan2 error " + error);
+    }
+
+    @Test
+    void atan2MatchesOnAxes() {
+        double[][] points = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}, {1, 1}, {-1, -1}, {1e-300, 1}, {1, 1e-300}};
+        for (double[] p : points) {
+            assertEquals(Math.atan2(p[0], p[1]), FastMath.atan2(p[0], p[1]), ATAN2_BOUND,
+                    "atan2(" + p[0] + ", " + p[1] + ")");
+        }
+    }
+
+    @Test
+    void sqrtIsExact() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            double x = random.nextDouble() * 1e4;
+            assertEquals(Math.sqrt(x), FastMath.sqrt(x));
+        }
+    }
+
+    @Test
+    void nonFiniteArgumentsGiveNaN() {
+        assertTrue(Double.isNaN(FastMath.sin(Double.NaN)));
+        assertTrue(Double.isNaN(FastMath.sin(Double.POSITIVE_INFINITY)));
+        assertTrue(Double.isNaN(FastMath.cos(Double.NEGATIVE_INFINITY)));
+    }
+
+    @Test
+    void fastBackendUsesFastMath() {
+        assertEquals(FastMath.sin(0.3), TrigBackend.FAST.sin(0.3));
+        assertEquals(FastMath.atan2(0.3, -2), TrigBackend.FAST.atan2(0.3, -2));
+    }
+}
@@ -0,0 +1,50 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class MathFormulasTest {
+
+    @Test
+    void initialVelocityInvertsRange() {
+        for (double degrees = 5; degrees < 90; degrees += 5) {
+            double theta = Math.toRadians(degrees);
+            double v = MathFormulas.calculateInitialVelocity(3, theta);
+            assertEquals(3, MathFormulas.calculateRange(v, theta, TrigBackend.JAVA), 1e-9);
+        }
+    }
+
+    @Test
+    void initialVelocityRejectsAnglesWithoutASolution() {
+        for (double degrees : new double[] {0, 90, 100, 180, -30, -90}) {
+            double theta = Math.toRadians(degrees);
+            assertThrows(IllegalArgumentException.class, () -> MathFormulas.calculateInitialVelocity(2, theta),
+                    degrees + " degrees");
+        }
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.calculateInitialVelocity(2, Double.NaN));
+    }
+
+    @Test
+    void initialVelocityRejectsNonPositiveRange() {
+        double theta = Math.toRadians(45);
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.calculateInitialVelocity(0, theta));
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.calculateInitialVelocity(-1, theta));
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.calculateInitialVelocity(Double.NaN, theta));
+    }
+
+    @Test
+    void requiredRpmRejectsDegenerateInputs() {
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.findRequiredRPM(0.048, 2, Math.toRadians(100)));
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.findRequiredRPM(0.048, 0, Math.toRadians(45)));
+        assertThrows(IllegalArgumentException.class, () -> MathFormulas.findRequiredRPM(0, 2, Math.toRadians(45)));
+    }
+
+    @Test
+    void requiredRpmMatchesFlywheelSpeed() {
+        double theta = Math.toRadians(45);
+        double v = Math.sqrt(2 * 9.81);
+        assertEquals(v * 60 / (2 * Math.PI * 0.048), MathFormulas.findRequiredRPM(0.048, 2, theta), 1e-9);
+    }
+}
@@ -0,0 +1,129 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MotionProfileTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void trapezoidMatchesClosedForm() {
+        MotionProfile profile = MotionProfile.trapezoid(1.5, 1.2, 2.0);
+
+        // 0.6 s at 2 m/s² to 1.2 m/s covers 0.36 m each way, leaving 0.78 m of cruise
+        assertEquals(0.6 + 0.65 + 0.6, profile.getDuration(), TOLERANCE);
+        assertEquals(1.2, profile.getPeakVelocity(), TOLERANCE);
+        assertEquals(0.36, profile.getPosition(0.6), TOLERANCE);
+        assertEquals(1.2, profile.getVelocity(1.0), TOLERANCE);
+        assertEquals(2.0, profile.getAcceleration(0.3), TOLERANCE);
+        assertEquals(-2.0, profile.getAcceleration(1.5), TOLERANCE);
+    }
+
+    @Test
+    void profilesStartAndEndAtRest() {
+        MotionProfile[] profiles = {
+                MotionProfile.trapezoid(1.5, 1.2, 2.0),
+                MotionProfile.sCurve(1.5, 1.2, 2.0, 10.0),
+                MotionProfile.trapezoid(0.05, 1.2, 2.0),
+                MotionProfile.sCurve(0.05, 1.2, 2.0, 10.0),
+                MotionProfile.sCurve(0.4, 1.2, 2.0, 10.0),
+        };
+        for (MotionProfile profile : profiles) {
+            double end = profile.getDuration();
+            assertEquals(0, profile.getPosition(0), TOLERANCE);
+            assertEquals(0, profile.getVelocity(0), TOLERANCE);
+            assertEquals(profile.getDistance(), profile.getPosition(end), 1e-9);
+            assertEquals(0, profile.getVelocity(end), 1e-9);
+            assertEquals(profile.getDistance(), profile.getPosition(end + 1), 1e-9);
+            assertEquals(0, profile.getPosition(-1), TOLERANCE);
+            assertFalse(profile.isFinished(end / 2));
+            assertTrue(profile.isFinished(end));
+        }
+    }
+
+    @Test
+    void profilesStayWithinLimitsAndAreContinuous() {
+        double maxVelocity = 1.2;
+        double maxAcceleration = 2.0;
+        MotionProfile[] profiles = {
+                MotionProfile.trapezoid(1.5, maxVelocity, maxAcceleration),
+                MotionProfile.sCurve(1.5, maxVelocity, maxAcceleration, 10.0),
+                MotionProfile.sCurve(0.3, maxVelocity, maxAcceleration, 10.0),
+        };
+        for (MotionProfile profile : profiles) {
+            double step = profile.getDuration() / 10_000;
+            double lastPosition = 0;
+            for (int i = 0; i <= 10_000; i++) {
+                double t = i * step;
+                double position = profile.getPosition(t);
+                double velocity = profile.getVelocity(t);
+                assertTrue(velocity >= -TOLERANCE && velocity <= maxVelocity + TOLERANCE, "velocity " + velocity);
+                assertTrue(Math.abs(profile.getAcceleration(t)) <= maxAcceleration + TOLERANCE);
+                assertTrue(position >= lastPosition - TOLERANCE, "position went backwards at " + t);
+                assertTrue(position - lastPosition <= maxVelocity * step + TOLERANCE, "position jumped at " + t);
+                lastPosition = position;
+            }
+        }
+    }
+
+    @Test
+    void sCurveRampsAccelerationAtTheJerkLimit() {
+        MotionProfile profile = MotionProfile.sCurve(1.5, 1.2, 2.0, 10.0);
+        assertEquals(0, profile.getAcceleration(0), TOLERANCE);
+        assertEquals(1.0, profile.getAcceleration(0.1), TOLERANCE);
+        assertEquals(2.0, profile.getAcceleration(0.2), TOLERANCE);
+        assertTrue(profile.getDuration() > MotionProfile.trapezoid(1.5, 1.2, 2.0).getDuration());
+    }
+
+    @Test
+    void shortMovesPeakBelowTheVelocityLimit() {
+        MotionProfile trapezoid = MotionProfile.trapezoid(0.1, 1.2, 2.0);
+        // Triangle: d = v² / a
+        assertEquals(Math.sqrt(0.2), trapezoid.getPeakVelocity(), TOLERANCE);
+        assertEquals(2 * Math.sqrt(0.2) / 2.0, trapezoid.getDuration(), TOLERANCE);
+
+        MotionProfile sCurve = MotionProfile.sCurve(0.01, 1.2, 2.0, 10.0);
+        assertTrue(sCurve.getPeakVelocity() < 1.2);
+        assertEquals(0.01, sCurve.getPosition(sCurve.getDuration()), 1e-9);
+        double peak = 0;
+        for (int i = 0; i <= 1000; i++) {
+            peak = Math.max(peak, sCurve.getVelocity(i * sCurve.getDuration() / 1000));
+        }
+        assertEquals(sCurve.getPeakVelocity(), peak, 1e-6);
+    }
+
+    @Test
+    void negativeDistanceMirrorsThePositiveProfile() {
+        MotionProfile forward = MotionProfile.sCurve(0.8, 1.2, 2.0, 10.0);
+        MotionProfile backward = MotionProfile.sCurve(-0.8, 1.2, 2.0, 10.0);
+        assertEquals(forward.getDuration(), backward.getDuration(), TOLERANCE);
+        for (int i = 0; i <= 100; i++) {
+            double t = i * forward.getDuration() / 100;
+            assertEquals(-forward.getPosition(t), backward.getPosition(t), TOLERANCE);
+            assertEquals(-forward.getVelocity(t), backward.getVelocity(t), TOLERANCE);
+            assertEquals(-forward.getAcceleration(t), backward.getAcceleration(t), TOLERANCE);
+        }
+        assertEquals(-0.8, backward.getPosition(backward.getDuration()), 1e-9);
+    }
+
+    @Test
+    void zeroDistanceFinishesImmediately() {
+        MotionProfile profile = MotionProfile.trapezoid(0, 1.2, 2.0);
+        assertEquals(0, profile.getDuration(), TOLERANCE);
+        assertEquals(0, profile.getPosition(1), TOLERANCE);
+        assertTrue(profile.isFinished(0));
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> MotionProfile.trapezoid(1, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> MotionProfile.trapezoid(1, 1, -2));
+        assertThrows(IllegalArgumentException.class, () -> MotionProfile.trapezoid(Double.NaN, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> MotionProfile.sCurve(1, 1, 2, 0));
+    }
+}
@@ -0,0 +1,181 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class Pose2dTest {
+
+    /** Number of random poses checked per test */
+    private static final int SAMPLES = 1000;
+    /** Tolerance for results that go through a round trip */
+    private static final double TOLERANCE = 1e-9;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void composeFormsAgree() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d a = randomPose();
+            Pose2d b = randomPose();
+            Pose2d expected = a.compose(b);
+
+            assertSamePose(expected, a.compose(b, new Pose2d(0, 0, 0)));
+            Pose2d aliasThis = copy(a);
+            assertSame(aliasThis, aliasThis.compose(b, aliasThis));
+            assertSamePose(expected, aliasThis);
+            Pose2d aliasOther = copy(b);
+            a.compose(aliasOther, aliasOther);
+            assertSamePose(expected, aliasOther);
+        }
+    }
+
+    @Test
+    void inverseFormsAgree() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d a = randomPose();
+            Pose2d expected = a.inverse();
+
+            assertSamePose(expected, a.inverse(new Pose2d(0, 0, 0)));
+            Pose2d aliasThis = copy(a);
+            aliasThis.inverse(aliasThis);
+            assertSamePose(expected, aliasThis);
+            assertPose(new Pose2d(0, 0, 0), a.compose(expected));
+        }
+    }
+
+    @Test
+    void relativeToFormsAgree() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d a = randomPose();
+            Pose2d origin = randomPose();
+            Pose2d expected = a.relativeTo(origin);
+
+            assertSamePose(expected, a.relativeTo(origin, new Pose2d(0, 0, 0)));
+            Pose2d aliasThis = copy(a);
+            aliasThis.relativeTo(origin, aliasThis);
+            assertSamePose(expected, aliasThis);
+            Pose2d aliasOrigin = copy(origin);
+            a.relativeTo(aliasOrigin, aliasOrigin);
+            assertSamePose(expected, aliasOrigin);
+            assertPose(a, origin.compose(expected));
+        }
+    }
+
+    @Test
+    void transformPointFormsAgree() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d a = randomPose();
+            Pose2d point = randomPose();
+            Pose2d expected = a.transformPoint(point);
+
+            assertSamePose(expected, a.transformPoint(point, new Pose2d(0, 0, 0)));
+            Pose2d aliasThis = copy(a);
+            aliasThis.transformPoint(point, aliasThis);
+            assertSamePose(expected, aliasThis);
+            Pose2d aliasPoint = copy(point);
+            a.transformPoint(aliasPoint, aliasPoint);
+            assertSamePose(expected, aliasPoint);
+            assertEquals(point.heading, expected.heading);
+        }
+    }
+
+    @Test
+    void expFormsAgree() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d a = randomPose();
+            double dx = random.nextDouble() * 20 - 10;
+            double dy = random.nextDouble() * 20 - 10;
+            double dTheta = random.nextDouble() * 2 * Math.PI - Math.PI;
+            Pose2d expected = a.exp(dx, dy, dTheta);
+
+            assertSamePose(expected, a.exp(dx, dy, dTheta, new Pose2d(0, 0, 0)));
+            Pose2d aliasThis = copy(a);
+            aliasThis.exp(dx, dy, dTheta, aliasThis);
+            assertSamePose(expected, aliasThis);
+        }
+    }
+
+    @Test
+    void logFormsAgree() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d a = randomPose();
+            Pose2d end = randomPose();
+            Pose2d expected = a.log(end);
+
+            assertSamePose(expected, a.log(end, new Pose2d(0, 0, 0)));
+            Pose2d aliasThis = copy(a);
+            aliasThis.log(end, aliasThis);
+            assertSamePose(expected, aliasThis);
+            Pose2d aliasEnd = copy(end);
+            a.log(aliasEnd, aliasEnd);
+            assertSamePose(expected, aliasEnd);
+        }
+    }
+
+    @Test
+    void expUndoesLog() {
+        for (int i = 0; i < SAMPLES; i++) {
+            Pose2d start = randomPose();
+            Pose2d end = randomPose();
+            Pose2d twist = start.log(end);
+            assertPose(end, start.exp(twist.x, twist.y, twist.heading));
+        }
+    }
+
+    @Test
+    void expUndoesLogForTinyRotations() {
+        Pose2d start = new Pose2d(3, -2, 0.7);
+        for (double dTheta : new double[] {0, 1e-12, -1e-12, 1e-9, 1e-6}) {
+            Pose2d end = start.exp(5, 1, dTheta);
+            Pose2d twist = start.log(end);
+            assertEquals(5, twist.x, TOLERANCE);
+            assertEquals(1, twist.y, TOLERANCE);
+            assertEquals(dTheta, twist.heading, TOLERANCE);
+            assertPose(end, start.exp(twist.x, twist.y, twist.heading));
+        }
+    }
+
+    @Test
+    void normalizeAngleKeepsPiAndWrapsMinusPi() {
+        assertEquals(Math.PI, Pose2d.normalizeAngle(Math.PI));
+        assertEquals(Math.PI, Pose2d.normalizeAngle(-Math.PI));
+        assertEquals(Math.PI, Pose2d.normalizeAngle(3 * Math.PI), TOLERANCE);
+        assertEquals(Math.PI, Pose2d.normalizeAngle(-3 * Math.PI), TOLERANCE);
+        assertEquals(-Math.PI + 0.1, Pose2d.normalizeAngle(Math.PI + 0.1), TOLERANCE);
+        assertEquals(Math.PI - 0.1, Pose2d.normalizeAngle(-Math.PI - 0.1), TOLERANCE);
+        assertEquals(0.5, Pose2d.normalizeAngle(0.5 + 4 * Math.PI), TOLERANCE);
+        for (int i = 0; i < SAMPLES; i++) {
+            double angle = Pose2d.normalizeAngle(random.nextDouble() * 200 - 100);
+            assertTrue(angle > -Math.PI && angle <= Math.PI, "angle " + angle);
+        }
+    }
+
+    private Pose2d randomPose() {
+        return new Pose2d(random.nextDouble() * 288 - 144,
+                random.nextDouble() * 288 - 144,
+                random.nextDouble() * 4 * Math.PI - 2 * Math.PI);
+    }
+
+    private static Pose2d copy(Pose2d pose) {
+        return new Pose2d(pose.x, pose.y, pose.heading);
+    }
+
+    /** Asserts two poses are bit-for-bit equal, as both forms of an operation must be */
+    private static void assertSamePose(Pose2d expected, Pose2d actual) {
+        assertEquals(expected.x, actual.x);
+        assertEquals(expected.y, actual.y);
+        assertEquals(expected.heading, actual.heading);
+    }
+
+    /** Asserts two poses are equal within {@link #TOLERANCE}, comparing headings modulo 2π */
+    private static void assertPose(Pose2d expected, Pose2d actual) {
+        assertEquals(expected.x, actual.x, TOLERANCE);
+        assertEquals(expected.y, actual.y, TOLERANCE);
+        assertEquals(0, Pose2d.normalizeAngle(expected.heading - actual.heading), TOLERANCE);
+    }
+}
@@ -0,0 +1,90 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PoseBufferTest {
+
+    private static PoseBuffer line(int samples) {
+        PoseBuffer buffer = new PoseBuffer(4);
+        for (int i = 0; i < samples; i++) {
+            buffer.add(i, 2 * i, 0, 0.01 * i);
+        }
+        return buffer;
+    }
+
+    @Test
+    void rangeOverloadsMatchSlices() {
+        PoseBuffer path = line(50);
+        Pose2d target = new Pose2d(10, -5, 0);
+
+        double[] fromRange = path.distancesTo(12, 40, target, new double[28]);
+        double[] fromSlice = path.slice(12, 40).distancesTo(target, new double[28]);
+        assertArrayEquals(fromSlice, fromRange);
+
+        fromRange = path.anglesTo(12, 40, target, new double[28]);
+        fromSlice = path.slice(12, 40).anglesTo(target, new double[28]);
+        assertArrayEquals(fromSlice, fromRange);
+    }
+
+    @Test
+    void rangeOverloadsWorkOnSlices() {
+        PoseBuffer slice = line(50).slice(10, 30);
+        Pose2d target = new Pose2d(0, 0, 0);
+        double[] out = slice.distancesTo(5, 7, target, new double[2]);
+        assertEquals(Math.hypot(15, 30), out[0], 1e-12);
+        assertEquals(Math.hypot(16, 32), out[1], 1e-12);
+    }
+
+    @Test
+    void rangeOverloadsCheckBounds() {
+        PoseBuffer path = line(10);
+        Pose2d target = new Pose2d(0, 0, 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> path.distancesTo(5, 11, target, new double[6]));
+        assertThrows(IndexOutOfBoundsException.class, () -> path.anglesTo(6, 5, target, new double[6]));
+        assertThrows(IllegalArgumentException.class, () -> path.distancesTo(2, 8, target, new double[5]));
+    }
+
+    @Test
+    void anglesMatchAngleFormulaWithTheSameBackend() {
+        PoseBuffer path = line(50);
+        Pose2d target = new Pose2d(10.3, -5.7, 0);
+        for (TrigBackend trig : new TrigBackend[] {TrigBackend.JAVA, TrigBackend.FAST}) {
+            double[] angles = path.anglesTo(target, new double[50], trig);
+            Pose2d sample = new Pose2d(0, 0, 0);
+            for (int i = 0; i < 50; i++) {
+                assertEquals(MathFormulas.AngleFormula(path.get(i, sample), target, trig), angles[i], 0);
+            }
+        }
+    }
+
+    @Test
+    void anglesUseTheSelectedBackend() {
+        PoseBuffer path = line(50);
+        Pose2d target = new Pose2d(10.3, -5.7, 0);
+        TrigBackend previous = MathFormulas.getTrigBackend();
+        MathFormulas.setTrigBackend(TrigBackend.FAST);
+        try {
+            assertArrayEquals(path.anglesTo(target, new double[50], TrigBackend.FAST),
+                    path.anglesTo(target, new double[50]));
+            assertArrayEquals(path.anglesTo(12, 40, target, new double[28], TrigBackend.FAST),
+                    path.anglesTo(12, 40, target, new double[28]));
+        } finally {
+            MathFormulas.setTrigBackend(previous);
+        }
+        assertArrayEquals(path.anglesTo(target, new double[50], previous), path.anglesTo(target, new double[50]));
+    }
+
+    @Test
+    void floorAndNearestIndex() {
+        PoseBuffer path = line(20);
+        assertEquals(-1, path.floorIndex(-1));
+        assertEquals(7, path.floorIndex(0.075));
+        assertEquals(19, path.floorIndex(5));
+        assertEquals(4, path.nearestIndex(4.2, 8.1));
+        assertEquals(12, path.nearestIndex(4.2, 8.1, 12, 20));
+    }
+}
@@ -0,0 +1,76 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ProjectileSolverTest {
+
+    /** Drag factors in increasing order, in 1/m */
+    private static final double[] DRAG = {0, 0.005, 0.02, 0.05, 0.2};
+
+    /**
+     * Finds where a shot comes back down to launch height by bisecting the solver's
+     * height over distance.
+     */
+    private static double range(ProjectileSolver solver, double v, double theta) {
+        double low = 1e-6;
+        double high = 2 * MathFormulas.calculateRange(v, theta, TrigBackend.JAVA);
+        while (high - low > 1e-9) {
+            double mid = (low + high) / 2;
+            if (solver.heightAtDistance(v, theta, mid) >= 0) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    @Test
+    void zeroDragRangeMatchesTheClosedForm() {
+        ProjectileSolver solver = new ProjectileSolver(0);
+        for (double v : new double[] {4, 8, 12}) {
+            for (double degrees = 15; degrees <= 75; degrees += 15) {
+                double theta = Math.toRadians(degrees);
+                assertEquals(MathFormulas.calculateRange(v, theta, TrigBackend.JAVA), range(solver, v, theta), 1e-4,
+                        v + " m/s at " + degrees + " degrees");
+            }
+        }
+    }
+
+    @Test
+    void zeroDragTableMatchesTheClosedFormVelocity() {
+        double theta = Math.toRadians(50);
+        ProjectileTable table = new ProjectileSolver(0).buildVelocityTable(theta, 1, 4, 31, 0, 0, 1);
+        for (int i = 0; i < 31; i++) {
+            double distance = 1 + i * 0.1;
+            assertEquals(MathFormulas.calculateInitialVelocity(distance, theta), table.getVelocity(distance), 1e-4,
+                    distance + " m");
+        }
+    }
+
+    @Test
+    void rangeDecreasesAsDragIncreases() {
+        double theta = Math.toRadians(45);
+        double previous = Double.POSITIVE_INFINITY;
+        for (double k : DRAG) {
+            double range = range(new ProjectileSolver(k), 10, theta);
+            assertTrue(range < previous, "drag " + k + " gave " + range + " m after " + previous + " m");
+            previous = range;
+        }
+    }
+
+    @Test
+    void requiredVelocityIncreasesWithDrag() {
+        double theta = Math.toRadians(50);
+        double previous = 0;
+        for (double k : DRAG) {
+            ProjectileTable table = new ProjectileSolver(k).buildVelocityTable(theta, 1, 4, 7, 0.6, 1.0, 3);
+            double v = table.getVelocity(3, 0.8);
+            assertTrue(v > previous, "drag " + k + " needs " + v + " m/s after " + previous + " m/s");
+            previous = v;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ShooterTableTest {
+
+    /** Ball radius in meters */
+    private static final double BALL_RADIUS = 0.048;
+    /** Number of random points checked per table */
+    private static final int SAMPLES = 5000;
+
+    private final Random random = new Random(42);
+
+    /**
+     * Checks random points inside every cell against the closed-form solution, and returns
+     * the largest error seen relative to its bound.
+     */
+    private double checkInsideCells(ShooterTable table) {
+        double worstRatio = 0;
+        for (int n = 0; n < SAMPLES; n++) {
+            double distance = table.getMinDistance()
+                    + random.nextDouble() * (table.getMaxDistance() - table.getMinDistance());
+            double theta = table.getMinAngle()
+                    + random.nextDouble() * (table.getMaxAngle() - table.getMinAngle());
+            double expected = MathFormulas.findRequiredRPM(BALL_RADIUS, distance, theta);
+            double error = Math.abs(table.getRPM(distance, theta) - expected);
+            double bound = table.getErrorBound(distance, theta);
+
+            // Leave room for rounding in the interpolation itself
+            assertTrue(error <= bound + 1e-9 * expected,
+                    "error " + error + " over bound " + bound + " at " + distance + " m, " + theta + " rad");
+            assertTrue(bound <= table.getMaxErrorBound());
+            worstRatio = Math.max(worstRatio, error / bound);
+        }
+        return worstRatio;
+    }
+
+    @Test
+    void interpolationStaysWithinTheErrorBound() {
+        checkInsideCells(new ShooterTable(BALL_RADIUS, 0.5, 4.0, 36, Math.toRadians(25), Math.toRadians(60), 36));
+    }
+
+    @Test
+    void coarseTableStaysWithinItsLargerBound() {
+        ShooterTable table = new ShooterTable(BALL_RADIUS, 0.3, 5.0, 4, Math.toRadians(10), Math.toRadians(80), 4);
+        double worstRatio = checkInsideCells(table);
+
+        // The bound is conservative but not so loose that it says nothing
+        assertTrue(worstRatio > 0.05, "bound is " + (1 / worstRatio) + " times the worst error");
+    }
+
+    @Test
+    void singleAngleTableStaysWithinTheErrorBound() {
+        double theta = Math.toRadians(40);
+        ShooterTable table = new ShooterTable(BALL_RADIUS, 0.5, 4.0, 8, theta, theta, 1);
+        for (int n = 0; n < SAMPLES; n++) {
+            double distance = 0.5 + random.nextDouble() * 3.5;
+            double error = Math.abs(table.getRPM(distance) - MathFormulas.findRequiredRPM(BALL_RADIUS, distance, theta));
+            assertTrue(error <= table.getErrorBound(distance, theta) + 1e-9);
+        }
+    }
+
+    @Test
+    void gridPointsAreExact() {
+        ShooterTable table = new ShooterTable(BALL_RADIUS, 1, 4, 4, Math.toRadians(30), Math.toRadians(60), 4);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                double distance = i == 3 ? 4 : 1 + i;
+                double theta = j == 3 ? Math.toRadians(60) : Math.toRadians(30) + j * Math.toRadians(10);
+                assertEquals(MathFormulas.findRequiredRPM(BALL_RADIUS, distance, theta),
+                        table.getRPM(distance, theta), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void lookupsOutsideTheTableThrow() {
+        ShooterTable table = new ShooterTable(BALL_RADIUS, 1, 4, 4, Math.toRadians(30), Math.toRadians(60), 4);
+        assertThrows(IllegalArgumentException.class, () -> table.getRPM(0.9, Math.toRadians(45)));
+        assertThrows(IllegalArgumentException.class, () -> table.getRPM(2, Math.toRadians(61)));
+        assertThrows(IllegalArgumentException.class, () -> table.getErrorBound(4.1, Math.toRadians(45)));
+        assertThrows(IllegalStateException.class, () -> table.getRPM(2));
+    }
+}
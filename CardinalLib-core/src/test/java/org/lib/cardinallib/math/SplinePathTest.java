@@ -0,0 +1,117 @@
+package org.lib.cardinallib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SplinePathTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    /** Waypoints along a 3-4-5 line */
+    private static SplinePath straightLine() {
+        double heading = Math.atan2(4, 3);
+        return new SplinePath(new Pose2d(0, 0, heading), new Pose2d(3, 4, heading), new Pose2d(6, 8, heading));
+    }
+
+    /** Waypoints on a quarter circle of radius 2 around the origin, facing along it */
+    private static SplinePath quarterCircle(int waypoints) {
+        Pose2d[] poses = new Pose2d[waypoints];
+        for (int i = 0; i < waypoints; i++) {
+            double angle = Math.PI / 2 * i / (waypoints - 1);
+            poses[i] = new Pose2d(2 * Math.cos(angle), 2 * Math.sin(angle), angle + Math.PI / 2);
+        }
+        return new SplinePath(poses);
+    }
+
+    @Test
+    void straightLineArcLengthIsExact() {
+        SplinePath path = straightLine();
+        Pose2d pose = new Pose2d(0, 0, 0);
+
+        assertEquals(10, path.getLength(), TOLERANCE);
+        assertEquals(5, path.getDistance(1), TOLERANCE);
+        for (double s = 0; s <= 10; s += 0.25) {
+            path.getPoseAtDistance(s, pose);
+            assertEquals(0.6 * s, pose.x, 1e-8, "x at " + s);
+            assertEquals(0.8 * s, pose.y, 1e-8, "y at " + s);
+            assertEquals(Math.atan2(4, 3), pose.heading, 1e-8);
+            assertEquals(0, path.getCurvatureAtDistance(s), 1e-8);
+            assertEquals(s, path.getDistance(path.getParameter(s)), 1e-8);
+        }
+    }
+
+    @Test
+    void arcLengthTableMatchesDenseSampling() {
+        SplinePath path = quarterCircle(3);
+        Pose2d pose = new Pose2d(0, 0, 0);
+        int steps = 200_000;
+        double length = 0;
+        double lastX = path.getPose(0, pose).x;
+        double lastY = pose.y;
+        for (int i = 1; i <= steps; i++) {
+            double t = (double) i * path.getSegmentCount() / steps;
+            path.getPose(t, pose);
+            length += Math.hypot(pose.x - lastX, pose.y - lastY);
+            lastX = pose.x;
+            lastY = pose.y;
+            if (i % 10_000 == 0) {
+                assertEquals(length, path.getDistance(t), 1e-7, "distance at t = " + t);
+            }
+        }
+        assertEquals(length, path.getLength(), 1e-7);
+    }
+
+    @Test
+    void circleArcLengthConvergesToTheCircle() {
+        double quarter = Math.PI;
+        double previousError = Double.POSITIVE_INFINITY;
+        for (int waypoints : new int[] {3, 5, 9, 17}) {
+            SplinePath path = quarterCircle(waypoints);
+            double error = Math.abs(path.getLength() - quarter);
+            assertTrue(error < previousError, waypoints + " waypoints");
+            previousError = error;
+        }
+        assertEquals(quarter, quarterCircle(17).getLength(), 1e-3);
+    }
+
+    @Test
+    void circleArcTurnsCounterclockwise() {
+        SplinePath path = quarterCircle(17);
+        Pose2d pose = new Pose2d(0, 0, 0);
+        for (int i = 0; i < 16; i++) {
+            double t = i + 0.5;
+            path.getPose(t, pose);
+            assertEquals(2, Math.hypot(pose.x, pose.y), 1e-3);
+            assertTrue(path.getCurvature(t) > 0);
+        }
+        path.getPose(path.getSegmentCount(), pose);
+        assertEquals(0, pose.x, TOLERANCE);
+        assertEquals(2, pose.y, TOLERANCE);
+        assertEquals(Math.PI, Math.abs(pose.heading), 1e-9);
+    }
+
+    @Test
+    void closestParameterProjectsOntoTheLine() {
+        SplinePath path = straightLine();
+        // 2 m to the left of the point 5 m along the line
+        double x = 3 - 0.8 * 2;
+        double y = 4 + 0.6 * 2;
+        assertEquals(5, path.getDistance(path.closestParameter(x, y)), 1e-6);
+
+        double t = 0;
+        for (double s = 0.1; s <= 9.9; s += 0.1) {
+            t = path.closestParameter(0.6 * s + 0.8 * 0.3, 0.8 * s - 0.6 * 0.3, t);
+            assertEquals(s, path.getDistance(t), 1e-6);
+        }
+    }
+
+    @Test
+    void queriesClampToThePath() {
+        SplinePath path = straightLine();
+        assertEquals(0, path.getParameter(-1), TOLERANCE);
+        assertEquals(path.getSegmentCount(), path.getParameter(11), TOLERANCE);
+        assertEquals(path.getLength(), path.getDistance(5), TOLERANCE);
+    }
+}
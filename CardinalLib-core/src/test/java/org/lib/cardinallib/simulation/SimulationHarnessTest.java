@@ -0,0 +1,156 @@
+package org.lib.cardinallib.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.lib.cardinallib.commands.Command;
+import org.lib.cardinallib.commands.CommandSequence;
+import org.lib.cardinallib.commands.ParallelCommand;
+import org.lib.cardinallib.commands.Trigger;
+import org.lib.cardinallib.commands.WaitCommand;
+
+class SimulationHarnessTest {
+
+    /** Simulated loop rate */
+    private static final double FREQUENCY = 100;
+    /** Length of the autonomous period */
+    private static final double AUTO_SECONDS = 30;
+
+    /** Moves a mechanism to a target and finishes when it gets there */
+    private static final class MoveTo extends Command {
+        private final SimulatedMechanism mechanism;
+        private final double target;
+
+        MoveTo(SimulatedMechanism mechanism, double target) {
+            this.mechanism = mechanism;
+            this.target = target;
+            requires(mechanism);
+        }
+
+        @Override
+        public void init() {
+            mechanism.setTarget(target);
+        }
+
+        @Override
+        public void update() { }
+
+        @Override
+        public boolean isFinished() {
+            return mechanism.isAtTarget(1e-9);
+        }
+
+        @Override
+        public String getName() {
+            return mechanism.getName() + " to " + (int) target;
+        }
+    }
+
+    /** A named wait, so it can be told apart in the timeline */
+    private static final class Pause extends WaitCommand {
+        private final String name;
+
+        Pause(String name, double seconds) {
+            super(seconds);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Builds a fresh harness with a scripted auto: three score cycles, then park. A
+     * trigger on the lift position flashes a light each time the lift reaches the top.
+     */
+    private static SimulationHarness scriptedAuto() {
+        SimulationHarness sim = new SimulationHarness(FREQUENCY);
+        SimulatedMechanism drive = new SimulatedMechanism("Drive", 24);
+        SimulatedMechanism lift = new SimulatedMechanism("Lift", 40);
+        sim.register(drive, lift);
+
+        CommandSequence auto = new CommandSequence();
+        for (int cycle = 0; cycle < 3; cycle++) {
+            auto.add(new ParallelCommand()
+                            .add(new MoveTo(drive, 48))
+                            .add(new MoveTo(lift, 30)))
+                    .add(new Pause("Score", 0.5))
+                    .add(new ParallelCommand()
+                            .add(new MoveTo(drive, 0))
+                            .add(new MoveTo(lift, 0)));
+        }
+        auto.add(new MoveTo(drive, 72));
+        sim.getMachine().schedule(auto);
+        sim.getMachine().addTrigger(new Trigger(() -> lift.isAtTarget(1e-9) && lift.getTarget() == 30,
+                new Pause("Light", 0.2)));
+        return sim;
+    }
+
+    private static TimelineEvent find(List<TimelineEvent> timeline, int occurrence,
+                                      TimelineEvent.Type type, String name) {
+        int seen = 0;
+        for (TimelineEvent event : timeline) {
+            if (event.getType() == type && event.getCommandName().equals(name) && seen++ == occurrence) {
+                return event;
+            }
+        }
+        throw new AssertionError("No " + type + " " + name + " #" + occurrence);
+    }
+
+    @Test
+    void scriptedAutoGivesTheSameTimelineEveryRun() {
+        SimulationHarness first = scriptedAuto();
+        first.runFor(AUTO_SECONDS);
+        SimulationHarness second = scriptedAuto();
+        second.runFor(AUTO_SECONDS);
+
+        assertEquals(AUTO_SECONDS, first.getTime(), 1e-9);
+        assertTrue(first.getMachine().isIdle());
+        assertEquals(first.formatTimeline(), second.formatTimeline());
+        assertEquals(first.getTimeline().size(), second.getTimeline().size());
+    }
+
+    @Test
+    void scriptedAutoHitsTheExpectedTimes() {
+        SimulationHarness sim = scriptedAuto();
+        sim.runFor(AUTO_SECONDS);
+        List<TimelineEvent> timeline = sim.getTimeline();
+
+        // 30 in at 40 in/s, 48 in at 24 in/s
+        assertEquals(0.75, find(timeline, 0, TimelineEvent.Type.END, "Lift to 30").getTime(), 1e-9);
+        assertEquals(2.0, find(timeline, 0, TimelineEvent.Type.END, "Drive to 48").getTime(), 1e-9);
+        assertEquals(2.0, find(timeline, 0, TimelineEvent.Type.START, "Score").getTime(), 1e-9);
+        assertEquals(2.5, find(timeline, 0, TimelineEvent.Type.END, "Score").getTime(), 1e-9);
+        assertEquals(4.5, find(timeline, 0, TimelineEvent.Type.END, "Drive to 0").getTime(), 1e-9);
+
+        // Each cycle takes 4.5 s, then 3 s to park
+        assertEquals(11.5, find(timeline, 2, TimelineEvent.Type.END, "Score").getTime(), 1e-9);
+        assertEquals(16.5, find(timeline, 0, TimelineEvent.Type.END, "Drive to 72").getTime(), 1e-9);
+
+        // Triggers are checked after the commands, so the light starts on the update the lift arrives
+        assertEquals(0.75, find(timeline, 0, TimelineEvent.Type.START, "Light").getTime(), 1e-9);
+        assertEquals(9.75, find(timeline, 2, TimelineEvent.Type.START, "Light").getTime(), 1e-9);
+
+        TimelineEvent last = timeline.get(timeline.size() - 1);
+        assertEquals(TimelineEvent.Type.END, last.getType());
+        assertEquals("CommandSequence", last.getCommandName());
+        assertEquals(16.5, last.getTime(), 1e-9);
+    }
+
+    @Test
+    void runUntilIdleStopsAtTheLastEnd() {
+        SimulationHarness sim = scriptedAuto();
+        assertTrue(sim.runUntilIdle(AUTO_SECONDS));
+        assertEquals(16.5, sim.getTime(), 1e-9);
+
+        SimulationHarness limited = scriptedAuto();
+        assertFalse(limited.runUntilIdle(5));
+        assertEquals(5, limited.getTime(), 1e-9);
+    }
+}
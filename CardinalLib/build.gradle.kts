@@ -29,6 +29,7 @@ repositories {
 }
 
 dependencies {
+    api(project(":CardinalLib-core"))
     implementation("org.firstinspires.ftc:RobotCore:11.0.0")
     implementation("org.firstinspires.ftc:Hardware:11.0.0")
     implementation("org.firstinspires.ftc:FtcCommon:11.0.0")
@@ -44,6 +45,16 @@ publishing {
 
             // Point to the AAR output
             artifact(layout.buildDirectory.file("outputs/aar/CardinalLib-release.aar"))
+
+            // The AAR is published by hand, so declare the core module dependency explicitly
+            pom.withXml {
+                val dependencies = asNode().appendNode("dependencies")
+                val core = dependencies.appendNode("dependency")
+                core.appendNode("groupId", "org.example")
+                core.appendNode("artifactId", "CardinalLib-core")
+                core.appendNode("version", "1.0.6")
+                core.appendNode("scope", "compile")
+            }
         }
     }
     repositories {
@@ -53,6 +64,7 @@ publishing {
 
 tasks.named("publishReleasePublicationToMavenLocal") {
     dependsOn("assembleRelease")
+    dependsOn(":CardinalLib-core:publishReleasePublicationToMavenLocal")
 }
 
 
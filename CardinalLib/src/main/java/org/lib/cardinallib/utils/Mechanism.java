@@ -5,6 +5,7 @@ import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.lib.cardinallib.commands.Subsystem;
 
 /**
  * Base class for robot mechanisms (subsystems) in the FTC framework.
@@ -15,8 +16,13 @@ import org.firstinspires.ftc.robotcore.external.Telemetry;
  * 
  * <p>Subclasses should override {@link #init(HardwareMap)} to initialize hardware
  * and optionally override the loop methods to handle gamepad input and telemetry.</p>
+ * 
+ * <p>Mechanisms are {@link Subsystem}s, so commands can declare them as requirements.
+ * Only one scheduled command can require a given mechanism at a time. Register them with a
+ * {@link org.lib.cardinallib.commands.LoopRunner} to have {@link #periodic(double)} called
+ * at a fixed rate.</p>
  */
-public abstract class Mechanism {
+public abstract class Mechanism extends Subsystem {
 
     /** The LinearOpMode instance that owns this mechanism */
     protected LinearOpMode opMode;
@@ -62,4 +68,15 @@ public abstract class Mechanism {
      */
     public void telemetry(Telemetry telemetry) { }
 
+    /**
+     * Writes telemetry values for this mechanism into a {@link TelemetryBuffer}.
+     * 
+     * <p>Unlike {@link #telemetry(Telemetry)}, this is cheap enough to call every loop:
+     * values are stored as primitives, and formatting and sending happen at the buffer's
+     * rate on a background thread. Override whichever of the two your op modes use.</p>
+     * 
+     * @param telemetry The buffer to write values to
+     */
+    public void telemetry(TelemetryBuffer telemetry) { }
+
 }
@@ -0,0 +1,444 @@
+package org.lib.cardinallib.utils;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A buffer between mechanisms and FTC {@link Telemetry} that keeps string formatting off
+ * the loop thread.
+ * 
+ * <p>Mechanisms write raw values into named channels every loop. Writing a value only
+ * stores a primitive, so it does not build strings or allocate once the channel exists.
+ * {@link #update()} checks whether it is time to publish, and if so hands the channels
+ * whose values changed since the last publish to a background thread. That thread
+ * formats them, updates the matching retained {@link Telemetry.Item}s and calls
+ * {@link Telemetry#update()}. Values that did not change are not formatted or sent again.</p>
+ * 
+ * <p>If the background thread is still busy with the previous frame when the next one
+ * is due, the loop thread does not wait; the frame is skipped and the changes go out
+ * with the next one, one interval later.</p>
+ * 
+ * <p>Example usage in a LinearOpMode:</p>
+ * <pre>{@code
+ * TelemetryBuffer buffer = new TelemetryBuffer(telemetry, 10); // 10 updates per second
+ * waitForStart();
+ * while (opModeIsActive()) {
+ *     lift.telemetry(buffer);
+ *     drivetrain.telemetry(buffer);
+ *     buffer.update();
+ * }
+ * buffer.close();
+ * }</pre>
+ * 
+ * <p>Inside a mechanism:</p>
+ * <pre>{@code
+ * @Override
+ * public void telemetry(TelemetryBuffer telemetry) {
+ *     telemetry.put("Lift position", motor.getCurrentPosition());
+ *     telemetry.put("Lift power", motor.getPower());
+ * }
+ * }</pre>
+ * 
+ * <p>Every method except the background formatting must be called from the loop thread.
+ * Once a buffer is in use, only the buffer should call {@link Telemetry#update()} on the
+ * same {@code Telemetry}.</p>
+ * 
+ * @see Mechanism#telemetry(TelemetryBuffer)
+ */
+public class TelemetryBuffer {
+
+    /** Channel kind for floating-point values */
+    private static final byte DOUBLE = 0;
+    /** Channel kind for integer values */
+    private static final byte LONG = 1;
+    /** Channel kind for boolean values */
+    private static final byte BOOLEAN = 2;
+    /** Channel kind for object values, formatted with {@code toString()} */
+    private static final byte OBJECT = 3;
+
+    /** Default format for floating-point channels */
+    private static final String DEFAULT_FORMAT = "%.3f";
+    /** Number of channel slots allocated up front */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The telemetry that frames are published to */
+    private final Telemetry telemetry;
+    /** Minimum time between published frames in nanoseconds */
+    private final long intervalNanos;
+    /** Channel index for each caption */
+    private final HashMap<String, Integer> channelIds = new HashMap<>();
+
+    /** Caption of each channel */
+    private String[] captions = new String[INITIAL_CAPACITY];
+    /** Format of each floating-point channel */
+    private String[] formats = new String[INITIAL_CAPACITY];
+    /** Kind of each channel */
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    /** Latest primitive value of each channel, as raw bits */
+    private long[] values = new long[INITIAL_CAPACITY];
+    /** Latest object value of each object channel */
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    /** Whether each channel has been written since the buffer was created */
+    private boolean[] written = new boolean[INITIAL_CAPACITY];
+    /** Value of each channel in the last frame handed off, as raw bits */
+    private long[] sentValues = new long[INITIAL_CAPACITY];
+    /** Object value of each object channel in the last frame handed off */
+    private Object[] sentObjects = new Object[INITIAL_CAPACITY];
+    /** Whether each channel has been handed off at least once */
+    private boolean[] sent = new boolean[INITIAL_CAPACITY];
+    /** Number of registered channels */
+    private int channelCount = 0;
+
+    /** Channel indices in the frame being formatted */
+    private int[] pendingChannels = new int[INITIAL_CAPACITY];
+    /** Captions of the channels in the frame being formatted */
+    private String[] pendingCaptions = new String[INITIAL_CAPACITY];
+    /** Formats of the channels in the frame being formatted */
+    private String[] pendingFormats = new String[INITIAL_CAPACITY];
+    /** Kinds of the channels in the frame being formatted */
+    private byte[] pendingKinds = new byte[INITIAL_CAPACITY];
+    /** Primitive values in the frame being formatted */
+    private long[] pendingValues = new long[INITIAL_CAPACITY];
+    /** Object values in the frame being formatted */
+    private Object[] pendingObjects = new Object[INITIAL_CAPACITY];
+    /** Number of channels in the frame being formatted */
+    private int pendingCount = 0;
+    /** Set by the loop thread when a frame is ready and cleared by the publisher when done */
+    private volatile boolean pending = false;
+
+    /** Telemetry item of each channel; only touched by the publisher thread */
+    private Telemetry.Item[] items = new Telemetry.Item[INITIAL_CAPACITY];
+    /** Thread that formats and sends frames, started by the first frame */
+    private Thread publisher;
+    /** Whether {@link #close()} has been called */
+    private volatile boolean closed = false;
+
+    /** System time of the last frame handed off or skipped */
+    private long lastPublish;
+    /** Whether a frame has been handed off yet */
+    private boolean publishedOnce = false;
+    /** Number of frames skipped because the previous one was still being sent */
+    private long skippedFrames = 0;
+
+    /**
+     * Creates a buffer that publishes to the given telemetry.
+     * 
+     * @param telemetry The op mode's telemetry
+     * @param updatesPerSecond Maximum number of frames sent to the driver station per second
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public TelemetryBuffer(Telemetry telemetry, double updatesPerSecond) {
+        if (!(updatesPerSecond > 0)) {
+            throw new IllegalArgumentException("Telemetry update rate must be positive.");
+        }
+        this.telemetry = telemetry;
+        this.intervalNanos = Math.round(1e9 / updatesPerSecond);
+    }
+
+    /**
+     * Registers a channel, or finds the existing channel with this caption.
+     * 
+     * <p>Channels appear on the driver station in the order they are first written.
+     * Registering channels up front and writing them by index avoids the caption lookup
+     * in {@link #put(String, double)}.</p>
+     * 
+     * @param caption The caption shown on the driver station
+     * @return The channel index, for use with {@link #put(int, double)} and its overloads
+     */
+    public int channel(String caption) {
+        Integer existing = channelIds.get(caption);
+        if (existing != null) return existing;
+
+        if (channelCount == captions.length) {
+            grow(captions.length * 2);
+        }
+        int id = channelCount++;
+        captions[id] = caption;
+        formats[id] = DEFAULT_FORMAT;
+        channelIds.put(caption, id);
+        return id;
+    }
+
+    /**
+     * Registers a channel with a format for its floating-point values.
+     * 
+     * @param caption The caption shown on the driver station
+     * @param format A {@link String#format(String, Object...)} pattern for one double, such as {@code "%.1f in"}
+     * @return The channel index
+     */
+    public int channel(String caption, String format) {
+        int id = channel(caption);
+        formats[id] = format;
+        return id;
+    }
+
+    /**
+     * Writes a floating-point value to a channel.
+     * 
+     * @param channel A channel index from {@link #channel(String)}
+     * @param value The value
+     */
+    public void put(int channel, double value) {
+        kinds[channel] = DOUBLE;
+        values[channel] = Double.doubleToRawLongBits(value);
+        written[channel] = true;
+    }
+
+    /**
+     * Writes an integer value to a channel, such as an encoder position.
+     * 
+     * @param channel A channel index from {@link #channel(String)}
+     * @param value The value
+     */
+    public void put(int channel, long value) {
+        kinds[channel] = LONG;
+        values[channel] = value;
+        written[channel] = true;
+    }
+
+    /**
+     * Writes a boolean value to a channel.
+     * 
+     * @param channel A channel index from {@link #channel(String)}
+     * @param value The value
+     */
+    public void put(int channel, boolean value) {
+        kinds[channel] = BOOLEAN;
+        values[channel] = value ? 1 : 0;
+        written[channel] = true;
+    }
+
+    /**
+     * Writes an object to a channel, formatted with {@code toString()} on the background
+     * thread. Use this for enum states and constant strings; the object must not change
+     * after it is written, and a changed value is only detected when a different instance
+     * is written.
+     * 
+     * @param channel A channel index from {@link #channel(String)}
+     * @param value The value
+     */
+    public void put(int channel, Object value) {
+        kinds[channel] = OBJECT;
+        objects[channel] = value;
+        written[channel] = true;
+    }
+
+    /**
+     * Writes a floating-point value to the channel with this caption, registering it if needed.
+     * 
+     * @param caption The caption shown on the driver station
+     * @param value The value
+     */
+    public void put(String caption, double value) {
+        put(channel(caption), value);
+    }
+
+    /**
+     * Writes an integer value to the channel with this caption, registering it if needed.
+     * 
+     * @param caption The caption shown on the driver station
+     * @param value The value
+     */
+    public void put(String caption, long value) {
+        put(channel(caption), value);
+    }
+
+    /**
+     * Writes a boolean value to the channel with this caption, registering it if needed.
+     * 
+     * @param caption The caption shown on the driver station
+     * @param value The value
+     */
+    public void put(String caption, boolean value) {
+        put(channel(caption), value);
+    }
+
+    /**
+     * Writes an object to the channel with this caption, registering it if needed.
+     * 
+     * @param caption The caption shown on the driver station
+     * @param value The value
+     * @see #put(int, Object)
+     */
+    public void put(String caption, Object value) {
+        put(channel(caption), value);
+    }
+
+    /**
+     * Publishes the changed channels if a frame is due. Call this once per loop after
+     * the mechanisms have written their values.
+     * 
+     * <p>Does nothing if the last frame was sent less than one interval ago, if nothing
+     * changed, or if the previous frame is still being formatted.</p>
+     * 
+     * @return {@code true} if a frame was handed to the background thread
+     */
+    public boolean update() {
+        if (closed) return false;
+        long now = System.nanoTime();
+        if (publishedOnce && now - lastPublish < intervalNanos) return false;
+        if (pending) {
+            // Count the frame once and wait a full interval before the next one is due
+            skippedFrames++;
+            lastPublish = now;
+            return false;
+        }
+
+        if (pendingChannels.length < channelCount) {
+            growPending(captions.length);
+        }
+        int count = 0;
+        for (int i = 0; i < channelCount; i++) {
+            if (!written[i]) continue;
+            long value = values[i];
+            Object object = objects[i];
+            if (sent[i] && sentValues[i] == value && sentObjects[i] == object) continue;
+
+            sent[i] = true;
+            sentValues[i] = value;
+            sentObjects[i] = object;
+            pendingChannels[count] = i;
+            pendingCaptions[count] = captions[i];
+            pendingFormats[count] = formats[i];
+            pendingKinds[count] = kinds[i];
+            pendingValues[count] = value;
+            pendingObjects[count] = object;
+            count++;
+        }
+        lastPublish = now;
+        publishedOnce = true;
+        if (count == 0) return false;
+
+        pendingCount = count;
+        if (publisher == null) {
+            startPublisher();
+        }
+        pending = true;
+        LockSupport.unpark(publisher);
+        return true;
+    }
+
+    /**
+     * Gets the number of frames that were due but skipped because the background thread
+     * was still sending the previous one.
+     * 
+     * @return The skipped frame count
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /**
+     * Stops the background thread. Call this at the end of the op mode.
+     */
+    public void close() {
+        closed = true;
+        if (publisher != null) {
+            LockSupport.unpark(publisher);
+        }
+    }
+
+    /**
+     * Starts the background thread that formats and sends frames.
+     */
+    private void startPublisher() {
+        publisher = new Thread(this::runPublisher, "cardinallib-telemetry");
+        publisher.setDaemon(true);
+        publisher.setPriority(Thread.MIN_PRIORITY);
+        publisher.start();
+    }
+
+    /**
+     * Body of the background thread: waits for frames and sends them until closed.
+     */
+    private void runPublisher() {
+        while (!closed) {
+            if (!pending) {
+                LockSupport.park(this);
+                continue;
+            }
+            for (int i = 0; i < pendingCount; i++) {
+                send(pendingChannels[i], pendingCaptions[i], format(i));
+                pendingObjects[i] = null;
+            }
+            telemetry.update();
+            pending = false;
+        }
+    }
+
+    /**
+     * Formats one value of the pending frame.
+     * 
+     * @param i The position in the pending frame
+     * @return The text to show on the driver station
+     */
+    private String format(int i) {
+        long value = pendingValues[i];
+        switch (pendingKinds[i]) {
+            case DOUBLE:
+                return String.format(Locale.US, pendingFormats[i], Double.longBitsToDouble(value));
+            case LONG:
+                return Long.toString(value);
+            case BOOLEAN:
+                return value != 0 ? "true" : "false";
+            default:
+                return String.valueOf(pendingObjects[i]);
+        }
+    }
+
+    /**
+     * Updates a channel's telemetry item, creating it on the first send.
+     * 
+     * @param channel The channel index
+     * @param caption The channel's caption
+     * @param text The formatted value
+     */
+    private void send(int channel, String caption, String text) {
+        if (channel >= items.length) {
+            items = Arrays.copyOf(items, Math.max(items.length * 2, channel + 1));
+        }
+        Telemetry.Item item = items[channel];
+        if (item == null) {
+            item = telemetry.addData(caption, text);
+            item.setRetained(true);
+            items[channel] = item;
+        } else {
+            item.setValue(text);
+        }
+    }
+
+    /**
+     * Grows the per-channel arrays. Only called while registering a channel.
+     * 
+     * @param capacity The new number of channel slots
+     */
+    private void grow(int capacity) {
+        captions = Arrays.copyOf(captions, capacity);
+        formats = Arrays.copyOf(formats, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        values = Arrays.copyOf(values, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        written = Arrays.copyOf(written, capacity);
+        sentValues = Arrays.copyOf(sentValues, capacity);
+        sentObjects = Arrays.copyOf(sentObjects, capacity);
+        sent = Arrays.copyOf(sent, capacity);
+    }
+
+    /**
+     * Grows the pending frame arrays. Only called while no frame is pending.
+     * 
+     * @param capacity The new number of slots
+     */
+    private void growPending(int capacity) {
+        pendingChannels = Arrays.copyOf(pendingChannels, capacity);
+        pendingCaptions = Arrays.copyOf(pendingCaptions, capacity);
+        pendingFormats = Arrays.copyOf(pendingFormats, capacity);
+        pendingKinds = Arrays.copyOf(pendingKinds, capacity);
+        pendingValues = Arrays.copyOf(pendingValues, capacity);
+        pendingObjects = Arrays.copyOf(pendingObjects, capacity);
+    }
+}
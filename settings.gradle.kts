@@ -16,3 +16,5 @@ pluginManagement {
 
 rootProject.name = "CardinalLibProject"
 include(":CardinalLib")  // Include your Android library module
+include(":CardinalLib-core")  // Hardware-free commands, math and field code (plain Java)
+include(":CardinalLib-bench")  // JMH benchmarks for CardinalLib-core